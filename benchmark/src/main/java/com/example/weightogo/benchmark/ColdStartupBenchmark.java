@@ -0,0 +1,108 @@
+package com.example.weightogo.benchmark;
+
+import static org.junit.Assert.assertTrue;
+
+import android.os.Bundle;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cold start measurements for the app's launcher screen.
+ *
+ * Each iteration force-stops the app and starts LoginActivity with {@code am start -W},
+ * so the process, Application and database are created from scratch. The result is the
+ * TotalTime reported by ActivityManager: process start until the first frame is drawn.
+ * The median is reported as instrumentation status ("login_cold_start_median_ms") and in
+ * logcat, so builds can be compared before and after a change on the same device.
+ *
+ * Runs from its own APK (self-instrumenting) because force-stopping the app would also
+ * kill an instrumentation running in the app's process. MainActivity is not exported and
+ * is only reached through sign-in, so a logged-in dashboard cold start is not measured
+ * here; MainActivity's reportFullyDrawn() still logs "Fully drawn" for manual runs.
+ *
+ * Run with: ./gradlew :benchmark:connectedBenchmarkAndroidTest
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class ColdStartupBenchmark {
+
+    private static final String TAG = "ColdStartupBenchmark";
+    private static final String TARGET_PACKAGE = "com.example.weightogo";
+    private static final String LOGIN_COMPONENT = TARGET_PACKAGE + "/.activities.LoginActivity";
+    private static final int ITERATIONS = 10;
+    private static final Pattern TOTAL_TIME = Pattern.compile("TotalTime: (\\d+)");
+
+    @After
+    public void tearDown() throws IOException {
+        shell("am force-stop " + TARGET_PACKAGE);
+    }
+
+    /**
+     * Reports the median LoginActivity cold start time.
+     */
+    @Test
+    public void benchmark_coldStartLoginActivity() throws IOException {
+        // Untimed first start: creates the database and runs dexopt after install
+        coldStart(LOGIN_COMPONENT);
+
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            samples[i] = coldStart(LOGIN_COMPONENT);
+        }
+        Arrays.sort(samples);
+        long median = samples[ITERATIONS / 2];
+
+        Bundle results = new Bundle();
+        results.putLong("login_cold_start_median_ms", median);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+        Log.i(TAG, "LoginActivity cold start: median=" + median + " ms, min=" + samples[0]
+                + " ms, max=" + samples[ITERATIONS - 1] + " ms");
+    }
+
+    /**
+     * Force-stops the app and starts the component, waiting for its first frame.
+     *
+     * @return TotalTime in milliseconds reported by {@code am start -W}
+     */
+    private static long coldStart(String component) throws IOException {
+        shell("am force-stop " + TARGET_PACKAGE);
+        String output = shell("am start -W -n " + component);
+        Matcher matcher = TOTAL_TIME.matcher(output);
+        assertTrue("No TotalTime in am start output: " + output, matcher.find());
+        return Long.parseLong(matcher.group(1));
+    }
+
+    /**
+     * Runs a shell command through UiAutomation and returns its output.
+     */
+    private static String shell(String command) throws IOException {
+        ParcelFileDescriptor descriptor = InstrumentationRegistry.getInstrumentation()
+                .getUiAutomation()
+                .executeShellCommand(command);
+        try (InputStream in = new ParcelFileDescriptor.AutoCloseInputStream(descriptor)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -12,10 +12,22 @@
 #   public *;
 #}
 
-# Uncomment this to preserve the line number information for
-# debugging stack traces.
-#-keepattributes SourceFile,LineNumberTable
+# Preserve the line number information for debugging stack traces.
+-keepattributes SourceFile,LineNumberTable
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+#-renamesourcefileattribute SourceFile
+
+# WorkManager stores worker class names in its database; keep them stable so work
+# enqueued by an earlier build can still be instantiated after an update.
+-keepnames class * extends androidx.work.ListenableWorker
+
+# Strip DEBUG/VERBOSE logging (and its argument evaluation) from release builds.
+-assumenosideeffects class com.example.weightogo.utils.AppLog {
+    public static void d(...);
+}
+-assumenosideeffects class android.util.Log {
+    public static int v(...);
+    public static int d(...);
+}
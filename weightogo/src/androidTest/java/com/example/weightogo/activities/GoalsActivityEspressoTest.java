@@ -19,6 +19,7 @@ import androidx.test.filters.LargeTest;
 
 import com.example.weightogo.R;
 import com.example.weightogo.database.DatabaseException;
+import com.example.weightogo.database.GoalProgress;
 import com.example.weightogo.database.GoalWeightDAO;
 import com.example.weightogo.database.UserDAO;
 import com.example.weightogo.database.WeighToGoDBHelper;
@@ -102,7 +103,7 @@ public class GoalsActivityEspressoTest {
         // Set default mock behaviors
         when(mockUserDAO.getUserById(testUserId)).thenReturn(testUser);
         when(mockGoalWeightDAO.getActiveGoal(anyLong())).thenReturn(null);
-        when(mockGoalWeightDAO.getGoalHistory(anyLong())).thenReturn(new ArrayList<>());
+        when(mockGoalWeightDAO.getGoalHistoryWithProgress(anyLong())).thenReturn(new ArrayList<>());
         when(mockWeightEntryDAO.getLatestWeightEntry(anyLong())).thenReturn(createTestWeightEntry(170.0));
 
         // Launch activity with mocked dependencies
@@ -351,12 +352,13 @@ public class GoalsActivityEspressoTest {
     @Test
     public void test_goalHistorySection_displaysCompletedGoals() {
         // ARRANGE - Mock returns goal history
-        List<GoalWeight> history = new ArrayList<>();
+        List<GoalProgress> history = new ArrayList<>();
         GoalWeight completedGoal = createTestGoal(200.0, 180.0);
         completedGoal.setActive(false);
         completedGoal.setAchieved(true);
-        history.add(completedGoal);
-        when(mockGoalWeightDAO.getGoalHistory(testUserId)).thenReturn(history);
+        history.add(new GoalProgress(completedGoal, LocalDate.now(), 12, 181.0, 179.5,
+                LocalDate.now()));
+        when(mockGoalWeightDAO.getGoalHistoryWithProgress(testUserId)).thenReturn(history);
 
         // Restart activity to load history
         scenario.recreate();
@@ -379,13 +381,14 @@ public class GoalsActivityEspressoTest {
     @Test
     public void test_goalHistoryItem_displaysAchievedDate() {
         // ARRANGE - Mock returns goal history with achieved date
-        List<GoalWeight> history = new ArrayList<>();
+        List<GoalProgress> history = new ArrayList<>();
         GoalWeight completedGoal = createTestGoal(200.0, 180.0);
         completedGoal.setActive(false);
         completedGoal.setAchieved(true);
         completedGoal.setAchievedDate(LocalDate.now().minusDays(7));
-        history.add(completedGoal);
-        when(mockGoalWeightDAO.getGoalHistory(testUserId)).thenReturn(history);
+        history.add(new GoalProgress(completedGoal, LocalDate.now(), 12, 181.0, 179.5,
+                LocalDate.now()));
+        when(mockGoalWeightDAO.getGoalHistoryWithProgress(testUserId)).thenReturn(history);
 
         // Restart activity to load history
         scenario.recreate();
@@ -0,0 +1,178 @@
+package com.example.weightogo.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.weightogo.models.GoalWeight;
+import com.example.weightogo.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Instrumented benchmark of the active-goal lookup and swap for users with hundreds of
+ * goal rows each: {@link GoalWeightDAO#getActiveGoal} and {@link GoalWeightDAO#setNewActiveGoal}.
+ *
+ * Checks the lookup is a single seek on idx_goals_user_one_active with no sort, then reports
+ * each median as instrumentation status ("active_goal_lookup_median_us",
+ * "active_goal_swap_median_us") and in logcat.
+ *
+ * Run with: ./gradlew connectedAndroidTest
+ *   -Pandroid.testInstrumentationRunnerArguments.class=com.example.weightogo.database.ActiveGoalBenchmarkTest
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class ActiveGoalBenchmarkTest {
+
+    private static final String TAG = "ActiveGoalBenchmark";
+    private static final int USER_COUNT = 10;
+    private static final int GOALS_PER_USER = 500;
+    private static final int ITERATIONS = 50;
+
+    private WeighToGoDBHelper dbHelper;
+    private UserDAO userDAO;
+    private GoalWeightDAO goalWeightDAO;
+    private final long[] userIds = new long[USER_COUNT];
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = ApplicationProvider.getApplicationContext();
+        dbHelper = WeighToGoDBHelper.getInstance(context);
+        userDAO = new UserDAO(dbHelper);
+        goalWeightDAO = new GoalWeightDAO(dbHelper);
+
+        long stamp = System.currentTimeMillis();
+        for (int u = 0; u < USER_COUNT; u++) {
+            User user = new User();
+            user.setUsername("goal_bench_" + stamp + "_" + u);
+            user.setPasswordHash("hash123");
+            user.setSalt("salt123");
+            user.setPasswordAlgorithm("SHA256");
+            user.setCreatedAt(LocalDateTime.now());
+            user.setUpdatedAt(LocalDateTime.now());
+            user.setActive(true);
+            userIds[u] = userDAO.insertUser(user);
+            assertTrue("Benchmark user should be created", userIds[u] > 0);
+        }
+
+        // Each user: GOALS_PER_USER - 1 past goals, then one active goal
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        LocalDateTime created = LocalDateTime.now().minusDays(GOALS_PER_USER);
+        db.beginTransaction();
+        try {
+            for (long userId : userIds) {
+                for (int i = 0; i < GOALS_PER_USER; i++) {
+                    GoalWeight goal = goal(userId, created.plusDays(i), i == GOALS_PER_USER - 1);
+                    assertTrue("Goal should be created", goalWeightDAO.insertGoal(goal) > 0);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (long userId : userIds) {
+            if (userId > 0) {
+                userDAO.deleteUser(userId);
+            }
+        }
+    }
+
+    /**
+     * Reports the median time of an uncached lookup and of a swap, and checks the lookup plan.
+     */
+    @Test
+    public void benchmark_activeGoal_lookupAndSwap() {
+        assertLookupIsSingleSeek();
+
+        long[] lookupSamples = new long[ITERATIONS];
+        long[] swapSamples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long userId = userIds[i % USER_COUNT];
+
+            // Measure the query, not the coalescer's cached copy
+            ReadCoalescer.invalidate(WeighToGoDBHelper.TABLE_GOAL_WEIGHTS);
+            long start = SystemClock.elapsedRealtimeNanos();
+            GoalWeight active = goalWeightDAO.getActiveGoal(userId);
+            lookupSamples[i] = SystemClock.elapsedRealtimeNanos() - start;
+            assertNotNull("Each user should have an active goal", active);
+
+            start = SystemClock.elapsedRealtimeNanos();
+            long goalId = goalWeightDAO.setNewActiveGoal(goal(userId, LocalDateTime.now(), true));
+            swapSamples[i] = SystemClock.elapsedRealtimeNanos() - start;
+            assertTrue("Swap should succeed", goalId > 0);
+            assertEquals("Swap should leave one active goal", 1, countActiveGoals(userId));
+        }
+
+        long lookupMedian = median(lookupSamples);
+        long swapMedian = median(swapSamples);
+
+        Bundle results = new Bundle();
+        results.putLong("active_goal_lookup_median_us", lookupMedian);
+        results.putLong("active_goal_swap_median_us", swapMedian);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+        Log.i(TAG, USER_COUNT + " users x " + GOALS_PER_USER + " goals: lookup median=" + lookupMedian
+                + " us, swap median=" + swapMedian + " us");
+    }
+
+    private void assertLookupIsSingleSeek() {
+        QueryMetrics.Site lookup = null;
+        for (QueryMetrics.Site site : QueryMetrics.getRegisteredSites()) {
+            if (site.getName().equals("GoalWeightDAO.getActiveGoal")) {
+                lookup = site;
+            }
+        }
+        assertNotNull("getActiveGoal site should be registered", lookup);
+        String plan = QueryMetrics.explain(dbHelper.getReadableDatabase(), lookup.sql).toString();
+        assertTrue(plan, plan.contains("idx_goals_user_one_active"));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    private int countActiveGoals(long userId) {
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(
+                "SELECT COUNT(*) FROM goal_weights WHERE user_id = ? AND is_active = 1",
+                new String[]{String.valueOf(userId)})) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
+
+    private static GoalWeight goal(long userId, LocalDateTime created, boolean active) {
+        GoalWeight goal = new GoalWeight();
+        goal.setUserId(userId);
+        goal.setGoalWeight(150.0);
+        goal.setGoalUnit("lbs");
+        goal.setStartWeight(190.0);
+        goal.setCreatedAt(created);
+        goal.setUpdatedAt(created);
+        goal.setActive(active);
+        return goal;
+    }
+
+    private static long median(long[] samplesNanos) {
+        long[] sorted = samplesNanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000L;
+    }
+}
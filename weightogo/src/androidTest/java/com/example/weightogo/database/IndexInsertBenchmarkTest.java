@@ -0,0 +1,165 @@
+package com.example.weightogo.database;
+
+import static org.junit.Assert.assertTrue;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Instrumented benchmark of the cost of inserting a weight entry with the v9 daily_weights
+ * indexes and with the current (v10) ones.
+ *
+ * Each variant is a scratch database file holding daily_weights as the app creates it, plus
+ * either the v9 index set (frozen below) or the indexes of the app's own database. Rows are
+ * inserted one per transaction, like WeightEntryDAO.insertWeightEntry. Reports each median as
+ * instrumentation status ("weights_insert_v9_median_us", "weights_insert_v10_median_us") and
+ * in logcat.
+ *
+ * Run with: ./gradlew connectedAndroidTest
+ *   -Pandroid.testInstrumentationRunnerArguments.class=com.example.weightogo.database.IndexInsertBenchmarkTest
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class IndexInsertBenchmarkTest {
+
+    private static final String TAG = "IndexInsertBenchmark";
+    private static final int WARMUP_ROWS = 2000;
+    private static final int MEASURED_ROWS = 500;
+    private static final int USER_COUNT = 10;
+
+    // daily_weights indexes as of v9
+    private static final List<String> V9_INDEXES = Arrays.asList(
+        "CREATE UNIQUE INDEX idx_weights_user_date ON daily_weights(user_id, weight_date) WHERE is_deleted = 0",
+        "CREATE INDEX idx_weights_date ON daily_weights(weight_date)",
+        "CREATE INDEX idx_weights_user_created ON daily_weights(user_id, created_at DESC)",
+        "CREATE INDEX idx_weights_user_mass ON daily_weights(user_id, mass_dg) WHERE is_deleted = 0");
+
+    private Context context;
+    private String tableSql;
+    private List<String> currentIndexes;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        SQLiteDatabase appDb = WeighToGoDBHelper.getInstance(context).getReadableDatabase();
+        tableSql = dailyWeightsTableSql(appDb);
+        currentIndexes = new ArrayList<>();
+        try (Cursor cursor = appDb.rawQuery(
+                "SELECT sql FROM sqlite_master WHERE type = 'index' AND tbl_name = 'daily_weights' AND sql IS NOT NULL",
+                null)) {
+            while (cursor.moveToNext()) {
+                currentIndexes.add(cursor.getString(0));
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        SQLiteDatabase.deleteDatabase(scratchFile("v9"));
+        SQLiteDatabase.deleteDatabase(scratchFile("v10"));
+    }
+
+    /**
+     * Reports the median insert time for each index set.
+     */
+    @Test
+    public void benchmark_weightEntryInsert_v9VersusV10Indexes() {
+        assertTrue("v10 should have fewer daily_weights indexes than v9",
+                currentIndexes.size() < V9_INDEXES.size());
+
+        long v9Median = measureInserts(scratchFile("v9"), V9_INDEXES);
+        long v10Median = measureInserts(scratchFile("v10"), currentIndexes);
+
+        Bundle results = new Bundle();
+        results.putLong("weights_insert_v9_median_us", v9Median);
+        results.putLong("weights_insert_v10_median_us", v10Median);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+        Log.i(TAG, "Insert median: v9 (" + V9_INDEXES.size() + " indexes)=" + v9Median
+                + " us, v10 (" + currentIndexes.size() + " indexes)=" + v10Median + " us");
+    }
+
+    private long measureInserts(File file, List<String> indexes) {
+        SQLiteDatabase.deleteDatabase(file);
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(file, null);
+        try {
+            db.execSQL(tableSql);
+            for (String index : indexes) {
+                db.execSQL(index);
+            }
+
+            // Fill first so each measured insert lands in indexes of realistic depth
+            db.beginTransaction();
+            try {
+                for (int i = 0; i < WARMUP_ROWS; i++) {
+                    db.insertOrThrow("daily_weights", null, entry(i));
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+
+            long[] samples = new long[MEASURED_ROWS];
+            for (int i = 0; i < MEASURED_ROWS; i++) {
+                ContentValues values = entry(WARMUP_ROWS + i);
+                long start = SystemClock.elapsedRealtimeNanos();
+                db.insertOrThrow("daily_weights", null, values);
+                samples[i] = SystemClock.elapsedRealtimeNanos() - start;
+            }
+            return median(samples);
+        } finally {
+            db.close();
+        }
+    }
+
+    private File scratchFile(String variant) {
+        return context.getDatabasePath("index_insert_benchmark_" + variant + ".db");
+    }
+
+    private static String dailyWeightsTableSql(SQLiteDatabase db) {
+        try (Cursor cursor = db.rawQuery(
+                "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = 'daily_weights'", null)) {
+            assertTrue("daily_weights should exist", cursor.moveToFirst());
+            return cursor.getString(0);
+        }
+    }
+
+    private static ContentValues entry(int i) {
+        ContentValues values = new ContentValues();
+        values.put("user_id", 1 + i % USER_COUNT);
+        values.put("weight_value", 180.0 - (i % 50) * 0.1);
+        values.put("weight_unit", "lbs");
+        values.put("mass_dg", 816466 - (i % 50) * 454);
+        values.put("weight_date", LocalDate.of(2000, 1, 1).plusDays(i / USER_COUNT).toString());
+        values.put("created_at", "2025-01-01T08:00:00");
+        values.put("updated_at", "2025-01-01T08:00:00");
+        values.put("is_deleted", 0);
+        return values;
+    }
+
+    private static long median(long[] samplesNanos) {
+        long[] sorted = samplesNanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000L;
+    }
+}
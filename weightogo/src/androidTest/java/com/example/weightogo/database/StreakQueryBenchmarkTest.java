@@ -0,0 +1,162 @@
+package com.example.weightogo.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.weightogo.models.User;
+import com.example.weightogo.models.WeightEntry;
+import com.example.weightogo.utils.DateUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Instrumented comparison of the two ways to compute streaks over a 10,000-entry history:
+ * loading every entry and walking it in Java (DateUtils.calculateDayStreak plus a longest-run
+ * walk), and {@link WeightEntryDAO#getStreaks} in SQLite.
+ *
+ * Checks both give the same result, then reports each median as instrumentation status
+ * ("streak_java_walk_median_ms", "streak_sql_median_ms") and in logcat.
+ *
+ * Run with: ./gradlew connectedAndroidTest
+ *   -Pandroid.testInstrumentationRunnerArguments.class=com.example.weightogo.database.StreakQueryBenchmarkTest
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class StreakQueryBenchmarkTest {
+
+    private static final String TAG = "StreakQueryBenchmark";
+    private static final int HISTORY_SIZE = 10_000;
+    private static final int ITERATIONS = 15;
+
+    private UserDAO userDAO;
+    private WeightEntryDAO weightEntryDAO;
+    private long testUserId;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = ApplicationProvider.getApplicationContext();
+        WeighToGoDBHelper dbHelper = WeighToGoDBHelper.getInstance(context);
+        userDAO = new UserDAO(dbHelper);
+        weightEntryDAO = new WeightEntryDAO(dbHelper);
+
+        User user = new User();
+        user.setUsername("streak_bench_" + System.currentTimeMillis());
+        user.setPasswordHash("hash123");
+        user.setSalt("salt123");
+        user.setPasswordAlgorithm("SHA256");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        user.setActive(true);
+        testUserId = userDAO.insertUser(user);
+        assertTrue("Benchmark user should be created", testUserId > 0);
+
+        // About one day in five is skipped, so the history has ~2,000 islands
+        Random random = new Random(42);
+        LocalDate date = LocalDate.now().minusDays(HISTORY_SIZE * 2L);
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < HISTORY_SIZE; i++) {
+                date = date.plusDays(random.nextInt(5) == 0 ? 2 : 1);
+                WeightEntry entry = new WeightEntry();
+                entry.setUserId(testUserId);
+                entry.setWeightValue(180.0 - i * 0.001);
+                entry.setWeightUnit("lbs");
+                entry.setWeightDate(date);
+                entry.setCreatedAt(LocalDateTime.now());
+                entry.setUpdatedAt(LocalDateTime.now());
+                weightEntryDAO.insertWeightEntry(entry);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (testUserId > 0) {
+            userDAO.deleteUser(testUserId);
+        }
+    }
+
+    /**
+     * Reports the median time of each approach and checks they agree.
+     */
+    @Test
+    public void benchmark_streaks_javaWalkVersusSql() {
+        int[] javaResult = javaWalk();
+        WeightEntryDAO.Streaks sqlResult = weightEntryDAO.getStreaks(testUserId, null);
+        assertEquals("Current streak", javaResult[0], sqlResult.getCurrent());
+        assertEquals("Longest streak", javaResult[1], sqlResult.getLongest());
+
+        long[] javaSamples = new long[ITERATIONS];
+        long[] sqlSamples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            javaWalk();
+            javaSamples[i] = SystemClock.elapsedRealtimeNanos() - start;
+
+            start = SystemClock.elapsedRealtimeNanos();
+            weightEntryDAO.getStreaks(testUserId, null);
+            sqlSamples[i] = SystemClock.elapsedRealtimeNanos() - start;
+        }
+
+        long javaMedian = median(javaSamples);
+        long sqlMedian = median(sqlSamples);
+
+        Bundle results = new Bundle();
+        results.putLong("streak_java_walk_median_ms", javaMedian);
+        results.putLong("streak_sql_median_ms", sqlMedian);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+        Log.i(TAG, HISTORY_SIZE + " entries: java walk median=" + javaMedian + " ms, sql median="
+                + sqlMedian + " ms, current=" + sqlResult.getCurrent() + ", longest=" + sqlResult.getLongest());
+    }
+
+    /**
+     * The list-based approach: load the whole history, then walk it.
+     *
+     * @return {current, longest}
+     */
+    private int[] javaWalk() {
+        List<WeightEntry> entries = weightEntryDAO.getWeightEntriesForUser(testUserId);
+        int current = DateUtils.calculateDayStreak(entries);
+
+        int longest = 0;
+        int run = 0;
+        LocalDate previous = null;
+        for (WeightEntry entry : entries) {
+            LocalDate date = entry.getWeightDate();
+            run = previous != null && date.equals(previous.minusDays(1)) ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = date;
+        }
+        return new int[]{current, longest};
+    }
+
+    private static long median(long[] samplesNanos) {
+        long[] sorted = samplesNanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000L;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.weightogo;
+
+import android.content.Context;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.example.weightogo.database.AchievementDAO;
+import com.example.weightogo.database.DashboardDAO;
+import com.example.weightogo.database.GoalWeightDAO;
+import com.example.weightogo.database.SmsOutboxDAO;
+import com.example.weightogo.database.UserDAO;
+import com.example.weightogo.database.UserPreferenceDAO;
+import com.example.weightogo.database.WeighToGoDBHelper;
+import com.example.weightogo.database.WeightEntryDAO;
+import com.example.weightogo.utils.AchievementManager;
+import com.example.weightogo.utils.AppLog;
+import com.example.weightogo.utils.SMSNotificationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Application-scoped holder for the data layer: the database helper, every DAO,
+ * AchievementManager and SMSNotificationManager.
+ *
+ * **Why:** Activities, GoalDialogFragment and the workers used to build their own DAOs on
+ * every creation, and SMSNotificationManager.getInstance() silently kept whichever DAOs it
+ * was given first. Now there is exactly one instance of each, shared by every caller, so
+ * SMSNotificationManager is always built from the same DAOs everyone else uses.
+ *
+ * **Lazy:** Nothing is created until first asked for. Creating the container (done by
+ * WeighToGoApplication.onCreate) costs nothing, and cold start to LoginActivity only opens
+ * the database and creates UserDAO, on a background thread (see StartupInitializer).
+ * Everything else is created by the first screen or worker that needs it.
+ *
+ * **Usage:**
+ * <pre>
+ * AppContainer container = AppContainer.from(context);
+ * WeightEntryDAO weightEntryDAO = container.getWeightEntryDAO();
+ * </pre>
+ *
+ * Activities keep their package-private test setters; initDataLayer() only reads from the
+ * container for fields a test hasn't injected.
+ *
+ * **Thread Safety:** Getters are synchronized; safe to call from workers and receivers.
+ */
+public final class AppContainer {
+
+    private static final String TAG = "AppContainer";
+
+    /** Used when the process wasn't started with WeighToGoApplication (e.g. a test Application) */
+    private static AppContainer fallback;
+
+    private final Context appContext;
+    private final StartupInitializer startupInitializer;
+
+    private WeighToGoDBHelper dbHelper;
+    private UserDAO userDAO;
+    private WeightEntryDAO weightEntryDAO;
+    private GoalWeightDAO goalWeightDAO;
+    private UserPreferenceDAO userPreferenceDAO;
+    private AchievementDAO achievementDAO;
+    private SmsOutboxDAO smsOutboxDAO;
+    private DashboardDAO dashboardDAO;
+    private AchievementManager achievementManager;
+    private SMSNotificationManager smsNotificationManager;
+
+    // Creation order, for the startup check in diagnostics and instrumented tests
+    private final List<String> created = new ArrayList<>();
+
+    AppContainer(@NonNull Context context) {
+        this.appContext = context.getApplicationContext();
+        this.startupInitializer = new StartupInitializer(appContext, this);
+    }
+
+    /**
+     * Gets the container for the running application.
+     *
+     * @param context any Context
+     * @return application-scoped container
+     */
+    @NonNull
+    public static AppContainer from(@NonNull Context context) {
+        Context app = context.getApplicationContext();
+        if (app instanceof WeighToGoApplication) {
+            return ((WeighToGoApplication) app).getContainer();
+        }
+        synchronized (AppContainer.class) {
+            if (fallback == null) {
+                fallback = new AppContainer(app);
+            }
+            return fallback;
+        }
+    }
+
+    /**
+     * @return the cold-start prefetcher (started by WeighToGoApplication)
+     */
+    @NonNull
+    public StartupInitializer getStartupInitializer() {
+        return startupInitializer;
+    }
+
+    @NonNull
+    public synchronized WeighToGoDBHelper getDbHelper() {
+        if (dbHelper == null) {
+            long start = SystemClock.elapsedRealtime();
+            dbHelper = WeighToGoDBHelper.getInstance(appContext);
+            record("WeighToGoDBHelper");
+            AppLog.d(TAG, "getDbHelper: Database helper ready in {} ms", SystemClock.elapsedRealtime() - start);
+        }
+        return dbHelper;
+    }
+
+    @NonNull
+    public synchronized UserDAO getUserDAO() {
+        if (userDAO == null) {
+            userDAO = new UserDAO(getDbHelper());
+            record("UserDAO");
+        }
+        return userDAO;
+    }
+
+    @NonNull
+    public synchronized WeightEntryDAO getWeightEntryDAO() {
+        if (weightEntryDAO == null) {
+            weightEntryDAO = new WeightEntryDAO(getDbHelper());
+            record("WeightEntryDAO");
+        }
+        return weightEntryDAO;
+    }
+
+    @NonNull
+    public synchronized GoalWeightDAO getGoalWeightDAO() {
+        if (goalWeightDAO == null) {
+            goalWeightDAO = new GoalWeightDAO(getDbHelper());
+            record("GoalWeightDAO");
+        }
+        return goalWeightDAO;
+    }
+
+    @NonNull
+    public synchronized UserPreferenceDAO getUserPreferenceDAO() {
+        if (userPreferenceDAO == null) {
+            userPreferenceDAO = new UserPreferenceDAO(getDbHelper());
+            record("UserPreferenceDAO");
+        }
+        return userPreferenceDAO;
+    }
+
+    @NonNull
+    public synchronized AchievementDAO getAchievementDAO() {
+        if (achievementDAO == null) {
+            achievementDAO = new AchievementDAO(getDbHelper());
+            record("AchievementDAO");
+        }
+        return achievementDAO;
+    }
+
+    @NonNull
+    public synchronized SmsOutboxDAO getSmsOutboxDAO() {
+        if (smsOutboxDAO == null) {
+            smsOutboxDAO = new SmsOutboxDAO(getDbHelper());
+            record("SmsOutboxDAO");
+        }
+        return smsOutboxDAO;
+    }
+
+    @NonNull
+    public synchronized DashboardDAO getDashboardDAO() {
+        if (dashboardDAO == null) {
+            dashboardDAO = new DashboardDAO(getDbHelper());
+            record("DashboardDAO");
+        }
+        return dashboardDAO;
+    }
+
+    @NonNull
+    public synchronized AchievementManager getAchievementManager() {
+        if (achievementManager == null) {
+            achievementManager = new AchievementManager(getAchievementDAO(), getGoalWeightDAO(), getWeightEntryDAO());
+            record("AchievementManager");
+        }
+        return achievementManager;
+    }
+
+    /**
+     * Gets the SMS manager, built from this container's DAOs.
+     *
+     * @return process-wide SMSNotificationManager
+     */
+    @NonNull
+    public synchronized SMSNotificationManager getSmsNotificationManager() {
+        if (smsNotificationManager == null) {
+            smsNotificationManager = SMSNotificationManager.getInstance(appContext,
+                    getUserDAO(), getUserPreferenceDAO(), getAchievementDAO(), getSmsOutboxDAO());
+            record("SMSNotificationManager");
+        }
+        return smsNotificationManager;
+    }
+
+    /**
+     * @return simple names of the components created so far, in creation order
+     */
+    @VisibleForTesting
+    @NonNull
+    public synchronized List<String> getCreatedComponents() {
+        return Collections.unmodifiableList(new ArrayList<>(created));
+    }
+
+    private void record(@NonNull String component) {
+        created.add(component);
+        AppLog.d(TAG, "Created {}", component);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.weightogo;
+
+import android.content.Context;
+import android.os.SystemClock;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.example.weightogo.database.DashboardSnapshot;
+import com.example.weightogo.utils.AppLog;
+import com.example.weightogo.utils.BackgroundTask;
+import com.example.weightogo.utils.SessionManager;
+import com.example.weightogo.workers.MaintenanceWorker;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cold-start work moved off the main thread.
+ *
+ * Started from WeighToGoApplication.onCreate(). On BackgroundTask's UI lane it:
+ * <ol>
+ *   <li>Opens the database, which runs onCreate (first install) or any pending
+ *       migrations, so the first screen's query doesn't do that on the main thread</li>
+ *   <li>Creates UserDAO, which LoginActivity needs first</li>
+ *   <li>If SessionManager has a logged-in user, prefetches their {@link DashboardSnapshot}</li>
+ * </ol>
+ *
+ * MainActivity takes the snapshot once with {@link #takeDashboardSnapshot(long)} and primes
+ * its dashboard query with it. The snapshot's stamp makes that query re-run if anything was
+ * written in between, so a late consumer never shows stale data.
+ *
+ * Separately, on the BACKGROUND lane, it makes sure MaintenanceWorker's daily run is scheduled.
+ */
+public final class StartupInitializer {
+
+    private static final String TAG = "StartupInitializer";
+
+    /**
+     * Longest the main thread waits for a prefetch still in flight. While the database is
+     * being opened the main thread would block on the same open anyway.
+     */
+    @VisibleForTesting
+    static final long PREFETCH_WAIT_MILLIS = 300;
+
+    private final Context appContext;
+    private final AppContainer container;
+    private final FutureTask<DashboardSnapshot> prefetch = new FutureTask<>(this::prefetch);
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean taken = new AtomicBoolean();
+
+    StartupInitializer(@NonNull Context context, @NonNull AppContainer container) {
+        this.appContext = context.getApplicationContext();
+        this.container = container;
+    }
+
+    /**
+     * Starts the background prefetch and schedules database maintenance. Later calls do nothing.
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        BackgroundTask.execute(BackgroundTask.Priority.UI,
+            () -> {
+                prefetch.run();
+                return prefetch.isDone();
+            },
+            result -> AppLog.d(TAG, "start: Startup prefetch finished"));
+        BackgroundTask.execute(BackgroundTask.Priority.BACKGROUND,
+            () -> {
+                MaintenanceWorker.schedule(appContext);
+                return true;
+            },
+            new BackgroundTask.Callback<Boolean>() {
+                @Override
+                public void onResult(Boolean result) {
+                    // Nothing to do; schedule() logs
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    AppLog.w(TAG, "start: Could not schedule database maintenance", error);
+                }
+            });
+    }
+
+    /**
+     * Runs the prefetch on the calling thread instead of the background pool (tests only).
+     */
+    @VisibleForTesting
+    void startInline() {
+        if (started.compareAndSet(false, true)) {
+            prefetch.run();
+        }
+    }
+
+    /**
+     * Takes the prefetched dashboard, once. Waits up to {@link #PREFETCH_WAIT_MILLIS} if the
+     * prefetch is still running.
+     *
+     * @param userId user the dashboard is being shown for
+     * @return snapshot for {@code userId}, or null if none was prefetched (not started, not
+     *         logged in at startup, another user, already taken, failed or too slow)
+     */
+    @MainThread
+    @Nullable
+    public DashboardSnapshot takeDashboardSnapshot(long userId) {
+        if (!started.get() || !taken.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            DashboardSnapshot snapshot = prefetch.get(PREFETCH_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            if (snapshot == null || snapshot.getUserId() != userId) {
+                return null;
+            }
+            AppLog.d(TAG, "takeDashboardSnapshot: Using prefetched dashboard for user_id={}", userId);
+            return snapshot;
+        } catch (TimeoutException e) {
+            AppLog.w(TAG, "takeDashboardSnapshot: Prefetch still running, loading on demand");
+            return null;
+        } catch (ExecutionException e) {
+            AppLog.e(TAG, "takeDashboardSnapshot: Prefetch failed", e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @Nullable
+    private DashboardSnapshot prefetch() {
+        long start = SystemClock.elapsedRealtime();
+
+        // Opening for write runs onCreate/onUpgrade here instead of on the main thread
+        container.getDbHelper().getWritableDatabase();
+        container.getUserDAO();
+        long opened = SystemClock.elapsedRealtime();
+
+        SessionManager sessionManager = SessionManager.getInstance(appContext);
+        if (!sessionManager.isLoggedIn()) {
+            AppLog.i(TAG, "prefetch: Database ready in {} ms, no session to prefetch", opened - start);
+            return null;
+        }
+
+        long userId = sessionManager.getCurrentUserId();
+        DashboardSnapshot snapshot = container.getDashboardDAO().getDashboardSnapshot(userId);
+        AppLog.i(TAG, "prefetch: Database ready in {} ms, dashboard for user_id={} in {} ms",
+                opened - start, userId, SystemClock.elapsedRealtime() - opened);
+        return snapshot;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.weightogo;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Application class; owns the {@link AppContainer}.
+ *
+ * onCreate() only allocates the (empty) container and starts StartupInitializer, which
+ * opens the database and prefetches the dashboard on a background thread. Nothing in
+ * onCreate() touches the disk on the main thread.
+ */
+public class WeighToGoApplication extends Application {
+
+    private AppContainer container;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        container = new AppContainer(this);
+        container.getStartupInitializer().start();
+    }
+
+    /**
+     * @return the application-scoped container
+     */
+    @NonNull
+    public AppContainer getContainer() {
+        return container;
+    }
+}
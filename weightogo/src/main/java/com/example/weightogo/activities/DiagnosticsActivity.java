@@ -0,0 +1,158 @@
+package com.example.weightogo.activities;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.util.Log;
+import android.widget.Button;
+import android.widget.ImageButton;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SwitchCompat;
+
+import com.example.weightogo.R;
+import com.example.weightogo.database.QueryMetrics;
+import com.example.weightogo.database.WeighToGoDBHelper;
+import com.example.weightogo.utils.BackgroundTask;
+
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+
+/**
+ * DiagnosticsActivity - Query performance diagnostics screen
+ *
+ * Features:
+ * - Per-DAO-method latency percentiles and row counts (see QueryMetrics)
+ * - Background task queue depth and per-priority wait times (see BackgroundTask)
+ * - Recent slow queries with their EXPLAIN QUERY PLAN output
+ * - Runtime toggle for query instrumentation
+ * - Share the text report for bug reports
+ *
+ * The same report is available without the UI while this screen is open:
+ * {@code adb shell dumpsys activity top}
+ */
+public class DiagnosticsActivity extends AppCompatActivity {
+
+    private static final String TAG = "DiagnosticsActivity";
+
+    // UI Elements
+    private ImageButton backButton;
+    private SwitchCompat switchQueryMetrics;
+    private Button refreshButton;
+    private Button resetButton;
+    private Button shareButton;
+    private TextView reportText;
+
+    // Data Layer
+    private WeighToGoDBHelper dbHelper;
+
+    // Pending report build (superseded by each refresh)
+    @Nullable
+    private BackgroundTask<String> reportTask;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_diagnostics);
+
+        initDataLayer();
+        initViews();
+        setupClickListeners();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refreshReport();
+    }
+
+    /**
+     * Initialize database helper.
+     * Only initializes if not already set (allows test injection).
+     */
+    private void initDataLayer() {
+        if (dbHelper == null) {
+            dbHelper = WeighToGoDBHelper.getInstance(this);
+        }
+    }
+
+    /**
+     * Initialize view references
+     */
+    private void initViews() {
+        backButton = findViewById(R.id.backButton);
+        switchQueryMetrics = findViewById(R.id.switchQueryMetrics);
+        refreshButton = findViewById(R.id.refreshReportButton);
+        resetButton = findViewById(R.id.resetMetricsButton);
+        shareButton = findViewById(R.id.shareReportButton);
+        reportText = findViewById(R.id.reportText);
+
+        switchQueryMetrics.setChecked(QueryMetrics.isEnabled());
+    }
+
+    /**
+     * Setup click listeners for all interactive elements
+     */
+    private void setupClickListeners() {
+        backButton.setOnClickListener(v -> finish());
+        switchQueryMetrics.setOnCheckedChangeListener((buttonView, isChecked) -> QueryMetrics.setEnabled(isChecked));
+        refreshButton.setOnClickListener(v -> refreshReport());
+        resetButton.setOnClickListener(v -> {
+            QueryMetrics.reset();
+            refreshReport();
+        });
+        shareButton.setOnClickListener(v -> shareReport());
+    }
+
+    /**
+     * Build the report off the main thread (EXPLAIN QUERY PLAN touches the database).
+     */
+    private void refreshReport() {
+        if (reportTask != null) {
+            reportTask.cancel();
+        }
+        reportText.setText(R.string.diagnostics_loading);
+        reportTask = BackgroundTask.execute(
+            this,
+            BackgroundTask.Priority.UI,
+            () -> QueryMetrics.buildReport(dbHelper.getReadableDatabase()) + "\n" + BackgroundTask.buildReport(),
+            new BackgroundTask.Callback<String>() {
+                @Override
+                public void onResult(String report) {
+                    reportText.setText(report);
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    Log.e(TAG, "refreshReport: Failed to build report", error);
+                }
+            }
+        );
+    }
+
+    /**
+     * Share the currently displayed report as plain text.
+     */
+    private void shareReport() {
+        Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType("text/plain");
+        intent.putExtra(Intent.EXTRA_SUBJECT, getString(R.string.diagnostics_title));
+        intent.putExtra(Intent.EXTRA_TEXT, reportText.getText().toString());
+        startActivity(Intent.createChooser(intent, getString(R.string.diagnostics_share)));
+    }
+
+    /**
+     * Append the query report to {@code dumpsys activity} output.
+     */
+    @Override
+    public void dump(@NonNull String prefix, @Nullable FileDescriptor fd,
+                     @NonNull PrintWriter writer, @Nullable String[] args) {
+        super.dump(prefix, fd, writer, args);
+        writer.println();
+        QueryMetrics.writeReport(dbHelper != null ? dbHelper.getReadableDatabase() : null, writer);
+        writer.println();
+        writer.print(BackgroundTask.buildReport());
+    }
+}
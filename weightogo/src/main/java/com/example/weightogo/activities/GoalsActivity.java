@@ -14,9 +14,12 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.weightogo.AppContainer;
 import com.example.weightogo.R;
 import com.example.weightogo.adapters.GoalHistoryAdapter;
+import com.example.weightogo.database.GoalProgress;
 import com.example.weightogo.database.GoalWeightDAO;
+import com.example.weightogo.database.InvalidationTracker;
 import com.example.weightogo.fragments.GoalDialogFragment;
 import com.example.weightogo.database.UserDAO;
 import com.example.weightogo.database.WeighToGoDBHelper;
@@ -82,7 +85,8 @@ public class GoalsActivity extends AppCompatActivity
     // State
     private long currentUserId;
     private GoalWeight activeGoal;
-    private List<GoalWeight> goalHistory;
+    private List<GoalProgress> goalHistory;
+    private InvalidationTracker.Stamp goalDataStamp; // Table versions at the last loadGoalData()
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -131,17 +135,18 @@ public class GoalsActivity extends AppCompatActivity
      * Only initializes if not already set (allows test injection).
      */
     private void initDataLayer() {
+        AppContainer container = AppContainer.from(this);
         if (dbHelper == null) {
-            dbHelper = WeighToGoDBHelper.getInstance(this);
+            dbHelper = container.getDbHelper();
         }
         if (goalWeightDAO == null) {
-            goalWeightDAO = new GoalWeightDAO(dbHelper);
+            goalWeightDAO = container.getGoalWeightDAO();
         }
         if (weightEntryDAO == null) {
-            weightEntryDAO = new WeightEntryDAO(dbHelper);
+            weightEntryDAO = container.getWeightEntryDAO();
         }
         if (userDAO == null) {
-            userDAO = new UserDAO(dbHelper);
+            userDAO = container.getUserDAO();
         }
         if (goalHistory == null) {
             goalHistory = new ArrayList<>();
@@ -272,18 +277,21 @@ public class GoalsActivity extends AppCompatActivity
     }
 
     /**
-     * Load goal data from database (active goal + history).
+     * Load goal data from database (active goal + history with progress).
+     * Kept until a write to goal_weights or daily_weights (see onResume()).
      */
     private void loadGoalData() {
+        goalDataStamp = dbHelper.getInvalidationTracker().stamp(GoalProgress.TABLES);
+
         // Load active goal
         activeGoal = goalWeightDAO.getActiveGoal(currentUserId);
 
-        // Load goal history (inactive goals)
-        List<GoalWeight> allGoals = goalWeightDAO.getGoalHistory(currentUserId);
+        // Load goal history (inactive goals), with each goal's progress from one query
+        List<GoalProgress> allGoals = goalWeightDAO.getGoalHistoryWithProgress(currentUserId);
         goalHistory.clear();
-        for (GoalWeight goal : allGoals) {
-            if (!goal.isActive()) {
-                goalHistory.add(goal);
+        for (GoalProgress progress : allGoals) {
+            if (!progress.getGoal().isActive()) {
+                goalHistory.add(progress);
             }
         }
 
@@ -478,23 +486,11 @@ public class GoalsActivity extends AppCompatActivity
     private double getCurrentWeight() {
         WeightEntry latestEntry = weightEntryDAO.getLatestWeightEntry(currentUserId);
         if (latestEntry != null) {
-            double currentWeight = latestEntry.getWeightValue();
-
-            // Convert if goal exists and units don't match
+            // Canonical mass shown in the goal's unit, whatever unit the entry was logged in
             if (activeGoal != null) {
-                String entryUnit = latestEntry.getWeightUnit();
-                String goalUnit = activeGoal.getGoalUnit();
-
-                if (!entryUnit.equals(goalUnit)) {
-                    if ("kg".equals(goalUnit)) {
-                        currentWeight = WeightUtils.convertLbsToKg(currentWeight);
-                    } else {
-                        currentWeight = WeightUtils.convertKgToLbs(currentWeight);
-                    }
-                }
+                return WeightUtils.fromDecigrams(latestEntry.getMassDg(), activeGoal.getGoalUnit());
             }
-
-            return currentWeight;
+            return latestEntry.getWeightValue();
         }
         return 0.0;
     }
@@ -502,7 +498,9 @@ public class GoalsActivity extends AppCompatActivity
     @Override
     protected void onResume() {
         super.onResume();
-        // Refresh data when returning from MainActivity
-        loadGoalData();
+        // Refresh data when returning from MainActivity, unless nothing was written meanwhile
+        if (goalDataStamp == null || dbHelper.getInvalidationTracker().hasChanged(goalDataStamp)) {
+            loadGoalData();
+        }
     }
 }
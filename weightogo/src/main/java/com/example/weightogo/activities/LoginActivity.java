@@ -10,6 +10,7 @@ import androidx.activity.EdgeToEdge;
 import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.weightogo.AppContainer;
 import com.example.weightogo.R;
 import com.google.android.material.snackbar.Snackbar;
 import com.example.weightogo.database.DatabaseException;
@@ -124,11 +125,12 @@ public class LoginActivity extends AppCompatActivity {
      * Only initializes if not already set (allows test injection).
      */
     private void initDataLayer() {
+        AppContainer container = AppContainer.from(this);
         if (dbHelper == null) {
-            dbHelper = WeighToGoDBHelper.getInstance(this);
+            dbHelper = container.getDbHelper();
         }
         if (userDAO == null) {
-            userDAO = new UserDAO(dbHelper);
+            userDAO = container.getUserDAO();
         }
         if (sessionManager == null) {
             sessionManager = SessionManager.getInstance(this);
@@ -347,8 +349,10 @@ public class LoginActivity extends AppCompatActivity {
             // Capture current hash to prevent race condition
             final String oldPasswordHash = user.getPasswordHash();
 
-            // Hash password with bcrypt on background thread
+            // Hash password with bcrypt on background thread (low priority, not bound to this
+            // activity: the migration must finish after navigating to MainActivity)
             BackgroundTask.execute(
+                BackgroundTask.Priority.BACKGROUND,
                 () -> PasswordUtilsV2.hashPasswordBcrypt(password),
                 new BackgroundTask.Callback<String>() {
                     @Override
@@ -432,7 +436,10 @@ public class LoginActivity extends AppCompatActivity {
         signInButton.setText("Creating account...");
 
         // Hash password with bcrypt on background thread (CPU-intensive) - Phase 8.6
+        // Bound to this activity so the callback never touches destroyed views
         BackgroundTask.execute(
+            this,
+            BackgroundTask.Priority.UI,
             // Background work
             () -> {
                 Log.d(TAG, "handleRegister: Hashing password with bcrypt on background thread");
@@ -15,20 +15,20 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.weightogo.AppContainer;
 import com.example.weightogo.R;
 import com.example.weightogo.adapters.WeightEntryAdapter;
-import com.example.weightogo.database.GoalWeightDAO;
+import com.example.weightogo.database.DashboardDAO;
+import com.example.weightogo.database.DashboardSnapshot;
+import com.example.weightogo.database.ObservableQuery;
 import com.example.weightogo.fragments.GoalDialogFragment;
-import com.example.weightogo.database.UserDAO;
 import com.example.weightogo.database.WeighToGoDBHelper;
 import com.example.weightogo.database.WeightEntryDAO;
 import com.example.weightogo.models.GoalWeight;
-import com.example.weightogo.models.User;
 import com.example.weightogo.models.WeightEntry;
-import com.example.weightogo.utils.DateUtils;
 import com.example.weightogo.utils.SessionManager;
-import com.example.weightogo.utils.ValidationUtils;
 import com.example.weightogo.utils.WeightUtils;
+import com.example.weightogo.workers.AchievementReevaluationWorker;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
@@ -81,9 +81,8 @@ public class MainActivity extends AppCompatActivity
 
     // Data Layer
     private WeighToGoDBHelper dbHelper;
-    private UserDAO userDAO;
+    private DashboardDAO dashboardDAO;
     private WeightEntryDAO weightEntryDAO;
-    private GoalWeightDAO goalWeightDAO;
     private SessionManager sessionManager;
 
     // State
@@ -91,6 +90,9 @@ public class MainActivity extends AppCompatActivity
     private List<WeightEntry> weightEntries = new ArrayList<>();  // Initialized at declaration to prevent NPE
     private GoalWeight activeGoal;
 
+    // Dashboard query, re-run only when one of its tables is written
+    private ObservableQuery<DashboardSnapshot> dashboardQuery;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -112,11 +114,11 @@ public class MainActivity extends AppCompatActivity
         setupBottomNavigation();
 
         // Load data
-        loadWeightEntries();
-        updateProgressCard();
-        calculateQuickStats();
+        refreshDashboard();
         updateGreeting();
-        updateUserName();
+
+        // Marks time-to-full-display for startup measurements ("Fully drawn" in logcat)
+        reportFullyDrawn();
 
         // Check if we should show goal dialog (from GoalsActivity FAB)
         if (getIntent().getBooleanExtra("SHOW_GOAL_DIALOG", false)) {
@@ -150,17 +152,36 @@ public class MainActivity extends AppCompatActivity
      * Only initializes if not already set (allows test injection).
      */
     private void initDataLayer() {
+        AppContainer container = AppContainer.from(this);
         if (dbHelper == null) {
-            dbHelper = WeighToGoDBHelper.getInstance(this);
+            dbHelper = container.getDbHelper();
         }
-        if (userDAO == null) {
-            userDAO = new UserDAO(dbHelper);
+        if (dashboardDAO == null) {
+            dashboardDAO = container.getDashboardDAO();
         }
         if (weightEntryDAO == null) {
-            weightEntryDAO = new WeightEntryDAO(dbHelper);
+            weightEntryDAO = container.getWeightEntryDAO();
+        }
+        if (dashboardQuery == null) {
+            dashboardQuery = new ObservableQuery<>(dbHelper.getInvalidationTracker(),
+                    () -> dashboardDAO.getDashboardSnapshot(currentUserId),
+                    DashboardSnapshot.TABLES);
+        }
+        primeFromStartupPrefetch(container);
+    }
+
+    /**
+     * Use the dashboard prefetched at startup (see StartupInitializer), if there is one for
+     * this user. Skipped when a test injected its own DashboardDAO, since the snapshot was
+     * read through the container's.
+     */
+    private void primeFromStartupPrefetch(AppContainer container) {
+        if (dashboardDAO != container.getDashboardDAO()) {
+            return;
         }
-        if (goalWeightDAO == null) {
-            goalWeightDAO = new GoalWeightDAO(dbHelper);
+        DashboardSnapshot snapshot = container.getStartupInitializer().takeDashboardSnapshot(currentUserId);
+        if (snapshot != null) {
+            dashboardQuery.prime(snapshot, snapshot.getStamp());
         }
     }
 
@@ -169,17 +190,17 @@ public class MainActivity extends AppCompatActivity
     // =============================================================================================
 
     /**
-     * Set UserDAO instance (for testing only).
+     * Set DashboardDAO instance (for testing only).
      *
-     * @param userDAO the UserDAO instance to use
-     * @throws IllegalArgumentException if userDAO is null
+     * @param dashboardDAO the DashboardDAO instance to use
+     * @throws IllegalArgumentException if dashboardDAO is null
      */
     @VisibleForTesting
-    void setUserDAO(UserDAO userDAO) {
-        if (userDAO == null) {
-            throw new IllegalArgumentException("UserDAO cannot be null");
+    void setDashboardDAO(DashboardDAO dashboardDAO) {
+        if (dashboardDAO == null) {
+            throw new IllegalArgumentException("DashboardDAO cannot be null");
         }
-        this.userDAO = userDAO;
+        this.dashboardDAO = dashboardDAO;
     }
 
     /**
@@ -196,20 +217,6 @@ public class MainActivity extends AppCompatActivity
         this.weightEntryDAO = weightEntryDAO;
     }
 
-    /**
-     * Set GoalWeightDAO instance (for testing only).
-     *
-     * @param goalWeightDAO the GoalWeightDAO instance to use
-     * @throws IllegalArgumentException if goalWeightDAO is null
-     */
-    @VisibleForTesting
-    void setGoalWeightDAO(GoalWeightDAO goalWeightDAO) {
-        if (goalWeightDAO == null) {
-            throw new IllegalArgumentException("GoalWeightDAO cannot be null");
-        }
-        this.goalWeightDAO = goalWeightDAO;
-    }
-
     /**
      * Set SessionManager instance (for testing only).
      *
@@ -333,12 +340,31 @@ public class MainActivity extends AppCompatActivity
     }
 
     /**
-     * Load weight entries from database and update UI.
+     * Reload the dashboard snapshot if one of its tables was written since the last load,
+     * then render every section from it. Returning from a screen that changed nothing
+     * (e.g. Settings) runs no queries.
      */
-    private void loadWeightEntries() {
+    private void refreshDashboard() {
+        if (!dashboardQuery.refresh()) {
+            return;
+        }
+        DashboardSnapshot snapshot = dashboardQuery.getValue();
+        if (snapshot == null) {
+            return;
+        }
+        activeGoal = snapshot.getActiveGoal();
+        loadWeightEntries(snapshot);
+        updateProgressCard();
+        calculateQuickStats(snapshot);
+        updateUserName(snapshot);
+    }
+
+    /**
+     * Show the snapshot's page of weight entries.
+     */
+    private void loadWeightEntries(DashboardSnapshot snapshot) {
         weightEntries.clear();
-        List<WeightEntry> entries = weightEntryDAO.getWeightEntriesForUser(currentUserId);
-        weightEntries.addAll(entries);
+        weightEntries.addAll(snapshot.getWeightEntries());
         adapter.notifyDataSetChanged();
 
         showEmptyState(weightEntries.isEmpty());
@@ -349,8 +375,6 @@ public class MainActivity extends AppCompatActivity
      * Uses cached weightEntries to avoid redundant database query.
      */
     private void updateProgressCard() {
-        activeGoal = goalWeightDAO.getActiveGoal(currentUserId);
-
         if (activeGoal == null) {
             progressCard.setVisibility(View.GONE);
             btnEditGoalFromCard.setVisibility(View.GONE);
@@ -366,18 +390,8 @@ public class MainActivity extends AppCompatActivity
         // Get current weight from most recent entry (use cached list)
         double current = activeGoal.getStartWeight();
         if (!weightEntries.isEmpty()) {
-            WeightEntry latestEntry = weightEntries.get(0);
-            current = latestEntry.getWeightValue();
-            String entryUnit = latestEntry.getWeightUnit();
-
-            // Convert if units don't match
-            if (!entryUnit.equals(goalUnit)) {
-                if ("kg".equals(goalUnit)) {
-                    current = WeightUtils.convertLbsToKg(current);
-                } else {
-                    current = WeightUtils.convertKgToLbs(current);
-                }
-            }
+            // Canonical mass shown in the goal's unit, whatever unit the entry was logged in
+            current = WeightUtils.fromDecigrams(weightEntries.get(0).getMassDg(), goalUnit);
         }
 
         // Display weight values
@@ -428,13 +442,11 @@ public class MainActivity extends AppCompatActivity
 
     /**
      * Calculate and display quick stats.
-     * Uses cached weightEntries to avoid redundant database query.
+     * Uses cached weightEntries; the streak comes with the snapshot.
      */
-    private void calculateQuickStats() {
-        activeGoal = goalWeightDAO.getActiveGoal(currentUserId);
-
+    private void calculateQuickStats(DashboardSnapshot snapshot) {
         if (activeGoal != null && !weightEntries.isEmpty()) {
-            double current = weightEntries.get(0).getWeightValue();
+            double current = WeightUtils.fromDecigrams(weightEntries.get(0).getMassDg(), activeGoal.getGoalUnit());
             double start = activeGoal.getStartWeight();
             double goal = activeGoal.getGoalWeight();
 
@@ -447,9 +459,7 @@ public class MainActivity extends AppCompatActivity
             lbsToGoalValue.setText(String.format("%.0f", lbsToGoal));
         }
 
-        // Day streak (use cached list)
-        int streak = DateUtils.calculateDayStreak(weightEntries);
-        dayStreakValue.setText(String.valueOf(streak));
+        dayStreakValue.setText(String.valueOf(snapshot.getDayStreak()));
     }
 
     /**
@@ -496,15 +506,11 @@ public class MainActivity extends AppCompatActivity
 
     /**
      * Update user name display.
-     * Falls back to username if display_name is null or empty (defensive programming).
+     * The snapshot falls back to username if display_name is null or empty.
      */
-    private void updateUserName() {
-        User user = userDAO.getUserById(currentUserId);
-        if (user != null) {
-            String displayName = user.getDisplayName();
-            if (ValidationUtils.isNullOrEmpty(displayName)) {
-                displayName = user.getUsername();  // Fallback to username
-            }
+    private void updateUserName(DashboardSnapshot snapshot) {
+        String displayName = snapshot.getDisplayName();
+        if (displayName != null) {
             userName.setText(displayName);
         }
     }
@@ -529,11 +535,12 @@ public class MainActivity extends AppCompatActivity
                 .setTitle("Delete Entry")
                 .setMessage("Are you sure you want to delete this weight entry?")
                 .setPositiveButton("Delete", (dialog, which) -> {
-                    weightEntryDAO.deleteWeightEntry(entry.getWeightId());
+                    if (weightEntryDAO.deleteWeightEntry(entry.getWeightId()) > 0) {
+                        // Streaks, lows and goal progress may no longer hold
+                        AchievementReevaluationWorker.schedule(this, entry.getUserId());
+                    }
                     Toast.makeText(this, "Entry deleted", Toast.LENGTH_SHORT).show();
-                    loadWeightEntries();
-                    updateProgressCard();
-                    calculateQuickStats();
+                    refreshDashboard();
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
@@ -615,12 +622,8 @@ public class MainActivity extends AppCompatActivity
 
     @Override
     public void onGoalSaved(GoalWeight goal) {
-        // Refresh active goal reference
-        activeGoal = goal;
-
-        // Refresh UI
-        updateProgressCard();
-        calculateQuickStats();
+        // The save bumped goal_weights, so this re-reads the active goal and refreshes the UI
+        refreshDashboard();
     }
 
     @Override
@@ -658,10 +661,8 @@ public class MainActivity extends AppCompatActivity
     @Override
     protected void onResume() {
         super.onResume();
-        // Refresh all data from database
-        loadWeightEntries();
-        updateProgressCard();
-        calculateQuickStats();
+        // Re-query only what other screens changed
+        refreshDashboard();
     }
 
     /**
@@ -673,10 +674,8 @@ public class MainActivity extends AppCompatActivity
         super.onActivityResult(requestCode, resultCode, data);
 
         if (requestCode == REQUEST_CODE_WEIGHT_ENTRY && resultCode == RESULT_OK) {
-            // Refresh all data from database
-            loadWeightEntries();
-            updateProgressCard();
-            calculateQuickStats();
+            // The save bumped daily_weights; onResume() would also catch it
+            refreshDashboard();
         }
     }
 }
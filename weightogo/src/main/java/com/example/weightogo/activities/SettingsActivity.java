@@ -1,10 +1,14 @@
 package com.example.weightogo.activities;
 
 import android.Manifest;
+import android.app.TimePickerDialog;
+import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
+import android.text.format.DateFormat;
 import android.util.Log;
+import android.view.View;
 import android.view.inputmethod.EditorInfo;
 import android.widget.Button;
 import android.widget.EditText;
@@ -17,13 +21,10 @@ import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
-import androidx.work.Constraints;
-import androidx.work.ExistingPeriodicWorkPolicy;
-import androidx.work.PeriodicWorkRequest;
-import androidx.work.WorkManager;
 
+import com.example.weightogo.AppContainer;
+import com.example.weightogo.BuildConfig;
 import com.example.weightogo.R;
-import com.example.weightogo.database.AchievementDAO;
 import com.example.weightogo.database.UserDAO;
 import com.example.weightogo.database.UserPreferenceDAO;
 import com.example.weightogo.database.WeighToGoDBHelper;
@@ -34,10 +35,13 @@ import com.example.weightogo.utils.ValidationUtils;
 import com.example.weightogo.workers.DailyReminderWorker;
 import androidx.appcompat.widget.SwitchCompat;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.FormatStyle;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -76,8 +80,13 @@ public class SettingsActivity extends AppCompatActivity {
     private SwitchCompat switchGoalAlerts;
     private SwitchCompat switchMilestoneAlerts;
     private SwitchCompat switchDailyReminders;
+    private View reminderTimeRow;
+    private TextView reminderTimeValue;
     private Button sendTestMessageButton;
 
+    // UI Elements - Diagnostics (debug builds only)
+    private Button openDiagnosticsButton;
+
     // Permission Launcher
     private ActivityResultLauncher<String[]> permissionLauncher;
 
@@ -214,21 +223,18 @@ public class SettingsActivity extends AppCompatActivity {
      * Only initializes if not already set (allows test injection).
      */
     private void initDataLayer() {
+        AppContainer container = AppContainer.from(this);
         if (dbHelper == null) {
-            dbHelper = WeighToGoDBHelper.getInstance(this);
+            dbHelper = container.getDbHelper();
         }
         if (userPreferenceDAO == null) {
-            userPreferenceDAO = new UserPreferenceDAO(dbHelper);
+            userPreferenceDAO = container.getUserPreferenceDAO();
         }
         if (userDAO == null) {
-            userDAO = new UserDAO(dbHelper);
+            userDAO = container.getUserDAO();
         }
-
-        // Initialize shared DAO (avoid inline instantiation for clarity)
-        AchievementDAO achievementDAO = new AchievementDAO(dbHelper);
-
         if (smsManager == null) {
-            smsManager = SMSNotificationManager.getInstance(this, userDAO, userPreferenceDAO, achievementDAO);
+            smsManager = container.getSmsNotificationManager();
         }
     }
 
@@ -299,7 +305,15 @@ public class SettingsActivity extends AppCompatActivity {
         switchGoalAlerts = findViewById(R.id.switchGoalAlerts);
         switchMilestoneAlerts = findViewById(R.id.switchMilestoneAlerts);
         switchDailyReminders = findViewById(R.id.switchDailyReminders);
+        reminderTimeRow = findViewById(R.id.reminderTimeRow);
+        reminderTimeValue = findViewById(R.id.reminderTimeValue);
         sendTestMessageButton = findViewById(R.id.sendTestMessageButton);
+
+        // Diagnostics entry point is only exposed in debug builds
+        openDiagnosticsButton = findViewById(R.id.openDiagnosticsButton);
+        if (openDiagnosticsButton != null) {
+            openDiagnosticsButton.setVisibility(BuildConfig.DEBUG ? View.VISIBLE : View.GONE);
+        }
     }
 
     /**
@@ -347,9 +361,16 @@ public class SettingsActivity extends AppCompatActivity {
         if (switchDailyReminders != null) {
             switchDailyReminders.setOnCheckedChangeListener((buttonView, isChecked) -> handleReminderToggle(isChecked));
         }
+        if (reminderTimeRow != null) {
+            reminderTimeRow.setOnClickListener(v -> showReminderTimePicker());
+        }
         if (sendTestMessageButton != null) {
             sendTestMessageButton.setOnClickListener(v -> handleSendTestMessage());
         }
+        if (openDiagnosticsButton != null) {
+            openDiagnosticsButton.setOnClickListener(v ->
+                startActivity(new Intent(this, DiagnosticsActivity.class)));
+        }
     }
 
     /**
@@ -480,6 +501,9 @@ public class SettingsActivity extends AppCompatActivity {
         if (switchDailyReminders != null) {
             switchDailyReminders.setEnabled(enabled);
         }
+        if (reminderTimeRow != null) {
+            reminderTimeRow.setEnabled(enabled);
+        }
     }
 
     /**
@@ -609,6 +633,10 @@ public class SettingsActivity extends AppCompatActivity {
                 SMSNotificationManager.KEY_REMINDER_ENABLED, "false");
         switchDailyReminders.setChecked("true".equals(reminderEnabled));
 
+        String reminderTime = userPreferenceDAO.getPreference(userId,
+                SMSNotificationManager.KEY_REMINDER_TIME, SMSNotificationManager.DEFAULT_REMINDER_TIME);
+        updateReminderTimeLabel(parseReminderTime(reminderTime));
+
         // Update child toggle enabled state based on master
         updateSmsTogglesEnabled(switchEnableSms.isChecked());
     }
@@ -665,13 +693,8 @@ public class SettingsActivity extends AppCompatActivity {
                 SMSNotificationManager.KEY_REMINDER_ENABLED,
                 isChecked ? "true" : "false");
 
-        // Schedule or cancel WorkManager daily reminder (Phase 7.6 - Commit 28)
-        if (isChecked) {
-            scheduleDailyReminder();
-        } else {
-            WorkManager.getInstance(this).cancelUniqueWork("daily_reminder");
-            Log.d(TAG, "handleReminderToggle: Daily reminder work cancelled");
-        }
+        // The set of reminder buckets may have changed either way
+        rescheduleReminders();
 
         Toast.makeText(this,
                 "Daily reminders " + (isChecked ? "enabled" : "disabled"),
@@ -681,74 +704,57 @@ public class SettingsActivity extends AppCompatActivity {
     }
 
     /**
-     * Schedule daily reminder WorkManager periodic work.
-     * Runs every 24 hours at 9:00 AM.
-     *
-     * Phase 7.6 - Commit 28: Daily Reminder Scheduling
-     * Fixed: Pass userId via WorkManager Data to avoid thread safety issues
+     * Show a time picker for the daily reminder time, starting at the saved time.
      */
-    private void scheduleDailyReminder() {
-        // Cancel existing work first
-        WorkManager.getInstance(this).cancelUniqueWork("daily_reminder");
-
-        // Get current user ID from SessionManager (safe on UI thread)
+    private void showReminderTimePicker() {
         long userId = SessionManager.getInstance(this).getCurrentUserId();
+        LocalTime current = parseReminderTime(userPreferenceDAO.getPreference(userId,
+                SMSNotificationManager.KEY_REMINDER_TIME, SMSNotificationManager.DEFAULT_REMINDER_TIME));
 
-        // Pass userId to worker via input data (thread-safe)
-        androidx.work.Data inputData = new androidx.work.Data.Builder()
-                .putLong("USER_ID", userId)
-                .build();
-
-        // Create constraints (requires battery not low)
-        Constraints constraints = new Constraints.Builder()
-                .setRequiresBatteryNotLow(true)
-                .build();
-
-        // Calculate initial delay to next 9:00 AM
-        long initialDelayMillis = calculateInitialDelay();
-
-        // Create periodic work request (24 hours interval, 1 hour flex)
-        PeriodicWorkRequest reminderWork = new PeriodicWorkRequest.Builder(
-                DailyReminderWorker.class,
-                24, TimeUnit.HOURS,
-                1, TimeUnit.HOURS  // Flex interval allows execution within 1 hour window
-        )
-        .setConstraints(constraints)
-        .setInitialDelay(initialDelayMillis, TimeUnit.MILLISECONDS)
-        .setInputData(inputData)
-        .build();
-
-        // Enqueue work
-        WorkManager.getInstance(this).enqueueUniquePeriodicWork(
-                "daily_reminder",
-                ExistingPeriodicWorkPolicy.REPLACE,
-                reminderWork
-        );
-
-        Log.i(TAG, "scheduleDailyReminder: Daily reminder scheduled for user " + userId +
-                " with " + initialDelayMillis / 1000 / 60 + " minutes initial delay");
+        new TimePickerDialog(this,
+                (view, hourOfDay, minute) -> handleReminderTimeSelected(LocalTime.of(hourOfDay, minute)),
+                current.getHour(), current.getMinute(), DateFormat.is24HourFormat(this))
+                .show();
     }
 
     /**
-     * Calculate initial delay to next 9:00 AM.
-     * If current time is after 9:00 AM today, schedules for 9:00 AM tomorrow.
+     * Save the selected reminder time and move the reminder schedule if needed.
      *
-     * @return delay in milliseconds
+     * @param time selected local time
      */
-    private long calculateInitialDelay() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime nextReminder = now.withHour(9).withMinute(0).withSecond(0).withNano(0);
+    private void handleReminderTimeSelected(LocalTime time) {
+        long userId = SessionManager.getInstance(this).getCurrentUserId();
+        // Zero-padded "HH:mm" so stored times compare in time order
+        String value = String.format(Locale.US, "%02d:%02d", time.getHour(), time.getMinute());
+        userPreferenceDAO.setPreference(userId, SMSNotificationManager.KEY_REMINDER_TIME, value);
+        updateReminderTimeLabel(time);
 
-        // If we've passed 9:00 AM today, schedule for tomorrow
-        if (now.isAfter(nextReminder)) {
-            nextReminder = nextReminder.plusDays(1);
+        if (switchDailyReminders != null && switchDailyReminders.isChecked()) {
+            rescheduleReminders();
         }
 
-        long delayMillis = Duration.between(now, nextReminder).toMillis();
-        Log.d(TAG, "calculateInitialDelay: Next reminder at " + nextReminder +
-                " (delay: " + delayMillis / 1000 / 60 + " minutes)");
+        Log.d(TAG, "handleReminderTimeSelected: Reminder time set to " + value);
+    }
 
-        return delayMillis;
+    /**
+     * Reschedule the shared reminder run off the main thread (it reads every user's reminder time).
+     */
+    private void rescheduleReminders() {
+        executorService.execute(() -> DailyReminderWorker.schedule(getApplicationContext()));
+    }
+
+    private void updateReminderTimeLabel(LocalTime time) {
+        if (reminderTimeValue != null) {
+            reminderTimeValue.setText(time.format(DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT)));
+        }
+    }
+
+    private static LocalTime parseReminderTime(String value) {
+        try {
+            return LocalTime.parse(value);
+        } catch (DateTimeParseException e) {
+            return LocalTime.parse(SMSNotificationManager.DEFAULT_REMINDER_TIME);
+        }
     }
 
     // =============================================================================================
@@ -11,10 +11,8 @@ import androidx.annotation.VisibleForTesting;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
 
+import com.example.weightogo.AppContainer;
 import com.example.weightogo.R;
-import com.example.weightogo.database.AchievementDAO;
-import com.example.weightogo.database.GoalWeightDAO;
-import com.example.weightogo.database.UserDAO;
 import com.example.weightogo.database.UserPreferenceDAO;
 import com.example.weightogo.database.WeighToGoDBHelper;
 import com.example.weightogo.database.WeightEntryDAO;
@@ -25,6 +23,7 @@ import com.example.weightogo.utils.DateUtils;
 import com.example.weightogo.utils.SMSNotificationManager;
 import com.example.weightogo.utils.SessionManager;
 import com.example.weightogo.utils.WeightUtils;
+import com.example.weightogo.workers.AchievementReevaluationWorker;
 
 import java.util.List;
 import com.google.android.material.button.MaterialButton;
@@ -210,29 +209,25 @@ public class WeightEntryActivity extends AppCompatActivity {
      * Only initializes if not already set (allows test injection).
      */
     private void initDataLayer() {
+        AppContainer container = AppContainer.from(this);
         if (dbHelper == null) {
-            dbHelper = WeighToGoDBHelper.getInstance(this);
+            dbHelper = container.getDbHelper();
         }
         if (weightEntryDAO == null) {
-            weightEntryDAO = new WeightEntryDAO(dbHelper);
+            weightEntryDAO = container.getWeightEntryDAO();
         }
         if (userPreferenceDAO == null) {
-            userPreferenceDAO = new UserPreferenceDAO(dbHelper);
+            userPreferenceDAO = container.getUserPreferenceDAO();
         }
 
-        // Initialize shared DAOs (avoid duplicate instantiation)
-        AchievementDAO achievementDAO = new AchievementDAO(dbHelper);
-        GoalWeightDAO goalWeightDAO = new GoalWeightDAO(dbHelper);
-        UserDAO userDAO = new UserDAO(dbHelper);
-
         // Initialize achievement system (Phase 7.5)
         if (achievementManager == null) {
-            achievementManager = new AchievementManager(achievementDAO, goalWeightDAO, weightEntryDAO);
+            achievementManager = container.getAchievementManager();
         }
 
         // Initialize SMS notification manager (Phase 7.5)
         if (smsManager == null) {
-            smsManager = SMSNotificationManager.getInstance(this, userDAO, userPreferenceDAO, achievementDAO);
+            smsManager = container.getSmsNotificationManager();
         }
 
         Log.d(TAG, "initDataLayer: Data layer initialized with achievement and SMS managers");
@@ -740,12 +735,10 @@ public class WeightEntryActivity extends AppCompatActivity {
             // Check for achievements (Phase 7.5)
             List<Achievement> newAchievements = achievementManager.checkAchievements(userId, weight);
 
-            // Send SMS for each new achievement
-            for (Achievement achievement : newAchievements) {
-                boolean sent = smsManager.sendAchievementSms(achievement);
-                if (sent) {
-                    Log.i(TAG, "createNewEntry: Achievement SMS sent: " + achievement.getAchievementType());
-                }
+            // Queue achievement SMS; SmsOutboxWorker delivers them off the UI thread
+            if (!newAchievements.isEmpty()) {
+                int queued = smsManager.enqueueAchievementSms(newAchievements);
+                Log.d(TAG, "createNewEntry: Queued " + queued + " achievement SMS");
             }
 
             Toast.makeText(this, "Entry saved successfully", Toast.LENGTH_SHORT).show();
@@ -783,16 +776,9 @@ public class WeightEntryActivity extends AppCompatActivity {
         if (rowsUpdated == 1) {
             Log.i(TAG, "updateExistingEntry: Successfully updated weight entry: " + editWeightId);
 
-            // Check for achievements (Phase 7.5)
-            List<Achievement> newAchievements = achievementManager.checkAchievements(userId, weight);
-
-            // Send SMS for each new achievement
-            for (Achievement achievement : newAchievements) {
-                boolean sent = smsManager.sendAchievementSms(achievement);
-                if (sent) {
-                    Log.i(TAG, "updateExistingEntry: Achievement SMS sent: " + achievement.getAchievementType());
-                }
-            }
+            // An edit can change streaks, lows and goal progress anywhere in the history,
+            // so re-check all achievements in the background (queues SMS for new ones)
+            AchievementReevaluationWorker.schedule(this, userId);
 
             Toast.makeText(this, "Entry updated successfully", Toast.LENGTH_SHORT).show();
             setResult(RESULT_OK);
@@ -1,5 +1,6 @@
 package com.example.weightogo.adapters;
 
+import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,6 +11,7 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.weightogo.R;
+import com.example.weightogo.database.GoalProgress;
 import com.example.weightogo.models.GoalWeight;
 import com.example.weightogo.utils.DateUtils;
 import com.example.weightogo.utils.WeightUtils;
@@ -20,18 +22,19 @@ import java.util.List;
 
 /**
  * RecyclerView adapter for displaying goal history items.
- * Shows past goals with achievement status, stats, and dates.
+ * Shows past goals with achievement status, dates, and the progress made while each was
+ * active (see {@link GoalProgress}).
  */
 public class GoalHistoryAdapter extends RecyclerView.Adapter<GoalHistoryAdapter.ViewHolder> {
 
-    private final List<GoalWeight> goals;
+    private final List<GoalProgress> goals;
 
     /**
      * Constructor for GoalHistoryAdapter.
      *
-     * @param goals list of past goals to display
+     * @param goals list of past goals, with their progress, to display
      */
-    public GoalHistoryAdapter(List<GoalWeight> goals) {
+    public GoalHistoryAdapter(List<GoalProgress> goals) {
         this.goals = goals;
     }
 
@@ -45,7 +48,9 @@ public class GoalHistoryAdapter extends RecyclerView.Adapter<GoalHistoryAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        GoalWeight goal = goals.get(position);
+        GoalProgress progress = goals.get(position);
+        GoalWeight goal = progress.getGoal();
+        Context context = holder.itemView.getContext();
 
         // Show/hide achievement badge
         if (goal.isAchieved()) {
@@ -60,29 +65,46 @@ public class GoalHistoryAdapter extends RecyclerView.Adapter<GoalHistoryAdapter.
         String goalWeightText = WeightUtils.formatWeightWithUnit(goal.getGoalWeight(), goal.getGoalUnit());
         holder.textGoalWeightValue.setText(goalWeightText);
 
-        // Calculate lbs lost
-        double lbsLost = Math.abs(goal.getStartWeight() - goal.getGoalWeight());
-        String lbsLostText = String.format(holder.itemView.getContext().getString(R.string.lost_format), lbsLost);
-        holder.textLbsLost.setText(lbsLostText);
+        // Actual change over the goal's window (latest entry vs start weight)
+        Double change = progress.getActualChange();
+        if (change == null) {
+            holder.textLbsLost.setText(R.string.no_entries_during_goal);
+        } else {
+            int format = change <= 0 ? R.string.lost_format : R.string.gained_format;
+            holder.textLbsLost.setText(context.getString(format, Math.abs(change), goal.getGoalUnit()));
+        }
 
-        // Calculate duration
-        LocalDate startDate = goal.getCreatedAt().toLocalDate();
-        LocalDate endDate = goal.getUpdatedAt().toLocalDate();
-        long daysBetween = ChronoUnit.DAYS.between(startDate, endDate);
-        String durationText = String.format(holder.itemView.getContext().getString(R.string.duration_days), daysBetween);
-        holder.textDuration.setText(durationText);
+        // Duration: days to reach the goal, or the length of the window if it wasn't reached
+        LocalDate startDate = progress.getWindowStart();
+        LocalDate endDate = progress.getWindowEnd() != null ? progress.getWindowEnd() : LocalDate.now();
+        if (progress.getDaysToAchieve() >= 0) {
+            holder.textDuration.setText(context.getString(R.string.reached_in_days, progress.getDaysToAchieve()));
+        } else {
+            long daysBetween = ChronoUnit.DAYS.between(startDate, endDate);
+            holder.textDuration.setText(context.getString(R.string.duration_days, daysBetween));
+        }
+
+        // Best weight and entry count
+        Double best = progress.getBestWeight();
+        if (best != null) {
+            holder.textGoalStats.setText(context.getString(R.string.goal_best_entries_format,
+                    WeightUtils.formatWeightWithUnit(best, goal.getGoalUnit()), progress.getEntryCount()));
+            holder.textGoalStats.setVisibility(View.VISIBLE);
+        } else {
+            holder.textGoalStats.setVisibility(View.GONE);
+        }
 
         // Date range
         String startDateStr = DateUtils.formatDateShort(startDate);
         String endDateStr = DateUtils.formatDateShort(endDate);
-        String dateRangeText = String.format(holder.itemView.getContext().getString(R.string.date_range_format),
+        String dateRangeText = String.format(context.getString(R.string.date_range_format),
                 startDateStr, endDateStr);
         holder.textDates.setText(dateRangeText);
 
         // Target date (if set)
         if (goal.getTargetDate() != null) {
             String targetDateText = String.format(
-                    holder.itemView.getContext().getString(R.string.target_date_display),
+                    context.getString(R.string.target_date_display),
                     DateUtils.formatDateFull(goal.getTargetDate()));
             holder.textTargetDate.setText(targetDateText);
             holder.textTargetDate.setVisibility(View.VISIBLE);
@@ -100,9 +122,9 @@ public class GoalHistoryAdapter extends RecyclerView.Adapter<GoalHistoryAdapter.
      * Update the adapter's data and notify of changes.
      * More efficient than calling notifyDataSetChanged() externally.
      *
-     * @param newGoals updated list of goals
+     * @param newGoals updated list of goals, with their progress
      */
-    public void updateGoals(List<GoalWeight> newGoals) {
+    public void updateGoals(List<GoalProgress> newGoals) {
         // Clear and update in place to maintain the same list reference
         goals.clear();
         if (newGoals != null && !newGoals.isEmpty()) {
@@ -120,6 +142,7 @@ public class GoalHistoryAdapter extends RecyclerView.Adapter<GoalHistoryAdapter.
         TextView labelAchieved;
         TextView textLbsLost;
         TextView textDuration;
+        TextView textGoalStats;
         TextView textDates;
         TextView textTargetDate;
 
@@ -130,6 +153,7 @@ public class GoalHistoryAdapter extends RecyclerView.Adapter<GoalHistoryAdapter.
             labelAchieved = itemView.findViewById(R.id.label_achieved);
             textLbsLost = itemView.findViewById(R.id.text_lbs_lost);
             textDuration = itemView.findViewById(R.id.text_duration);
+            textGoalStats = itemView.findViewById(R.id.text_goal_stats);
             textDates = itemView.findViewById(R.id.text_dates);
             textTargetDate = itemView.findViewById(R.id.text_target_date);
         }
@@ -151,7 +151,7 @@ public class WeightEntryAdapter extends RecyclerView.Adapter<WeightEntryAdapter.
 
     /**
      * Binds trend badge showing weight change from previous entry.
-     * Converts weights to current entry's unit before comparison.
+     * Compares canonical masses (mass_dg), so entries in different units need no conversion.
      *
      * @param holder ViewHolder containing the views
      * @param position position of the entry in the list
@@ -168,24 +168,9 @@ public class WeightEntryAdapter extends RecyclerView.Adapter<WeightEntryAdapter.
         WeightEntry current = entries.get(position);
         WeightEntry previous = entries.get(position + 1); // List is sorted DESC (most recent first)
 
-        // Normalize both weights to current entry's unit for accurate comparison
-        double currentWeight = current.getWeightValue();
-        double previousWeight = previous.getWeightValue();
-
-        // Convert previous weight to current entry's unit if they differ
-        if (!current.getWeightUnit().equals(previous.getWeightUnit())) {
-            if (current.getWeightUnit().equals("lbs") && previous.getWeightUnit().equals("kg")) {
-                // Convert previous kg to lbs
-                previousWeight = WeightUtils.convertKgToLbs(previousWeight);
-            } else if (current.getWeightUnit().equals("kg") && previous.getWeightUnit().equals("lbs")) {
-                // Convert previous lbs to kg
-                previousWeight = WeightUtils.convertLbsToKg(previousWeight);
-            }
-        }
-
-        // Calculate trend: previous - current (positive = weight loss, negative = weight gain)
-        double diff = WeightUtils.roundToOneDecimal(previousWeight - currentWeight);
+        // Calculate trend on canonical masses: previous - current (positive = weight loss, negative = weight gain)
         String unit = current.getWeightUnit(); // Trend shown in current entry's unit
+        double diff = WeightUtils.fromDecigrams(previous.getMassDg() - current.getMassDg(), unit);
 
         if (Math.abs(diff) < 0.1) {
             // No change
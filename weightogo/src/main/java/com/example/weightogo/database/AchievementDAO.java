@@ -3,17 +3,21 @@ package com.example.weightogo.database;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.AchievementType;
+import com.example.weightogo.utils.AppLog;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for Achievement operations.
@@ -24,14 +28,86 @@ import java.util.List;
  * the SQLiteDatabase instance obtained via getReadableDatabase() or getWritableDatabase().
  * The singleton pattern ensures efficient connection pooling and prevents resource leaks.</p>
  *
- * <p><strong>Achievement Types:</strong> GOAL_REACHED, FIRST_ENTRY, STREAK_7, STREAK_30,
- * MILESTONE_5, MILESTONE_10, MILESTONE_25, MILESTONE_50, NEW_LOW</p>
+ * <p><strong>Achievement Types:</strong> stored as {@link AchievementType} codes in
+ * achievement_code; titles and descriptions are not stored.</p>
+ *
+ * <p><strong>One-time achievements:</strong> idx_achievements_user_code_once allows one row per
+ * user for every type whose {@link AchievementType#isOneTime()} is true (all but NEW_LOW).
+ * Inserts use INSERT OR IGNORE, so awarding one again is a no-op rather than an error and
+ * callers don't need to check {@link #hasAchievementType} first.</p>
+ *
+ * <p><strong>Feed:</strong> {@link #getAchievementFeed} pages through a user's history newest
+ * first, using the last achievement of the previous page as the key (no OFFSET), and is
+ * answered entirely from idx_achievements_user_feed.</p>
  */
 public class AchievementDAO {
 
     private static final String TAG = "AchievementDAO";
     private static final DateTimeFormatter ISO_DATETIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+    private static final String SQL_GET_FOR_USER =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_ACHIEVEMENTS + " WHERE user_id = ? ORDER BY achieved_at DESC";
+    private static final String SQL_GET_BY_TYPE =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_ACHIEVEMENTS +
+            " WHERE user_id = ? AND achievement_code = ? ORDER BY achieved_at DESC";
+    private static final String SQL_GET_UNNOTIFIED =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_ACHIEVEMENTS +
+            " WHERE user_id = ? AND is_notified = 0 ORDER BY achieved_at DESC";
+    private static final String SQL_HAS_TYPE =
+        "SELECT achievement_id FROM " + WeighToGoDBHelper.TABLE_ACHIEVEMENTS +
+            " WHERE user_id = ? AND achievement_code = ? LIMIT 1";
+    private static final String SQL_UPDATE_NOTIFIED =
+        "UPDATE " + WeighToGoDBHelper.TABLE_ACHIEVEMENTS + " SET is_notified = ? WHERE achievement_id = ?";
+    private static final String SQL_GET_BY_ID =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_ACHIEVEMENTS + " WHERE achievement_id = ?";
+    private static final String SQL_GET_LATEST =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_ACHIEVEMENTS +
+            " WHERE user_id = ? ORDER BY achieved_at DESC LIMIT 1";
+    // Followed by an achievement_id IN (...) list; the site registers the one-ID shape
+    private static final String SQL_MARK_NOTIFIED_WHERE =
+        "UPDATE " + WeighToGoDBHelper.TABLE_ACHIEVEMENTS + " SET is_notified = 1 WHERE ";
+    private static final String SQL_DELETE_WHERE =
+        "DELETE FROM " + WeighToGoDBHelper.TABLE_ACHIEVEMENTS + " WHERE ";
+
+    // Query instrumentation sites (each registers the SQL its method runs, for EXPLAIN QUERY PLAN)
+    private static final QueryMetrics.Site SITE_INSERT =
+        QueryMetrics.site("AchievementDAO.insertAchievement", null);
+    private static final QueryMetrics.Site SITE_INSERT_BATCH =
+        QueryMetrics.site("AchievementDAO.insertAchievements", null);
+    private static final QueryMetrics.Site SITE_GET_FOR_USER =
+        QueryMetrics.site("AchievementDAO.getAchievementsForUser", SQL_GET_FOR_USER);
+    private static final QueryMetrics.Site SITE_GET_BY_TYPE =
+        QueryMetrics.site("AchievementDAO.getAchievementsByType", SQL_GET_BY_TYPE);
+    private static final QueryMetrics.Site SITE_GET_UNNOTIFIED =
+        QueryMetrics.site("AchievementDAO.getUnnotifiedAchievements", SQL_GET_UNNOTIFIED);
+    private static final QueryMetrics.Site SITE_HAS_TYPE =
+        QueryMetrics.site("AchievementDAO.hasAchievementType", SQL_HAS_TYPE);
+    private static final QueryMetrics.Site SITE_UPDATE_NOTIFIED =
+        QueryMetrics.site("AchievementDAO.updateIsNotified", SQL_UPDATE_NOTIFIED);
+    private static final QueryMetrics.Site SITE_GET_BY_ID =
+        QueryMetrics.site("AchievementDAO.getAchievementById", SQL_GET_BY_ID);
+    private static final QueryMetrics.Site SITE_GET_LATEST =
+        QueryMetrics.site("AchievementDAO.getLatestAchievement", SQL_GET_LATEST);
+
+    // Keyset page: rows strictly older than (achieved_at, achievement_id) of the previous page's last row
+    private static final String FEED_COLUMNS =
+        "achievement_id, user_id, goal_id, achievement_code, value, achieved_at, is_notified";
+    private static final String SQL_FEED_FIRST =
+        "SELECT " + FEED_COLUMNS + " FROM achievements WHERE user_id = ? " +
+            "ORDER BY achieved_at DESC, achievement_id DESC LIMIT ?";
+    private static final String SQL_FEED_AFTER =
+        "SELECT " + FEED_COLUMNS + " FROM achievements WHERE user_id = ? " +
+            "AND (achieved_at, achievement_id) < (?, ?) " +
+            "ORDER BY achieved_at DESC, achievement_id DESC LIMIT ?";
+
+    private static final QueryMetrics.Site SITE_FEED =
+        QueryMetrics.site("AchievementDAO.getAchievementFeed", SQL_FEED_AFTER);
+    private static final QueryMetrics.Site SITE_MARK_NOTIFIED =
+        QueryMetrics.site("AchievementDAO.markNotified",
+            SQL_MARK_NOTIFIED_WHERE + SqlStatements.inClause("achievement_id", 1));
+    private static final QueryMetrics.Site SITE_RECONCILE =
+        QueryMetrics.site("AchievementDAO.reconcileAchievements", SQL_GET_FOR_USER);
+
     private final WeighToGoDBHelper dbHelper;
 
     public AchievementDAO(@NonNull WeighToGoDBHelper dbHelper) {
@@ -39,49 +115,90 @@ public class AchievementDAO {
     }
 
     /**
-     * Inserts a new achievement.
+     * Inserts a new achievement, unless it is a one-time type the user already has.
      *
      * @param achievement Achievement to insert
-     * @return achievement_id if successful, -1 on error (including foreign key constraint violations)
+     * @return achievement_id if inserted, -1 if already awarded or on error (including foreign
+     *         key constraint violations)
      */
     public long insertAchievement(@NonNull Achievement achievement) {
-        Log.d(TAG, "insertAchievement: Inserting achievement type=" + achievement.getAchievementType() +
-                " for user_id=" + achievement.getUserId());
+        AppLog.d(TAG, "insertAchievement: Inserting achievement type={} for user_id={}", achievement.getAchievementType(), achievement.getUserId());
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        ContentValues values = new ContentValues();
-        values.put("user_id", achievement.getUserId());
-        values.put("achievement_type", achievement.getAchievementType());
-        values.put("title", achievement.getTitle());
-        values.put("achieved_at", achievement.getAchievedAt().format(ISO_DATETIME_FORMATTER));
-        values.put("is_notified", achievement.isNotified() ? 1 : 0);
-
-        // Optional fields
-        if (achievement.getGoalId() != null) {
-            values.put("goal_id", achievement.getGoalId());
-        }
-        if (achievement.getDescription() != null) {
-            values.put("description", achievement.getDescription());
-        }
-        if (achievement.getValue() != null) {
-            values.put("value", achievement.getValue());
-        }
-
+        long start = QueryMetrics.begin();
+        int rows = 0;
         try {
-            long achievementId = db.insert(WeighToGoDBHelper.TABLE_ACHIEVEMENTS, null, values);
+            long achievementId = db.insertWithOnConflict(WeighToGoDBHelper.TABLE_ACHIEVEMENTS, null,
+                    toContentValues(achievement), SQLiteDatabase.CONFLICT_IGNORE);
             if (achievementId > 0) {
-                Log.i(TAG, "insertAchievement: Successfully inserted achievement_id=" + achievementId);
-            } else if (achievementId == -1) {
-                // Foreign key constraint violation (invalid user_id or goal_id)
-                Log.e(TAG, "insertAchievement: Foreign key constraint violated for user_id=" +
-                        achievement.getUserId());
+                rows = 1;
+                AppLog.i(TAG, "insertAchievement: Successfully inserted achievement_id={}", achievementId);
+            } else {
+                AppLog.d(TAG, "insertAchievement: {} already awarded to user_id={}",
+                        achievement.getAchievementType(), achievement.getUserId());
             }
             return achievementId;
         } catch (Exception e) {
-            Log.e(TAG, "insertAchievement: Exception", e);
+            // Foreign key constraint violation (invalid user_id or goal_id)
+            AppLog.e(TAG, "insertAchievement: Exception for user_id=" + achievement.getUserId(), e);
             return -1;
+        } finally {
+            QueryMetrics.end(SITE_INSERT, start, rows);
+            if (rows > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_ACHIEVEMENTS);
+            }
+        }
+    }
+
+    /**
+     * Inserts several achievements in one transaction, skipping one-time types the user
+     * already has (INSERT OR IGNORE against idx_achievements_user_type_once).
+     *
+     * The returned achievements have their achievement_id set; skipped ones are left
+     * untouched. Nothing is inserted if any row fails for another reason.
+     *
+     * @param achievements achievements to award
+     * @return the achievements actually inserted, in input order (empty on error)
+     */
+    @NonNull
+    public List<Achievement> insertAchievements(@NonNull List<Achievement> achievements) {
+        List<Achievement> inserted = new ArrayList<>();
+        if (achievements.isEmpty()) {
+            return inserted;
+        }
+        AppLog.d(TAG, "insertAchievements: Inserting {} achievements", achievements.size());
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long start = QueryMetrics.begin();
+        db.beginTransaction();
+
+        try {
+            for (Achievement achievement : achievements) {
+                long achievementId = db.insertWithOnConflict(WeighToGoDBHelper.TABLE_ACHIEVEMENTS, null,
+                        toContentValues(achievement), SQLiteDatabase.CONFLICT_IGNORE);
+                if (achievementId > 0) {
+                    achievement.setAchievementId(achievementId);
+                    inserted.add(achievement);
+                }
+            }
+            db.setTransactionSuccessful();
+            AppLog.i(TAG, "insertAchievements: Inserted {} of {} achievements", inserted.size(), achievements.size());
+        } catch (Exception e) {
+            AppLog.e(TAG, "insertAchievements: Exception, rolling back", e);
+            for (Achievement achievement : inserted) {
+                achievement.setAchievementId(0);
+            }
+            inserted.clear();
+        } finally {
+            db.endTransaction();
+            QueryMetrics.end(SITE_INSERT_BATCH, start, inserted.size());
+            if (!inserted.isEmpty()) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_ACHIEVEMENTS);
+            }
         }
+
+        return inserted;
     }
 
     /**
@@ -92,25 +209,21 @@ public class AchievementDAO {
      */
     @NonNull
     public List<Achievement> getAchievementsForUser(long userId) {
-        Log.d(TAG, "getAchievementsForUser: user_id=" + userId);
+        AppLog.d(TAG, "getAchievementsForUser: user_id={}", userId);
 
         List<Achievement> achievements = new ArrayList<>();
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_ACHIEVEMENTS,
-            null,
-            "user_id = ?",
-            new String[]{String.valueOf(userId)},
-            null, null,
-            "achieved_at DESC"
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_FOR_USER, new String[]{String.valueOf(userId)})) {
             while (cursor != null && cursor.moveToNext()) {
                 achievements.add(mapCursorToAchievement(cursor));
             }
-            Log.i(TAG, "getAchievementsForUser: Found " + achievements.size() + " achievements");
+            AppLog.i(TAG, "getAchievementsForUser: Found {} achievements", achievements.size());
         } catch (Exception e) {
-            Log.e(TAG, "getAchievementsForUser: Exception", e);
+            AppLog.e(TAG, "getAchievementsForUser: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_FOR_USER, start, achievements.size());
         }
 
         return achievements;
@@ -120,31 +233,27 @@ public class AchievementDAO {
      * Gets achievements of a specific type for a user.
      *
      * @param userId User ID
-     * @param achievementType Achievement type (e.g., "GOAL_REACHED", "MILESTONE_5")
+     * @param achievementType Achievement type (e.g., GOAL_REACHED, MILESTONE_5)
      * @return List of matching achievements
      */
     @NonNull
-    public List<Achievement> getAchievementsByType(long userId, @NonNull String achievementType) {
-        Log.d(TAG, "getAchievementsByType: user_id=" + userId + ", type=" + achievementType);
+    public List<Achievement> getAchievementsByType(long userId, @NonNull AchievementType achievementType) {
+        AppLog.d(TAG, "getAchievementsByType: user_id={}, type={}", userId, achievementType);
 
         List<Achievement> achievements = new ArrayList<>();
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_ACHIEVEMENTS,
-            null,
-            "user_id = ? AND achievement_type = ?",
-            new String[]{String.valueOf(userId), achievementType},
-            null, null,
-            "achieved_at DESC"
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_BY_TYPE,
+                new String[]{String.valueOf(userId), String.valueOf(achievementType.getCode())})) {
             while (cursor != null && cursor.moveToNext()) {
                 achievements.add(mapCursorToAchievement(cursor));
             }
-            Log.i(TAG, "getAchievementsByType: Found " + achievements.size() + " " +
-                    achievementType + " achievements");
+            AppLog.i(TAG, "getAchievementsByType: Found {} {} achievements", achievements.size(), achievementType);
         } catch (Exception e) {
-            Log.e(TAG, "getAchievementsByType: Exception", e);
+            AppLog.e(TAG, "getAchievementsByType: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_BY_TYPE, start, achievements.size());
         }
 
         return achievements;
@@ -158,26 +267,21 @@ public class AchievementDAO {
      */
     @NonNull
     public List<Achievement> getUnnotifiedAchievements(long userId) {
-        Log.d(TAG, "getUnnotifiedAchievements: user_id=" + userId);
+        AppLog.d(TAG, "getUnnotifiedAchievements: user_id={}", userId);
 
         List<Achievement> achievements = new ArrayList<>();
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_ACHIEVEMENTS,
-            null,
-            "user_id = ? AND is_notified = 0",
-            new String[]{String.valueOf(userId)},
-            null, null,
-            "achieved_at DESC"
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_UNNOTIFIED, new String[]{String.valueOf(userId)})) {
             while (cursor != null && cursor.moveToNext()) {
                 achievements.add(mapCursorToAchievement(cursor));
             }
-            Log.i(TAG, "getUnnotifiedAchievements: Found " + achievements.size() +
-                    " unnotified achievements");
+            AppLog.i(TAG, "getUnnotifiedAchievements: Found {} unnotified achievements", achievements.size());
         } catch (Exception e) {
-            Log.e(TAG, "getUnnotifiedAchievements: Exception", e);
+            AppLog.e(TAG, "getUnnotifiedAchievements: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_UNNOTIFIED, start, achievements.size());
         }
 
         return achievements;
@@ -190,25 +294,24 @@ public class AchievementDAO {
      * @param achievementType Achievement type to check
      * @return true if achievement exists, false otherwise
      */
-    public boolean hasAchievementType(long userId, @NonNull String achievementType) {
-        Log.d(TAG, "hasAchievementType: user_id=" + userId + ", type=" + achievementType);
+    public boolean hasAchievementType(long userId, @NonNull AchievementType achievementType) {
+        AppLog.d(TAG, "hasAchievementType: user_id={}, type={}", userId, achievementType);
 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_ACHIEVEMENTS,
-            new String[]{"achievement_id"},
-            "user_id = ? AND achievement_type = ?",
-            new String[]{String.valueOf(userId), achievementType},
-            null, null, null,
-            "1"
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_HAS_TYPE,
+                new String[]{String.valueOf(userId), String.valueOf(achievementType.getCode())})) {
             boolean exists = cursor != null && cursor.getCount() > 0;
-            Log.d(TAG, "hasAchievementType: " + achievementType + " exists=" + exists);
+            rows = exists ? 1 : 0;
+            AppLog.d(TAG, "hasAchievementType: {} exists={}", achievementType, exists);
             return exists;
         } catch (Exception e) {
-            Log.e(TAG, "hasAchievementType: Exception", e);
+            AppLog.e(TAG, "hasAchievementType: Exception", e);
             return false;
+        } finally {
+            QueryMetrics.end(SITE_HAS_TYPE, start, rows);
         }
     }
 
@@ -220,31 +323,255 @@ public class AchievementDAO {
      * @return Number of rows updated (1 if successful, 0 if not found)
      */
     public int updateIsNotified(long achievementId, boolean isNotified) {
-        Log.d(TAG, "updateIsNotified: achievement_id=" + achievementId + ", isNotified=" + isNotified);
+        AppLog.d(TAG, "updateIsNotified: achievement_id={}, isNotified={}", achievementId, isNotified);
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        ContentValues values = new ContentValues();
-        values.put("is_notified", isNotified ? 1 : 0);
-
+        long start = QueryMetrics.begin();
+        int rowsUpdated = 0;
         try {
-            int rowsUpdated = db.update(
-                WeighToGoDBHelper.TABLE_ACHIEVEMENTS,
-                values,
-                "achievement_id = ?",
-                new String[]{String.valueOf(achievementId)}
-            );
+            rowsUpdated = SqlStatements.executeUpdateDelete(db, SQL_UPDATE_NOTIFIED,
+                isNotified ? 1 : 0, achievementId);
 
             if (rowsUpdated > 0) {
-                Log.i(TAG, "updateIsNotified: Successfully updated achievement_id=" + achievementId);
+                AppLog.i(TAG, "updateIsNotified: Successfully updated achievement_id={}", achievementId);
             }
             return rowsUpdated;
         } catch (Exception e) {
-            Log.e(TAG, "updateIsNotified: Exception", e);
+            AppLog.e(TAG, "updateIsNotified: Exception", e);
             return 0;
+        } finally {
+            QueryMetrics.end(SITE_UPDATE_NOTIFIED, start, rowsUpdated);
+            if (rowsUpdated > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_ACHIEVEMENTS);
+            }
         }
     }
 
+    /**
+     * Marks several achievements as notified with one UPDATE ... WHERE achievement_id IN (...)
+     * (split into chunks of {@value SqlStatements#MAX_IDS_PER_STATEMENT} IDs), all in one transaction.
+     *
+     * @param achievementIds achievements whose SMS was sent
+     * @return number of rows updated (0 on error, in which case nothing is updated)
+     */
+    public int markNotified(@NonNull long[] achievementIds) {
+        if (achievementIds.length == 0) {
+            return 0;
+        }
+        AppLog.d(TAG, "markNotified: {} achievements", achievementIds.length);
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long start = QueryMetrics.begin();
+        int rowsUpdated = 0;
+        db.beginTransaction();
+
+        try {
+            for (int from = 0; from < achievementIds.length; from += SqlStatements.MAX_IDS_PER_STATEMENT) {
+                int to = Math.min(from + SqlStatements.MAX_IDS_PER_STATEMENT, achievementIds.length);
+                rowsUpdated += SqlStatements.executeUpdateDelete(db,
+                        SQL_MARK_NOTIFIED_WHERE + SqlStatements.inClause("achievement_id", to - from),
+                        (Object[]) SqlStatements.idArgs(achievementIds, from, to));
+            }
+            db.setTransactionSuccessful();
+            AppLog.i(TAG, "markNotified: Updated {} of {} achievements", rowsUpdated, achievementIds.length);
+        } catch (Exception e) {
+            AppLog.e(TAG, "markNotified: Exception, rolling back", e);
+            rowsUpdated = 0;
+        } finally {
+            db.endTransaction();
+            QueryMetrics.end(SITE_MARK_NOTIFIED, start, rowsUpdated);
+            if (rowsUpdated > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_ACHIEVEMENTS);
+            }
+        }
+
+        return rowsUpdated;
+    }
+
+    /**
+     * Makes the user's stored achievements match {@code expected}, the full set their history
+     * earns (see AchievementEvaluator), in one transaction: missing ones are inserted and
+     * ones no longer earned are deleted, together with any SMS still queued for them.
+     *
+     * Only achievements of {@code types} are touched, and goal-progress achievements only
+     * if they belong to {@code activeGoalId}, so those earned under earlier goals are kept.
+     * One-time types are matched by type; NEW_LOW by type and value.
+     *
+     * @param userId       User ID
+     * @param activeGoalId the goal {@code expected} was evaluated against, or null
+     * @param types        achievement types the evaluation decides
+     * @param expected     achievements the history earns
+     * @return the achievements inserted (empty if nothing was missing, or on error)
+     */
+    @NonNull
+    public List<Achievement> reconcileAchievements(long userId, @Nullable Long activeGoalId,
+                                                   @NonNull Set<AchievementType> types,
+                                                   @NonNull List<Achievement> expected) {
+        AppLog.d(TAG, "reconcileAchievements: user_id={}, expected={}", userId, expected.size());
+
+        Map<String, List<Achievement>> unmatched = new HashMap<>();
+        for (Achievement achievement : expected) {
+            unmatched.computeIfAbsent(reconcileKey(achievement), key -> new ArrayList<>()).add(achievement);
+        }
+
+        List<Achievement> inserted = new ArrayList<>();
+        int deleted = 0;
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long start = QueryMetrics.begin();
+        db.beginTransaction();
+
+        try {
+            List<Long> staleIds = new ArrayList<>();
+            try (Cursor cursor = db.rawQuery(SQL_GET_FOR_USER, new String[]{String.valueOf(userId)})) {
+                while (cursor != null && cursor.moveToNext()) {
+                    Achievement stored = mapCursorToAchievement(cursor);
+                    AchievementType type = stored.getAchievementType();
+                    boolean managed = types.contains(type) && (!type.isGoalProgress()
+                            || (activeGoalId != null && activeGoalId.equals(stored.getGoalId())));
+                    if (!managed) {
+                        continue;
+                    }
+                    List<Achievement> matches = unmatched.get(reconcileKey(stored));
+                    if (matches != null && !matches.isEmpty()) {
+                        matches.remove(matches.size() - 1);
+                    } else {
+                        staleIds.add(stored.getAchievementId());
+                    }
+                }
+            }
+
+            for (int from = 0; from < staleIds.size(); from += SqlStatements.MAX_IDS_PER_STATEMENT) {
+                int to = Math.min(from + SqlStatements.MAX_IDS_PER_STATEMENT, staleIds.size());
+                long[] ids = new long[to - from];
+                for (int i = from; i < to; i++) {
+                    ids[i - from] = staleIds.get(i);
+                }
+                deleted += SqlStatements.executeUpdateDelete(db,
+                        SQL_DELETE_WHERE + SqlStatements.inClause("achievement_id", ids.length),
+                        (Object[]) SqlStatements.idArgs(ids, 0, ids.length));
+            }
+
+            for (Achievement achievement : expected) {
+                List<Achievement> missing = unmatched.get(reconcileKey(achievement));
+                if (missing == null || !missing.remove(achievement)) {
+                    continue;
+                }
+                long achievementId = db.insertWithOnConflict(WeighToGoDBHelper.TABLE_ACHIEVEMENTS, null,
+                        toContentValues(achievement), SQLiteDatabase.CONFLICT_IGNORE);
+                if (achievementId > 0) {
+                    achievement.setAchievementId(achievementId);
+                    inserted.add(achievement);
+                }
+            }
+
+            db.setTransactionSuccessful();
+            AppLog.i(TAG, "reconcileAchievements: user_id={} inserted={}, deleted={}",
+                    userId, inserted.size(), deleted);
+        } catch (Exception e) {
+            AppLog.e(TAG, "reconcileAchievements: Exception, rolling back", e);
+            for (Achievement achievement : inserted) {
+                achievement.setAchievementId(0);
+            }
+            inserted.clear();
+            deleted = 0;
+        } finally {
+            db.endTransaction();
+            QueryMetrics.end(SITE_RECONCILE, start, inserted.size() + deleted);
+            if (!inserted.isEmpty() || deleted > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_ACHIEVEMENTS);
+            }
+        }
+
+        return inserted;
+    }
+
+    /**
+     * One-time types match on the type alone; NEW_LOW on the type and the weight to 0.1.
+     */
+    private static String reconcileKey(@NonNull Achievement achievement) {
+        AchievementType type = achievement.getAchievementType();
+        if (type.isOneTime() || achievement.getValue() == null) {
+            return type.name();
+        }
+        return type.name() + ":" + Math.round(achievement.getValue() * 10);
+    }
+
+    /**
+     * Gets one page of a user's achievements, newest first.
+     *
+     * Pass null for the first page, then the last achievement of each page to get the next.
+     * Achievements with the same achieved_at are ordered by achievement_id, so no row is
+     * skipped or repeated between pages.
+     *
+     * @param userId   User ID
+     * @param after    last achievement of the previous page, or null for the first page
+     * @param pageSize maximum number of achievements to return
+     * @return the page (fewer than pageSize, possibly empty, at the end of the history)
+     */
+    @NonNull
+    public List<Achievement> getAchievementFeed(long userId, @Nullable Achievement after, int pageSize) {
+        AppLog.d(TAG, "getAchievementFeed: user_id={}, after={}, page_size={}",
+                userId, after != null ? after.getAchievementId() : null, pageSize);
+
+        List<Achievement> achievements = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+
+        String sql;
+        String[] args;
+        if (after == null) {
+            sql = SQL_FEED_FIRST;
+            args = new String[]{String.valueOf(userId), String.valueOf(pageSize)};
+        } else {
+            sql = SQL_FEED_AFTER;
+            args = new String[]{String.valueOf(userId),
+                    after.getAchievedAt().format(ISO_DATETIME_FORMATTER),
+                    String.valueOf(after.getAchievementId()),
+                    String.valueOf(pageSize)};
+        }
+
+        try (Cursor cursor = db.rawQuery(sql, args)) {
+            while (cursor != null && cursor.moveToNext()) {
+                achievements.add(mapCursorToAchievement(cursor));
+            }
+            AppLog.d(TAG, "getAchievementFeed: Found {} achievements", achievements.size());
+        } catch (Exception e) {
+            AppLog.e(TAG, "getAchievementFeed: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_FEED, start, achievements.size());
+        }
+
+        return achievements;
+    }
+
+    /**
+     * Gets an achievement by ID.
+     *
+     * @param achievementId Achievement ID
+     * @return Achievement, or null if not found
+     */
+    @Nullable
+    public Achievement getAchievementById(long achievementId) {
+        AppLog.d(TAG, "getAchievementById: achievement_id={}", achievementId);
+
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
+
+        try (Cursor cursor = db.rawQuery(SQL_GET_BY_ID, new String[]{String.valueOf(achievementId)})) {
+            if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
+                return mapCursorToAchievement(cursor);
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "getAchievementById: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_BY_ID, start, rows);
+        }
+        return null;
+    }
+
     /**
      * Gets the most recent achievement for a user.
      *
@@ -253,28 +580,45 @@ public class AchievementDAO {
      */
     @Nullable
     public Achievement getLatestAchievement(long userId) {
-        Log.d(TAG, "getLatestAchievement: user_id=" + userId);
+        AppLog.d(TAG, "getLatestAchievement: user_id={}", userId);
 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_ACHIEVEMENTS,
-            null,
-            "user_id = ?",
-            new String[]{String.valueOf(userId)},
-            null, null,
-            "achieved_at DESC",
-            "1"
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_LATEST, new String[]{String.valueOf(userId)})) {
             if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
                 return mapCursorToAchievement(cursor);
             }
         } catch (Exception e) {
-            Log.e(TAG, "getLatestAchievement: Exception", e);
+            AppLog.e(TAG, "getLatestAchievement: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_LATEST, start, rows);
         }
         return null;
     }
 
+    /**
+     * Maps an achievement to insert values (achievement_id is assigned by SQLite).
+     */
+    private static ContentValues toContentValues(@NonNull Achievement achievement) {
+        ContentValues values = new ContentValues();
+        values.put("user_id", achievement.getUserId());
+        values.put("achievement_code", achievement.getAchievementType().getCode());
+        values.put("achieved_at", achievement.getAchievedAt().format(ISO_DATETIME_FORMATTER));
+        values.put("is_notified", achievement.isNotified() ? 1 : 0);
+
+        // Optional fields
+        if (achievement.getGoalId() != null) {
+            values.put("goal_id", achievement.getGoalId());
+        }
+        if (achievement.getValue() != null) {
+            values.put("value", achievement.getValue());
+        }
+        return values;
+    }
+
     /**
      * Maps a database cursor row to an Achievement object.
      *
@@ -286,8 +630,12 @@ public class AchievementDAO {
 
         achievement.setAchievementId(cursor.getLong(cursor.getColumnIndexOrThrow("achievement_id")));
         achievement.setUserId(cursor.getLong(cursor.getColumnIndexOrThrow("user_id")));
-        achievement.setAchievementType(cursor.getString(cursor.getColumnIndexOrThrow("achievement_type")));
-        achievement.setTitle(cursor.getString(cursor.getColumnIndexOrThrow("title")));
+        int code = cursor.getInt(cursor.getColumnIndexOrThrow("achievement_code"));
+        AchievementType type = AchievementType.fromCode(code);
+        if (type == null) {
+            throw new IllegalStateException("Unknown achievement_code " + code);
+        }
+        achievement.setAchievementType(type);
         achievement.setNotified(cursor.getInt(cursor.getColumnIndexOrThrow("is_notified")) == 1);
 
         // Parse achieved_at timestamp
@@ -300,11 +648,6 @@ public class AchievementDAO {
             achievement.setGoalId(cursor.getLong(goalIdIndex));
         }
 
-        int descriptionIndex = cursor.getColumnIndexOrThrow("description");
-        if (!cursor.isNull(descriptionIndex)) {
-            achievement.setDescription(cursor.getString(descriptionIndex));
-        }
-
         int valueIndex = cursor.getColumnIndexOrThrow("value");
         if (!cursor.isNull(valueIndex)) {
             achievement.setValue(cursor.getDouble(valueIndex));
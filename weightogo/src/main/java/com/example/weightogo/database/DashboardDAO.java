@@ -0,0 +1,144 @@
+package com.example.weightogo.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+
+import com.example.weightogo.models.GoalWeight;
+import com.example.weightogo.models.WeightEntry;
+import com.example.weightogo.utils.AppLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only DAO that loads everything MainActivity shows as one {@link DashboardSnapshot}.
+ *
+ * Replaces the separate getUserById / getWeightEntriesForUser / getActiveGoal (twice) calls
+ * the dashboard used to make on every resume. All statements run in one transaction, so
+ * the name, goal, entries, streak and count always agree with each other:
+ * <ol>
+ *   <li>Header: user name, active goal and entry count in one row
+ *       (users primary key, idx_goals_user_one_active, idx_weights_user_history, plus the
+ *       archived entries counted in weight_monthly_rollup)</li>
+ *   <li>Latest page of entries, archived ones included (idx_weights_user_date merged with
+ *       the archive's date index, stops after the page)</li>
+ *   <li>Current streak, computed in SQLite (see {@link WeightEntryDAO#getStreaks})</li>
+ * </ol>
+ *
+ * Android before API 35 has no read-only transaction, so this uses
+ * beginTransactionNonExclusive(). Other readers are not blocked, and writers only wait for
+ * the few milliseconds the reads take.
+ */
+public class DashboardDAO {
+
+    private static final String TAG = "DashboardDAO";
+
+    /** Entries in the dashboard list */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    // One row: user name, entry count (hot plus archived) and the active goal (goal columns
+    // null if none)
+    private static final String SQL_HEADER =
+        "SELECT u.username AS username, u.display_name AS display_name, " +
+            "(SELECT COUNT(*) FROM daily_weights w WHERE w.user_id = u.user_id AND w.is_deleted = 0) + " +
+            "(SELECT COALESCE(SUM(r.entry_count), 0) FROM weight_monthly_rollup r WHERE r.user_id = u.user_id) " +
+            "AS entry_count, g.* " +
+            "FROM users u " +
+            "LEFT JOIN goal_weights g ON g.user_id = u.user_id AND g.is_active = 1 " +
+            "WHERE u.user_id = ?";
+
+    // Newest entries first, archived ones included
+    private static final String SQL_ENTRIES = WeightEntryDAO.SQL_GET_FOR_USER + " LIMIT ?2";
+
+    // Query instrumentation sites (SQL mirrors each query for EXPLAIN QUERY PLAN)
+    private static final QueryMetrics.Site SITE_HEADER =
+        QueryMetrics.site("DashboardDAO.getDashboardSnapshot", SQL_HEADER);
+    private static final QueryMetrics.Site SITE_ENTRIES =
+        QueryMetrics.site("DashboardDAO.getDashboardSnapshot.entries", SQL_ENTRIES);
+
+    private final WeighToGoDBHelper dbHelper;
+
+    public DashboardDAO(@NonNull WeighToGoDBHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    /**
+     * Loads the dashboard with the default page size. Call off the main thread when possible.
+     *
+     * @param userId user to load
+     * @return snapshot (user fields empty if the user does not exist)
+     */
+    @NonNull
+    public DashboardSnapshot getDashboardSnapshot(long userId) {
+        return getDashboardSnapshot(userId, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Loads the dashboard for {@code userId} in one read transaction.
+     *
+     * @param userId   user to load
+     * @param pageSize maximum number of entries to return (newest first)
+     * @return snapshot (user fields empty if the user does not exist)
+     */
+    @NonNull
+    public DashboardSnapshot getDashboardSnapshot(long userId, int pageSize) {
+        AppLog.d(TAG, "getDashboardSnapshot: user_id={}, page_size={}", userId, pageSize);
+
+        // Stamp first so a write racing with the reads marks the snapshot stale
+        InvalidationTracker.Stamp stamp = dbHelper.getInvalidationTracker().stamp(DashboardSnapshot.TABLES);
+        String[] userArg = {String.valueOf(userId)};
+
+        String username = null;
+        String displayName = null;
+        int entryCount = 0;
+        GoalWeight activeGoal = null;
+        List<WeightEntry> entries = new ArrayList<>();
+        int streak = 0;
+
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        db.beginTransactionNonExclusive();
+        try {
+            long start = QueryMetrics.begin();
+            int rows = 0;
+            try (Cursor cursor = db.rawQuery(SQL_HEADER, userArg)) {
+                if (cursor != null && cursor.moveToFirst()) {
+                    rows = 1;
+                    username = cursor.getString(cursor.getColumnIndexOrThrow("username"));
+                    displayName = cursor.getString(cursor.getColumnIndexOrThrow("display_name"));
+                    entryCount = cursor.getInt(cursor.getColumnIndexOrThrow("entry_count"));
+                    if (!cursor.isNull(cursor.getColumnIndexOrThrow("goal_id"))) {
+                        activeGoal = GoalWeightDAO.mapCursorToGoal(cursor);
+                    }
+                }
+            } finally {
+                QueryMetrics.end(SITE_HEADER, start, rows);
+            }
+
+            if (entryCount > 0) {
+                start = QueryMetrics.begin();
+                try (Cursor cursor = db.rawQuery(SQL_ENTRIES,
+                        new String[]{String.valueOf(userId), String.valueOf(pageSize)})) {
+                    while (cursor != null && cursor.moveToNext()) {
+                        entries.add(WeightEntryDAO.mapCursorToEntry(cursor));
+                    }
+                } finally {
+                    QueryMetrics.end(SITE_ENTRIES, start, entries.size());
+                }
+
+                streak = WeightEntryDAO.queryStreaks(db, userId, null).getCurrent();
+            }
+
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            AppLog.e(TAG, "getDashboardSnapshot: Exception", e);
+        } finally {
+            db.endTransaction();
+        }
+
+        AppLog.i(TAG, "getDashboardSnapshot: {} of {} entries, streak={}", entries.size(), entryCount, streak);
+        return new DashboardSnapshot(userId, username, displayName, entries, activeGoal,
+                entryCount, streak, stamp);
+    }
+}
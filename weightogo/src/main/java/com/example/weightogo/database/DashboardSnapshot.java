@@ -0,0 +1,111 @@
+package com.example.weightogo.database;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.weightogo.models.GoalWeight;
+import com.example.weightogo.models.WeightEntry;
+import com.example.weightogo.utils.ValidationUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything MainActivity shows for one user: the name to greet, the latest page of weight
+ * entries (newest first), the active goal, the day streak and the entry count, plus the
+ * {@link InvalidationTracker.Stamp} taken before they were read.
+ *
+ * Loaded by {@link DashboardDAO#getDashboardSnapshot(long)} in one read transaction, either
+ * at startup (see StartupInitializer) or by the dashboard's {@link ObservableQuery}; the
+ * stamp makes the query re-run if anything was written after the snapshot was taken.
+ *
+ * Immutable; the entry list is unmodifiable. Model objects are shared and must be
+ * treated as read-only.
+ */
+public final class DashboardSnapshot {
+
+    /** Tables the snapshot is read from */
+    public static final String[] TABLES = {
+        WeighToGoDBHelper.TABLE_USERS,
+        WeighToGoDBHelper.TABLE_DAILY_WEIGHTS,
+        WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE,
+        WeighToGoDBHelper.TABLE_GOAL_WEIGHTS,
+        WeighToGoDBHelper.TABLE_WEIGHT_MONTHLY_ROLLUP
+    };
+
+    private final long userId;
+    @Nullable private final String username;
+    @Nullable private final String displayName;
+    @NonNull private final List<WeightEntry> weightEntries;
+    @Nullable private final GoalWeight activeGoal;
+    private final int entryCount;
+    private final int dayStreak;
+    @NonNull private final InvalidationTracker.Stamp stamp;
+
+    DashboardSnapshot(long userId, @Nullable String username, @Nullable String displayName,
+                      @NonNull List<WeightEntry> weightEntries, @Nullable GoalWeight activeGoal,
+                      int entryCount, int dayStreak, @NonNull InvalidationTracker.Stamp stamp) {
+        this.userId = userId;
+        this.username = username;
+        this.displayName = displayName;
+        this.weightEntries = Collections.unmodifiableList(new ArrayList<>(weightEntries));
+        this.activeGoal = activeGoal;
+        this.entryCount = entryCount;
+        this.dayStreak = dayStreak;
+        this.stamp = stamp;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return display name, falling back to the username when it is empty; null if the
+     *         user does not exist
+     */
+    @Nullable
+    public String getDisplayName() {
+        return ValidationUtils.isNullOrEmpty(displayName) ? username : displayName;
+    }
+
+    /**
+     * @return newest entries first, at most the page size the snapshot was loaded with
+     */
+    @NonNull
+    public List<WeightEntry> getWeightEntries() {
+        return weightEntries;
+    }
+
+    /**
+     * @return the most recent entry, or null if the user has none
+     */
+    @Nullable
+    public WeightEntry getLatestEntry() {
+        return weightEntries.isEmpty() ? null : weightEntries.get(0);
+    }
+
+    @Nullable
+    public GoalWeight getActiveGoal() {
+        return activeGoal;
+    }
+
+    /**
+     * @return number of non-deleted entries, including those beyond the page and archived ones
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return consecutive days with an entry, ending at the latest entry
+     */
+    public int getDayStreak() {
+        return dayStreak;
+    }
+
+    @NonNull
+    public InvalidationTracker.Stamp getStamp() {
+        return stamp;
+    }
+}
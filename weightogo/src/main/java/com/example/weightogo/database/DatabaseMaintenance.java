@@ -0,0 +1,245 @@
+package com.example.weightogo.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+
+import com.example.weightogo.utils.AppLog;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Housekeeping for the database file, run by MaintenanceWorker while the device is idle.
+ *
+ * <p>WeightEntryDAO.deleteWeightEntry() only sets is_deleted = 1 (and stamps updated_at),
+ * so deleted entries stay in daily_weights and its indexes until
+ * {@link #purgeDeletedEntries} removes them. {@link #optimize()} keeps the planner's
+ * statistics current, and {@link #incrementalVacuum(int)} hands the pages freed by the
+ * purge back to the file system a bounded amount at a time.</p>
+ *
+ * <p><strong>Batches:</strong> The purge deletes by weight_id range, one short transaction
+ * per batch, so the UI's writes are never blocked for long and a stopped run keeps the
+ * batches it finished.</p>
+ *
+ * <p><strong>Database Lifecycle:</strong> Uses the singleton WeighToGoDBHelper and does NOT
+ * close the SQLiteDatabase it obtains.</p>
+ */
+public final class DatabaseMaintenance {
+
+    private static final String TAG = "DatabaseMaintenance";
+    private static final DateTimeFormatter ISO_DATETIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /** PRAGMA auto_vacuum value for INCREMENTAL */
+    static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    // Query instrumentation sites (SQL mirrors each query for EXPLAIN QUERY PLAN)
+    private static final String SQL_NEXT_PURGE_BATCH =
+        "SELECT MAX(weight_id) FROM (SELECT weight_id FROM daily_weights " +
+            "WHERE is_deleted = 1 AND updated_at < ? AND weight_id > ? ORDER BY weight_id LIMIT ?)";
+    private static final QueryMetrics.Site SITE_PURGE =
+        QueryMetrics.site("DatabaseMaintenance.purgeDeletedEntries", SQL_NEXT_PURGE_BATCH);
+    private static final QueryMetrics.Site SITE_OPTIMIZE =
+        QueryMetrics.site("DatabaseMaintenance.optimize", null);
+    private static final QueryMetrics.Site SITE_INCREMENTAL_VACUUM =
+        QueryMetrics.site("DatabaseMaintenance.incrementalVacuum", null);
+
+    private final WeighToGoDBHelper dbHelper;
+
+    public DatabaseMaintenance(@NonNull WeighToGoDBHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    /**
+     * Hard-deletes soft-deleted weight entries that were deleted before a cutoff.
+     *
+     * @param deletedBefore only entries whose updated_at (the deletion time) is earlier are purged
+     * @param batchSize     most rows deleted per transaction
+     * @param stopRequested checked between batches; returning true ends the purge early
+     * @return number of rows deleted (0 on error)
+     */
+    public int purgeDeletedEntries(@NonNull LocalDateTime deletedBefore, int batchSize,
+                                   @NonNull BooleanSupplier stopRequested) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        String cutoff = deletedBefore.format(ISO_DATETIME_FORMATTER);
+
+        long start = QueryMetrics.begin();
+        int rowsDeleted = 0;
+        try {
+            long afterId = 0;
+            while (!stopRequested.getAsBoolean()) {
+                long upToId = nextPurgeBatchEnd(db, cutoff, afterId, batchSize);
+                if (upToId <= afterId) {
+                    break;
+                }
+
+                db.beginTransaction();
+                try {
+                    rowsDeleted += db.delete(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS,
+                        "weight_id > ? AND weight_id <= ? AND is_deleted = 1 AND updated_at < ?",
+                        new String[]{String.valueOf(afterId), String.valueOf(upToId), cutoff});
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+                afterId = upToId;
+            }
+
+            AppLog.i(TAG, "purgeDeletedEntries: Purged {} entries deleted before {}", rowsDeleted, cutoff);
+            return rowsDeleted;
+        } catch (Exception e) {
+            AppLog.e(TAG, "purgeDeletedEntries: Exception", e);
+            return 0;
+        } finally {
+            QueryMetrics.end(SITE_PURGE, start, rowsDeleted);
+            if (rowsDeleted > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the query planner's statistics: a full ANALYZE the first time (no
+     * sqlite_stat1 yet), PRAGMA optimize afterwards, which only re-analyzes tables whose
+     * size has changed enough to matter.
+     *
+     * @return true if a full ANALYZE was run
+     */
+    public boolean optimize() {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        long start = QueryMetrics.begin();
+        boolean analyzed = false;
+        try {
+            if (!hasStatistics(db)) {
+                db.execSQL("ANALYZE");
+                analyzed = true;
+                AppLog.i(TAG, "optimize: Ran ANALYZE");
+            } else {
+                // PRAGMA optimize can return rows; read them so every step runs
+                try (Cursor cursor = db.rawQuery("PRAGMA optimize", null)) {
+                    cursor.getCount();
+                }
+                AppLog.d(TAG, "optimize: Ran PRAGMA optimize");
+            }
+            return analyzed;
+        } catch (Exception e) {
+            AppLog.e(TAG, "optimize: Exception", e);
+            return false;
+        } finally {
+            QueryMetrics.end(SITE_OPTIMIZE, start, 0);
+        }
+    }
+
+    /**
+     * Switches the database to auto_vacuum = INCREMENTAL if it isn't already. New databases
+     * are created in this mode (see WeighToGoDBHelper.onConfigure()); this converts databases
+     * created by older versions of the app.
+     *
+     * The mode of an existing database only changes on a full VACUUM, which rewrites the
+     * whole file, so this is done once; afterwards {@link #incrementalVacuum(int)} does the
+     * reclaiming.
+     *
+     * @return true if the database was converted by this call
+     */
+    public boolean enableIncrementalVacuum() {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        try {
+            if (getAutoVacuumMode(db) == AUTO_VACUUM_INCREMENTAL) {
+                return false;
+            }
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+            db.execSQL("VACUUM");
+            boolean converted = getAutoVacuumMode(db) == AUTO_VACUUM_INCREMENTAL;
+            AppLog.i(TAG, "enableIncrementalVacuum: Converted={}", converted);
+            return converted;
+        } catch (Exception e) {
+            AppLog.e(TAG, "enableIncrementalVacuum: Exception", e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns up to {@code maxPages} free pages to the file system. Does nothing unless
+     * the database is in auto_vacuum = INCREMENTAL mode (see {@link #enableIncrementalVacuum()}).
+     *
+     * @param maxPages most pages to release in this call
+     * @return bytes the file shrank by (0 on error)
+     */
+    public long incrementalVacuum(int maxPages) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        long start = QueryMetrics.begin();
+        int pagesFreed = 0;
+        try {
+            long pageSize = db.getPageSize();
+            long pagesBefore = pragmaLong(db, "PRAGMA page_count");
+            // Each step of the pragma frees one page. Reading the cursor runs every step; the
+            // loop re-issues it for the rest if a step was cut short, and stops on no progress.
+            long pages = pagesBefore;
+            while (pagesFreed < maxPages) {
+                try (Cursor cursor = db.rawQuery(
+                        "PRAGMA incremental_vacuum(" + (maxPages - pagesFreed) + ")", null)) {
+                    cursor.getCount();
+                }
+                long pagesAfter = pragmaLong(db, "PRAGMA page_count");
+                if (pagesAfter >= pages) {
+                    break;
+                }
+                pages = pagesAfter;
+                pagesFreed = (int) (pagesBefore - pages);
+            }
+
+            long bytes = pagesFreed * pageSize;
+            AppLog.i(TAG, "incrementalVacuum: Released {} pages ({} bytes)", pagesFreed, bytes);
+            return bytes;
+        } catch (Exception e) {
+            AppLog.e(TAG, "incrementalVacuum: Exception", e);
+            return 0;
+        } finally {
+            QueryMetrics.end(SITE_INCREMENTAL_VACUUM, start, pagesFreed);
+        }
+    }
+
+    /**
+     * @return current size of the database file (page_count × page_size), or -1 on error
+     */
+    public long getDatabaseSizeBytes() {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        try {
+            return pragmaLong(db, "PRAGMA page_count") * db.getPageSize();
+        } catch (Exception e) {
+            AppLog.e(TAG, "getDatabaseSizeBytes: Exception", e);
+            return -1;
+        }
+    }
+
+    /**
+     * @return the database's PRAGMA auto_vacuum mode (0 NONE, 1 FULL, 2 INCREMENTAL)
+     */
+    int getAutoVacuumMode(@NonNull SQLiteDatabase db) {
+        return (int) pragmaLong(db, "PRAGMA auto_vacuum");
+    }
+
+    private static long nextPurgeBatchEnd(SQLiteDatabase db, String cutoff, long afterId, int batchSize) {
+        try (Cursor cursor = db.rawQuery(SQL_NEXT_PURGE_BATCH,
+                new String[]{cutoff, String.valueOf(afterId), String.valueOf(batchSize)})) {
+            return cursor.moveToFirst() && !cursor.isNull(0) ? cursor.getLong(0) : afterId;
+        }
+    }
+
+    private static boolean hasStatistics(SQLiteDatabase db) {
+        try (Cursor cursor = db.rawQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'sqlite_stat1'", null)) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    private static long pragmaLong(SQLiteDatabase db, String pragma) {
+        try (Cursor cursor = db.rawQuery(pragma, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+}
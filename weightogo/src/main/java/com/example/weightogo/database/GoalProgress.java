@@ -0,0 +1,117 @@
+package com.example.weightogo.database;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.weightogo.models.GoalWeight;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * One goal plus what actually happened while it was active, for the goal history list.
+ *
+ * A goal's window runs from the day it was created to the day it was deactivated
+ * (its updated_at), or to today while it is still active. Every figure is computed from
+ * the user's non-deleted entries dated inside that window, and weights are in the goal's
+ * unit whatever unit the entries were logged in.
+ *
+ * Loaded for all of a user's goals at once by {@link GoalWeightDAO#getGoalHistoryWithProgress(long)}.
+ * Immutable; the goal is shared and must be treated as read-only.
+ */
+public final class GoalProgress {
+
+    /** Tables the progress is read from (re-load when any is written) */
+    public static final String[] TABLES = {
+        WeighToGoDBHelper.TABLE_GOAL_WEIGHTS,
+        WeighToGoDBHelper.TABLE_DAILY_WEIGHTS,
+        WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE
+    };
+
+    @NonNull private final GoalWeight goal;
+    @Nullable private final LocalDate windowEnd;
+    private final int entryCount;
+    @Nullable private final Double latestWeight;
+    @Nullable private final Double bestWeight;
+    @Nullable private final LocalDate reachedDate;
+
+    /**
+     * @param goal         the goal
+     * @param windowEnd    last day of the goal's window, or null while the goal is active
+     * @param entryCount   entries in the window
+     * @param latestWeight last entry in the window, in the goal's unit (null if no entries)
+     * @param bestWeight   entry closest to the goal's direction (lowest for a loss goal,
+     *                     highest for a gain goal), in the goal's unit (null if no entries)
+     * @param reachedDate  first day an entry reached the goal, or null if none did
+     */
+    public GoalProgress(@NonNull GoalWeight goal, @Nullable LocalDate windowEnd, int entryCount,
+                        @Nullable Double latestWeight, @Nullable Double bestWeight,
+                        @Nullable LocalDate reachedDate) {
+        this.goal = goal;
+        this.windowEnd = windowEnd;
+        this.entryCount = entryCount;
+        this.latestWeight = latestWeight;
+        this.bestWeight = bestWeight;
+        this.reachedDate = reachedDate;
+    }
+
+    @NonNull
+    public GoalWeight getGoal() {
+        return goal;
+    }
+
+    /**
+     * @return first day of the goal's window (the day it was created)
+     */
+    @NonNull
+    public LocalDate getWindowStart() {
+        return goal.getCreatedAt().toLocalDate();
+    }
+
+    /**
+     * @return last day of the goal's window, or null while the goal is active
+     */
+    @Nullable
+    public LocalDate getWindowEnd() {
+        return windowEnd;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return latest entry in the window minus the goal's start weight, in the goal's unit
+     *         (negative when weight was lost), or null if the window has no entries
+     */
+    @Nullable
+    public Double getActualChange() {
+        return latestWeight != null ? latestWeight - goal.getStartWeight() : null;
+    }
+
+    /**
+     * @return lowest weight in the window for a loss goal, highest for a gain goal, in the
+     *         goal's unit, or null if the window has no entries
+     */
+    @Nullable
+    public Double getBestWeight() {
+        return bestWeight;
+    }
+
+    /**
+     * @return first day an entry came within 0.5 (goal unit) of the goal or passed it, or
+     *         null if none did
+     */
+    @Nullable
+    public LocalDate getReachedDate() {
+        return reachedDate;
+    }
+
+    /**
+     * @return days from the start of the window to the reached date, or -1 if the goal
+     *         was never reached
+     */
+    public long getDaysToAchieve() {
+        return reachedDate != null ? ChronoUnit.DAYS.between(getWindowStart(), reachedDate) : -1;
+    }
+}
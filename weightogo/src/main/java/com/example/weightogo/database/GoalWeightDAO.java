@@ -3,12 +3,13 @@ package com.example.weightogo.database;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.weightogo.models.GoalWeight;
+import com.example.weightogo.utils.AppLog;
+import com.example.weightogo.utils.WeightUtils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -25,8 +26,9 @@ import java.util.List;
  * the SQLiteDatabase instance obtained via getReadableDatabase() or getWritableDatabase().
  * The singleton pattern ensures efficient connection pooling and prevents resource leaks.</p>
  *
- * <p><strong>Business Rules:</strong> Only one goal should be active per user at a time.
- * Use deactivateAllGoalsForUser() before setting a new active goal to maintain this constraint.</p>
+ * <p><strong>Business Rules:</strong> Only one goal can be active per user at a time. The
+ * partial unique index idx_goals_user_one_active enforces it (v9), so inserting or updating a
+ * second active goal fails; use setNewActiveGoal() to replace the active goal.</p>
  *
  * <p><strong>Soft Deactivation:</strong> Uses soft deactivation (is_active flag) instead of deletion
  * to preserve goal history and support analytics.</p>
@@ -37,6 +39,87 @@ public class GoalWeightDAO {
     private static final DateTimeFormatter ISO_DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
     private static final DateTimeFormatter ISO_DATETIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+    // Decigrams per goal unit, as in WeightUtils.toDecigrams()
+    private static final String GOAL_UNIT_DG =
+        "CASE WHEN goal_unit = 'kg' THEN " + WeightUtils.DECIGRAMS_PER_KG +
+            " ELSE " + WeightUtils.DECIGRAMS_PER_LB + " END";
+
+    // Every goal for a user with the entries in its window (created day to deactivation day,
+    // open-ended while active), aggregated per goal: one range read per goal on the covering
+    // idx_weights_user_history for the join and one for the latest entry. Grouping by
+    // (created_at, goal_id) follows idx_goals_user_created, so neither the GROUP BY nor the
+    // ORDER BY needs a sort. Masses compare in decigrams, so entries in either unit count;
+    // reached_date uses the same 0.5 (goal unit) tolerance as GOAL_REACHED.
+    // Archived entries of the window are aggregated the same way into the archived_* columns,
+    // each a range read on idx_weights_archive_user_history; mapCursorToProgress combines them.
+    private static final String SQL_HISTORY_WITH_PROGRESS =
+        "SELECT g.*, COUNT(w.weight_id) AS entry_count, " +
+            "MIN(w.mass_dg) AS min_mass_dg, MAX(w.mass_dg) AS max_mass_dg, " +
+            "MIN(" + reachedDate("w") + ") AS reached_date, " +
+            "MAX(w.weight_date) AS latest_date, " +
+            "(SELECT l.mass_dg FROM daily_weights l WHERE l.user_id = g.user_id AND l.is_deleted = 0 " +
+            "AND l.weight_date BETWEEN g.window_start AND g.window_end " +
+            "ORDER BY l.weight_date DESC LIMIT 1) AS latest_mass_dg, " +
+            archivedInWindow("COUNT(*)") + " AS archived_count, " +
+            archivedInWindow("MIN(a.mass_dg)") + " AS archived_min_mass_dg, " +
+            archivedInWindow("MAX(a.mass_dg)") + " AS archived_max_mass_dg, " +
+            archivedInWindow("MIN(" + reachedDate("a") + ")") + " AS archived_reached_date, " +
+            archivedInWindow("MAX(a.weight_date)") + " AS archived_latest_date, " +
+            "(SELECT a.mass_dg FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE + " a " +
+            "WHERE a.user_id = g.user_id AND a.weight_date BETWEEN g.window_start AND g.window_end " +
+            "ORDER BY a.weight_date DESC LIMIT 1) AS archived_latest_mass_dg " +
+            "FROM (SELECT *, substr(created_at, 1, 10) AS window_start, " +
+            "CASE WHEN is_active = 1 THEN '9999-12-31' ELSE substr(updated_at, 1, 10) END AS window_end, " +
+            "CAST(ROUND(goal_weight * " + GOAL_UNIT_DG + ") AS INTEGER) AS goal_dg, " +
+            "CAST(ROUND(start_weight * " + GOAL_UNIT_DG + ") AS INTEGER) AS start_dg, " +
+            "CAST(ROUND(0.5 * " + GOAL_UNIT_DG + ") AS INTEGER) AS tolerance_dg " +
+            "FROM goal_weights WHERE user_id = ?) g " +
+            "LEFT JOIN daily_weights w ON w.user_id = g.user_id AND w.is_deleted = 0 " +
+            "AND w.weight_date BETWEEN g.window_start AND g.window_end " +
+            "GROUP BY g.created_at, g.goal_id " +
+            "ORDER BY g.created_at DESC, g.goal_id DESC";
+
+    private static final String SQL_GET_ACTIVE =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_GOAL_WEIGHTS + " WHERE user_id = ? AND is_active = 1 LIMIT 1";
+    private static final String SQL_GET_BY_ID =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_GOAL_WEIGHTS + " WHERE goal_id = ? LIMIT 1";
+    private static final String SQL_GET_HISTORY =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_GOAL_WEIGHTS + " WHERE user_id = ? ORDER BY created_at DESC";
+    private static final String SQL_UPDATE =
+        "UPDATE " + WeighToGoDBHelper.TABLE_GOAL_WEIGHTS +
+            " SET goal_weight = ?, goal_unit = ?, start_weight = ?, target_date = ?, is_active = ?," +
+            " is_achieved = ?, achieved_date = ?, updated_at = ? WHERE goal_id = ?";
+    private static final String SQL_DEACTIVATE =
+        "UPDATE " + WeighToGoDBHelper.TABLE_GOAL_WEIGHTS + " SET is_active = 0, updated_at = ? WHERE goal_id = ?";
+    // Finds the active goal through idx_goals_user_one_active
+    private static final String SQL_DEACTIVATE_FOR_USER =
+        "UPDATE " + WeighToGoDBHelper.TABLE_GOAL_WEIGHTS +
+            " SET is_active = 0, updated_at = ? WHERE user_id = ? AND is_active = 1";
+
+    // Query instrumentation sites (each registers the SQL its method runs, for EXPLAIN QUERY PLAN)
+    private static final QueryMetrics.Site SITE_INSERT =
+        QueryMetrics.site("GoalWeightDAO.insertGoal", null);
+    private static final QueryMetrics.Site SITE_GET_ACTIVE =
+        QueryMetrics.site("GoalWeightDAO.getActiveGoal", SQL_GET_ACTIVE);
+    private static final QueryMetrics.Site SITE_GET_BY_ID =
+        QueryMetrics.site("GoalWeightDAO.getGoalById", SQL_GET_BY_ID);
+    private static final QueryMetrics.Site SITE_GET_HISTORY =
+        QueryMetrics.site("GoalWeightDAO.getGoalHistory", SQL_GET_HISTORY);
+    private static final QueryMetrics.Site SITE_GET_HISTORY_WITH_PROGRESS =
+        QueryMetrics.site("GoalWeightDAO.getGoalHistoryWithProgress", SQL_HISTORY_WITH_PROGRESS);
+    private static final QueryMetrics.Site SITE_UPDATE =
+        QueryMetrics.site("GoalWeightDAO.updateGoal", SQL_UPDATE);
+    private static final QueryMetrics.Site SITE_DEACTIVATE =
+        QueryMetrics.site("GoalWeightDAO.deactivateGoal", SQL_DEACTIVATE);
+    private static final QueryMetrics.Site SITE_DEACTIVATE_ALL =
+        QueryMetrics.site("GoalWeightDAO.deactivateAllGoalsForUser", SQL_DEACTIVATE_FOR_USER);
+    private static final QueryMetrics.Site SITE_SET_NEW_ACTIVE =
+        QueryMetrics.site("GoalWeightDAO.setNewActiveGoal", SQL_DEACTIVATE_FOR_USER);
+
+    // Shared across DAO instances: every screen creates its own GoalWeightDAO
+    private static final ReadCoalescer<Long, GoalWeight> ACTIVE_GOAL_READS =
+        ReadCoalescer.create("GoalWeightDAO.getActiveGoal", WeighToGoDBHelper.TABLE_GOAL_WEIGHTS);
+
     private final WeighToGoDBHelper dbHelper;
 
     public GoalWeightDAO(@NonNull WeighToGoDBHelper dbHelper) {
@@ -45,64 +128,67 @@ public class GoalWeightDAO {
 
     /**
      * Inserts a new goal weight.
+     *
+     * <p>Returns -1 if the goal is active and the user already has an active goal
+     * (idx_goals_user_one_active); use setNewActiveGoal() for that.</p>
      */
     public long insertGoal(@NonNull GoalWeight goal) {
-        Log.d(TAG, "insertGoal: Inserting goal for user_id=" + goal.getUserId());
+        AppLog.d(TAG, "insertGoal: Inserting goal for user_id={}", goal.getUserId());
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
+        ContentValues values = toInsertValues(goal);
 
-        ContentValues values = new ContentValues();
-        values.put("user_id", goal.getUserId());
-        values.put("goal_weight", goal.getGoalWeight());
-        values.put("goal_unit", goal.getGoalUnit());
-        values.put("start_weight", goal.getStartWeight());
-        values.put("created_at", goal.getCreatedAt().format(ISO_DATETIME_FORMATTER));
-        values.put("updated_at", goal.getUpdatedAt().format(ISO_DATETIME_FORMATTER));
-        values.put("is_active", goal.isActive() ? 1 : 0);
-        values.put("is_achieved", goal.isAchieved() ? 1 : 0);
-
-        if (goal.getTargetDate() != null) {
-            values.put("target_date", goal.getTargetDate().format(ISO_DATE_FORMATTER));
-        }
-        if (goal.getAchievedDate() != null) {
-            values.put("achieved_date", goal.getAchievedDate().format(ISO_DATE_FORMATTER));
-        }
-
+        long start = QueryMetrics.begin();
+        int rows = 0;
         try {
             long goalId = db.insert(WeighToGoDBHelper.TABLE_GOAL_WEIGHTS, null, values);
             if (goalId > 0) {
-                Log.i(TAG, "insertGoal: Successfully inserted goal_id=" + goalId);
+                rows = 1;
+                AppLog.i(TAG, "insertGoal: Successfully inserted goal_id={}", goalId);
             }
             return goalId;
         } catch (Exception e) {
-            Log.e(TAG, "insertGoal: Exception", e);
+            AppLog.e(TAG, "insertGoal: Exception", e);
             return -1;
+        } finally {
+            QueryMetrics.end(SITE_INSERT, start, rows);
+            if (rows > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_GOAL_WEIGHTS);
+            }
         }
     }
 
     /**
-     * Gets the active goal for a user (only one goal should be active at a time).
+     * Gets the active goal for a user.
+     *
+     * <p>A single seek on idx_goals_user_one_active: the index holds at most one row per
+     * user, so there is nothing to sort.</p>
+     *
+     * <p>Coalesced: repeated and concurrent calls share one query until the next write to
+     * goal_weights (see {@link ReadCoalescer}). Treat the returned goal as read-only.</p>
      */
     @Nullable
     public GoalWeight getActiveGoal(long userId) {
-        Log.d(TAG, "getActiveGoal: user_id=" + userId);
+        return ACTIVE_GOAL_READS.get(userId, () -> queryActiveGoal(userId));
+    }
+
+    @Nullable
+    private GoalWeight queryActiveGoal(long userId) {
+        AppLog.d(TAG, "getActiveGoal: user_id={}", userId);
 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_GOAL_WEIGHTS,
-            null,
-            "user_id = ? AND is_active = 1",
-            new String[]{String.valueOf(userId)},
-            null, null,
-            "created_at DESC",
-            "1"
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_ACTIVE, new String[]{String.valueOf(userId)})) {
             if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
                 return mapCursorToGoal(cursor);
             }
         } catch (Exception e) {
-            Log.e(TAG, "getActiveGoal: Exception", e);
+            AppLog.e(TAG, "getActiveGoal: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_ACTIVE, start, rows);
         }
         return null;
     }
@@ -112,23 +198,21 @@ public class GoalWeightDAO {
      */
     @Nullable
     public GoalWeight getGoalById(long goalId) {
-        Log.d(TAG, "getGoalById: goal_id=" + goalId);
+        AppLog.d(TAG, "getGoalById: goal_id={}", goalId);
 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_GOAL_WEIGHTS,
-            null,
-            "goal_id = ?",
-            new String[]{String.valueOf(goalId)},
-            null, null, null,
-            "1"
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_BY_ID, new String[]{String.valueOf(goalId)})) {
             if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
                 return mapCursorToGoal(cursor);
             }
         } catch (Exception e) {
-            Log.e(TAG, "getGoalById: Exception", e);
+            AppLog.e(TAG, "getGoalById: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_BY_ID, start, rows);
         }
         return null;
     }
@@ -138,30 +222,56 @@ public class GoalWeightDAO {
      */
     @NonNull
     public List<GoalWeight> getGoalHistory(long userId) {
-        Log.d(TAG, "getGoalHistory: user_id=" + userId);
+        AppLog.d(TAG, "getGoalHistory: user_id={}", userId);
 
         List<GoalWeight> goals = new ArrayList<>();
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_GOAL_WEIGHTS,
-            null,
-            "user_id = ?",
-            new String[]{String.valueOf(userId)},
-            null, null,
-            "created_at DESC"
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_HISTORY, new String[]{String.valueOf(userId)})) {
             while (cursor != null && cursor.moveToNext()) {
                 goals.add(mapCursorToGoal(cursor));
             }
-            Log.i(TAG, "getGoalHistory: Found " + goals.size() + " goals");
+            AppLog.i(TAG, "getGoalHistory: Found {} goals", goals.size());
         } catch (Exception e) {
-            Log.e(TAG, "getGoalHistory: Exception", e);
+            AppLog.e(TAG, "getGoalHistory: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_HISTORY, start, goals.size());
         }
 
         return goals;
     }
 
+    /**
+     * Gets all goals for a user (newest first), each with its progress while it was active:
+     * entry count, actual change, best weight and the day it was reached.
+     *
+     * <p>One grouped query for the whole history instead of a progress query per goal.
+     * Results are not cached here; GoalsActivity keeps them with the goal history and
+     * re-loads only after a write to {@link GoalProgress#TABLES}.</p>
+     */
+    @NonNull
+    public List<GoalProgress> getGoalHistoryWithProgress(long userId) {
+        AppLog.d(TAG, "getGoalHistoryWithProgress: user_id={}", userId);
+
+        List<GoalProgress> history = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+
+        try (Cursor cursor = db.rawQuery(SQL_HISTORY_WITH_PROGRESS, new String[]{String.valueOf(userId)})) {
+            while (cursor.moveToNext()) {
+                history.add(mapCursorToProgress(cursor));
+            }
+            AppLog.i(TAG, "getGoalHistoryWithProgress: Found {} goals", history.size());
+        } catch (Exception e) {
+            AppLog.e(TAG, "getGoalHistoryWithProgress: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_HISTORY_WITH_PROGRESS, start, history.size());
+        }
+
+        return history;
+    }
+
     /**
      * Updates an existing goal.
      *
@@ -174,42 +284,34 @@ public class GoalWeightDAO {
      * <p>Callers should check the return value to distinguish between these cases.</p>
      */
     public int updateGoal(@NonNull GoalWeight goal) {
-        Log.d(TAG, "updateGoal: goal_id=" + goal.getGoalId());
+        AppLog.d(TAG, "updateGoal: goal_id={}", goal.getGoalId());
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        ContentValues values = new ContentValues();
-        values.put("goal_weight", goal.getGoalWeight());
-        values.put("goal_unit", goal.getGoalUnit());
-        values.put("start_weight", goal.getStartWeight());
-        values.put("updated_at", LocalDateTime.now().format(ISO_DATETIME_FORMATTER));
-        values.put("is_active", goal.isActive() ? 1 : 0);
-        values.put("is_achieved", goal.isAchieved() ? 1 : 0);
-
-        // Allow explicit NULL for optional date fields
-        if (goal.getTargetDate() != null) {
-            values.put("target_date", goal.getTargetDate().format(ISO_DATE_FORMATTER));
-        } else {
-            values.putNull("target_date");
-        }
-        if (goal.getAchievedDate() != null) {
-            values.put("achieved_date", goal.getAchievedDate().format(ISO_DATE_FORMATTER));
-        } else {
-            values.putNull("achieved_date");
-        }
-
+        long start = QueryMetrics.begin();
+        int rows = 0;
         try {
-            int rows = db.update(
-                WeighToGoDBHelper.TABLE_GOAL_WEIGHTS,
-                values,
-                "goal_id = ?",
-                new String[]{String.valueOf(goal.getGoalId())}
-            );
-            Log.i(TAG, "updateGoal: Updated " + rows + " rows");
+            // Null optional dates are written as NULL
+            rows = SqlStatements.executeUpdateDelete(db, SQL_UPDATE,
+                goal.getGoalWeight(),
+                goal.getGoalUnit(),
+                goal.getStartWeight(),
+                goal.getTargetDate() != null ? goal.getTargetDate().format(ISO_DATE_FORMATTER) : null,
+                goal.isActive() ? 1 : 0,
+                goal.isAchieved() ? 1 : 0,
+                goal.getAchievedDate() != null ? goal.getAchievedDate().format(ISO_DATE_FORMATTER) : null,
+                LocalDateTime.now().format(ISO_DATETIME_FORMATTER),
+                goal.getGoalId());
+            AppLog.i(TAG, "updateGoal: Updated {} rows", rows);
             return rows;
         } catch (Exception e) {
-            Log.e(TAG, "updateGoal: Exception", e);
+            AppLog.e(TAG, "updateGoal: Exception", e);
             return 0;
+        } finally {
+            QueryMetrics.end(SITE_UPDATE, start, rows);
+            if (rows > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_GOAL_WEIGHTS);
+            }
         }
     }
 
@@ -218,104 +320,205 @@ public class GoalWeightDAO {
      * Useful when user wants to set a new goal.
      */
     public int deactivateGoal(long goalId) {
-        Log.d(TAG, "deactivateGoal: goal_id=" + goalId);
+        AppLog.d(TAG, "deactivateGoal: goal_id={}", goalId);
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        ContentValues values = new ContentValues();
-        values.put("is_active", 0);
-        values.put("updated_at", LocalDateTime.now().format(ISO_DATETIME_FORMATTER));
-
+        long start = QueryMetrics.begin();
+        int rows = 0;
         try {
-            int rows = db.update(
-                WeighToGoDBHelper.TABLE_GOAL_WEIGHTS,
-                values,
-                "goal_id = ?",
-                new String[]{String.valueOf(goalId)}
-            );
-            Log.i(TAG, "deactivateGoal: Deactivated " + rows + " rows");
+            rows = SqlStatements.executeUpdateDelete(db, SQL_DEACTIVATE,
+                LocalDateTime.now().format(ISO_DATETIME_FORMATTER), goalId);
+            AppLog.i(TAG, "deactivateGoal: Deactivated {} rows", rows);
             return rows;
         } catch (Exception e) {
-            Log.e(TAG, "deactivateGoal: Exception", e);
+            AppLog.e(TAG, "deactivateGoal: Exception", e);
             return 0;
+        } finally {
+            QueryMetrics.end(SITE_DEACTIVATE, start, rows);
+            if (rows > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_GOAL_WEIGHTS);
+            }
         }
     }
 
     /**
-     * Deactivates all goals for a user.
-     * Useful before setting a new active goal.
+     * Deactivates the user's active goal (there is at most one).
+     * Useful when the user clears their goal without setting a new one.
      */
     public int deactivateAllGoalsForUser(long userId) {
-        Log.d(TAG, "deactivateAllGoalsForUser: user_id=" + userId);
+        AppLog.d(TAG, "deactivateAllGoalsForUser: user_id={}", userId);
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        ContentValues values = new ContentValues();
-        values.put("is_active", 0);
-        values.put("updated_at", LocalDateTime.now().format(ISO_DATETIME_FORMATTER));
-
+        long start = QueryMetrics.begin();
+        int rows = 0;
         try {
-            int rows = db.update(
-                WeighToGoDBHelper.TABLE_GOAL_WEIGHTS,
-                values,
-                "user_id = ? AND is_active = 1",
-                new String[]{String.valueOf(userId)}
-            );
-            Log.i(TAG, "deactivateAllGoalsForUser: Deactivated " + rows + " goals");
+            rows = SqlStatements.executeUpdateDelete(db, SQL_DEACTIVATE_FOR_USER,
+                LocalDateTime.now().format(ISO_DATETIME_FORMATTER), userId);
+            AppLog.i(TAG, "deactivateAllGoalsForUser: Deactivated {} goals", rows);
             return rows;
         } catch (Exception e) {
-            Log.e(TAG, "deactivateAllGoalsForUser: Exception", e);
+            AppLog.e(TAG, "deactivateAllGoalsForUser: Exception", e);
             return 0;
+        } finally {
+            QueryMetrics.end(SITE_DEACTIVATE_ALL, start, rows);
+            if (rows > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_GOAL_WEIGHTS);
+            }
         }
     }
 
     /**
-     * Sets a new active goal for a user, automatically deactivating any existing active goals.
-     *
-     * <p><strong>Transaction Support:</strong> This operation uses a database transaction to ensure
-     * atomicity. Either both the deactivation and insertion succeed, or neither does (rollback).</p>
+     * Sets a new active goal for a user, deactivating the current one.
      *
-     * <p>This prevents race conditions where a user might temporarily have multiple active goals
-     * or no active goal due to partial operation failure.</p>
+     * <p><strong>Transaction Support:</strong> The swap is two statements in one transaction:
+     * an UPDATE that finds the current active goal through idx_goals_user_one_active (at most
+     * one row), then the INSERT. Either both succeed, or neither does (rollback), so the user
+     * never has two active goals or none.</p>
      *
-     * @param newGoal The new goal to set as active (must have isActive=true)
+     * @param newGoal The new goal to set as active (stored as active whatever isActive() says)
      * @return goal_id of the newly inserted goal, or -1 if transaction failed
      */
     public long setNewActiveGoal(@NonNull GoalWeight newGoal) {
-        Log.d(TAG, "setNewActiveGoal: Setting new goal for user_id=" + newGoal.getUserId());
+        AppLog.d(TAG, "setNewActiveGoal: Setting new goal for user_id={}", newGoal.getUserId());
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        ContentValues values = toInsertValues(newGoal);
+        values.put("is_active", 1);
+
+        long start = QueryMetrics.begin();
+        int rows = 0;
         db.beginTransaction();
 
         try {
-            // Step 1: Deactivate all existing goals for this user
-            int deactivated = deactivateAllGoalsForUser(newGoal.getUserId());
-            Log.d(TAG, "setNewActiveGoal: Deactivated " + deactivated + " existing goals");
+            // Step 1: Deactivate the current active goal, if any
+            int deactivated = SqlStatements.executeUpdateDelete(db, SQL_DEACTIVATE_FOR_USER,
+                LocalDateTime.now().format(ISO_DATETIME_FORMATTER), newGoal.getUserId());
 
             // Step 2: Insert the new goal
-            long goalId = insertGoal(newGoal);
+            long goalId = db.insertOrThrow(WeighToGoDBHelper.TABLE_GOAL_WEIGHTS, null, values);
 
-            if (goalId > 0) {
-                db.setTransactionSuccessful();
-                Log.i(TAG, "setNewActiveGoal: Transaction successful, new goal_id=" + goalId);
-                return goalId;
-            } else {
-                Log.e(TAG, "setNewActiveGoal: Insert failed, transaction will rollback");
-                return -1;
-            }
+            db.setTransactionSuccessful();
+            rows = deactivated + 1;
+            AppLog.i(TAG, "setNewActiveGoal: Transaction successful, new goal_id={}, deactivated {}",
+                goalId, deactivated);
+            return goalId;
 
         } catch (Exception e) {
-            Log.e(TAG, "setNewActiveGoal: Exception during transaction, rolling back", e);
+            AppLog.e(TAG, "setNewActiveGoal: Exception during transaction, rolling back", e);
             return -1;
         } finally {
             db.endTransaction();
+            QueryMetrics.end(SITE_SET_NEW_ACTIVE, start, rows);
+            if (rows > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_GOAL_WEIGHTS);
+            }
         }
     }
 
     /**
-     * Maps cursor to GoalWeight object.
+     * Builds the column values for inserting a goal.
+     */
+    @NonNull
+    private static ContentValues toInsertValues(@NonNull GoalWeight goal) {
+        ContentValues values = new ContentValues();
+        values.put("user_id", goal.getUserId());
+        values.put("goal_weight", goal.getGoalWeight());
+        values.put("goal_unit", goal.getGoalUnit());
+        values.put("start_weight", goal.getStartWeight());
+        values.put("created_at", goal.getCreatedAt().format(ISO_DATETIME_FORMATTER));
+        values.put("updated_at", goal.getUpdatedAt().format(ISO_DATETIME_FORMATTER));
+        values.put("is_active", goal.isActive() ? 1 : 0);
+        values.put("is_achieved", goal.isAchieved() ? 1 : 0);
+
+        if (goal.getTargetDate() != null) {
+            values.put("target_date", goal.getTargetDate().format(ISO_DATE_FORMATTER));
+        }
+        if (goal.getAchievedDate() != null) {
+            values.put("achieved_date", goal.getAchievedDate().format(ISO_DATE_FORMATTER));
+        }
+        return values;
+    }
+
+    /**
+     * Maps a row of SQL_HISTORY_WITH_PROGRESS to GoalProgress, converting masses to the goal's unit.
+     */
+    private static GoalProgress mapCursorToProgress(@NonNull Cursor cursor) {
+        GoalWeight goal = mapCursorToGoal(cursor);
+        String unit = goal.getGoalUnit();
+
+        LocalDate windowEnd = goal.isActive() ? null
+            : LocalDate.parse(cursor.getString(cursor.getColumnIndexOrThrow("window_end")), ISO_DATE_FORMATTER);
+        int hotCount = cursor.getInt(cursor.getColumnIndexOrThrow("entry_count"));
+        int archivedCount = cursor.getInt(cursor.getColumnIndexOrThrow("archived_count"));
+        int entryCount = hotCount + archivedCount;
+
+        // Combine the daily_weights and archive figures: the later latest entry, the better
+        // best mass and the earlier reached date
+        Double latestWeight = null;
+        Double bestWeight = null;
+        if (entryCount > 0) {
+            boolean archivedLatest = hotCount == 0 || (archivedCount > 0
+                && getString(cursor, "archived_latest_date").compareTo(getString(cursor, "latest_date")) > 0);
+            latestWeight = WeightUtils.fromDecigrams(
+                getLong(cursor, archivedLatest ? "archived_latest_mass_dg" : "latest_mass_dg"), unit);
+
+            boolean lossGoal = goal.getGoalWeight() < goal.getStartWeight();
+            String bestColumn = lossGoal ? "min_mass_dg" : "max_mass_dg";
+            long bestMass = hotCount > 0 ? getLong(cursor, bestColumn) : getLong(cursor, "archived_" + bestColumn);
+            if (hotCount > 0 && archivedCount > 0) {
+                long archivedBest = getLong(cursor, "archived_" + bestColumn);
+                bestMass = lossGoal ? Math.min(bestMass, archivedBest) : Math.max(bestMass, archivedBest);
+            }
+            bestWeight = WeightUtils.fromDecigrams(bestMass, unit);
+        }
+
+        String reached = getString(cursor, "reached_date");
+        String archivedReached = getString(cursor, "archived_reached_date");
+        if (reached == null || (archivedReached != null && archivedReached.compareTo(reached) < 0)) {
+            reached = archivedReached;
+        }
+        LocalDate reachedDate = reached == null ? null : LocalDate.parse(reached, ISO_DATE_FORMATTER);
+
+        return new GoalProgress(goal, windowEnd, entryCount, latestWeight, bestWeight, reachedDate);
+    }
+
+    @Nullable
+    private static String getString(@NonNull Cursor cursor, @NonNull String column) {
+        int index = cursor.getColumnIndexOrThrow(column);
+        return cursor.isNull(index) ? null : cursor.getString(index);
+    }
+
+    private static long getLong(@NonNull Cursor cursor, @NonNull String column) {
+        return cursor.getLong(cursor.getColumnIndexOrThrow(column));
+    }
+
+    /**
+     * Builds the expression for the date of entry {@code alias} if it reaches goal g, else NULL.
+     */
+    @NonNull
+    private static String reachedDate(@NonNull String alias) {
+        return "CASE " +
+            "WHEN g.goal_dg < g.start_dg AND " + alias + ".mass_dg <= g.goal_dg + g.tolerance_dg THEN " + alias + ".weight_date " +
+            "WHEN g.goal_dg >= g.start_dg AND " + alias + ".mass_dg >= g.goal_dg - g.tolerance_dg THEN " + alias + ".weight_date " +
+            "END";
+    }
+
+    /**
+     * Builds a subquery of {@code aggregate} over the archived entries (alias a) in goal g's window.
+     */
+    @NonNull
+    private static String archivedInWindow(@NonNull String aggregate) {
+        return "(SELECT " + aggregate + " FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE + " a " +
+            "WHERE a.user_id = g.user_id AND a.weight_date BETWEEN g.window_start AND g.window_end)";
+    }
+
+    /**
+     * Maps cursor to GoalWeight object (also used by DashboardDAO).
      */
-    private GoalWeight mapCursorToGoal(@NonNull Cursor cursor) {
+    static GoalWeight mapCursorToGoal(@NonNull Cursor cursor) {
         GoalWeight goal = new GoalWeight();
 
         goal.setGoalId(cursor.getLong(cursor.getColumnIndexOrThrow("goal_id")));
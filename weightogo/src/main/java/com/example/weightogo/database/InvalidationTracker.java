@@ -0,0 +1,155 @@
+package com.example.weightogo.database;
+
+import androidx.annotation.NonNull;
+
+import com.example.weightogo.utils.AppLog;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table-level change tracking for the database.
+ *
+ * <p>Each table has a version counter that every DAO write bumps through
+ * {@link #notifyWrite(String)} after the write commits. Readers take a {@link Stamp} of the
+ * tables a screen depends on and later ask {@link #hasChanged(Stamp)}; if nothing was written,
+ * the screen can skip its queries entirely. {@link ObservableQuery} wraps this for the
+ * common "load into a field, reload when stale" case.</p>
+ *
+ * <p><strong>Observers:</strong> {@link Observer}s are notified synchronously on the writing
+ * thread, so they must be cheap and must not touch views. The helper registers the
+ * {@link ReadCoalescer} here so cached reads are dropped by the same writes.</p>
+ *
+ * <p><strong>Scope:</strong> Only writes made through the DAOs are tracked. ON DELETE CASCADE
+ * side effects are reported by the DAO that issued the parent delete (see UserDAO.deleteUser).</p>
+ */
+public final class InvalidationTracker {
+
+    private static final String TAG = "InvalidationTracker";
+
+    /**
+     * Receives table invalidations on the writing thread.
+     */
+    public interface Observer {
+        /**
+         * @param table table that was written
+         */
+        void onInvalidated(@NonNull String table);
+    }
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Observer> observers = new CopyOnWriteArrayList<>();
+
+    InvalidationTracker() {
+        // Owned by WeighToGoDBHelper
+    }
+
+    // ================================================================================
+    // Writes
+    // ================================================================================
+
+    /**
+     * Records a committed write to {@code table} and notifies observers.
+     *
+     * @param table table that was written
+     */
+    public void notifyWrite(@NonNull String table) {
+        long version = versionCounter(table).incrementAndGet();
+        AppLog.d(TAG, "notifyWrite: {} -> v{}", table, version);
+        for (Observer observer : observers) {
+            observer.onInvalidated(table);
+        }
+    }
+
+    // ================================================================================
+    // Reads
+    // ================================================================================
+
+    /**
+     * @param table table name
+     * @return current version; starts at 0 and only increases
+     */
+    public long getVersion(@NonNull String table) {
+        return versionCounter(table).get();
+    }
+
+    /**
+     * Captures the current versions of {@code tables}. Take the stamp before running the
+     * queries it covers, so a write that races with them marks the result stale.
+     *
+     * @param tables tables the caller's data is read from
+     * @return stamp for {@link #hasChanged(Stamp)}
+     */
+    @NonNull
+    public Stamp stamp(@NonNull String... tables) {
+        long[] current = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            current[i] = getVersion(tables[i]);
+        }
+        return new Stamp(tables, current);
+    }
+
+    /**
+     * @param stamp stamp from {@link #stamp(String...)}
+     * @return true if any table in the stamp was written since it was taken
+     */
+    public boolean hasChanged(@NonNull Stamp stamp) {
+        for (int i = 0; i < stamp.tables.length; i++) {
+            if (getVersion(stamp.tables[i]) != stamp.versions[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ================================================================================
+    // Observers
+    // ================================================================================
+
+    /**
+     * Registers an observer for writes to any table.
+     *
+     * @param observer observer to add
+     */
+    public void addObserver(@NonNull Observer observer) {
+        observers.addIfAbsent(observer);
+    }
+
+    /**
+     * @param observer observer to remove
+     */
+    public void removeObserver(@NonNull Observer observer) {
+        observers.remove(observer);
+    }
+
+    @NonNull
+    private AtomicLong versionCounter(@NonNull String table) {
+        return versions.computeIfAbsent(table, key -> new AtomicLong());
+    }
+
+    // ================================================================================
+    // Model
+    // ================================================================================
+
+    /**
+     * Immutable snapshot of table versions.
+     */
+    public static final class Stamp {
+        private final String[] tables;
+        private final long[] versions;
+
+        private Stamp(@NonNull String[] tables, @NonNull long[] versions) {
+            this.tables = tables.clone();
+            this.versions = versions;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Stamp" + Arrays.toString(tables) + Arrays.toString(versions);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.weightogo.database;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A query result that is re-run only when one of its tables has been written.
+ *
+ * <p>Typical screen usage:</p>
+ * <pre>
+ * entriesQuery = new ObservableQuery&lt;&gt;(dbHelper.getInvalidationTracker(),
+ *         () -&gt; weightEntryDAO.getWeightEntriesForUser(userId),
+ *         WeighToGoDBHelper.TABLE_DAILY_WEIGHTS);
+ *
+ * // onCreate / onResume / onActivityResult
+ * if (entriesQuery.refresh()) {
+ *     adapter.submit(entriesQuery.getValue());
+ * }
+ * </pre>
+ *
+ * <p>Returning to a screen after nothing was written costs no queries.</p>
+ *
+ * <p><strong>Threading:</strong> Not synchronized; use from the main thread like the rest of
+ * the activity state.</p>
+ *
+ * @param <T> result type
+ */
+public final class ObservableQuery<T> {
+
+    /**
+     * The query to (re-)run.
+     *
+     * @param <T> result type
+     */
+    public interface Query<T> {
+        @Nullable
+        T run();
+    }
+
+    private final InvalidationTracker tracker;
+    private final Query<T> query;
+    private final String[] tables;
+
+    @Nullable
+    private InvalidationTracker.Stamp stamp;
+    @Nullable
+    private T value;
+    private boolean primed;
+
+    /**
+     * @param tracker tracker from {@link WeighToGoDBHelper#getInvalidationTracker()}
+     * @param query   query to run
+     * @param tables  every table the query reads
+     */
+    public ObservableQuery(@NonNull InvalidationTracker tracker, @NonNull Query<T> query,
+                           @NonNull String... tables) {
+        this.tracker = tracker;
+        this.query = query;
+        this.tables = tables.clone();
+    }
+
+    /**
+     * Runs the query if it has never run or one of its tables changed since the last run.
+     *
+     * @return true if the query ran (the value may have changed), false if nothing was written
+     */
+    @MainThread
+    public boolean refresh() {
+        if (primed) {
+            // Report the primed value once, as if the query had just run
+            primed = false;
+            if (!isStale()) {
+                return true;
+            }
+        }
+        if (!isStale()) {
+            return false;
+        }
+        stamp = tracker.stamp(tables);
+        value = query.run();
+        return true;
+    }
+
+    /**
+     * Adopts a result loaded elsewhere (e.g. prefetched off the main thread at startup).
+     * The next {@link #refresh()} returns true without running the query, unless a table
+     * was written after {@code stamp} was taken, in which case it re-runs as usual.
+     *
+     * @param value result of the query
+     * @param stamp stamp taken before {@code value} was read, covering this query's tables
+     */
+    @MainThread
+    public void prime(@Nullable T value, @NonNull InvalidationTracker.Stamp stamp) {
+        this.value = value;
+        this.stamp = stamp;
+        this.primed = true;
+    }
+
+    /**
+     * @return true if the next {@link #refresh()} will run the query
+     */
+    public boolean isStale() {
+        return stamp == null || tracker.hasChanged(stamp);
+    }
+
+    /**
+     * Forces the next {@link #refresh()} to run (e.g. the query's parameters changed).
+     */
+    public void invalidate() {
+        stamp = null;
+        primed = false;
+    }
+
+    /**
+     * @return result of the last run, or null before the first run
+     */
+    @Nullable
+    public T getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.weightogo.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.example.weightogo.BuildConfig;
+import com.example.weightogo.utils.AppLog;
+import com.example.weightogo.utils.LatencyHistogram;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per-call-site query instrumentation for the DAO layer.
+ *
+ * <p>Each DAO method declares a static {@link Site} and brackets its database access with
+ * {@link #begin()} / {@link #end(Site, long, int)}. Every site keeps a lock-free latency
+ * histogram (microseconds) and a running row count. Calls slower than the slow-query
+ * threshold are also kept in a small ring buffer together with the thread that issued them.</p>
+ *
+ * <p><strong>Overhead:</strong> When disabled, {@link #begin()} reads one volatile flag and
+ * returns a sentinel; {@link #end(Site, long, int)} returns on the sentinel without reading the
+ * clock. No allocation happens on either path. Instrumentation is enabled by default in debug
+ * builds and can be toggled at runtime from the diagnostics screen.</p>
+ *
+ * <p><strong>Query Plans:</strong> Sites register their SQL text. Plans are NOT captured on the
+ * hot path; {@link #writeReport(SQLiteDatabase, PrintWriter)} runs {@code EXPLAIN QUERY PLAN}
+ * for each slow site when the report is generated. Bind arguments are never stored, so the
+ * report contains no user data.</p>
+ */
+public final class QueryMetrics {
+
+    private static final String TAG = "QueryMetrics";
+
+    /** Returned by {@link #begin()} when instrumentation is disabled */
+    static final long DISABLED = Long.MIN_VALUE;
+
+    /** Default slow-query threshold (one 60 Hz frame) */
+    private static final long DEFAULT_SLOW_THRESHOLD_MS = 16;
+
+    /** Number of slow-query samples retained */
+    private static final int SLOW_SAMPLE_CAPACITY = 32;
+
+    private static final Map<String, Site> SITES = new ConcurrentHashMap<>();
+    private static final AtomicReferenceArray<SlowSample> SLOW_SAMPLES =
+            new AtomicReferenceArray<>(SLOW_SAMPLE_CAPACITY);
+    private static final AtomicLong SLOW_SAMPLE_CURSOR = new AtomicLong();
+
+    private static volatile boolean enabled = BuildConfig.DEBUG;
+    private static volatile long slowThresholdNanos =
+            TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_THRESHOLD_MS);
+
+    private QueryMetrics() {
+        // Static utility
+    }
+
+    // ================================================================================
+    // Registration
+    // ================================================================================
+
+    /**
+     * Registers (or returns the existing) call site.
+     * Intended to be called once from a static initializer in each DAO.
+     *
+     * @param name unique site name, conventionally "DaoClass.method"
+     * @param sql  SQL text used for EXPLAIN QUERY PLAN, or null if not explainable (inserts)
+     * @return the site
+     */
+    @NonNull
+    public static Site site(@NonNull String name, @Nullable String sql) {
+        return SITES.computeIfAbsent(name, key -> new Site(key, sql));
+    }
+
+    // ================================================================================
+    // Hot path
+    // ================================================================================
+
+    /**
+     * Marks the start of an instrumented call.
+     *
+     * @return start timestamp to pass to {@link #end(Site, long, int)}
+     */
+    public static long begin() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Records the end of an instrumented call.
+     *
+     * @param site  the call site
+     * @param start value returned by {@link #begin()}
+     * @param rows  rows returned or affected
+     */
+    public static void end(@NonNull Site site, long start, int rows) {
+        if (start == DISABLED) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        site.histogram.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        site.rows.addAndGet(rows);
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            recordSlowSample(site, elapsedNanos, rows);
+        }
+    }
+
+    private static void recordSlowSample(@NonNull Site site, long elapsedNanos, int rows) {
+        SlowSample sample = new SlowSample(site, TimeUnit.NANOSECONDS.toMicros(elapsedNanos), rows,
+                System.currentTimeMillis(), Thread.currentThread().getName());
+        int slot = (int) (SLOW_SAMPLE_CURSOR.getAndIncrement() % SLOW_SAMPLE_CAPACITY);
+        SLOW_SAMPLES.set(slot, sample);
+        AppLog.w(TAG, "Slow query: {} took {}us on {}", site.name, sample.durationMicros, sample.threadName);
+    }
+
+    // ================================================================================
+    // Configuration
+    // ================================================================================
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+        AppLog.i(TAG, "setEnabled: {}", value);
+    }
+
+    /**
+     * Sets the latency above which a call is captured as a slow-query sample.
+     *
+     * @param thresholdMs threshold in milliseconds (0 captures every call)
+     */
+    public static void setSlowThresholdMs(long thresholdMs) {
+        if (thresholdMs < 0) {
+            throw new IllegalArgumentException("thresholdMs cannot be negative");
+        }
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    /**
+     * Clears all histograms, row counts and slow samples. Registered sites are kept.
+     */
+    public static void reset() {
+        for (Site site : SITES.values()) {
+            site.histogram.reset();
+            site.rows.set(0);
+        }
+        for (int i = 0; i < SLOW_SAMPLE_CAPACITY; i++) {
+            SLOW_SAMPLES.set(i, null);
+        }
+        SLOW_SAMPLE_CURSOR.set(0);
+        AppLog.i(TAG, "reset: All query metrics cleared");
+    }
+
+    @VisibleForTesting
+    static void resetForTesting() {
+        reset();
+        enabled = BuildConfig.DEBUG;
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_THRESHOLD_MS);
+    }
+
+    // ================================================================================
+    // Reporting
+    // ================================================================================
+
+    /**
+     * Returns all sites that have recorded at least one call, slowest p99 first.
+     */
+    @NonNull
+    public static List<Site> getActiveSites() {
+        Map<Site, Long> p99BySite = new HashMap<>();
+        for (Site site : SITES.values()) {
+            if (site.histogram.getCount() > 0) {
+                p99BySite.put(site, site.histogram.snapshot().p99);
+            }
+        }
+        List<Site> active = new ArrayList<>(p99BySite.keySet());
+        Collections.sort(active, (a, b) -> Long.compare(p99BySite.get(b), p99BySite.get(a)));
+        return active;
+    }
+
+    /**
+     * Returns every registered site, called or not (for plan checks in tests).
+     */
+    @VisibleForTesting
+    @NonNull
+    static List<Site> getRegisteredSites() {
+        return new ArrayList<>(SITES.values());
+    }
+
+    /**
+     * Returns retained slow-query samples, most recent first.
+     */
+    @NonNull
+    public static List<SlowSample> getSlowSamples() {
+        List<SlowSample> samples = new ArrayList<>();
+        for (int i = 0; i < SLOW_SAMPLE_CAPACITY; i++) {
+            SlowSample sample = SLOW_SAMPLES.get(i);
+            if (sample != null) {
+                samples.add(sample);
+            }
+        }
+        Collections.sort(samples, (a, b) -> Long.compare(b.timestampMillis, a.timestampMillis));
+        return samples;
+    }
+
+    /**
+     * Builds the text report (see {@link #writeReport(SQLiteDatabase, PrintWriter)}).
+     *
+     * @param db database used for EXPLAIN QUERY PLAN, or null to skip plans
+     * @return report text
+     */
+    @NonNull
+    public static String buildReport(@Nullable SQLiteDatabase db) {
+        StringWriter buffer = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(buffer)) {
+            writeReport(db, writer);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Writes a plain-text report of per-site latency percentiles (microseconds), row counts,
+     * and recent slow queries with their query plans.
+     *
+     * @param db     database used for EXPLAIN QUERY PLAN, or null to skip plans
+     * @param writer destination
+     */
+    public static void writeReport(@Nullable SQLiteDatabase db, @NonNull PrintWriter writer) {
+        writer.println(String.format(Locale.US, "Query metrics (enabled=%b, slow>=%dms)",
+                enabled, TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos)));
+        writer.println();
+
+        List<Site> active = getActiveSites();
+        if (active.isEmpty()) {
+            writer.println("No queries recorded.");
+        } else {
+            writer.println("Latency in microseconds, slowest p99 first:");
+            for (Site site : active) {
+                LatencyHistogram.Snapshot snapshot = site.histogram.snapshot();
+                writer.println(String.format(Locale.US, "%s%n  %s rows=%d",
+                        site.name, snapshot, site.rows.get()));
+            }
+        }
+
+        List<SlowSample> samples = getSlowSamples();
+        writer.println();
+        writer.println("Slow queries (" + samples.size() + "):");
+        Map<Site, List<String>> plans = new HashMap<>();
+        for (SlowSample sample : samples) {
+            writer.println(String.format(Locale.US, "  %s %dus rows=%d thread=%s",
+                    sample.site.name, sample.durationMicros, sample.rows, sample.threadName));
+            if (db != null && sample.site.sql != null) {
+                List<String> plan = plans.computeIfAbsent(sample.site, site -> explain(db, site.sql));
+                for (String line : plan) {
+                    writer.println("    " + line);
+                }
+            }
+        }
+
+        writer.println();
+        ReadCoalescer.writeReport(writer);
+        writer.flush();
+    }
+
+    /**
+     * Runs EXPLAIN QUERY PLAN for the given SQL. Parameters are left unbound (NULL);
+     * SQLite plans do not depend on bound values in the Android build.
+     */
+    @NonNull
+    static List<String> explain(@NonNull SQLiteDatabase db, @NonNull String sql) {
+        List<String> lines = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, null)) {
+            int detailIndex = cursor.getColumnIndex("detail");
+            while (cursor.moveToNext()) {
+                lines.add(cursor.getString(detailIndex >= 0 ? detailIndex : cursor.getColumnCount() - 1));
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "explain: Exception", e);
+            lines.add("(plan unavailable: " + e.getMessage() + ")");
+        }
+        return lines;
+    }
+
+    // ================================================================================
+    // Model
+    // ================================================================================
+
+    /**
+     * A single instrumented call site.
+     */
+    public static final class Site {
+        @NonNull
+        final String name;
+        @Nullable
+        final String sql;
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final AtomicLong rows = new AtomicLong();
+
+        Site(@NonNull String name, @Nullable String sql) {
+            this.name = name;
+            this.sql = sql;
+        }
+
+        @NonNull
+        public String getName() {
+            return name;
+        }
+
+        @NonNull
+        public LatencyHistogram.Snapshot snapshot() {
+            return histogram.snapshot();
+        }
+
+        public long getRowCount() {
+            return rows.get();
+        }
+    }
+
+    /**
+     * A captured slow call.
+     */
+    public static final class SlowSample {
+        @NonNull
+        final Site site;
+        final long durationMicros;
+        final int rows;
+        final long timestampMillis;
+        @NonNull
+        final String threadName;
+
+        SlowSample(@NonNull Site site, long durationMicros, int rows, long timestampMillis,
+                   @NonNull String threadName) {
+            this.site = site;
+            this.durationMicros = durationMicros;
+            this.rows = rows;
+            this.timestampMillis = timestampMillis;
+            this.threadName = threadName;
+        }
+
+        @NonNull
+        public String getSiteName() {
+            return site.name;
+        }
+
+        public long getDurationMicros() {
+            return durationMicros;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.weightogo.database;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.example.weightogo.utils.AppLog;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight read layer for hot DAO lookups.
+ *
+ * <p><strong>Why:</strong> One screen refresh asks for the same row several times: MainActivity
+ * loads the active goal in both updateProgressCard() and calculateQuickStats(), AchievementManager
+ * loads it again in two checks per save, and GoalsActivity loads the latest weight entry in three
+ * handlers. Each call used to run its own query.</p>
+ *
+ * <p><strong>Behavior:</strong></p>
+ * <ul>
+ *   <li>Concurrent calls for the same key share one query: the first caller runs it, the others
+ *       wait for its result.</li>
+ *   <li>The result is kept until a write to the underlying table invalidates it, so later
+ *       calls in the same refresh are served without a query.</li>
+ *   <li>A load that overlaps an invalidation still returns to its own callers but is not kept.</li>
+ * </ul>
+ *
+ * <p><strong>Rules for DAOs:</strong> Every write to a coalesced table must call
+ * {@link InvalidationTracker#notifyWrite(String)} after it commits, including writes that cascade
+ * from another table (see UserDAO.deleteUser). Cached model objects are shared between callers
+ * and must be treated as read-only; change them only to pass them to a DAO update, which
+ * invalidates the entry.</p>
+ *
+ * @param <K> lookup key (usually the user_id)
+ * @param <V> loaded value; null results are cached too
+ */
+final class ReadCoalescer<K, V> {
+
+    private static final String TAG = "ReadCoalescer";
+
+    /** Cached keys per coalescer before the map is dropped (guards against unbounded growth) */
+    private static final int MAX_ENTRIES = 64;
+
+    private static final CopyOnWriteArrayList<ReadCoalescer<?, ?>> ALL = new CopyOnWriteArrayList<>();
+
+    /**
+     * Loads the value on a cache miss.
+     *
+     * @param <V> loaded value
+     */
+    interface Loader<V> {
+        @Nullable
+        V load();
+    }
+
+    private final String name;
+    private final String table;
+    private final Map<K, FutureTask<V>> entries = new ConcurrentHashMap<>();
+
+    // Stats
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private ReadCoalescer(@NonNull String name, @NonNull String table) {
+        this.name = name;
+        this.table = table;
+    }
+
+    /**
+     * Creates a coalescer whose entries are dropped by writes to {@code table}.
+     * Intended to be called once from a static initializer in each DAO.
+     *
+     * @param name  name used in the diagnostics report, conventionally "DaoClass.method"
+     * @param table table the loaded value is read from
+     */
+    @NonNull
+    static <K, V> ReadCoalescer<K, V> create(@NonNull String name, @NonNull String table) {
+        ReadCoalescer<K, V> coalescer = new ReadCoalescer<>(name, table);
+        ALL.add(coalescer);
+        return coalescer;
+    }
+
+    // ================================================================================
+    // Reads
+    // ================================================================================
+
+    /**
+     * Returns the cached or in-flight value for {@code key}, or runs {@code loader} on the
+     * calling thread if there is none.
+     *
+     * @param key    lookup key
+     * @param loader query to run on a miss
+     * @return loaded value (may be null)
+     */
+    @Nullable
+    V get(@NonNull K key, @NonNull Loader<V> loader) {
+        FutureTask<V> existing = entries.get(key);
+        if (existing == null) {
+            FutureTask<V> created = new FutureTask<>(loader::load);
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.clear();
+            }
+            existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                loads.incrementAndGet();
+                created.run();
+                return await(key, created, loader);
+            }
+        }
+        shared.incrementAndGet();
+        return await(key, existing, loader);
+    }
+
+    @Nullable
+    private V await(@NonNull K key, @NonNull FutureTask<V> task, @NonNull Loader<V> loader) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            // Don't keep failures; the next caller retries
+            entries.remove(key, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            AppLog.w(TAG, "get: interrupted waiting for {}, loading directly", name);
+            return loader.load();
+        }
+    }
+
+    // ================================================================================
+    // Invalidation
+    // ================================================================================
+
+    /**
+     * Drops cached values read from {@code table}. Registered with the helper's
+     * {@link InvalidationTracker}, so DAOs reach this through notifyWrite().
+     *
+     * @param table table that was written
+     */
+    static void invalidate(@NonNull String table) {
+        for (ReadCoalescer<?, ?> coalescer : ALL) {
+            if (coalescer.table.equals(table)) {
+                coalescer.clear();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached value (database closed, recreated or upgraded).
+     */
+    static void invalidateAll() {
+        for (ReadCoalescer<?, ?> coalescer : ALL) {
+            coalescer.clear();
+        }
+    }
+
+    private void clear() {
+        entries.clear();
+        invalidations.incrementAndGet();
+    }
+
+    // ================================================================================
+    // Reporting
+    // ================================================================================
+
+    /**
+     * Writes one line per coalescer: queries run, calls served without a query, invalidations.
+     */
+    static void writeReport(@NonNull PrintWriter writer) {
+        writer.println("Read coalescing (queries / served from shared result / invalidations):");
+        for (ReadCoalescer<?, ?> coalescer : ALL) {
+            writer.println(String.format(Locale.US, "  %s %d / %d / %d",
+                    coalescer.name, coalescer.loads.get(), coalescer.shared.get(),
+                    coalescer.invalidations.get()));
+        }
+    }
+
+    long getLoadCount() {
+        return loads.get();
+    }
+
+    long getSharedCount() {
+        return shared.get();
+    }
+
+    /**
+     * Clears values and stats of every coalescer (tests only).
+     */
+    @VisibleForTesting
+    static void resetForTesting() {
+        for (ReadCoalescer<?, ?> coalescer : ALL) {
+            coalescer.entries.clear();
+            coalescer.loads.set(0);
+            coalescer.shared.set(0);
+            coalescer.invalidations.set(0);
+        }
+    }
+}
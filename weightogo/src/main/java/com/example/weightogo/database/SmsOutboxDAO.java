@@ -0,0 +1,525 @@
+package com.example.weightogo.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.SmsOutboxMessage;
+import com.example.weightogo.utils.AppLog;
+import com.example.weightogo.utils.DateTimeConverter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for sms_outbox table.
+ *
+ * <p>Achievement SMS are queued here on the save path and delivered later by
+ * SmsOutboxWorker, so a save never waits on SmsManager and a queued message
+ * survives process death. Rows move PENDING → SENDING → SENT, or back to
+ * PENDING with a later next_attempt_at on failure, and finally to FAILED.</p>
+ *
+ * <p><strong>Claiming:</strong> Status transitions are conditional updates
+ * ({@code WHERE status = ?}), so a row is only handed to SmsManager by the
+ * caller whose claim returned 1.</p>
+ *
+ * <p><strong>Database Lifecycle:</strong> This DAO uses a singleton WeighToGoDBHelper instance.
+ * The helper manages the database connection lifecycle, so individual methods do NOT close
+ * the SQLiteDatabase instance obtained via getReadableDatabase() or getWritableDatabase().</p>
+ */
+public class SmsOutboxDAO {
+
+    private static final String TAG = "SmsOutboxDAO";
+
+    private static final String SQL_GET_DUE =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " WHERE status = ? AND next_attempt_at <= ?" +
+            " ORDER BY next_attempt_at ASC LIMIT ?";
+    private static final String SQL_GET_BY_ID =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " WHERE outbox_id = ?";
+    // Followed by an outbox_id IN (...) list; the sites register the one-ID shape
+    private static final String SQL_GET_BY_IDS_WHERE =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " WHERE ";
+    private static final String SQL_MARK_SENT_WHERE =
+        "UPDATE " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " SET status = ?, last_error = NULL, updated_at = ?" +
+            " WHERE status = ? AND ";
+    private static final String SQL_GET_NEXT_ATTEMPT =
+        "SELECT MIN(next_attempt_at) FROM " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " WHERE status = ?";
+    private static final String SQL_CLAIM =
+        "UPDATE " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " SET status = ?, attempts = attempts + 1, updated_at = ?" +
+            " WHERE outbox_id = ? AND status = ?";
+    // Transitions: the SET values, then updated_at, outbox_id and the expected current status
+    private static final String SQL_MARK_SENT =
+        "UPDATE " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " SET status = ?, last_error = NULL, updated_at = ?" +
+            " WHERE outbox_id = ? AND status = ?";
+    private static final String SQL_SCHEDULE_RETRY =
+        "UPDATE " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " SET status = ?, next_attempt_at = ?, last_error = ?, updated_at = ?" +
+            " WHERE outbox_id = ? AND status = ?";
+    private static final String SQL_POSTPONE =
+        "UPDATE " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " SET next_attempt_at = ?, updated_at = ?" +
+            " WHERE outbox_id = ? AND status = ?";
+    private static final String SQL_MARK_FAILED =
+        "UPDATE " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " SET status = ?, last_error = ?, updated_at = ?" +
+            " WHERE outbox_id = ? AND status = ?";
+    private static final String SQL_REQUEUE_STALE =
+        "UPDATE " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " SET status = ?, updated_at = ? WHERE status = ? AND updated_at < ?";
+    private static final String SQL_DELETE =
+        "DELETE FROM " + WeighToGoDBHelper.TABLE_SMS_OUTBOX + " WHERE outbox_id = ?";
+
+    // Query instrumentation sites (each registers the SQL its method runs, for EXPLAIN QUERY PLAN)
+    private static final QueryMetrics.Site SITE_ENQUEUE =
+        QueryMetrics.site("SmsOutboxDAO.enqueueAchievements", null);
+    private static final QueryMetrics.Site SITE_GET_DUE =
+        QueryMetrics.site("SmsOutboxDAO.getDueMessages", SQL_GET_DUE);
+    private static final QueryMetrics.Site SITE_GET_BY_ID =
+        QueryMetrics.site("SmsOutboxDAO.getMessage", SQL_GET_BY_ID);
+    private static final QueryMetrics.Site SITE_GET_BY_IDS =
+        QueryMetrics.site("SmsOutboxDAO.getMessages", SQL_GET_BY_IDS_WHERE + SqlStatements.inClause("outbox_id", 1));
+    private static final QueryMetrics.Site SITE_GET_NEXT_ATTEMPT =
+        QueryMetrics.site("SmsOutboxDAO.getNextAttemptTime", SQL_GET_NEXT_ATTEMPT);
+    private static final QueryMetrics.Site SITE_CLAIM =
+        QueryMetrics.site("SmsOutboxDAO.claimForSending", SQL_CLAIM);
+    private static final QueryMetrics.Site SITE_MARK_SENT =
+        QueryMetrics.site("SmsOutboxDAO.markSent", SQL_MARK_SENT);
+    private static final QueryMetrics.Site SITE_MARK_SENT_BATCH =
+        QueryMetrics.site("SmsOutboxDAO.markSent.batch", SQL_MARK_SENT_WHERE + SqlStatements.inClause("outbox_id", 1));
+    private static final QueryMetrics.Site SITE_SCHEDULE_RETRY =
+        QueryMetrics.site("SmsOutboxDAO.scheduleRetry", SQL_SCHEDULE_RETRY);
+    private static final QueryMetrics.Site SITE_POSTPONE =
+        QueryMetrics.site("SmsOutboxDAO.postpone", SQL_POSTPONE);
+    private static final QueryMetrics.Site SITE_MARK_FAILED =
+        QueryMetrics.site("SmsOutboxDAO.markFailed", SQL_MARK_FAILED);
+    private static final QueryMetrics.Site SITE_REQUEUE_STALE =
+        QueryMetrics.site("SmsOutboxDAO.requeueStaleSending", SQL_REQUEUE_STALE);
+    private static final QueryMetrics.Site SITE_DELETE =
+        QueryMetrics.site("SmsOutboxDAO.deleteMessage", SQL_DELETE);
+
+    private final WeighToGoDBHelper dbHelper;
+
+    /**
+     * Constructor.
+     *
+     * @param dbHelper the database helper instance
+     */
+    public SmsOutboxDAO(@NonNull WeighToGoDBHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    // ================================================================================
+    // Enqueue
+    // ================================================================================
+
+    /**
+     * Queues one SMS per achievement, due immediately, in a single transaction.
+     *
+     * @param achievements saved achievements (achievement_id must be set)
+     * @return number of rows queued (0 on error; nothing is queued on a partial failure)
+     */
+    public int enqueueAchievements(@NonNull List<Achievement> achievements) {
+        if (achievements.isEmpty()) {
+            return 0;
+        }
+        AppLog.d(TAG, "enqueueAchievements: Queueing {} messages", achievements.size());
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        String now = DateTimeConverter.toTimestamp(LocalDateTime.now());
+        long start = QueryMetrics.begin();
+        int rows = 0;
+        db.beginTransaction();
+
+        try {
+            ContentValues values = new ContentValues();
+            for (Achievement achievement : achievements) {
+                values.clear();
+                values.put("user_id", achievement.getUserId());
+                values.put("achievement_id", achievement.getAchievementId());
+                values.put("status", SmsOutboxMessage.STATUS_PENDING);
+                values.put("attempts", 0);
+                values.put("next_attempt_at", now);
+                values.put("created_at", now);
+                values.put("updated_at", now);
+
+                if (db.insert(WeighToGoDBHelper.TABLE_SMS_OUTBOX, null, values) == -1) {
+                    AppLog.e(TAG, "enqueueAchievements: Insert failed for achievement_id=" +
+                            achievement.getAchievementId() + ", rolling back");
+                    rows = 0;
+                    return 0;
+                }
+                rows++;
+            }
+            db.setTransactionSuccessful();
+            AppLog.i(TAG, "enqueueAchievements: Queued {} messages", rows);
+            return rows;
+        } catch (Exception e) {
+            AppLog.e(TAG, "enqueueAchievements: Exception, rolling back", e);
+            rows = 0;
+            return 0;
+        } finally {
+            db.endTransaction();
+            QueryMetrics.end(SITE_ENQUEUE, start, rows);
+            if (rows > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_SMS_OUTBOX);
+            }
+        }
+    }
+
+    // ================================================================================
+    // Reads
+    // ================================================================================
+
+    /**
+     * Gets PENDING messages whose next attempt is due, oldest first.
+     *
+     * @param now   current time
+     * @param limit maximum number of messages (batch size)
+     * @return due messages (empty list if none)
+     */
+    @NonNull
+    public List<SmsOutboxMessage> getDueMessages(@NonNull LocalDateTime now, int limit) {
+        List<SmsOutboxMessage> messages = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+
+        try (Cursor cursor = db.rawQuery(SQL_GET_DUE, new String[]{
+                SmsOutboxMessage.STATUS_PENDING, DateTimeConverter.toTimestamp(now), String.valueOf(limit)})) {
+            while (cursor != null && cursor.moveToNext()) {
+                messages.add(mapCursorToMessage(cursor));
+            }
+            AppLog.d(TAG, "getDueMessages: Found {} due messages", messages.size());
+        } catch (Exception e) {
+            AppLog.e(TAG, "getDueMessages: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_DUE, start, messages.size());
+        }
+
+        return messages;
+    }
+
+    /**
+     * Gets a queued message by ID.
+     *
+     * @param outboxId outbox ID
+     * @return message, or null if not found
+     */
+    @Nullable
+    public SmsOutboxMessage getMessage(long outboxId) {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
+
+        try (Cursor cursor = db.rawQuery(SQL_GET_BY_ID, new String[]{String.valueOf(outboxId)})) {
+            if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
+                return mapCursorToMessage(cursor);
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "getMessage: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_BY_ID, start, rows);
+        }
+        return null;
+    }
+
+    /**
+     * Gets several queued messages by ID, e.g. the ones merged into one SMS.
+     *
+     * @param outboxIds outbox IDs
+     * @return the messages found, in no particular order (empty list if none, or on error)
+     */
+    @NonNull
+    public List<SmsOutboxMessage> getMessages(@NonNull long[] outboxIds) {
+        List<SmsOutboxMessage> messages = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+
+        try {
+            for (int from = 0; from < outboxIds.length; from += SqlStatements.MAX_IDS_PER_STATEMENT) {
+                int to = Math.min(from + SqlStatements.MAX_IDS_PER_STATEMENT, outboxIds.length);
+                try (Cursor cursor = db.rawQuery(SQL_GET_BY_IDS_WHERE + SqlStatements.inClause("outbox_id", to - from),
+                        SqlStatements.idArgs(outboxIds, from, to))) {
+                    while (cursor != null && cursor.moveToNext()) {
+                        messages.add(mapCursorToMessage(cursor));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "getMessages: Exception", e);
+            messages.clear();
+        } finally {
+            QueryMetrics.end(SITE_GET_BY_IDS, start, messages.size());
+        }
+        return messages;
+    }
+
+    /**
+     * Gets the earliest next_attempt_at among PENDING messages.
+     * Used by the worker to schedule its next run after a batch.
+     *
+     * @return earliest next attempt, or null if nothing is pending
+     */
+    @Nullable
+    public LocalDateTime getNextAttemptTime() {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
+
+        try (Cursor cursor = db.rawQuery(SQL_GET_NEXT_ATTEMPT, new String[]{SmsOutboxMessage.STATUS_PENDING})) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                rows = 1;
+                return DateTimeConverter.fromTimestamp(cursor.getString(0));
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "getNextAttemptTime: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_NEXT_ATTEMPT, start, rows);
+        }
+        return null;
+    }
+
+    // ================================================================================
+    // Status transitions
+    // ================================================================================
+
+    /**
+     * Claims a PENDING message for sending and counts the attempt.
+     *
+     * @param outboxId outbox ID
+     * @return 1 if claimed, 0 if the message is no longer PENDING
+     */
+    public int claimForSending(long outboxId) {
+        AppLog.d(TAG, "claimForSending: outbox_id={}", outboxId);
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long start = QueryMetrics.begin();
+        int rowsUpdated = 0;
+        try {
+            rowsUpdated = SqlStatements.executeUpdateDelete(db, SQL_CLAIM, SmsOutboxMessage.STATUS_SENDING,
+                    DateTimeConverter.toTimestamp(LocalDateTime.now()), outboxId, SmsOutboxMessage.STATUS_PENDING);
+            return rowsUpdated;
+        } catch (Exception e) {
+            AppLog.e(TAG, "claimForSending: Exception", e);
+            return 0;
+        } finally {
+            QueryMetrics.end(SITE_CLAIM, start, rowsUpdated);
+            if (rowsUpdated > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_SMS_OUTBOX);
+            }
+        }
+    }
+
+    /**
+     * Records that the carrier accepted a SENDING message.
+     *
+     * @param outboxId outbox ID
+     * @return 1 if updated, 0 if the message was not SENDING
+     */
+    public int markSent(long outboxId) {
+        return transition(SITE_MARK_SENT, SQL_MARK_SENT, outboxId, SmsOutboxMessage.STATUS_SENDING,
+                SmsOutboxMessage.STATUS_SENT);
+    }
+
+    /**
+     * Records that the carrier accepted one SMS covering several SENDING messages, with one
+     * UPDATE ... WHERE outbox_id IN (...) (split into chunks of
+     * {@value SqlStatements#MAX_IDS_PER_STATEMENT} IDs) in one transaction.
+     *
+     * @param outboxIds outbox IDs
+     * @return number of messages updated (0 on error, in which case nothing is updated);
+     *         messages no longer SENDING are skipped
+     */
+    public int markSent(@NonNull long[] outboxIds) {
+        if (outboxIds.length == 0) {
+            return 0;
+        }
+        AppLog.d(TAG, "markSent: {} messages", outboxIds.length);
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        String now = DateTimeConverter.toTimestamp(LocalDateTime.now());
+        long start = QueryMetrics.begin();
+        int rowsUpdated = 0;
+        db.beginTransaction();
+
+        try {
+            for (int from = 0; from < outboxIds.length; from += SqlStatements.MAX_IDS_PER_STATEMENT) {
+                int to = Math.min(from + SqlStatements.MAX_IDS_PER_STATEMENT, outboxIds.length);
+                Object[] args = new Object[3 + to - from];
+                args[0] = SmsOutboxMessage.STATUS_SENT;
+                args[1] = now;
+                args[2] = SmsOutboxMessage.STATUS_SENDING;
+                System.arraycopy(SqlStatements.idArgs(outboxIds, from, to), 0, args, 3, to - from);
+                rowsUpdated += SqlStatements.executeUpdateDelete(db,
+                        SQL_MARK_SENT_WHERE + SqlStatements.inClause("outbox_id", to - from), args);
+            }
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            AppLog.e(TAG, "markSent: Exception, rolling back", e);
+            rowsUpdated = 0;
+        } finally {
+            db.endTransaction();
+            QueryMetrics.end(SITE_MARK_SENT_BATCH, start, rowsUpdated);
+            if (rowsUpdated > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_SMS_OUTBOX);
+            }
+        }
+        return rowsUpdated;
+    }
+
+    /**
+     * Returns a SENDING message to PENDING with a later next attempt.
+     *
+     * @param outboxId      outbox ID
+     * @param nextAttemptAt earliest time to retry
+     * @param error         reason for the failed attempt
+     * @return 1 if updated, 0 if the message was not SENDING
+     */
+    public int scheduleRetry(long outboxId, @NonNull LocalDateTime nextAttemptAt, @NonNull String error) {
+        return transition(SITE_SCHEDULE_RETRY, SQL_SCHEDULE_RETRY, outboxId, SmsOutboxMessage.STATUS_SENDING,
+                SmsOutboxMessage.STATUS_PENDING, DateTimeConverter.toTimestamp(nextAttemptAt), error);
+    }
+
+    /**
+     * Moves a PENDING message's next attempt later without counting an attempt
+     * (e.g. the user's SMS rate limit is exhausted).
+     *
+     * @param outboxId      outbox ID
+     * @param nextAttemptAt earliest time to try again
+     * @return 1 if updated, 0 if the message was not PENDING
+     */
+    public int postpone(long outboxId, @NonNull LocalDateTime nextAttemptAt) {
+        return transition(SITE_POSTPONE, SQL_POSTPONE, outboxId, SmsOutboxMessage.STATUS_PENDING,
+                DateTimeConverter.toTimestamp(nextAttemptAt));
+    }
+
+    /**
+     * Gives up on a SENDING message.
+     *
+     * @param outboxId outbox ID
+     * @param error    reason for the last failed attempt
+     * @return 1 if updated, 0 if the message was not SENDING
+     */
+    public int markFailed(long outboxId, @NonNull String error) {
+        return transition(SITE_MARK_FAILED, SQL_MARK_FAILED, outboxId, SmsOutboxMessage.STATUS_SENDING,
+                SmsOutboxMessage.STATUS_FAILED, error);
+    }
+
+    /**
+     * Conditional status update shared by the transition methods.
+     *
+     * @param sql        one of the SQL_* transitions
+     * @param fromStatus status the message must currently have
+     * @param setValues  values for the statement's SET placeholders before updated_at
+     */
+    private int transition(@NonNull QueryMetrics.Site site, @NonNull String sql, long outboxId,
+                           @NonNull String fromStatus, @NonNull Object... setValues) {
+        AppLog.d(TAG, "transition: outbox_id={} from {}", outboxId, fromStatus);
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        Object[] args = new Object[setValues.length + 3];
+        System.arraycopy(setValues, 0, args, 0, setValues.length);
+        args[setValues.length] = DateTimeConverter.toTimestamp(LocalDateTime.now());
+        args[setValues.length + 1] = outboxId;
+        args[setValues.length + 2] = fromStatus;
+
+        long start = QueryMetrics.begin();
+        int rowsUpdated = 0;
+        try {
+            rowsUpdated = SqlStatements.executeUpdateDelete(db, sql, args);
+            return rowsUpdated;
+        } catch (Exception e) {
+            AppLog.e(TAG, "transition: Exception", e);
+            return 0;
+        } finally {
+            QueryMetrics.end(site, start, rowsUpdated);
+            if (rowsUpdated > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_SMS_OUTBOX);
+            }
+        }
+    }
+
+    /**
+     * Returns SENDING messages whose sent broadcast never arrived (process died after
+     * handing them to SmsManager) to PENDING so they are retried.
+     *
+     * @param updatedBefore messages last updated before this time are considered lost
+     * @return number of messages requeued
+     */
+    public int requeueStaleSending(@NonNull LocalDateTime updatedBefore) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        long start = QueryMetrics.begin();
+        int rowsUpdated = 0;
+        try {
+            rowsUpdated = SqlStatements.executeUpdateDelete(db, SQL_REQUEUE_STALE, SmsOutboxMessage.STATUS_PENDING,
+                    DateTimeConverter.toTimestamp(LocalDateTime.now()), SmsOutboxMessage.STATUS_SENDING,
+                    DateTimeConverter.toTimestamp(updatedBefore));
+            if (rowsUpdated > 0) {
+                AppLog.w(TAG, "requeueStaleSending: Requeued {} messages with no sent result", rowsUpdated);
+            }
+            return rowsUpdated;
+        } catch (Exception e) {
+            AppLog.e(TAG, "requeueStaleSending: Exception", e);
+            return 0;
+        } finally {
+            QueryMetrics.end(SITE_REQUEUE_STALE, start, rowsUpdated);
+            if (rowsUpdated > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_SMS_OUTBOX);
+            }
+        }
+    }
+
+    /**
+     * Deletes a queued message (e.g. the user turned the alert off before delivery).
+     *
+     * @param outboxId outbox ID
+     * @return number of rows deleted
+     */
+    public int deleteMessage(long outboxId) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long start = QueryMetrics.begin();
+        int rowsDeleted = 0;
+        try {
+            rowsDeleted = SqlStatements.executeUpdateDelete(db, SQL_DELETE, outboxId);
+            return rowsDeleted;
+        } catch (Exception e) {
+            AppLog.e(TAG, "deleteMessage: Exception", e);
+            return 0;
+        } finally {
+            QueryMetrics.end(SITE_DELETE, start, rowsDeleted);
+            if (rowsDeleted > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_SMS_OUTBOX);
+            }
+        }
+    }
+
+    /**
+     * Maps a database cursor row to an SmsOutboxMessage object.
+     *
+     * @param cursor Cursor positioned at a row
+     * @return SmsOutboxMessage object
+     */
+    private SmsOutboxMessage mapCursorToMessage(@NonNull Cursor cursor) {
+        SmsOutboxMessage message = new SmsOutboxMessage();
+        message.setOutboxId(cursor.getLong(cursor.getColumnIndexOrThrow("outbox_id")));
+        message.setUserId(cursor.getLong(cursor.getColumnIndexOrThrow("user_id")));
+        message.setAchievementId(cursor.getLong(cursor.getColumnIndexOrThrow("achievement_id")));
+        message.setStatus(cursor.getString(cursor.getColumnIndexOrThrow("status")));
+        message.setAttempts(cursor.getInt(cursor.getColumnIndexOrThrow("attempts")));
+        message.setNextAttemptAt(DateTimeConverter.fromTimestamp(
+                cursor.getString(cursor.getColumnIndexOrThrow("next_attempt_at"))));
+        message.setCreatedAt(DateTimeConverter.fromTimestamp(
+                cursor.getString(cursor.getColumnIndexOrThrow("created_at"))));
+        message.setUpdatedAt(DateTimeConverter.fromTimestamp(
+                cursor.getString(cursor.getColumnIndexOrThrow("updated_at"))));
+
+        int errorIndex = cursor.getColumnIndexOrThrow("last_error");
+        if (!cursor.isNull(errorIndex)) {
+            message.setLastError(cursor.getString(errorIndex));
+        }
+
+        return message;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.weightogo.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Runs the UPDATE and DELETE statements the DAOs register with {@link QueryMetrics}.
+ *
+ * <p>SQLiteDatabase.update() and delete() build their own SQL from ContentValues and a
+ * WHERE clause, so the text a site registered for EXPLAIN QUERY PLAN could drift from what
+ * actually ran. Executing the registered constant keeps the two the same.</p>
+ */
+final class SqlStatements {
+
+    /** IDs per IN (...) list: SQLite before 3.32 (API 30) allows at most 999 bound arguments */
+    static final int MAX_IDS_PER_STATEMENT = 500;
+
+    private SqlStatements() {
+    }
+
+    /**
+     * Compiles and runs an UPDATE or DELETE.
+     *
+     * @param db   the database
+     * @param sql  the statement, with ? placeholders
+     * @param args one value per placeholder: null, a Long/Integer, a Double, or anything
+     *             else bound as its string form
+     * @return number of rows changed
+     */
+    static int executeUpdateDelete(@NonNull SQLiteDatabase db, @NonNull String sql, @Nullable Object... args) {
+        try (SQLiteStatement statement = db.compileStatement(sql)) {
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    bind(statement, i + 1, args[i]);
+                }
+            }
+            return statement.executeUpdateDelete();
+        }
+    }
+
+    /**
+     * @return "{@code column} IN (?, ?, ...)" with {@code count} placeholders
+     */
+    @NonNull
+    static String inClause(@NonNull String column, int count) {
+        StringBuilder where = new StringBuilder(column).append(" IN (");
+        for (int i = 0; i < count; i++) {
+            where.append(i > 0 ? ", ?" : "?");
+        }
+        return where.append(")").toString();
+    }
+
+    /**
+     * @return ids[from, to) as selection arguments
+     */
+    @NonNull
+    static String[] idArgs(@NonNull long[] ids, int from, int to) {
+        String[] args = new String[to - from];
+        for (int i = from; i < to; i++) {
+            args[i - from] = String.valueOf(ids[i]);
+        }
+        return args;
+    }
+
+    private static void bind(@NonNull SQLiteStatement statement, int index, @Nullable Object value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else if (value instanceof Long || value instanceof Integer) {
+            statement.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof Double) {
+            statement.bindDouble(index, (Double) value);
+        } else {
+            statement.bindString(index, value.toString());
+        }
+    }
+}
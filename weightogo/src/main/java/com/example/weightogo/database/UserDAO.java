@@ -5,12 +5,12 @@ import android.database.Cursor;
 import android.database.SQLException;
 import android.database.sqlite.SQLiteConstraintException;
 import android.database.sqlite.SQLiteDatabase;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.weightogo.models.User;
+import com.example.weightogo.utils.AppLog;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -32,6 +32,44 @@ public class UserDAO {
     private static final String TAG = "UserDAO";
     private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+    private static final String SQL_GET_BY_ID =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_USERS + " WHERE user_id = ?";
+    private static final String SQL_GET_BY_USERNAME =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_USERS + " WHERE username = ?";
+    private static final String SQL_USERNAME_EXISTS =
+        "SELECT user_id FROM " + WeighToGoDBHelper.TABLE_USERS + " WHERE username = ?";
+    private static final String SQL_UPDATE_LAST_LOGIN =
+        "UPDATE " + WeighToGoDBHelper.TABLE_USERS + " SET last_login = ? WHERE user_id = ?";
+    private static final String SQL_UPDATE_PHONE =
+        "UPDATE " + WeighToGoDBHelper.TABLE_USERS + " SET phone_number = ?, updated_at = ? WHERE user_id = ?";
+    private static final String SQL_UPDATE_PASSWORD =
+        "UPDATE " + WeighToGoDBHelper.TABLE_USERS +
+            " SET password_hash = ?, salt = ?, password_algorithm = ?, updated_at = ? WHERE user_id = ?";
+    private static final String SQL_UPDATE_PASSWORD_IF_UNCHANGED =
+        SQL_UPDATE_PASSWORD + " AND password_hash = ?";
+    private static final String SQL_DELETE =
+        "DELETE FROM " + WeighToGoDBHelper.TABLE_USERS + " WHERE user_id = ?";
+
+    // Query instrumentation sites (each registers the SQL its method runs, for EXPLAIN QUERY PLAN)
+    private static final QueryMetrics.Site SITE_INSERT =
+        QueryMetrics.site("UserDAO.insertUser", null);
+    private static final QueryMetrics.Site SITE_GET_BY_ID =
+        QueryMetrics.site("UserDAO.getUserById", SQL_GET_BY_ID);
+    private static final QueryMetrics.Site SITE_GET_BY_USERNAME =
+        QueryMetrics.site("UserDAO.getUserByUsername", SQL_GET_BY_USERNAME);
+    private static final QueryMetrics.Site SITE_USERNAME_EXISTS =
+        QueryMetrics.site("UserDAO.usernameExists", SQL_USERNAME_EXISTS);
+    private static final QueryMetrics.Site SITE_UPDATE_LAST_LOGIN =
+        QueryMetrics.site("UserDAO.updateLastLogin", SQL_UPDATE_LAST_LOGIN);
+    private static final QueryMetrics.Site SITE_UPDATE_PHONE =
+        QueryMetrics.site("UserDAO.updatePhoneNumber", SQL_UPDATE_PHONE);
+    private static final QueryMetrics.Site SITE_UPDATE_PASSWORD =
+        QueryMetrics.site("UserDAO.updatePassword", SQL_UPDATE_PASSWORD);
+    private static final QueryMetrics.Site SITE_UPDATE_PASSWORD_IF_UNCHANGED =
+        QueryMetrics.site("UserDAO.updatePasswordIfUnchanged", SQL_UPDATE_PASSWORD_IF_UNCHANGED);
+    private static final QueryMetrics.Site SITE_DELETE =
+        QueryMetrics.site("UserDAO.deleteUser", SQL_DELETE);
+
     private final WeighToGoDBHelper dbHelper;
 
     /**
@@ -52,12 +90,12 @@ public class UserDAO {
      * @throws DatabaseException if database operation fails
      */
     public long insertUser(@NonNull User user) throws DuplicateUsernameException, DatabaseException {
-        Log.d(TAG, "insertUser: Inserting user with username=" + user.getUsername());
+        AppLog.d(TAG, "insertUser: Inserting new user");
 
         // Check for duplicate username first
         if (usernameExists(user.getUsername())) {
             String msg = "Username '" + user.getUsername() + "' already exists";
-            Log.e(TAG, "insertUser: " + msg);
+            AppLog.e(TAG, "insertUser: Username already exists");
             throw new DuplicateUsernameException(msg);
         }
 
@@ -86,11 +124,14 @@ public class UserDAO {
             values.put("last_login", user.getLastLogin().format(ISO_FORMATTER));
         }
 
+        long start = QueryMetrics.begin();
+        int rows = 0;
         try {
             long userId = db.insert(WeighToGoDBHelper.TABLE_USERS, null, values);
 
             if (userId > 0) {
-                Log.i(TAG, "insertUser: Successfully inserted user with user_id=" + userId);
+                rows = 1;
+                AppLog.i(TAG, "insertUser: Successfully inserted user with user_id={}", userId);
                 return userId;
             } else {
                 throw new DatabaseException("Insert failed - database returned -1");
@@ -98,15 +139,20 @@ public class UserDAO {
 
         } catch (SQLiteConstraintException e) {
             if (e.getMessage() != null && e.getMessage().contains("UNIQUE")) {
-                String msg = "Username '" + user.getUsername() + "' already exists";
-                Log.e(TAG, "insertUser: " + msg, e);
-                throw new DuplicateUsernameException(msg, e);
+                AppLog.e(TAG, "insertUser: Duplicate username constraint violation", e);
+                throw new DuplicateUsernameException(
+                    "Username '" + user.getUsername() + "' already exists", e);
             }
-            Log.e(TAG, "insertUser: Constraint violation", e);
+            AppLog.e(TAG, "insertUser: Constraint violation", e);
             throw new DatabaseException("Constraint violation", e);
         } catch (SQLException e) {
-            Log.e(TAG, "insertUser: Database error", e);
+            AppLog.e(TAG, "insertUser: Database error", e);
             throw new DatabaseException("Database error during insert", e);
+        } finally {
+            QueryMetrics.end(SITE_INSERT, start, rows);
+            if (rows > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_USERS);
+            }
         }
     }
 
@@ -118,28 +164,27 @@ public class UserDAO {
      */
     @Nullable
     public User getUserById(long userId) {
-        Log.d(TAG, "getUserById: Querying user_id=" + userId);
+        AppLog.d(TAG, "getUserById: Querying user_id={}", userId);
 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_USERS,
-            null,  // all columns
-            "user_id = ?",
-            new String[]{String.valueOf(userId)},
-            null, null, null
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_BY_ID, new String[]{String.valueOf(userId)})) {
             if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
                 User user = mapCursorToUser(cursor);
-                Log.i(TAG, "getUserById: Found user with username=" + user.getUsername());
+                AppLog.i(TAG, "getUserById: Found user_id={}", userId);
                 return user;
             } else {
-                Log.w(TAG, "getUserById: No user found with user_id=" + userId);
+                AppLog.w(TAG, "getUserById: No user found with user_id={}", userId);
                 return null;
             }
         } catch (Exception e) {
-            Log.e(TAG, "getUserById: Exception querying user", e);
+            AppLog.e(TAG, "getUserById: Exception querying user", e);
             return null;
+        } finally {
+            QueryMetrics.end(SITE_GET_BY_ID, start, rows);
         }
     }
 
@@ -199,28 +244,27 @@ public class UserDAO {
      */
     @Nullable
     public User getUserByUsername(@NonNull String username) {
-        Log.d(TAG, "getUserByUsername: Querying username=" + username);
+        AppLog.d(TAG, "getUserByUsername: Querying by username");
 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_USERS,
-            null,  // all columns
-            "username = ?",
-            new String[]{username},
-            null, null, null
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_BY_USERNAME, new String[]{username})) {
             if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
                 User user = mapCursorToUser(cursor);
-                Log.i(TAG, "getUserByUsername: Found user with user_id=" + user.getUserId());
+                AppLog.i(TAG, "getUserByUsername: Found user with user_id={}", user.getUserId());
                 return user;
             } else {
-                Log.w(TAG, "getUserByUsername: No user found with username=" + username);
+                AppLog.w(TAG, "getUserByUsername: No user found");
                 return null;
             }
         } catch (Exception e) {
-            Log.e(TAG, "getUserByUsername: Exception querying user", e);
+            AppLog.e(TAG, "getUserByUsername: Exception querying user", e);
             return null;
+        } finally {
+            QueryMetrics.end(SITE_GET_BY_USERNAME, start, rows);
         }
     }
 
@@ -232,23 +276,21 @@ public class UserDAO {
      * @return true if username exists, false otherwise
      */
     public boolean usernameExists(@NonNull String username) {
-        Log.d(TAG, "usernameExists: Checking username=" + username);
 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_USERS,
-            new String[]{"user_id"},  // Only need to check existence
-            "username = ?",
-            new String[]{username},
-            null, null, null
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_USERNAME_EXISTS, new String[]{username})) {
             boolean exists = cursor != null && cursor.getCount() > 0;
-            Log.d(TAG, "usernameExists: Username '" + username + "' exists=" + exists);
+            rows = exists ? 1 : 0;
+            AppLog.d(TAG, "usernameExists: exists={}", exists);
             return exists;
         } catch (Exception e) {
-            Log.e(TAG, "usernameExists: Exception checking username", e);
+            AppLog.e(TAG, "usernameExists: Exception checking username", e);
             return false;
+        } finally {
+            QueryMetrics.end(SITE_USERNAME_EXISTS, start, rows);
         }
     }
 
@@ -261,32 +303,32 @@ public class UserDAO {
      * @return Number of rows updated (should be 1 if successful)
      */
     public int updateLastLogin(long userId, @NonNull LocalDateTime loginTime) {
-        Log.d(TAG, "updateLastLogin: Updating last_login for user_id=" + userId);
+        AppLog.d(TAG, "updateLastLogin: Updating last_login for user_id={}", userId);
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        ContentValues values = new ContentValues();
-        values.put("last_login", loginTime.format(ISO_FORMATTER));
-
+        long start = QueryMetrics.begin();
+        int rowsAffected = 0;
         try {
-            int rowsAffected = db.update(
-                WeighToGoDBHelper.TABLE_USERS,
-                values,
-                "user_id = ?",
-                new String[]{String.valueOf(userId)}
-            );
+            rowsAffected = SqlStatements.executeUpdateDelete(db, SQL_UPDATE_LAST_LOGIN,
+                loginTime.format(ISO_FORMATTER), userId);
 
             if (rowsAffected > 0) {
-                Log.i(TAG, "updateLastLogin: Successfully updated last_login for user_id=" + userId);
+                AppLog.i(TAG, "updateLastLogin: Successfully updated last_login for user_id={}", userId);
             } else {
-                Log.w(TAG, "updateLastLogin: No rows updated for user_id=" + userId);
+                AppLog.w(TAG, "updateLastLogin: No rows updated for user_id={}", userId);
             }
 
             return rowsAffected;
 
         } catch (Exception e) {
-            Log.e(TAG, "updateLastLogin: Exception updating last_login", e);
+            AppLog.e(TAG, "updateLastLogin: Exception updating last_login", e);
             return 0;
+        } finally {
+            QueryMetrics.end(SITE_UPDATE_LAST_LOGIN, start, rowsAffected);
+            if (rowsAffected > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_USERS);
+            }
         }
     }
 
@@ -314,43 +356,40 @@ public class UserDAO {
      * @return true if successful (1 row updated), false if user not found (0 rows)
      */
     public boolean updatePhoneNumber(long userId, @Nullable String phoneNumber) {
-        Log.d(TAG, "updatePhoneNumber: Updating phone for user_id=" + userId);
+        AppLog.d(TAG, "updatePhoneNumber: Updating phone for user_id={}", userId);
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        ContentValues values = new ContentValues();
-
-        // Handle null phone number (clear field)
+        // Null phone number clears the field
         if (phoneNumber == null) {
-            values.putNull("phone_number");
-            Log.d(TAG, "updatePhoneNumber: Clearing phone number for user_id=" + userId);
+            AppLog.d(TAG, "updatePhoneNumber: Clearing phone number for user_id={}", userId);
         } else {
-            values.put("phone_number", phoneNumber);
-            Log.d(TAG, "updatePhoneNumber: Setting phone to " + phoneNumber + " for user_id=" + userId);
+            AppLog.d(TAG, "updatePhoneNumber: Setting phone for user_id={}", userId);
         }
 
-        // Always update the updated_at timestamp
-        values.put("updated_at", LocalDateTime.now().format(ISO_FORMATTER));
-
+        long start = QueryMetrics.begin();
+        int rowsAffected = 0;
         try {
-            int rowsAffected = db.update(
-                WeighToGoDBHelper.TABLE_USERS,
-                values,
-                "user_id = ?",
-                new String[]{String.valueOf(userId)}
-            );
+            // Always update the updated_at timestamp
+            rowsAffected = SqlStatements.executeUpdateDelete(db, SQL_UPDATE_PHONE,
+                phoneNumber, LocalDateTime.now().format(ISO_FORMATTER), userId);
 
             if (rowsAffected > 0) {
-                Log.i(TAG, "updatePhoneNumber: Successfully updated phone for user_id=" + userId);
+                AppLog.i(TAG, "updatePhoneNumber: Successfully updated phone for user_id={}", userId);
                 return true;
             } else {
-                Log.w(TAG, "updatePhoneNumber: No rows updated for user_id=" + userId + " (user not found)");
+                AppLog.w(TAG, "updatePhoneNumber: No rows updated for user_id={} (user not found)", userId);
                 return false;
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "updatePhoneNumber: Exception updating phone", e);
+            AppLog.e(TAG, "updatePhoneNumber: Exception updating phone", e);
             return false;
+        } finally {
+            QueryMetrics.end(SITE_UPDATE_PHONE, start, rowsAffected);
+            if (rowsAffected > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_USERS);
+            }
         }
     }
 
@@ -367,35 +406,32 @@ public class UserDAO {
      * @return true if successful, false if user not found
      */
     public boolean updatePassword(long userId, @NonNull String passwordHash, @NonNull String salt, @NonNull String algorithm) {
-        Log.d(TAG, "updatePassword: Updating password algorithm for user_id=" + userId + " to " + algorithm);
+        AppLog.d(TAG, "updatePassword: Updating password algorithm for user_id={} to {}", userId, algorithm);
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        ContentValues values = new ContentValues();
-        values.put("password_hash", passwordHash);
-        values.put("salt", salt);
-        values.put("password_algorithm", algorithm);
-        values.put("updated_at", LocalDateTime.now().format(ISO_FORMATTER));
-
+        long start = QueryMetrics.begin();
+        int rowsAffected = 0;
         try {
-            int rowsAffected = db.update(
-                WeighToGoDBHelper.TABLE_USERS,
-                values,
-                "user_id = ?",
-                new String[]{String.valueOf(userId)}
-            );
+            rowsAffected = SqlStatements.executeUpdateDelete(db, SQL_UPDATE_PASSWORD,
+                passwordHash, salt, algorithm, LocalDateTime.now().format(ISO_FORMATTER), userId);
 
             if (rowsAffected > 0) {
-                Log.i(TAG, "updatePassword: Successfully migrated user_id=" + userId + " to " + algorithm);
+                AppLog.i(TAG, "updatePassword: Successfully migrated user_id={} to {}", userId, algorithm);
                 return true;
             } else {
-                Log.w(TAG, "updatePassword: No rows updated for user_id=" + userId);
+                AppLog.w(TAG, "updatePassword: No rows updated for user_id={}", userId);
                 return false;
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "updatePassword: Exception updating password", e);
+            AppLog.e(TAG, "updatePassword: Exception updating password", e);
             return false;
+        } finally {
+            QueryMetrics.end(SITE_UPDATE_PASSWORD, start, rowsAffected);
+            if (rowsAffected > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_USERS);
+            }
         }
     }
 
@@ -416,36 +452,34 @@ public class UserDAO {
                                              @NonNull String newPasswordHash,
                                              @NonNull String newSalt,
                                              @NonNull String newAlgorithm) {
-        Log.d(TAG, "updatePasswordIfUnchanged: Checking hash for user_id=" + userId + " before migration");
+        AppLog.d(TAG, "updatePasswordIfUnchanged: Checking hash for user_id={} before migration", userId);
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        ContentValues values = new ContentValues();
-        values.put("password_hash", newPasswordHash);
-        values.put("salt", newSalt);
-        values.put("password_algorithm", newAlgorithm);
-        values.put("updated_at", LocalDateTime.now().format(ISO_FORMATTER));
-
+        long start = QueryMetrics.begin();
+        int rowsAffected = 0;
         try {
             // Update only if current password_hash matches the old one
-            int rowsAffected = db.update(
-                WeighToGoDBHelper.TABLE_USERS,
-                values,
-                "user_id = ? AND password_hash = ?",
-                new String[]{String.valueOf(userId), oldPasswordHash}
-            );
+            rowsAffected = SqlStatements.executeUpdateDelete(db, SQL_UPDATE_PASSWORD_IF_UNCHANGED,
+                newPasswordHash, newSalt, newAlgorithm, LocalDateTime.now().format(ISO_FORMATTER),
+                userId, oldPasswordHash);
 
             if (rowsAffected > 0) {
-                Log.i(TAG, "updatePasswordIfUnchanged: Successfully migrated user_id=" + userId + " to " + newAlgorithm);
+                AppLog.i(TAG, "updatePasswordIfUnchanged: Successfully migrated user_id={} to {}", userId, newAlgorithm);
                 return true;
             } else {
-                Log.w(TAG, "updatePasswordIfUnchanged: Password hash changed, migration skipped for user_id=" + userId);
+                AppLog.w(TAG, "updatePasswordIfUnchanged: Password hash changed, migration skipped for user_id={}", userId);
                 return false;
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "updatePasswordIfUnchanged: Exception updating password", e);
+            AppLog.e(TAG, "updatePasswordIfUnchanged: Exception updating password", e);
             return false;
+        } finally {
+            QueryMetrics.end(SITE_UPDATE_PASSWORD_IF_UNCHANGED, start, rowsAffected);
+            if (rowsAffected > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_USERS);
+            }
         }
     }
 
@@ -457,28 +491,39 @@ public class UserDAO {
      * @return Number of rows deleted (should be 1 if successful)
      */
     public int deleteUser(long userId) {
-        Log.d(TAG, "deleteUser: Deleting user_id=" + userId);
+        AppLog.d(TAG, "deleteUser: Deleting user_id={}", userId);
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
+        long start = QueryMetrics.begin();
+        int rowsDeleted = 0;
         try {
-            int rowsDeleted = db.delete(
-                WeighToGoDBHelper.TABLE_USERS,
-                "user_id = ?",
-                new String[]{String.valueOf(userId)}
-            );
+            rowsDeleted = SqlStatements.executeUpdateDelete(db, SQL_DELETE, userId);
 
             if (rowsDeleted > 0) {
-                Log.i(TAG, "deleteUser: Successfully deleted user_id=" + userId);
+                AppLog.i(TAG, "deleteUser: Successfully deleted user_id={}", userId);
             } else {
-                Log.w(TAG, "deleteUser: No rows deleted for user_id=" + userId);
+                AppLog.w(TAG, "deleteUser: No rows deleted for user_id={}", userId);
             }
 
             return rowsDeleted;
 
         } catch (Exception e) {
-            Log.e(TAG, "deleteUser: Exception deleting user", e);
+            AppLog.e(TAG, "deleteUser: Exception deleting user", e);
             return 0;
+        } finally {
+            QueryMetrics.end(SITE_DELETE, start, rowsDeleted);
+            if (rowsDeleted > 0) {
+                // ON DELETE CASCADE removed the user's rows without going through their DAOs
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_USERS);
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS);
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_GOAL_WEIGHTS);
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_ACHIEVEMENTS);
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_USER_PREFERENCES);
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_SMS_OUTBOX);
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE);
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_WEIGHT_MONTHLY_ROLLUP);
+            }
         }
     }
 }
@@ -3,16 +3,21 @@ package com.example.weightogo.database;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 
 import com.example.weightogo.models.UserPreference;
+import com.example.weightogo.utils.AppLog;
 import com.example.weightogo.utils.DateTimeConverter;
+import com.example.weightogo.utils.SMSNotificationManager;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for user_preferences table.
@@ -31,11 +36,74 @@ public class UserPreferenceDAO {
 
     private static final String TAG = "UserPreferenceDAO";
 
-    // Query limits
-    private static final String LIMIT_ONE = "1";
+    private static final String SQL_GET =
+        "SELECT pref_value FROM " + WeighToGoDBHelper.TABLE_USER_PREFERENCES +
+            " WHERE user_id = ? AND pref_key = ? LIMIT 1";
+    private static final String SQL_UPDATE =
+        "UPDATE " + WeighToGoDBHelper.TABLE_USER_PREFERENCES +
+            " SET pref_value = ?, updated_at = ? WHERE user_id = ? AND pref_key = ?";
+    private static final String SQL_GET_ALL =
+        "SELECT * FROM " + WeighToGoDBHelper.TABLE_USER_PREFERENCES + " WHERE user_id = ?";
+    private static final String SQL_GET_MAP =
+        "SELECT pref_key, pref_value FROM " + WeighToGoDBHelper.TABLE_USER_PREFERENCES + " WHERE user_id = ?";
+
+    // Query instrumentation sites (each registers the SQL its method runs, for EXPLAIN QUERY PLAN)
+    private static final QueryMetrics.Site SITE_GET =
+        QueryMetrics.site("UserPreferenceDAO.getPreference", SQL_GET);
+    private static final QueryMetrics.Site SITE_SET =
+        QueryMetrics.site("UserPreferenceDAO.setPreference", null);
+    private static final QueryMetrics.Site SITE_GET_ALL =
+        QueryMetrics.site("UserPreferenceDAO.getAllPreferences", SQL_GET_ALL);
+    private static final QueryMetrics.Site SITE_GET_MAP =
+        QueryMetrics.site("UserPreferenceDAO.getPreferenceMap", SQL_GET_MAP);
+
+    // Active users with SMS and reminders on, a phone number, a reminder time before the bound,
+    // no reminder sent yet on the given date, and no entry on that date.
+    // Driven by idx_prefs_key_value, which also returns r.user_id in order, so ORDER BY needs no
+    // sort; the per-user preference probes use the UNIQUE (user_id, pref_key) index and the
+    // NOT EXISTS anti-join on daily_weights uses idx_weights_user_date.
+    private static final String SQL_REMINDER_RECIPIENTS =
+        "SELECT u.user_id, u.phone_number" +
+        " FROM " + WeighToGoDBHelper.TABLE_USER_PREFERENCES + " r" +
+        " JOIN " + WeighToGoDBHelper.TABLE_USERS + " u ON u.user_id = r.user_id" +
+        " WHERE r.pref_key = ? AND r.pref_value = 'true'" +
+        " AND u.is_active = 1 AND u.phone_number IS NOT NULL" +
+        " AND EXISTS (SELECT 1 FROM " + WeighToGoDBHelper.TABLE_USER_PREFERENCES + " s" +
+            " WHERE s.user_id = r.user_id AND s.pref_key = ? AND s.pref_value = 'true')" +
+        " AND COALESCE((SELECT t.pref_value FROM " + WeighToGoDBHelper.TABLE_USER_PREFERENCES + " t" +
+            " WHERE t.user_id = r.user_id AND t.pref_key = ?), ?) < ?" +
+        " AND NOT EXISTS (SELECT 1 FROM " + WeighToGoDBHelper.TABLE_USER_PREFERENCES + " l" +
+            " WHERE l.user_id = r.user_id AND l.pref_key = ? AND l.pref_value = ?)" +
+        " AND NOT EXISTS (SELECT 1 FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS + " w" +
+            " WHERE w.user_id = r.user_id AND w.weight_date = ? AND w.is_deleted = 0)" +
+        " ORDER BY r.user_id";
+    private static final QueryMetrics.Site SITE_GET_REMINDER_RECIPIENTS =
+        QueryMetrics.site("UserPreferenceDAO.getReminderRecipients", SQL_REMINDER_RECIPIENTS);
+
+    // Distinct reminder times of users with reminders on (missing time = default)
+    private static final String SQL_REMINDER_TIMES =
+        "SELECT DISTINCT COALESCE(t.pref_value, ?)" +
+        " FROM " + WeighToGoDBHelper.TABLE_USER_PREFERENCES + " r" +
+        " LEFT JOIN " + WeighToGoDBHelper.TABLE_USER_PREFERENCES + " t" +
+            " ON t.user_id = r.user_id AND t.pref_key = ?" +
+        " WHERE r.pref_key = ? AND r.pref_value = 'true'";
+    private static final QueryMetrics.Site SITE_GET_REMINDER_TIMES =
+        QueryMetrics.site("UserPreferenceDAO.getReminderTimes", SQL_REMINDER_TIMES);
+
+    // Users who opted in to archiving, with their horizon (covered by idx_prefs_key_value)
+    private static final String SQL_ARCHIVE_HORIZONS =
+        "SELECT user_id, pref_value FROM " + WeighToGoDBHelper.TABLE_USER_PREFERENCES +
+        " WHERE pref_key = ?";
+    private static final QueryMetrics.Site SITE_GET_ARCHIVE_HORIZONS =
+        QueryMetrics.site("UserPreferenceDAO.getArchiveHorizons", SQL_ARCHIVE_HORIZONS);
 
     // Preference keys
     public static final String KEY_WEIGHT_UNIT = "weight_unit";
+    public static final String KEY_ARCHIVE_HORIZON_MONTHS = "archive_horizon_months";
+
+    // Archive horizon bounds in months ("0" turns archiving off)
+    public static final int MIN_ARCHIVE_HORIZON_MONTHS = 6;
+    public static final int MAX_ARCHIVE_HORIZON_MONTHS = 120;
 
     // Valid weight units
     private static final String UNIT_LBS = "lbs";
@@ -62,26 +130,25 @@ public class UserPreferenceDAO {
      */
     @NonNull
     public String getPreference(long userId, @NonNull String key, @NonNull String defaultValue) {
-        Log.d(TAG, "getPreference: user_id=" + userId + ", key=" + key);
+        AppLog.d(TAG, "getPreference: user_id={}, key={}", userId, key);
 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
-        try (Cursor cursor = db.query(
-                WeighToGoDBHelper.TABLE_USER_PREFERENCES,
-                new String[]{"pref_value"},
-                "user_id = ? AND pref_key = ?",
-                new String[]{String.valueOf(userId), key},
-                null, null, null, LIMIT_ONE
-        )) {
+        long start = QueryMetrics.begin();
+        int rows = 0;
+        try (Cursor cursor = db.rawQuery(SQL_GET, new String[]{String.valueOf(userId), key})) {
             if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
                 String value = cursor.getString(0);
-                Log.i(TAG, "getPreference: Found value for key=" + key);
+                AppLog.i(TAG, "getPreference: Found value for key={}", key);
                 return value;
             }
         } catch (Exception e) {
-            Log.e(TAG, "getPreference: Exception", e);
+            AppLog.e(TAG, "getPreference: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET, start, rows);
         }
 
-        Log.d(TAG, "getPreference: Key not found, returning default");
+        AppLog.d(TAG, "getPreference: Key not found, returning default");
         return defaultValue;
     }
 
@@ -96,10 +163,12 @@ public class UserPreferenceDAO {
      * @return true if successful, false otherwise
      */
     public boolean setPreference(long userId, @NonNull String key, @NonNull String value) {
-        Log.d(TAG, "setPreference: user_id=" + userId + ", key=" + key);
+        AppLog.d(TAG, "setPreference: user_id={}, key={}", userId, key);
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
         Cursor cursor = null;
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
         // Use transaction for atomicity
         db.beginTransaction();
@@ -107,13 +176,7 @@ public class UserPreferenceDAO {
             String now = DateTimeConverter.toTimestamp(LocalDateTime.now());
 
             // Check if preference already exists
-            cursor = db.query(
-                    WeighToGoDBHelper.TABLE_USER_PREFERENCES,
-                    new String[]{"pref_value"},
-                    "user_id = ? AND pref_key = ?",
-                    new String[]{String.valueOf(userId), key},
-                    null, null, null, LIMIT_ONE
-            );
+            cursor = db.rawQuery(SQL_GET, new String[]{String.valueOf(userId), key});
 
             boolean exists = cursor != null && cursor.moveToFirst();
             if (cursor != null) {
@@ -123,20 +186,13 @@ public class UserPreferenceDAO {
 
             if (exists) {
                 // UPDATE path - preserve created_at
-                ContentValues updateValues = new ContentValues();
-                updateValues.put("pref_value", value);
-                updateValues.put("updated_at", now);
-
-                int rowsAffected = db.update(
-                        WeighToGoDBHelper.TABLE_USER_PREFERENCES,
-                        updateValues,
-                        "user_id = ? AND pref_key = ?",
-                        new String[]{String.valueOf(userId), key}
-                );
+                int rowsAffected = SqlStatements.executeUpdateDelete(db, SQL_UPDATE,
+                        value, now, userId, key);
 
                 if (rowsAffected > 0) {
+                    rows = rowsAffected;
                     db.setTransactionSuccessful();
-                    Log.i(TAG, "setPreference: Updated existing key=" + key);
+                    AppLog.i(TAG, "setPreference: Updated existing key={}", key);
                     return true;
                 }
             } else {
@@ -155,23 +211,123 @@ public class UserPreferenceDAO {
                 );
 
                 if (result > 0) {
+                    rows = 1;
                     db.setTransactionSuccessful();
-                    Log.i(TAG, "setPreference: Inserted new key=" + key);
+                    AppLog.i(TAG, "setPreference: Inserted new key={}", key);
                     return true;
                 }
             }
         } catch (Exception e) {
-            Log.e(TAG, "setPreference: Exception", e);
+            AppLog.e(TAG, "setPreference: Exception", e);
         } finally {
             db.endTransaction();
             if (cursor != null) {
                 cursor.close();
             }
+            QueryMetrics.end(SITE_SET, start, rows);
+            if (rows > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_USER_PREFERENCES);
+            }
         }
 
         return false;
     }
 
+    /**
+     * Gets every preference of a user in one query.
+     * Use this instead of repeated getPreference() calls when several keys are needed
+     * together (e.g. SMSNotificationManager's NotificationContext).
+     *
+     * @param userId the user ID
+     * @return map of pref_key to pref_value (empty if none or on error, never null)
+     */
+    @NonNull
+    public Map<String, String> getPreferenceMap(long userId) {
+        AppLog.d(TAG, "getPreferenceMap: user_id={}", userId);
+
+        Map<String, String> preferences = new HashMap<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+
+        try (Cursor cursor = db.rawQuery(SQL_GET_MAP, new String[]{String.valueOf(userId)})) {
+            while (cursor != null && cursor.moveToNext()) {
+                preferences.put(cursor.getString(0), cursor.getString(1));
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "getPreferenceMap: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_MAP, start, preferences.size());
+        }
+
+        return preferences;
+    }
+
+    /**
+     * Finds every user who should get a daily reminder now, in one query: active, has a
+     * phone number, SMS notifications and daily reminders enabled, a reminder time earlier
+     * than {@code dueBefore}, not reminded yet on {@code date}, and no (non-deleted) weight
+     * entry for that date. Cost grows with the number of users who have reminders enabled,
+     * not with the total number of users.
+     *
+     * @param date      the day being reminded about (usually today)
+     * @param dueBefore exclusive "HH:mm" bound on the users' reminder times
+     * @return map of user_id to phone_number in user_id order (empty if none or on error)
+     */
+    @NonNull
+    public Map<Long, String> getReminderRecipients(@NonNull LocalDate date, @NonNull String dueBefore) {
+        AppLog.d(TAG, "getReminderRecipients: date={}, due_before={}", date, dueBefore);
+
+        Map<Long, String> recipients = new LinkedHashMap<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+
+        try (Cursor cursor = db.rawQuery(SQL_REMINDER_RECIPIENTS, new String[]{
+                SMSNotificationManager.KEY_REMINDER_ENABLED,
+                SMSNotificationManager.KEY_SMS_ENABLED,
+                SMSNotificationManager.KEY_REMINDER_TIME, SMSNotificationManager.DEFAULT_REMINDER_TIME, dueBefore,
+                SMSNotificationManager.KEY_REMINDER_LAST_SENT, date.toString(),
+                date.toString()})) {
+            while (cursor != null && cursor.moveToNext()) {
+                recipients.put(cursor.getLong(0), cursor.getString(1));
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "getReminderRecipients: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_REMINDER_RECIPIENTS, start, recipients.size());
+        }
+
+        return recipients;
+    }
+
+    /**
+     * Gets the distinct reminder times of all users with daily reminders enabled.
+     * Used by DailyReminderWorker to find the non-empty 15-minute buckets.
+     *
+     * @return distinct "HH:mm" values (empty if none or on error)
+     */
+    @NonNull
+    public List<String> getReminderTimes() {
+        List<String> times = new ArrayList<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+
+        try (Cursor cursor = db.rawQuery(SQL_REMINDER_TIMES, new String[]{
+                SMSNotificationManager.DEFAULT_REMINDER_TIME,
+                SMSNotificationManager.KEY_REMINDER_TIME,
+                SMSNotificationManager.KEY_REMINDER_ENABLED})) {
+            while (cursor != null && cursor.moveToNext()) {
+                times.add(cursor.getString(0));
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "getReminderTimes: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_REMINDER_TIMES, start, times.size());
+        }
+
+        AppLog.d(TAG, "getReminderTimes: {} distinct times", times.size());
+        return times;
+    }
+
     /**
      * Gets all preferences for a user (package-private for testing).
      * Used by tests to verify UPSERT behavior (no duplicate keys).
@@ -181,23 +337,20 @@ public class UserPreferenceDAO {
      */
     @NonNull
     List<UserPreference> getAllPreferences(long userId) {
-        Log.d(TAG, "getAllPreferences: user_id=" + userId);
+        AppLog.d(TAG, "getAllPreferences: user_id={}", userId);
 
         List<UserPreference> preferences = new ArrayList<>();
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
 
-        try (Cursor cursor = db.query(
-                WeighToGoDBHelper.TABLE_USER_PREFERENCES,
-                null,
-                "user_id = ?",
-                new String[]{String.valueOf(userId)},
-                null, null, null
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_ALL, new String[]{String.valueOf(userId)})) {
             while (cursor != null && cursor.moveToNext()) {
                 preferences.add(mapCursorToUserPreference(cursor));
             }
         } catch (Exception e) {
-            Log.e(TAG, "getAllPreferences: Exception", e);
+            AppLog.e(TAG, "getAllPreferences: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_ALL, start, preferences.size());
         }
 
         return preferences;
@@ -232,7 +385,7 @@ public class UserPreferenceDAO {
      */
     @NonNull
     public String getWeightUnit(long userId) {
-        Log.d(TAG, "getWeightUnit: user_id=" + userId);
+        AppLog.d(TAG, "getWeightUnit: user_id={}", userId);
         return getPreference(userId, KEY_WEIGHT_UNIT, UNIT_LBS);
     }
 
@@ -245,14 +398,83 @@ public class UserPreferenceDAO {
      * @return true if successful, false if unit is invalid
      */
     public boolean setWeightUnit(long userId, @NonNull String unit) {
-        Log.d(TAG, "setWeightUnit: user_id=" + userId + ", unit=" + unit);
+        AppLog.d(TAG, "setWeightUnit: user_id={}, unit={}", userId, unit);
 
         // Validate input (case-sensitive)
         if (!UNIT_LBS.equals(unit) && !UNIT_KG.equals(unit)) {
-            Log.w(TAG, "setWeightUnit: Invalid unit '" + unit + "' (must be 'lbs' or 'kg')");
+            AppLog.w(TAG, "setWeightUnit: Invalid unit '{}' (must be 'lbs' or 'kg')", unit);
             return false;
         }
 
         return setPreference(userId, KEY_WEIGHT_UNIT, unit);
     }
+
+    /**
+     * Gets how many months of weight entries the user keeps in daily_weights before older
+     * ones are archived (see WeightArchiveDAO).
+     *
+     * @param userId the user ID
+     * @return horizon in months, or 0 if archiving is off (the default)
+     */
+    public int getArchiveHorizonMonths(long userId) {
+        AppLog.d(TAG, "getArchiveHorizonMonths: user_id={}", userId);
+        return parseArchiveHorizon(getPreference(userId, KEY_ARCHIVE_HORIZON_MONTHS, "0"));
+    }
+
+    /**
+     * Opts the user in to archiving with a horizon, or out with 0.
+     *
+     * @param userId the user ID
+     * @param months 0, or {@link #MIN_ARCHIVE_HORIZON_MONTHS} to {@link #MAX_ARCHIVE_HORIZON_MONTHS}
+     * @return true if successful, false if months is out of range
+     */
+    public boolean setArchiveHorizonMonths(long userId, int months) {
+        AppLog.d(TAG, "setArchiveHorizonMonths: user_id={}, months={}", userId, months);
+
+        if (months != 0 && (months < MIN_ARCHIVE_HORIZON_MONTHS || months > MAX_ARCHIVE_HORIZON_MONTHS)) {
+            AppLog.w(TAG, "setArchiveHorizonMonths: Invalid horizon {} months", months);
+            return false;
+        }
+
+        return setPreference(userId, KEY_ARCHIVE_HORIZON_MONTHS, String.valueOf(months));
+    }
+
+    /**
+     * Gets every user who opted in to archiving. Used by MaintenanceWorker.
+     *
+     * @return map of user_id to horizon in months (empty if none or on error)
+     */
+    @NonNull
+    public Map<Long, Integer> getArchiveHorizons() {
+        Map<Long, Integer> horizons = new LinkedHashMap<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+
+        try (Cursor cursor = db.rawQuery(SQL_ARCHIVE_HORIZONS, new String[]{KEY_ARCHIVE_HORIZON_MONTHS})) {
+            while (cursor != null && cursor.moveToNext()) {
+                int months = parseArchiveHorizon(cursor.getString(1));
+                if (months > 0) {
+                    horizons.put(cursor.getLong(0), months);
+                }
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "getArchiveHorizons: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_ARCHIVE_HORIZONS, start, horizons.size());
+        }
+
+        return horizons;
+    }
+
+    /**
+     * @return the stored horizon, or 0 if it is missing, off or out of range
+     */
+    private static int parseArchiveHorizon(@NonNull String value) {
+        try {
+            int months = Integer.parseInt(value);
+            return months >= MIN_ARCHIVE_HORIZON_MONTHS && months <= MAX_ARCHIVE_HORIZON_MONTHS ? months : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 }
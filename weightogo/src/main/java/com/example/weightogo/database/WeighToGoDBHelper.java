@@ -1,9 +1,13 @@
 package com.example.weightogo.database;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
-import android.util.Log;
+
+import com.example.weightogo.models.AchievementType;
+import com.example.weightogo.utils.AppLog;
+import com.example.weightogo.utils.WeightUtils;
 
 /**
  * SQLite database helper for Weigh to Go application.
@@ -17,6 +21,9 @@ import android.util.Log;
  * - goal_weights: User goal weights and achievement tracking
  * - achievements: Milestone achievements and celebration events
  * - user_preferences: User settings and preferences (key-value store)
+ * - sms_outbox: Queued achievement SMS awaiting delivery (v3)
+ * - daily_weights_archive: Entries moved out of daily_weights by WeightArchiveDAO (v11)
+ * - weight_monthly_rollup: Per-month summaries of the archived entries (v11)
  *
  * Naming Convention:
  * - Database: snake_case (id, user_id, created_at) - Android/SQL convention
@@ -26,7 +33,10 @@ import android.util.Log;
  *
  * Performance Optimization:
  * - Indexes on foreign key columns (user_id) for faster JOIN and WHERE queries
- * - Unique index on username for faster login lookups and uniqueness enforcement
+ * - Every index serves a DAO query (see QueryPlanTest); UNIQUE columns rely on the index
+ *   SQLite creates for the constraint (v10)
+ * - Opt-in archiving keeps daily_weights bounded: entries older than the user's horizon
+ *   move to daily_weights_archive and are summarized per month in weight_monthly_rollup (v11)
  *
  * Security:
  * - Uses foreign keys for referential integrity
@@ -40,17 +50,23 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
     // Database configuration
     private static final String DATABASE_NAME = "weigh_to_go.db";
     public static final String DATABASE_TEST_NAME = "weigh_to_go_test.db";
-    private static final int DATABASE_VERSION = 2;  // Phase 8.6: bcrypt migration
+    private static final int DATABASE_VERSION = 11;  // v11: entry archive and monthly rollup
 
     // Singleton instance
     private static WeighToGoDBHelper instance;
 
+    // Table versions bumped by DAO writes (see InvalidationTracker)
+    private final InvalidationTracker invalidationTracker = new InvalidationTracker();
+
     // Table names
     public static final String TABLE_USERS = "users";
     public static final String TABLE_DAILY_WEIGHTS = "daily_weights";
     public static final String TABLE_GOAL_WEIGHTS = "goal_weights";
     public static final String TABLE_ACHIEVEMENTS = "achievements";
     public static final String TABLE_USER_PREFERENCES = "user_preferences";
+    public static final String TABLE_SMS_OUTBOX = "sms_outbox";
+    public static final String TABLE_DAILY_WEIGHTS_ARCHIVE = "daily_weights_archive";
+    public static final String TABLE_WEIGHT_MONTHLY_ROLLUP = "weight_monthly_rollup";
 
     // SQL: Create users table
     private static final String CREATE_TABLE_USERS =
@@ -81,6 +97,7 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
             "created_at TEXT NOT NULL, " +
             "updated_at TEXT NOT NULL, " +
             "is_deleted INTEGER NOT NULL DEFAULT 0, " +
+            "mass_dg INTEGER NOT NULL DEFAULT 0, " +
             "FOREIGN KEY (user_id) REFERENCES " + TABLE_USERS + "(user_id) ON DELETE CASCADE" +
         ")";
 
@@ -101,15 +118,13 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
             "FOREIGN KEY (user_id) REFERENCES " + TABLE_USERS + "(user_id) ON DELETE CASCADE" +
         ")";
 
-    // SQL: Create achievements table
-    private static final String CREATE_TABLE_ACHIEVEMENTS =
-        "CREATE TABLE " + TABLE_ACHIEVEMENTS + " (" +
+    // SQL: achievements columns (title and description are resolved from AchievementType when shown)
+    private static final String ACHIEVEMENTS_COLUMNS =
+        " (" +
             "achievement_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
             "user_id INTEGER NOT NULL, " +
             "goal_id INTEGER, " +
-            "achievement_type TEXT NOT NULL, " +
-            "title TEXT NOT NULL, " +
-            "description TEXT, " +
+            "achievement_code INTEGER NOT NULL, " +
             "value REAL, " +
             "achieved_at TEXT NOT NULL, " +
             "is_notified INTEGER NOT NULL DEFAULT 0, " +
@@ -117,6 +132,10 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
             "FOREIGN KEY (goal_id) REFERENCES " + TABLE_GOAL_WEIGHTS + "(goal_id) ON DELETE SET NULL" +
         ")";
 
+    // SQL: Create achievements table
+    private static final String CREATE_TABLE_ACHIEVEMENTS =
+        "CREATE TABLE " + TABLE_ACHIEVEMENTS + ACHIEVEMENTS_COLUMNS;
+
     // SQL: Create user_preferences table
     private static final String CREATE_TABLE_USER_PREFERENCES =
         "CREATE TABLE " + TABLE_USER_PREFERENCES + " (" +
@@ -130,6 +149,146 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
             "UNIQUE (user_id, pref_key)" +
         ")";
 
+    // SQL: Create sms_outbox table (one row per queued achievement SMS)
+    private static final String CREATE_TABLE_SMS_OUTBOX =
+        "CREATE TABLE IF NOT EXISTS " + TABLE_SMS_OUTBOX + " (" +
+            "outbox_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "user_id INTEGER NOT NULL, " +
+            "achievement_id INTEGER NOT NULL, " +
+            "status TEXT NOT NULL DEFAULT 'PENDING', " +
+            "attempts INTEGER NOT NULL DEFAULT 0, " +
+            "next_attempt_at TEXT NOT NULL, " +
+            "last_error TEXT, " +
+            "created_at TEXT NOT NULL, " +
+            "updated_at TEXT NOT NULL, " +
+            "FOREIGN KEY (user_id) REFERENCES " + TABLE_USERS + "(user_id) ON DELETE CASCADE, " +
+            "FOREIGN KEY (achievement_id) REFERENCES " + TABLE_ACHIEVEMENTS + "(achievement_id) ON DELETE CASCADE" +
+        ")";
+
+    // SQL: Create daily_weights_archive table (daily_weights columns; rows keep their weight_id).
+    // Only live entries are archived, so each user has at most one archived entry per date.
+    private static final String CREATE_TABLE_DAILY_WEIGHTS_ARCHIVE =
+        "CREATE TABLE IF NOT EXISTS " + TABLE_DAILY_WEIGHTS_ARCHIVE + " (" +
+            "weight_id INTEGER PRIMARY KEY, " +
+            "user_id INTEGER NOT NULL, " +
+            "weight_value REAL NOT NULL, " +
+            "weight_unit TEXT NOT NULL, " +
+            "weight_date TEXT NOT NULL, " +
+            "notes TEXT, " +
+            "created_at TEXT NOT NULL, " +
+            "updated_at TEXT NOT NULL, " +
+            "is_deleted INTEGER NOT NULL DEFAULT 0, " +
+            "mass_dg INTEGER NOT NULL DEFAULT 0, " +
+            "FOREIGN KEY (user_id) REFERENCES " + TABLE_USERS + "(user_id) ON DELETE CASCADE, " +
+            "UNIQUE (user_id, weight_date)" +
+        ")";
+
+    // SQL: Create weight_monthly_rollup table (one row per user and month with archived entries;
+    // month_start is the first day of the month, masses are in decigrams)
+    private static final String CREATE_TABLE_WEIGHT_MONTHLY_ROLLUP =
+        "CREATE TABLE IF NOT EXISTS " + TABLE_WEIGHT_MONTHLY_ROLLUP + " (" +
+            "user_id INTEGER NOT NULL, " +
+            "month_start TEXT NOT NULL, " +
+            "entry_count INTEGER NOT NULL, " +
+            "min_mass_dg INTEGER NOT NULL, " +
+            "max_mass_dg INTEGER NOT NULL, " +
+            "sum_mass_dg INTEGER NOT NULL, " +
+            "first_date TEXT NOT NULL, " +
+            "first_mass_dg INTEGER NOT NULL, " +
+            "last_date TEXT NOT NULL, " +
+            "last_mass_dg INTEGER NOT NULL, " +
+            "PRIMARY KEY (user_id, month_start), " +
+            "FOREIGN KEY (user_id) REFERENCES " + TABLE_USERS + "(user_id) ON DELETE CASCADE" +
+        ")";
+
+    // SQL: Due-message lookup for SmsOutboxWorker (status = ? AND next_attempt_at <= ?)
+    private static final String CREATE_INDEX_OUTBOX_DUE =
+        "CREATE INDEX IF NOT EXISTS idx_outbox_status_due ON " + TABLE_SMS_OUTBOX +
+            "(status, next_attempt_at)";
+
+    // SQL: Users with a preference set to a value (DailyReminderWorker's reminder sweep)
+    private static final String CREATE_INDEX_PREFS_KEY_VALUE =
+        "CREATE INDEX IF NOT EXISTS idx_prefs_key_value ON " + TABLE_USER_PREFERENCES +
+            "(pref_key, pref_value, user_id)";
+
+    // SQL: Achievements indexes (also rebuilt by upgradeToV7)
+    // v7 only: replaced by idx_achievements_user_feed in v8
+    private static final String CREATE_INDEX_ACHIEVEMENTS_USER =
+        "CREATE INDEX IF NOT EXISTS idx_achievements_user ON " + TABLE_ACHIEVEMENTS + "(user_id)";
+
+    // SQL: Covers every achievements column, so per-user reads ordered by achieved_at
+    // (AchievementDAO.getAchievementFeed, getAchievementsForUser, getLatestAchievement)
+    // never touch the table or sort
+    private static final String CREATE_INDEX_ACHIEVEMENTS_USER_FEED =
+        "CREATE INDEX IF NOT EXISTS idx_achievements_user_feed ON " + TABLE_ACHIEVEMENTS +
+            "(user_id, achieved_at, achievement_id, achievement_code, value, goal_id, is_notified)";
+
+    // v7 only: dropped in v10 (the feed index already returns a user's unnotified rows in order)
+    private static final String CREATE_INDEX_ACHIEVEMENTS_UNNOTIFIED =
+        "CREATE INDEX IF NOT EXISTS idx_achievements_unnotified ON " + TABLE_ACHIEVEMENTS +
+            "(user_id, is_notified) WHERE is_notified = 0";
+
+    // v7 only: dropped in v10 (no query filters on achievement_code without user_id)
+    private static final String CREATE_INDEX_ACHIEVEMENTS_CODE =
+        "CREATE INDEX IF NOT EXISTS idx_achievements_code ON " + TABLE_ACHIEVEMENTS + "(achievement_code)";
+
+    // SQL: At most one row per user for each one-time type (AchievementDAO inserts with OR IGNORE)
+    private static final String CREATE_INDEX_ACHIEVEMENTS_USER_CODE_ONCE =
+        "CREATE UNIQUE INDEX IF NOT EXISTS idx_achievements_user_code_once ON " + TABLE_ACHIEVEMENTS +
+            "(user_id, achievement_code) WHERE achievement_code IN " + oneTimeAchievementCodes();
+
+    // v6 only: one-time types while achievement_type was stored as text
+    private static final String ONE_TIME_ACHIEVEMENT_TYPES =
+        "('GOAL_REACHED', 'FIRST_ENTRY', 'STREAK_7', 'STREAK_30', " +
+            "'MILESTONE_5', 'MILESTONE_10', 'MILESTONE_25')";
+
+    // v6 only: replaced by idx_achievements_user_code_once in v7
+    private static final String CREATE_INDEX_ACHIEVEMENTS_USER_TYPE_ONCE =
+        "CREATE UNIQUE INDEX IF NOT EXISTS idx_achievements_user_type_once ON " + TABLE_ACHIEVEMENTS +
+            "(user_id, achievement_type) WHERE achievement_type IN " + ONE_TIME_ACHIEVEMENT_TYPES;
+
+    // SQL: Per-user MIN/MAX over the canonical mass (WeightEntryDAO.getMinMassForUser)
+    private static final String CREATE_INDEX_WEIGHTS_USER_MASS =
+        "CREATE INDEX IF NOT EXISTS idx_weights_user_mass ON " + TABLE_DAILY_WEIGHTS +
+            "(user_id, mass_dg) WHERE is_deleted = 0";
+
+    // SQL: Covers a user's history in date order (WeightEntryDAO.streamHistory, getStreaks,
+    // GoalWeightDAO.getGoalHistoryWithProgress, the dashboard entry count). is_deleted is a
+    // column as well as the filter so SQLite can answer those queries from the index alone.
+    private static final String CREATE_INDEX_WEIGHTS_USER_HISTORY =
+        "CREATE INDEX IF NOT EXISTS idx_weights_user_history ON " + TABLE_DAILY_WEIGHTS +
+            "(user_id, weight_date, mass_dg, weight_value, is_deleted) WHERE is_deleted = 0";
+
+    // SQL: Covers a user's archived entries in date order (the archived side of the
+    // WeightEntryDAO history, entry list and streak reads, GoalWeightDAO.getGoalHistoryWithProgress,
+    // WeightArchiveDAO's rollup rebuild)
+    private static final String CREATE_INDEX_WEIGHTS_ARCHIVE_USER_HISTORY =
+        "CREATE INDEX IF NOT EXISTS idx_weights_archive_user_history ON " + TABLE_DAILY_WEIGHTS_ARCHIVE +
+            "(user_id, weight_date, mass_dg, weight_value)";
+
+    // Indexes dropped in v10: never chosen by any DAO query, or duplicates of a UNIQUE constraint
+    private static final String[] UNUSED_INDEXES_V10 = {
+        "idx_users_username",           // = UNIQUE (username)
+        "idx_users_email",
+        "idx_users_active",
+        "idx_weights_date",
+        "idx_weights_user_created",
+        "idx_goals_achieved",
+        "idx_achievements_unnotified",
+        "idx_achievements_code",
+        "idx_prefs_user_key"            // = UNIQUE (user_id, pref_key)
+    };
+
+    // SQL: At most one active goal per user; GoalWeightDAO.getActiveGoal is one seek on it
+    private static final String CREATE_INDEX_GOALS_USER_ONE_ACTIVE =
+        "CREATE UNIQUE INDEX IF NOT EXISTS idx_goals_user_one_active ON " + TABLE_GOAL_WEIGHTS +
+            "(user_id) WHERE is_active = 1";
+
+    // SQL: Per-user goal history, newest first (GoalWeightDAO.getGoalHistory)
+    private static final String CREATE_INDEX_GOALS_USER_CREATED =
+        "CREATE INDEX IF NOT EXISTS idx_goals_user_created ON " + TABLE_GOAL_WEIGHTS +
+            "(user_id, created_at)";
+
     /**
      * Private constructor to enforce Singleton pattern.
      *
@@ -137,7 +296,8 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
      */
     private WeighToGoDBHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
-        Log.d(TAG, "WeighToGoDBHelper constructor called");
+        invalidationTracker.addObserver(ReadCoalescer::invalidate);
+        AppLog.d(TAG, "WeighToGoDBHelper constructor called");
     }
 
      /**
@@ -148,7 +308,8 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
      */
     private WeighToGoDBHelper(Context context, String dbName) {
         super(context, dbName, null, DATABASE_VERSION);
-        Log.d(TAG, "WeighToGoDBHelper constructor called with dbName: " + dbName);
+        invalidationTracker.addObserver(ReadCoalescer::invalidate);
+        AppLog.d(TAG, "WeighToGoDBHelper constructor called with dbName: {}", dbName);
     }
 
     /**
@@ -179,7 +340,7 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
     public static synchronized WeighToGoDBHelper getInstance(Context context) {
         if (instance == null) {
             instance = new WeighToGoDBHelper(context.getApplicationContext());
-            Log.i(TAG, "Created new WeighToGoDBHelper instance for database: " + DATABASE_NAME);
+            AppLog.i(TAG, "Created new WeighToGoDBHelper instance for database: {}", DATABASE_NAME);
         }
         return instance;
     }
@@ -193,7 +354,7 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
     public static synchronized WeighToGoDBHelper getTestInstance(Context context, String dbName) {
         if (instance == null) {
             instance = new WeighToGoDBHelper(context.getApplicationContext(), dbName);
-            Log.i(TAG, "Created new WeighToGoDBHelper instance for database: " + dbName);
+            AppLog.i(TAG, "Created new WeighToGoDBHelper instance for database: {}", dbName);
         }
         return instance;
     }
@@ -210,13 +371,26 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
         if (instance != null) {
             instance.close();
             instance = null;
-            Log.d(TAG, "Singleton instance reset for testing");
+            ReadCoalescer.invalidateAll();
+            AppLog.d(TAG, "Singleton instance reset for testing");
         }
     }
 
+    /**
+     * Get the tracker that DAOs notify after each committed write.
+     * Screens use it (directly or through {@link ObservableQuery}) to skip reloads when
+     * nothing they display has changed.
+     *
+     * @return invalidation tracker for this database
+     */
+    public InvalidationTracker getInvalidationTracker() {
+        return invalidationTracker;
+    }
+
     /**
      * Configure database before opening.
-     * Enables foreign key constraints for referential integrity.
+     * Enables foreign key constraints for referential integrity, and on a new database
+     * turns on incremental auto_vacuum before the first table is created.
      *
      * @param db the database
      */
@@ -224,7 +398,30 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
     public void onConfigure(SQLiteDatabase db) {
         super.onConfigure(db);
         db.setForeignKeyConstraintsEnabled(true);
-        Log.d(TAG, "Foreign key constraints enabled");
+        AppLog.d(TAG, "Foreign key constraints enabled");
+        if (db.getVersion() == 0 && !db.isReadOnly()) {
+            enableIncrementalAutoVacuum(db);
+        }
+    }
+
+    /**
+     * Puts a new, still empty database in auto_vacuum = INCREMENTAL mode, so it never needs
+     * the full-copy conversion DatabaseMaintenance.enableIncrementalVacuum() does for
+     * databases created by older versions. The journal mode set on open has already written
+     * the file header, so the setting only takes effect through a VACUUM, which is instant
+     * while there are no tables.
+     *
+     * @param db the new database
+     */
+    private void enableIncrementalAutoVacuum(SQLiteDatabase db) {
+        try {
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+            db.execSQL("VACUUM");
+            AppLog.d(TAG, "Incremental auto_vacuum enabled");
+        } catch (Exception e) {
+            // Not fatal: maintenance converts the database later
+            AppLog.e(TAG, "enableIncrementalAutoVacuum: Exception", e);
+        }
     }
 
     /**
@@ -235,82 +432,88 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
      */
     @Override
     public void onCreate(SQLiteDatabase db) {
-        Log.i(TAG, "Creating database " + db.getPath() + " version " + DATABASE_VERSION);
+        AppLog.i(TAG, "Creating database {} version {}", db.getPath(), DATABASE_VERSION);
 
         try {
             // Create users table
             db.execSQL(CREATE_TABLE_USERS);
-            Log.d(TAG, "Created table: " + TABLE_USERS);
+            AppLog.d(TAG, "Created table: {}", TABLE_USERS);
 
             // Create daily_weights table
             db.execSQL(CREATE_TABLE_DAILY_WEIGHTS);
-            Log.d(TAG, "Created table: " + TABLE_DAILY_WEIGHTS);
+            AppLog.d(TAG, "Created table: {}", TABLE_DAILY_WEIGHTS);
 
             // Create goal_weights table
             db.execSQL(CREATE_TABLE_GOAL_WEIGHTS);
-            Log.d(TAG, "Created table: " + TABLE_GOAL_WEIGHTS);
+            AppLog.d(TAG, "Created table: {}", TABLE_GOAL_WEIGHTS);
 
             // Create achievements table
             db.execSQL(CREATE_TABLE_ACHIEVEMENTS);
-            Log.d(TAG, "Created table: " + TABLE_ACHIEVEMENTS);
+            AppLog.d(TAG, "Created table: {}", TABLE_ACHIEVEMENTS);
 
             // Create user_preferences table
             db.execSQL(CREATE_TABLE_USER_PREFERENCES);
-            Log.d(TAG, "Created table: " + TABLE_USER_PREFERENCES);
+            AppLog.d(TAG, "Created table: {}", TABLE_USER_PREFERENCES);
 
-            // ================================================================================
-            // INDEXES (per WeighToGo_Database_Architecture.md lines 308-336)
-            // ================================================================================
+            // Create sms_outbox table
+            db.execSQL(CREATE_TABLE_SMS_OUTBOX);
+            AppLog.d(TAG, "Created table: {}", TABLE_SMS_OUTBOX);
+
+            // Create daily_weights_archive and weight_monthly_rollup tables
+            db.execSQL(CREATE_TABLE_DAILY_WEIGHTS_ARCHIVE);
+            AppLog.d(TAG, "Created table: {}", TABLE_DAILY_WEIGHTS_ARCHIVE);
 
-            // Users table indexes
-            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS idx_users_username ON " + TABLE_USERS + "(username)");
-            Log.d(TAG, "Created index: idx_users_username");
+            db.execSQL(CREATE_TABLE_WEIGHT_MONTHLY_ROLLUP);
+            AppLog.d(TAG, "Created table: {}", TABLE_WEIGHT_MONTHLY_ROLLUP);
 
-            db.execSQL("CREATE INDEX IF NOT EXISTS idx_users_email ON " + TABLE_USERS + "(email) WHERE email IS NOT NULL");
-            Log.d(TAG, "Created index: idx_users_email");
+            // ================================================================================
+            // INDEXES (per WeighToGo_Database_Architecture.md lines 308-336, trimmed in v10
+            // to the indexes the DAO queries use)
+            // ================================================================================
 
-            db.execSQL("CREATE INDEX IF NOT EXISTS idx_users_active ON " + TABLE_USERS + "(is_active)");
-            Log.d(TAG, "Created index: idx_users_active");
+            // Users table: no extra indexes; lookups are by user_id or the UNIQUE username
 
             // Daily weights table indexes (most critical for performance)
             db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS idx_weights_user_date ON " + TABLE_DAILY_WEIGHTS +
                 "(user_id, weight_date) WHERE is_deleted = 0");
-            Log.d(TAG, "Created index: idx_weights_user_date");
+            AppLog.d(TAG, "Created index: idx_weights_user_date");
 
-            db.execSQL("CREATE INDEX IF NOT EXISTS idx_weights_date ON " + TABLE_DAILY_WEIGHTS + "(weight_date)");
-            Log.d(TAG, "Created index: idx_weights_date");
+            db.execSQL(CREATE_INDEX_WEIGHTS_USER_MASS);
+            AppLog.d(TAG, "Created index: idx_weights_user_mass");
 
-            db.execSQL("CREATE INDEX IF NOT EXISTS idx_weights_user_created ON " + TABLE_DAILY_WEIGHTS +
-                "(user_id, created_at DESC)");
-            Log.d(TAG, "Created index: idx_weights_user_created");
+            db.execSQL(CREATE_INDEX_WEIGHTS_USER_HISTORY);
+            AppLog.d(TAG, "Created index: idx_weights_user_history");
 
             // Goal weights table indexes
-            db.execSQL("CREATE INDEX IF NOT EXISTS idx_goals_user_active ON " + TABLE_GOAL_WEIGHTS + "(user_id, is_active)");
-            Log.d(TAG, "Created index: idx_goals_user_active");
+            db.execSQL(CREATE_INDEX_GOALS_USER_ONE_ACTIVE);
+            AppLog.d(TAG, "Created index: idx_goals_user_one_active");
 
-            db.execSQL("CREATE INDEX IF NOT EXISTS idx_goals_achieved ON " + TABLE_GOAL_WEIGHTS + "(is_achieved)");
-            Log.d(TAG, "Created index: idx_goals_achieved");
+            db.execSQL(CREATE_INDEX_GOALS_USER_CREATED);
+            AppLog.d(TAG, "Created index: idx_goals_user_created");
 
             // Achievements table indexes
-            db.execSQL("CREATE INDEX IF NOT EXISTS idx_achievements_user ON " + TABLE_ACHIEVEMENTS + "(user_id)");
-            Log.d(TAG, "Created index: idx_achievements_user");
+            db.execSQL(CREATE_INDEX_ACHIEVEMENTS_USER_FEED);
+            AppLog.d(TAG, "Created index: idx_achievements_user_feed");
+
+            db.execSQL(CREATE_INDEX_ACHIEVEMENTS_USER_CODE_ONCE);
+            AppLog.d(TAG, "Created index: idx_achievements_user_code_once");
 
-            db.execSQL("CREATE INDEX IF NOT EXISTS idx_achievements_unnotified ON " + TABLE_ACHIEVEMENTS +
-                "(user_id, is_notified) WHERE is_notified = 0");
-            Log.d(TAG, "Created index: idx_achievements_unnotified");
+            // User preferences table indexes (per-user lookups use the UNIQUE (user_id, pref_key) index)
+            db.execSQL(CREATE_INDEX_PREFS_KEY_VALUE);
+            AppLog.d(TAG, "Created index: idx_prefs_key_value");
 
-            db.execSQL("CREATE INDEX IF NOT EXISTS idx_achievements_type ON " + TABLE_ACHIEVEMENTS + "(achievement_type)");
-            Log.d(TAG, "Created index: idx_achievements_type");
+            // SMS outbox indexes
+            db.execSQL(CREATE_INDEX_OUTBOX_DUE);
+            AppLog.d(TAG, "Created index: idx_outbox_status_due");
 
-            // User preferences table indexes
-            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS idx_prefs_user_key ON " + TABLE_USER_PREFERENCES +
-                "(user_id, pref_key)");
-            Log.d(TAG, "Created index: idx_prefs_user_key");
+            // Archive indexes (the rollup is read by its primary key)
+            db.execSQL(CREATE_INDEX_WEIGHTS_ARCHIVE_USER_HISTORY);
+            AppLog.d(TAG, "Created index: idx_weights_archive_user_history");
 
-            Log.i(TAG, "Database creation completed successfully");
+            AppLog.i(TAG, "Database creation completed successfully");
 
         } catch (Exception e) {
-            Log.e(TAG, "Error creating database tables: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error creating database tables: " + e.getMessage(), e);
             throw e;  // Re-throw to ensure app doesn't continue with broken database
         }
     }
@@ -329,7 +532,7 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
      */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        Log.i(TAG, "Upgrading database from version " + oldVersion + " to " + newVersion);
+        AppLog.i(TAG, "Upgrading database from version {} to {}", oldVersion, newVersion);
 
         try {
             // Incremental migration pattern - each case falls through to next
@@ -338,16 +541,43 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
                     upgradeToV2(db);  // Add password_algorithm column
                     // Fall through to next version when available
                 case 2:
-                    // Future: upgradeToV3(db);
+                    upgradeToV3(db);  // Add sms_outbox table
+                    // Fall through
+                case 3:
+                    upgradeToV4(db);  // Add idx_prefs_key_value
+                    // Fall through
+                case 4:
+                    upgradeToV5(db);  // Add daily_weights.mass_dg
+                    // Fall through
+                case 5:
+                    upgradeToV6(db);  // Add idx_achievements_user_type_once
+                    // Fall through
+                case 6:
+                    upgradeToV7(db);  // Store achievement_code instead of type/title/description
+                    // Fall through
+                case 7:
+                    upgradeToV8(db);  // Replace idx_achievements_user with idx_achievements_user_feed
+                    // Fall through
+                case 8:
+                    upgradeToV9(db);  // One active goal per user: idx_goals_user_one_active
+                    // Fall through
+                case 9:
+                    upgradeToV10(db);  // Drop unused indexes, add idx_weights_user_history
+                    // Fall through
+                case 10:
+                    upgradeToV11(db);  // Add daily_weights_archive and weight_monthly_rollup
+                    // Fall through
+                case 11:
+                    // Future: upgradeToV12(db);
                     // Fall through
                 default:
                     break;
             }
 
-            Log.i(TAG, "Database upgrade completed successfully");
+            AppLog.i(TAG, "Database upgrade completed successfully");
 
         } catch (Exception e) {
-            Log.e(TAG, "Error upgrading database from version " + oldVersion + " to " + newVersion, e);
+            AppLog.e(TAG, "Error upgrading database from version " + oldVersion + " to " + newVersion, e);
             throw e;
         }
     }
@@ -364,18 +594,310 @@ public class WeighToGoDBHelper extends SQLiteOpenHelper {
      * @param db the database
      */
     private void upgradeToV2(SQLiteDatabase db) {
-        Log.i(TAG, "Upgrading to version 2: Adding password_algorithm column");
+        AppLog.i(TAG, "Upgrading to version 2: Adding password_algorithm column");
 
         try {
             // Add password_algorithm column with default value for existing users
             db.execSQL("ALTER TABLE " + TABLE_USERS + " ADD COLUMN password_algorithm TEXT NOT NULL DEFAULT 'SHA256'");
 
-            Log.i(TAG, "Successfully added password_algorithm column to users table");
-            Log.i(TAG, "All existing users set to SHA256 algorithm (will migrate to bcrypt on next login)");
+            AppLog.i(TAG, "Successfully added password_algorithm column to users table");
+            AppLog.i(TAG, "All existing users set to SHA256 algorithm (will migrate to bcrypt on next login)");
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error upgrading to version 2", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Upgrade database from version 2 to version 3.
+     * Adds the sms_outbox table so achievement SMS are queued durably and
+     * delivered by SmsOutboxWorker instead of being sent on the save path.
+     *
+     * @param db the database
+     */
+    private void upgradeToV3(SQLiteDatabase db) {
+        AppLog.i(TAG, "Upgrading to version 3: Adding {} table", TABLE_SMS_OUTBOX);
+
+        try {
+            db.execSQL(CREATE_TABLE_SMS_OUTBOX);
+            db.execSQL(CREATE_INDEX_OUTBOX_DUE);
+
+            AppLog.i(TAG, "Successfully created {} table", TABLE_SMS_OUTBOX);
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error upgrading to version 3", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Upgrade database from version 3 to version 4.
+     * Adds idx_prefs_key_value so the daily reminder sweep finds every user with
+     * reminders enabled from the index instead of scanning user_preferences.
+     *
+     * @param db the database
+     */
+    private void upgradeToV4(SQLiteDatabase db) {
+        AppLog.i(TAG, "Upgrading to version 4: Adding idx_prefs_key_value");
+
+        try {
+            db.execSQL(CREATE_INDEX_PREFS_KEY_VALUE);
+
+            AppLog.i(TAG, "Successfully created idx_prefs_key_value");
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error upgrading to version 4", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Upgrade database from version 4 to version 5.
+     * Adds daily_weights.mass_dg, the canonical mass in decigrams, so MIN and
+     * comparisons across lbs and kg entries run in SQL without converting each row.
+     *
+     * Existing rows are backfilled in one UPDATE using the same factors as
+     * WeightUtils.toDecigrams(). Safe to re-run: the column is only added if missing
+     * and only rows still at 0 are backfilled.
+     *
+     * @param db the database
+     */
+    private void upgradeToV5(SQLiteDatabase db) {
+        AppLog.i(TAG, "Upgrading to version 5: Adding mass_dg column");
+
+        try {
+            if (!hasColumn(db, TABLE_DAILY_WEIGHTS, "mass_dg")) {
+                db.execSQL("ALTER TABLE " + TABLE_DAILY_WEIGHTS + " ADD COLUMN mass_dg INTEGER NOT NULL DEFAULT 0");
+            }
+            db.execSQL("UPDATE " + TABLE_DAILY_WEIGHTS + " SET mass_dg = CAST(ROUND(weight_value * " +
+                "CASE WHEN weight_unit = 'kg' THEN " + WeightUtils.DECIGRAMS_PER_KG +
+                " ELSE " + WeightUtils.DECIGRAMS_PER_LB + " END) AS INTEGER) WHERE mass_dg = 0");
+            db.execSQL(CREATE_INDEX_WEIGHTS_USER_MASS);
+
+            AppLog.i(TAG, "Successfully added mass_dg column and idx_weights_user_mass");
 
         } catch (Exception e) {
-            Log.e(TAG, "Error upgrading to version 2", e);
+            AppLog.e(TAG, "Error upgrading to version 5", e);
             throw e;
         }
     }
+
+    /**
+     * Upgrade database from version 5 to version 6.
+     * Adds idx_achievements_user_type_once so a one-time achievement can only be
+     * awarded once per user, even when two saves race.
+     *
+     * Duplicates awarded before the index existed are removed first, keeping the
+     * oldest; their queued SMS (if any) go with them via ON DELETE CASCADE.
+     *
+     * @param db the database
+     */
+    private void upgradeToV6(SQLiteDatabase db) {
+        AppLog.i(TAG, "Upgrading to version 6: Adding idx_achievements_user_type_once");
+
+        if (!hasColumn(db, TABLE_ACHIEVEMENTS, "achievement_type")) {
+            AppLog.i(TAG, "Achievements already store codes (v7), skipping");
+            return;
+        }
+
+        try {
+            db.execSQL("DELETE FROM " + TABLE_ACHIEVEMENTS +
+                " WHERE achievement_type IN " + ONE_TIME_ACHIEVEMENT_TYPES +
+                " AND achievement_id NOT IN (SELECT MIN(achievement_id) FROM " + TABLE_ACHIEVEMENTS +
+                " WHERE achievement_type IN " + ONE_TIME_ACHIEVEMENT_TYPES +
+                " GROUP BY user_id, achievement_type)");
+            db.execSQL(CREATE_INDEX_ACHIEVEMENTS_USER_TYPE_ONCE);
+
+            AppLog.i(TAG, "Successfully created idx_achievements_user_type_once");
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error upgrading to version 6", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Upgrade database from version 6 to version 7.
+     * Rebuilds achievements to store achievement_code (see AchievementType) instead of
+     * the type, title and description strings, and indexes the code instead of the type.
+     *
+     * SQLite can't drop columns, so rows are copied into a new table that then replaces
+     * the old one. Dropping the old table would cascade-delete queued SMS, so sms_outbox
+     * is saved to a temporary table first and restored afterwards (achievement IDs are
+     * kept). Rows with an unknown type are dropped.
+     *
+     * @param db the database
+     */
+    private void upgradeToV7(SQLiteDatabase db) {
+        AppLog.i(TAG, "Upgrading to version 7: Storing achievement_code");
+
+        if (hasColumn(db, TABLE_ACHIEVEMENTS, "achievement_code")) {
+            AppLog.i(TAG, "Achievements already store codes, skipping");
+            return;
+        }
+
+        StringBuilder codeOf = new StringBuilder("CASE achievement_type");
+        for (AchievementType type : AchievementType.values()) {
+            codeOf.append(" WHEN '").append(type.name()).append("' THEN ").append(type.getCode());
+        }
+        codeOf.append(" END");
+
+        try {
+            db.execSQL("CREATE TABLE achievements_v7" + ACHIEVEMENTS_COLUMNS);
+            db.execSQL("INSERT INTO achievements_v7 " +
+                "(achievement_id, user_id, goal_id, achievement_code, value, achieved_at, is_notified) " +
+                "SELECT achievement_id, user_id, goal_id, " + codeOf + ", value, achieved_at, is_notified " +
+                "FROM " + TABLE_ACHIEVEMENTS + " WHERE " + codeOf + " IS NOT NULL");
+
+            db.execSQL("CREATE TEMP TABLE sms_outbox_v6 AS SELECT * FROM " + TABLE_SMS_OUTBOX);
+            db.execSQL("DROP TABLE " + TABLE_ACHIEVEMENTS);
+            db.execSQL("ALTER TABLE achievements_v7 RENAME TO " + TABLE_ACHIEVEMENTS);
+            db.execSQL("INSERT INTO " + TABLE_SMS_OUTBOX + " SELECT * FROM sms_outbox_v6 " +
+                "WHERE achievement_id IN (SELECT achievement_id FROM " + TABLE_ACHIEVEMENTS + ")");
+            db.execSQL("DROP TABLE sms_outbox_v6");
+
+            db.execSQL(CREATE_INDEX_ACHIEVEMENTS_USER);
+            db.execSQL(CREATE_INDEX_ACHIEVEMENTS_UNNOTIFIED);
+            db.execSQL(CREATE_INDEX_ACHIEVEMENTS_CODE);
+            db.execSQL(CREATE_INDEX_ACHIEVEMENTS_USER_CODE_ONCE);
+
+            AppLog.i(TAG, "Successfully rebuilt {} with achievement_code", TABLE_ACHIEVEMENTS);
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error upgrading to version 7", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Upgrade database from version 7 to version 8.
+     * Adds idx_achievements_user_feed for the keyset-paginated achievement feed and drops
+     * idx_achievements_user, which is a prefix of it.
+     *
+     * @param db the database
+     */
+    private void upgradeToV8(SQLiteDatabase db) {
+        AppLog.i(TAG, "Upgrading to version 8: Adding idx_achievements_user_feed");
+
+        try {
+            db.execSQL(CREATE_INDEX_ACHIEVEMENTS_USER_FEED);
+            db.execSQL("DROP INDEX IF EXISTS idx_achievements_user");
+
+            AppLog.i(TAG, "Successfully created idx_achievements_user_feed");
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error upgrading to version 8", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Upgrade database from version 8 to version 9.
+     * Replaces idx_goals_user_active with idx_goals_user_one_active, a partial unique index
+     * that allows one active goal per user, and idx_goals_user_created for goal history.
+     *
+     * Users who somehow have several active goals keep the newest one active (the one
+     * getActiveGoal returned before, by created_at then goal_id); the rest are deactivated.
+     *
+     * @param db the database
+     */
+    private void upgradeToV9(SQLiteDatabase db) {
+        AppLog.i(TAG, "Upgrading to version 9: Adding idx_goals_user_one_active");
+
+        try {
+            db.execSQL("UPDATE " + TABLE_GOAL_WEIGHTS + " SET is_active = 0 " +
+                "WHERE is_active = 1 AND goal_id <> (SELECT g.goal_id FROM " + TABLE_GOAL_WEIGHTS + " g " +
+                "WHERE g.user_id = " + TABLE_GOAL_WEIGHTS + ".user_id AND g.is_active = 1 " +
+                "ORDER BY g.created_at DESC, g.goal_id DESC LIMIT 1)");
+            db.execSQL(CREATE_INDEX_GOALS_USER_ONE_ACTIVE);
+            db.execSQL(CREATE_INDEX_GOALS_USER_CREATED);
+            db.execSQL("DROP INDEX IF EXISTS idx_goals_user_active");
+
+            AppLog.i(TAG, "Successfully created idx_goals_user_one_active");
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error upgrading to version 9", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Upgrade database from version 9 to version 10.
+     * Fits the indexes to the DAO query set: adds idx_weights_user_history, which covers
+     * the per-user history reads, and drops {@link #UNUSED_INDEXES_V10}. Fewer indexes on
+     * daily_weights also make each insert cheaper.
+     *
+     * @param db the database
+     */
+    private void upgradeToV10(SQLiteDatabase db) {
+        AppLog.i(TAG, "Upgrading to version 10: Adding idx_weights_user_history, dropping unused indexes");
+
+        try {
+            db.execSQL(CREATE_INDEX_WEIGHTS_USER_HISTORY);
+            for (String index : UNUSED_INDEXES_V10) {
+                db.execSQL("DROP INDEX IF EXISTS " + index);
+            }
+
+            AppLog.i(TAG, "Successfully created idx_weights_user_history, dropped {} indexes",
+                UNUSED_INDEXES_V10.length);
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error upgrading to version 10", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Upgrade database from version 10 to version 11.
+     * Adds daily_weights_archive and weight_monthly_rollup, where WeightArchiveDAO moves
+     * entries older than a user's archive horizon so daily_weights stays small. Both start
+     * empty; nothing is archived until a user opts in.
+     *
+     * @param db the database
+     */
+    private void upgradeToV11(SQLiteDatabase db) {
+        AppLog.i(TAG, "Upgrading to version 11: Adding {} and {} tables",
+            TABLE_DAILY_WEIGHTS_ARCHIVE, TABLE_WEIGHT_MONTHLY_ROLLUP);
+
+        try {
+            db.execSQL(CREATE_TABLE_DAILY_WEIGHTS_ARCHIVE);
+            db.execSQL(CREATE_INDEX_WEIGHTS_ARCHIVE_USER_HISTORY);
+            db.execSQL(CREATE_TABLE_WEIGHT_MONTHLY_ROLLUP);
+
+            AppLog.i(TAG, "Successfully created {} and {} tables",
+                TABLE_DAILY_WEIGHTS_ARCHIVE, TABLE_WEIGHT_MONTHLY_ROLLUP);
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error upgrading to version 11", e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return SQL list of the codes of one-time achievement types, e.g. "(1, 2, 3)"
+     */
+    private static String oneTimeAchievementCodes() {
+        StringBuilder codes = new StringBuilder("(");
+        for (AchievementType type : AchievementType.values()) {
+            if (type.isOneTime()) {
+                codes.append(codes.length() > 1 ? ", " : "").append(type.getCode());
+            }
+        }
+        return codes.append(")").toString();
+    }
+
+    /**
+     * Checks whether a table already has a column (keeps ALTER TABLE migrations re-runnable).
+     */
+    private static boolean hasColumn(SQLiteDatabase db, String table, String column) {
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(" + table + ")", null)) {
+            while (cursor.moveToNext()) {
+                if (column.equals(cursor.getString(cursor.getColumnIndexOrThrow("name")))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,345 @@
+package com.example.weightogo.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.weightogo.utils.AppLog;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Moves old weight entries out of daily_weights (opt-in, see
+ * {@link UserPreferenceDAO#getArchiveHorizons()}), so a user with years of entries keeps a
+ * small daily_weights and small daily_weights indexes.
+ *
+ * <p>Entries dated before the user's horizon move, whole months at a time, to
+ * daily_weights_archive, and each month they came from is (re)summarized in
+ * weight_monthly_rollup from the archive. WeightEntryDAO.getMonthlyTrend and
+ * getMinMassForUser read archived months from the rollup. The entry-level reads of
+ * WeightEntryDAO, DashboardDAO and GoalWeightDAO union the hot table with the raw archive, so
+ * callers see the full history either way, but those reads still grow with the archive; only
+ * daily_weights and its indexes stay bounded. Editing or deleting an archived entry moves it
+ * back first ({@link #restoreEntry}).</p>
+ *
+ * <p><strong>Kept hot:</strong> The cutoff never passes the start of the current run of
+ * consecutive days (this also keeps the latest entry) or the creation of the active goal,
+ * so the entries read and edited most stay in daily_weights. Soft-deleted entries stay for DatabaseMaintenance to purge.</p>
+ *
+ * <p><strong>Database Lifecycle:</strong> Uses the singleton WeighToGoDBHelper and does NOT
+ * close the SQLiteDatabase it obtains.</p>
+ */
+public class WeightArchiveDAO {
+
+    private static final String TAG = "WeightArchiveDAO";
+    private static final DateTimeFormatter ISO_DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    // Columns of daily_weights and daily_weights_archive, in the same order
+    static final String ARCHIVE_COLUMNS =
+        "weight_id, user_id, weight_value, weight_unit, weight_date, notes, " +
+            "created_at, updated_at, is_deleted, mass_dg";
+
+    // First day of the run of consecutive days ending at the latest entry: the latest entry
+    // with no entry the day before (as in WeightEntryDAO's streak query)
+    private static final String SQL_CURRENT_RUN_START =
+        "SELECT MAX(s.weight_date) FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS + " s " +
+            "WHERE s.user_id = ? AND s.is_deleted = 0 " +
+            "AND NOT EXISTS (SELECT 1 FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS + " p " +
+            "WHERE p.user_id = s.user_id AND p.is_deleted = 0 " +
+            "AND p.weight_date = date(s.weight_date, '-1 day'))";
+
+    private static final String SQL_ACTIVE_GOAL_START =
+        "SELECT created_at FROM " + WeighToGoDBHelper.TABLE_GOAL_WEIGHTS +
+            " WHERE user_id = ? AND is_active = 1";
+
+    private static final String SQL_FIRST_ARCHIVABLE =
+        "SELECT MIN(weight_date) FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+            " WHERE user_id = ? AND is_deleted = 0 AND weight_date < ?";
+
+    private static final String WHERE_ARCHIVABLE = "user_id = ? AND is_deleted = 0 AND weight_date < ?";
+
+    // Archived entries with the same date as an entry about to move. The insert path rejects
+    // a date that is already archived, so these only come from entries logged before it did;
+    // the hot entry is the later one and replaces the archived one.
+    private static final String SQL_DROP_SUPERSEDED =
+        "DELETE FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE +
+            " WHERE user_id = ?1 AND weight_date IN (SELECT weight_date FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+            " WHERE user_id = ?1 AND is_deleted = 0 AND weight_date < ?2)";
+
+    private static final String SQL_MOVE_TO_ARCHIVE =
+        "INSERT INTO " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE + " (" + ARCHIVE_COLUMNS + ") " +
+            "SELECT " + ARCHIVE_COLUMNS + " FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+            " WHERE " + WHERE_ARCHIVABLE;
+
+    // An archived entry, copied back to daily_weights by restoreEntry
+    private static final String SQL_FIND_ARCHIVED =
+        "SELECT user_id, weight_date FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE + " WHERE weight_id = ?";
+    private static final String SQL_RESTORE =
+        "INSERT INTO " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS + " (" + ARCHIVE_COLUMNS + ") " +
+            "SELECT " + ARCHIVE_COLUMNS + " FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE +
+            " WHERE weight_id = ?";
+    private static final String SQL_DELETE_ARCHIVED =
+        "DELETE FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE + " WHERE weight_id = ?";
+
+    // Rollup rows of a month range, deleted before the range is rewritten (a month may have
+    // no archived entries left)
+    private static final String SQL_DELETE_ROLLUP =
+        "DELETE FROM " + WeighToGoDBHelper.TABLE_WEIGHT_MONTHLY_ROLLUP +
+            " WHERE user_id = ? AND month_start >= ? AND month_start < ?";
+
+    // Archived entries of a month range in date order, from the covering
+    // idx_weights_archive_user_history (summarized per month in Java, so no GROUP BY sort)
+    private static final String SQL_ARCHIVED_ENTRIES =
+        "SELECT weight_date, mass_dg FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE +
+            " WHERE user_id = ? AND weight_date >= ? AND weight_date < ? ORDER BY weight_date";
+
+    // Query instrumentation sites (SQL mirrors each query for EXPLAIN QUERY PLAN)
+    private static final QueryMetrics.Site SITE_CURRENT_RUN_START =
+        QueryMetrics.site("WeightArchiveDAO.archiveEntries.currentRunStart", SQL_CURRENT_RUN_START);
+    private static final QueryMetrics.Site SITE_ACTIVE_GOAL_START =
+        QueryMetrics.site("WeightArchiveDAO.archiveEntries.activeGoalStart", SQL_ACTIVE_GOAL_START);
+    private static final QueryMetrics.Site SITE_DROP_SUPERSEDED =
+        QueryMetrics.site("WeightArchiveDAO.archiveEntries.dropSuperseded", SQL_DROP_SUPERSEDED);
+    private static final QueryMetrics.Site SITE_MOVE =
+        QueryMetrics.site("WeightArchiveDAO.archiveEntries", SQL_MOVE_TO_ARCHIVE);
+    private static final QueryMetrics.Site SITE_ROLLUP =
+        QueryMetrics.site("WeightArchiveDAO.archiveEntries.rollup", SQL_ARCHIVED_ENTRIES);
+    private static final QueryMetrics.Site SITE_DELETE_ROLLUP =
+        QueryMetrics.site("WeightArchiveDAO.archiveEntries.deleteRollup", SQL_DELETE_ROLLUP);
+    private static final QueryMetrics.Site SITE_FIND_ARCHIVED =
+        QueryMetrics.site("WeightArchiveDAO.restoreEntry.find", SQL_FIND_ARCHIVED);
+    private static final QueryMetrics.Site SITE_RESTORE =
+        QueryMetrics.site("WeightArchiveDAO.restoreEntry", SQL_RESTORE);
+
+    private final WeighToGoDBHelper dbHelper;
+
+    public WeightArchiveDAO(@NonNull WeighToGoDBHelper dbHelper) {
+        this.dbHelper = dbHelper;
+    }
+
+    /**
+     * Archives a user's entries dated before the first day of the month {@code horizonMonths}
+     * before {@code today}'s (or earlier, see the class comment), in one transaction.
+     *
+     * @param userId        user ID
+     * @param horizonMonths whole months of entries to keep in daily_weights besides the current one
+     * @param today         the current date
+     * @return number of entries moved to the archive (0 if none, or on error)
+     */
+    public int archiveEntries(long userId, int horizonMonths, @NonNull LocalDate today) {
+        AppLog.d(TAG, "archiveEntries: user_id={}, horizon_months={}", userId, horizonMonths);
+
+        if (horizonMonths < 1) {
+            AppLog.w(TAG, "archiveEntries: Invalid horizon {} months", horizonMonths);
+            return 0;
+        }
+
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long start = QueryMetrics.begin();
+        int rowsMoved = 0;
+
+        db.beginTransaction();
+        try {
+            YearMonth keepFrom = keepFrom(db, userId, YearMonth.from(today).minusMonths(horizonMonths));
+            String cutoff = keepFrom.atDay(1).format(ISO_DATE_FORMATTER);
+            String[] args = {String.valueOf(userId), cutoff};
+
+            String firstDate = queryString(db, SQL_FIRST_ARCHIVABLE, args);
+            if (firstDate != null) {
+                dropSuperseded(db, args);
+                db.execSQL(SQL_MOVE_TO_ARCHIVE, args);
+                rowsMoved = db.delete(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS, WHERE_ARCHIVABLE, args);
+                int months = rebuildRollup(db, userId, YearMonth.from(LocalDate.parse(firstDate, ISO_DATE_FORMATTER)),
+                    keepFrom);
+                AppLog.i(TAG, "archiveEntries: Moved {} entries before {}, summarized {} months",
+                    rowsMoved, cutoff, months);
+            }
+
+            db.setTransactionSuccessful();
+            return rowsMoved;
+        } catch (Exception e) {
+            AppLog.e(TAG, "archiveEntries: Exception", e);
+            rowsMoved = 0;
+            return 0;
+        } finally {
+            db.endTransaction();
+            QueryMetrics.end(SITE_MOVE, start, rowsMoved);
+            if (rowsMoved > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS);
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE);
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_WEIGHT_MONTHLY_ROLLUP);
+            }
+        }
+    }
+
+    /**
+     * Moves an archived entry back to daily_weights and re-summarizes its month, so it can be
+     * updated or deleted there. Runs in the caller's transaction on {@code db}; the caller
+     * reports the writes to daily_weights, daily_weights_archive and weight_monthly_rollup.
+     *
+     * @param weightId entry ID
+     * @return true if the entry was archived and has moved back, false if it was not archived
+     */
+    static boolean restoreEntry(@NonNull SQLiteDatabase db, long weightId) {
+        String[] idArg = {String.valueOf(weightId)};
+        long userId;
+        YearMonth month;
+
+        long start = QueryMetrics.begin();
+        int rows = 0;
+        try (Cursor cursor = db.rawQuery(SQL_FIND_ARCHIVED, idArg)) {
+            if (!cursor.moveToFirst()) {
+                return false;
+            }
+            rows = 1;
+            userId = cursor.getLong(0);
+            month = YearMonth.from(LocalDate.parse(cursor.getString(1), ISO_DATE_FORMATTER));
+        } finally {
+            QueryMetrics.end(SITE_FIND_ARCHIVED, start, rows);
+        }
+
+        start = QueryMetrics.begin();
+        rows = 0;
+        try {
+            db.execSQL(SQL_RESTORE, idArg);
+            rows = SqlStatements.executeUpdateDelete(db, SQL_DELETE_ARCHIVED, weightId);
+        } finally {
+            QueryMetrics.end(SITE_RESTORE, start, rows);
+        }
+        rebuildRollup(db, userId, month, month.plusMonths(1));
+        AppLog.i(TAG, "restoreEntry: Moved weight_id={} back from the archive", weightId);
+        return true;
+    }
+
+    /**
+     * Moves {@code horizon} back to the month of the current run's first day and of the
+     * active goal's creation, if either is earlier.
+     */
+    @NonNull
+    private static YearMonth keepFrom(@NonNull SQLiteDatabase db, long userId, @NonNull YearMonth horizon) {
+        String[] userArg = {String.valueOf(userId)};
+        YearMonth keepFrom = horizon;
+
+        long start = QueryMetrics.begin();
+        String runStart = null;
+        try {
+            runStart = queryString(db, SQL_CURRENT_RUN_START, userArg);
+        } finally {
+            QueryMetrics.end(SITE_CURRENT_RUN_START, start, runStart != null ? 1 : 0);
+        }
+        if (runStart != null) {
+            keepFrom = earlier(keepFrom, YearMonth.parse(runStart.substring(0, 7)));
+        }
+
+        start = QueryMetrics.begin();
+        String goalStart = null;
+        try {
+            goalStart = queryString(db, SQL_ACTIVE_GOAL_START, userArg);
+        } finally {
+            QueryMetrics.end(SITE_ACTIVE_GOAL_START, start, goalStart != null ? 1 : 0);
+        }
+        if (goalStart != null) {
+            keepFrom = earlier(keepFrom, YearMonth.parse(goalStart.substring(0, 7)));
+        }
+        return keepFrom;
+    }
+
+    /**
+     * Deletes the archived entries that the entries about to move replace (see SQL_DROP_SUPERSEDED).
+     *
+     * @param args user ID and cutoff date, as for SQL_MOVE_TO_ARCHIVE
+     */
+    private static void dropSuperseded(@NonNull SQLiteDatabase db, @NonNull String[] args) {
+        long start = QueryMetrics.begin();
+        int dropped = 0;
+        try {
+            dropped = SqlStatements.executeUpdateDelete(db, SQL_DROP_SUPERSEDED, (Object[]) args);
+            if (dropped > 0) {
+                AppLog.w(TAG, "archiveEntries: Replaced {} archived entries with later entries of the same date",
+                    dropped);
+            }
+        } finally {
+            QueryMetrics.end(SITE_DROP_SUPERSEDED, start, dropped);
+        }
+    }
+
+    /**
+     * Rewrites the weight_monthly_rollup rows of the months in [{@code from}, {@code until})
+     * from the archived entries, dropping the rows of months with none left.
+     *
+     * @return number of months written
+     */
+    private static int rebuildRollup(@NonNull SQLiteDatabase db, long userId,
+                                     @NonNull YearMonth from, @NonNull YearMonth until) {
+        String[] args = {
+            String.valueOf(userId),
+            from.atDay(1).format(ISO_DATE_FORMATTER),
+            until.atDay(1).format(ISO_DATE_FORMATTER)
+        };
+
+        long start = QueryMetrics.begin();
+        int deleted = 0;
+        try {
+            deleted = SqlStatements.executeUpdateDelete(db, SQL_DELETE_ROLLUP, (Object[]) args);
+        } finally {
+            QueryMetrics.end(SITE_DELETE_ROLLUP, start, deleted);
+        }
+
+        start = QueryMetrics.begin();
+        int months = 0;
+        try (Cursor cursor = db.rawQuery(SQL_ARCHIVED_ENTRIES, args)) {
+            WeightMonthlySummary summary = null;
+            while (cursor.moveToNext()) {
+                LocalDate date = LocalDate.parse(cursor.getString(0), ISO_DATE_FORMATTER);
+                if (summary == null || !summary.getMonth().equals(YearMonth.from(date))) {
+                    if (summary != null) {
+                        writeRollup(db, userId, summary);
+                        months++;
+                    }
+                    summary = new WeightMonthlySummary(YearMonth.from(date));
+                }
+                summary.add(date, cursor.getLong(1));
+            }
+            if (summary != null) {
+                writeRollup(db, userId, summary);
+                months++;
+            }
+            return months;
+        } finally {
+            QueryMetrics.end(SITE_ROLLUP, start, months);
+        }
+    }
+
+    private static void writeRollup(@NonNull SQLiteDatabase db, long userId, @NonNull WeightMonthlySummary summary) {
+        ContentValues values = new ContentValues();
+        values.put("user_id", userId);
+        values.put("month_start", summary.getMonth().atDay(1).format(ISO_DATE_FORMATTER));
+        values.put("entry_count", summary.getEntryCount());
+        values.put("min_mass_dg", summary.getMinMassDg());
+        values.put("max_mass_dg", summary.getMaxMassDg());
+        values.put("sum_mass_dg", summary.getSumMassDg());
+        values.put("first_date", summary.getFirstDate().format(ISO_DATE_FORMATTER));
+        values.put("first_mass_dg", summary.getFirstMassDg());
+        values.put("last_date", summary.getLastDate().format(ISO_DATE_FORMATTER));
+        values.put("last_mass_dg", summary.getLastMassDg());
+        db.insertWithOnConflict(WeighToGoDBHelper.TABLE_WEIGHT_MONTHLY_ROLLUP, null, values,
+            SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    @Nullable
+    private static String queryString(@NonNull SQLiteDatabase db, @NonNull String sql, @NonNull String[] args) {
+        try (Cursor cursor = db.rawQuery(sql, args)) {
+            return cursor.moveToFirst() && !cursor.isNull(0) ? cursor.getString(0) : null;
+        }
+    }
+
+    @NonNull
+    private static YearMonth earlier(@NonNull YearMonth a, @NonNull YearMonth b) {
+        return b.isBefore(a) ? b : a;
+    }
+}
@@ -3,15 +3,17 @@ package com.example.weightogo.database;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.weightogo.models.WeightEntry;
+import com.example.weightogo.utils.AppLog;
+import com.example.weightogo.utils.WeightUtils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,6 +34,13 @@ import java.util.List;
  *
  * <p><strong>Soft Delete:</strong> Uses soft delete (is_deleted flag) instead of hard delete
  * to preserve data and support undo functionality.</p>
+ *
+ * <p><strong>Archive:</strong> Entries older than a user's archive horizon may have moved to
+ * daily_weights_archive (see {@link WeightArchiveDAO}). Reads include them: lists, lookups
+ * by ID or date, the latest entry, streaks and history union the two tables, so they still
+ * read every archived row. {@link #getMonthlyTrend} and {@link #getMinMassForUser} read
+ * archived months from the monthly rollup instead, one row per month. Updating or deleting
+ * an archived entry first moves it back to daily_weights.</p>
  */
 public class WeightEntryDAO {
 
@@ -39,6 +48,141 @@ public class WeightEntryDAO {
     private static final DateTimeFormatter ISO_DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
     private static final DateTimeFormatter ISO_DATETIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+    // Current and longest streak by gaps-and-islands over daily_weights and the archive together.
+    // An island (run of consecutive days) starts at an entry with no entry the day before; it
+    // ends at the first entry at or after the start with no entry the day after, the earlier of
+    // the first such entry in each table. Every probe is an equality or range lookup on
+    // idx_weights_user_date, idx_weights_user_history or the archive's (user_id, weight_date)
+    // indexes, and each end search stops inside its own island, so the history is read about
+    // once. (ROW_NUMBER() grouping needs SQLite 3.25 / API 30; minSdk 28 has 3.22.)
+    // The latest island starts at MAX(start_date) and ends at the latest entry.
+    // Args: ?1 user_id, ?2 active-since date ('' for no cutoff).
+    private static final String SQL_STREAKS =
+        "SELECT COALESCE(MAX(len), 0) AS longest_streak, " +
+            "CASE WHEN last_date >= ?2 " +
+            "THEN CAST(julianday(last_date) - julianday(MAX(start_date)) AS INTEGER) + 1 " +
+            "ELSE 0 END AS current_streak " +
+        "FROM (" +
+            islandStarts(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS, true) +
+            " UNION ALL " +
+            islandStarts(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE, false) +
+        ") JOIN (" +
+            "SELECT MAX(last_date) AS last_date FROM (" +
+            "SELECT MAX(weight_date) AS last_date FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+                " WHERE user_id = ?1 AND is_deleted = 0" +
+            " UNION ALL " +
+            "SELECT MAX(weight_date) FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE + " WHERE user_id = ?1)" +
+        ")";
+
+    // Archived and hot entries, each read in date order from an index and merged (no sort).
+    // Also DashboardDAO's entry page.
+    static final String SQL_GET_FOR_USER =
+        "SELECT " + WeightArchiveDAO.ARCHIVE_COLUMNS + " FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE +
+            " WHERE user_id = ?1" +
+        " UNION ALL " +
+        "SELECT " + WeightArchiveDAO.ARCHIVE_COLUMNS + " FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+            " WHERE user_id = ?1 AND is_deleted = 0" +
+        " ORDER BY weight_date DESC";
+    private static final String SQL_GET_BY_ID =
+        "SELECT " + WeightArchiveDAO.ARCHIVE_COLUMNS + " FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+            " WHERE weight_id = ?1" +
+        " UNION ALL " +
+        "SELECT " + WeightArchiveDAO.ARCHIVE_COLUMNS + " FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE +
+            " WHERE weight_id = ?1";
+    // The live entry of a date, whether still in daily_weights or archived
+    private static final String SQL_GET_FOR_DATE =
+        "SELECT " + WeightArchiveDAO.ARCHIVE_COLUMNS + " FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+            " WHERE user_id = ?1 AND weight_date = ?2 AND is_deleted = 0" +
+        " UNION ALL " +
+        "SELECT " + WeightArchiveDAO.ARCHIVE_COLUMNS + " FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE +
+            " WHERE user_id = ?1 AND weight_date = ?2" +
+        " LIMIT 1";
+    // A date already taken by an archived entry: idx_weights_user_date only guards daily_weights.
+    // The update form looks up the entry's user and skips the entry itself.
+    private static final String SQL_ARCHIVED_DATE =
+        "SELECT 1 FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE +
+            " WHERE user_id = ? AND weight_date = ? LIMIT 1";
+    private static final String SQL_ARCHIVED_DATE_FOR_UPDATE =
+        "SELECT 1 FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE +
+            " WHERE user_id = (SELECT user_id FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS + " WHERE weight_id = ?1)" +
+            " AND weight_date = ?2 AND weight_id <> ?1 LIMIT 1";
+    // Usually in daily_weights, but the archive holds it once every later entry is deleted.
+    // A date has one live entry across both tables, so weight_date alone orders them.
+    private static final String SQL_GET_LATEST =
+        "SELECT " + WeightArchiveDAO.ARCHIVE_COLUMNS + " FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+            " WHERE user_id = ?1 AND is_deleted = 0" +
+        " UNION ALL " +
+        "SELECT " + WeightArchiveDAO.ARCHIVE_COLUMNS + " FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE +
+            " WHERE user_id = ?1" +
+        " ORDER BY weight_date DESC LIMIT 1";
+    private static final String SQL_UPDATE =
+        "UPDATE " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+            " SET weight_value = ?, weight_unit = ?, mass_dg = ?, weight_date = ?, notes = ?, updated_at = ?" +
+            " WHERE weight_id = ?";
+    private static final String SQL_SOFT_DELETE =
+        "UPDATE " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+            " SET is_deleted = 1, updated_at = ? WHERE weight_id = ?";
+
+    // Query instrumentation sites (each registers the SQL its method runs, for EXPLAIN QUERY PLAN)
+    private static final QueryMetrics.Site SITE_INSERT =
+        QueryMetrics.site("WeightEntryDAO.insertWeightEntry", null);
+    private static final QueryMetrics.Site SITE_INSERT_ARCHIVED_DATE =
+        QueryMetrics.site("WeightEntryDAO.insertWeightEntry.archivedDate", SQL_ARCHIVED_DATE);
+    private static final QueryMetrics.Site SITE_UPDATE_ARCHIVED_DATE =
+        QueryMetrics.site("WeightEntryDAO.updateWeightEntry.archivedDate", SQL_ARCHIVED_DATE_FOR_UPDATE);
+    private static final QueryMetrics.Site SITE_GET_FOR_USER =
+        QueryMetrics.site("WeightEntryDAO.getWeightEntriesForUser", SQL_GET_FOR_USER);
+    private static final QueryMetrics.Site SITE_GET_BY_ID =
+        QueryMetrics.site("WeightEntryDAO.getWeightEntryById", SQL_GET_BY_ID);
+    private static final QueryMetrics.Site SITE_GET_FOR_DATE =
+        QueryMetrics.site("WeightEntryDAO.getWeightEntryForDate", SQL_GET_FOR_DATE);
+    // One row from each table, each a single MIN over an index (an outer MIN would read the
+    // union through a subquery); the caller takes the lower of the two
+    private static final String SQL_MIN_MASS =
+        "SELECT MIN(mass_dg) AS min_mass FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+            " WHERE user_id = ?1 AND is_deleted = 0" +
+        " UNION ALL " +
+        "SELECT MIN(min_mass_dg) FROM " + WeighToGoDBHelper.TABLE_WEIGHT_MONTHLY_ROLLUP +
+            " WHERE user_id = ?1";
+    // Rollup rows (keyed by the month's first day) merged in date order with the hot entries,
+    // each shaped as a one-entry month. Archived months are read one row per month, not one
+    // row per entry, so this read stays proportional to the hot set plus the months archived.
+    private static final String SQL_MONTHLY_TREND =
+        "SELECT month_start, entry_count, min_mass_dg, max_mass_dg, sum_mass_dg, " +
+            "first_date, first_mass_dg, last_date, last_mass_dg " +
+            "FROM " + WeighToGoDBHelper.TABLE_WEIGHT_MONTHLY_ROLLUP + " WHERE user_id = ?1" +
+        " UNION ALL " +
+        "SELECT weight_date, 1, mass_dg, mass_dg, mass_dg, weight_date, mass_dg, weight_date, mass_dg " +
+            "FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS + " WHERE user_id = ?1 AND is_deleted = 0" +
+        " ORDER BY 1";
+    private static final QueryMetrics.Site SITE_GET_MONTHLY_TREND =
+        QueryMetrics.site("WeightEntryDAO.getMonthlyTrend", SQL_MONTHLY_TREND);
+    private static final QueryMetrics.Site SITE_GET_LATEST =
+        QueryMetrics.site("WeightEntryDAO.getLatestWeightEntry", SQL_GET_LATEST);
+    private static final QueryMetrics.Site SITE_GET_MIN_MASS =
+        QueryMetrics.site("WeightEntryDAO.getMinMassForUser", SQL_MIN_MASS);
+    private static final QueryMetrics.Site SITE_GET_STREAKS =
+        QueryMetrics.site("WeightEntryDAO.getStreaks", SQL_STREAKS);
+    // Oldest first, only the columns achievement re-evaluation needs. Archived and hot entries
+    // are each read from a covering index in date order and merged, so there is no sort.
+    private static final String SQL_HISTORY =
+        "SELECT weight_date, mass_dg, weight_value FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE +
+            " WHERE user_id = ?1" +
+        " UNION ALL " +
+        "SELECT weight_date, mass_dg, weight_value FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
+            " WHERE user_id = ?1 AND is_deleted = 0" +
+        " ORDER BY weight_date";
+    private static final QueryMetrics.Site SITE_STREAM_HISTORY =
+        QueryMetrics.site("WeightEntryDAO.streamHistory", SQL_HISTORY);
+    private static final QueryMetrics.Site SITE_UPDATE =
+        QueryMetrics.site("WeightEntryDAO.updateWeightEntry", SQL_UPDATE);
+    private static final QueryMetrics.Site SITE_DELETE =
+        QueryMetrics.site("WeightEntryDAO.deleteWeightEntry", SQL_SOFT_DELETE);
+
+    // Shared across DAO instances: every screen creates its own WeightEntryDAO
+    private static final ReadCoalescer<Long, WeightEntry> LATEST_ENTRY_READS =
+        ReadCoalescer.create("WeightEntryDAO.getLatestWeightEntry", WeighToGoDBHelper.TABLE_DAILY_WEIGHTS);
+
     private final WeighToGoDBHelper dbHelper;
 
     public WeightEntryDAO(@NonNull WeighToGoDBHelper dbHelper) {
@@ -47,16 +191,22 @@ public class WeightEntryDAO {
 
     /**
      * Inserts a new weight entry.
+     *
+     * @return the new weight_id, or -1 on error or if the user already has an entry for the
+     *         date (in daily_weights or archived)
      */
     public long insertWeightEntry(@NonNull WeightEntry entry) {
-        Log.d(TAG, "insertWeightEntry: Inserting entry for user_id=" + entry.getUserId());
+        AppLog.d(TAG, "insertWeightEntry: Inserting entry for user_id={}", entry.getUserId());
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
+        entry.setMassDg(WeightUtils.toDecigrams(entry.getWeightValue(), entry.getWeightUnit()));
+
         ContentValues values = new ContentValues();
         values.put("user_id", entry.getUserId());
         values.put("weight_value", entry.getWeightValue());
         values.put("weight_unit", entry.getWeightUnit());
+        values.put("mass_dg", entry.getMassDg());
         values.put("weight_date", entry.getWeightDate().format(ISO_DATE_FORMATTER));
         values.put("created_at", entry.getCreatedAt().format(ISO_DATETIME_FORMATTER));
         values.put("updated_at", entry.getUpdatedAt().format(ISO_DATETIME_FORMATTER));
@@ -66,101 +216,120 @@ public class WeightEntryDAO {
             values.put("notes", entry.getNotes());
         }
 
+        long start = QueryMetrics.begin();
+        int rows = 0;
+        db.beginTransaction();
         try {
+            if (!entry.isDeleted() && isArchivedDate(db, SITE_INSERT_ARCHIVED_DATE, SQL_ARCHIVED_DATE,
+                    String.valueOf(entry.getUserId()), entry.getWeightDate().format(ISO_DATE_FORMATTER))) {
+                AppLog.w(TAG, "insertWeightEntry: An archived entry already exists for the date");
+                return -1;
+            }
             long weightId = db.insert(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS, null, values);
             if (weightId > 0) {
-                Log.i(TAG, "insertWeightEntry: Successfully inserted weight_id=" + weightId);
+                rows = 1;
+                db.setTransactionSuccessful();
+                AppLog.i(TAG, "insertWeightEntry: Successfully inserted weight_id={}", weightId);
             }
             return weightId;
         } catch (Exception e) {
-            Log.e(TAG, "insertWeightEntry: Exception", e);
+            AppLog.e(TAG, "insertWeightEntry: Exception", e);
+            rows = 0;
             return -1;
+        } finally {
+            db.endTransaction();
+            QueryMetrics.end(SITE_INSERT, start, rows);
+            if (rows > 0) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS);
+            }
         }
     }
 
     /**
-     * Gets all non-deleted weight entries for a user, ordered by date descending.
+     * Gets all non-deleted weight entries for a user, archived ones included, ordered by
+     * date descending.
      */
     @NonNull
     public List<WeightEntry> getWeightEntriesForUser(long userId) {
-        Log.d(TAG, "getWeightEntriesForUser: user_id=" + userId);
+        AppLog.d(TAG, "getWeightEntriesForUser: user_id={}", userId);
 
         List<WeightEntry> entries = new ArrayList<>();
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_DAILY_WEIGHTS,
-            null,
-            "user_id = ? AND is_deleted = 0",
-            new String[]{String.valueOf(userId)},
-            null, null,
-            "weight_date DESC"
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_FOR_USER, new String[]{String.valueOf(userId)})) {
             while (cursor != null && cursor.moveToNext()) {
                 entries.add(mapCursorToEntry(cursor));
             }
-            Log.i(TAG, "getWeightEntriesForUser: Found " + entries.size() + " entries");
+            AppLog.i(TAG, "getWeightEntriesForUser: Found {} entries", entries.size());
         } catch (Exception e) {
-            Log.e(TAG, "getWeightEntriesForUser: Exception", e);
+            AppLog.e(TAG, "getWeightEntriesForUser: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_FOR_USER, start, entries.size());
         }
 
         return entries;
     }
 
     /**
-     * Gets recent weight entries for streak calculation (optimized).
-     * Only fetches the most recent entries needed for streak detection.
-     * Prevents N+1 query problem by limiting data retrieval.
+     * Gets a user's entries summarized per calendar month, oldest month first, for trend
+     * charts. Months of archived entries come from weight_monthly_rollup, not the raw archive,
+     * and are combined with any entries of the same month still in daily_weights.
      *
      * @param userId user ID
-     * @param limit  maximum number of entries to retrieve (e.g., 30 for STREAK_30)
-     * @return list of recent weight entries, sorted by date descending
+     * @return one summary per month with entries (empty if none, or on error)
      */
-    public List<WeightEntry> getRecentWeightEntriesForUser(long userId, int limit) {
-        Log.d(TAG, "getRecentWeightEntriesForUser: user_id=" + userId + ", limit=" + limit);
+    @NonNull
+    public List<WeightMonthlySummary> getMonthlyTrend(long userId) {
+        AppLog.d(TAG, "getMonthlyTrend: user_id={}", userId);
 
-        List<WeightEntry> entries = new ArrayList<>();
+        List<WeightMonthlySummary> months = new ArrayList<>();
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_DAILY_WEIGHTS,
-            null,
-            "user_id = ? AND is_deleted = 0",
-            new String[]{String.valueOf(userId)},
-            null, null,
-            "weight_date DESC",
-            String.valueOf(limit)  // LIMIT clause for optimization
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_MONTHLY_TREND, new String[]{String.valueOf(userId)})) {
+            WeightMonthlySummary month = null;
             while (cursor != null && cursor.moveToNext()) {
-                entries.add(mapCursorToEntry(cursor));
+                rows++;
+                YearMonth rowMonth = YearMonth.from(LocalDate.parse(cursor.getString(0), ISO_DATE_FORMATTER));
+                if (month == null || !month.getMonth().equals(rowMonth)) {
+                    month = new WeightMonthlySummary(rowMonth);
+                    months.add(month);
+                }
+                month.merge(cursor.getInt(1), cursor.getLong(2), cursor.getLong(3), cursor.getLong(4),
+                        LocalDate.parse(cursor.getString(5), ISO_DATE_FORMATTER), cursor.getLong(6),
+                        LocalDate.parse(cursor.getString(7), ISO_DATE_FORMATTER), cursor.getLong(8));
             }
-            Log.i(TAG, "getRecentWeightEntriesForUser: Found " + entries.size() + " recent entries");
+            AppLog.i(TAG, "getMonthlyTrend: {} months from {} rows", months.size(), rows);
         } catch (Exception e) {
-            Log.e(TAG, "getRecentWeightEntriesForUser: Exception", e);
+            AppLog.e(TAG, "getMonthlyTrend: Exception", e);
+            months.clear();
+        } finally {
+            QueryMetrics.end(SITE_GET_MONTHLY_TREND, start, rows);
         }
 
-        return entries;
+        return months;
     }
 
     /**
-     * Gets a weight entry by ID.
+     * Gets a weight entry by ID, whether in daily_weights or archived.
      */
     @Nullable
     public WeightEntry getWeightEntryById(long weightId) {
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_DAILY_WEIGHTS,
-            null,
-            "weight_id = ?",
-            new String[]{String.valueOf(weightId)},
-            null, null, null
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_BY_ID, new String[]{String.valueOf(weightId)})) {
             if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
                 return mapCursorToEntry(cursor);
             }
         } catch (Exception e) {
-            Log.e(TAG, "getWeightEntryById: Exception", e);
+            AppLog.e(TAG, "getWeightEntryById: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_BY_ID, start, rows);
         }
         return null;
     }
@@ -175,87 +344,175 @@ public class WeightEntryDAO {
      */
     @Nullable
     public WeightEntry getWeightEntryForDate(long userId, java.time.LocalDate date) {
-        Log.d(TAG, "getWeightEntryForDate: user_id=" + userId + ", date=" + date);
+        AppLog.d(TAG, "getWeightEntryForDate: user_id={}, date={}", userId, date);
 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_DAILY_WEIGHTS,
-            null,
-            "user_id = ? AND weight_date = ? AND is_deleted = 0",
-            new String[]{String.valueOf(userId), date.toString()},
-            null, null, null
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_FOR_DATE,
+                new String[]{String.valueOf(userId), date.format(ISO_DATE_FORMATTER)})) {
             if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
                 WeightEntry entry = mapCursorToEntry(cursor);
-                Log.d(TAG, "getWeightEntryForDate: Found entry weight_id=" + entry.getWeightId());
+                AppLog.d(TAG, "getWeightEntryForDate: Found entry weight_id={}", entry.getWeightId());
                 return entry;
             }
         } catch (Exception e) {
-            Log.e(TAG, "getWeightEntryForDate: Exception", e);
+            AppLog.e(TAG, "getWeightEntryForDate: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_FOR_DATE, start, rows);
         }
 
-        Log.d(TAG, "getWeightEntryForDate: No entry found for date");
+        AppLog.d(TAG, "getWeightEntryForDate: No entry found for date");
         return null;
     }
 
     /**
-     * Gets the minimum weight value for a user (optimized for NEW_LOW achievement).
-     * Uses SQL MIN() instead of fetching all entries.
+     * Gets the user's lowest canonical mass (optimized for NEW_LOW achievement).
+     * Compares mass_dg, so lbs and kg entries are ranked correctly; served from
+     * idx_weights_user_mass without reading the rows, and from the monthly minimums of
+     * archived entries.
      *
      * @param userId user ID
-     * @return minimum weight value, or null if no entries exist
+     * @return minimum mass in decigrams, or null if no entries exist
      */
     @Nullable
-    public Double getMinWeightForUser(long userId) {
-        Log.d(TAG, "getMinWeightForUser: user_id=" + userId);
+    public Long getMinMassForUser(long userId) {
+        AppLog.d(TAG, "getMinMassForUser: user_id={}", userId);
 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
-
-        try (Cursor cursor = db.rawQuery(
-            "SELECT MIN(weight_value) as min_weight FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS +
-            " WHERE user_id = ? AND is_deleted = 0",
-            new String[]{String.valueOf(userId)}
-        )) {
-            if (cursor != null && cursor.moveToFirst()) {
-                int columnIndex = cursor.getColumnIndex("min_weight");
-                if (columnIndex != -1 && !cursor.isNull(columnIndex)) {
-                    double minWeight = cursor.getDouble(columnIndex);
-                    Log.i(TAG, "getMinWeightForUser: Found min weight = " + minWeight);
-                    return minWeight;
+        long start = QueryMetrics.begin();
+        int rows = 0;
+
+        try (Cursor cursor = db.rawQuery(SQL_MIN_MASS, new String[]{String.valueOf(userId)})) {
+            Long minMass = null;
+            int columnIndex = cursor != null ? cursor.getColumnIndex("min_mass") : -1;
+            while (columnIndex != -1 && cursor.moveToNext()) {
+                if (!cursor.isNull(columnIndex)) {
+                    long mass = cursor.getLong(columnIndex);
+                    minMass = minMass == null ? mass : Math.min(minMass, mass);
                 }
             }
-            Log.i(TAG, "getMinWeightForUser: No entries found");
+            if (minMass != null) {
+                rows = 1;
+                AppLog.i(TAG, "getMinMassForUser: Found min mass = {} dg", minMass);
+                return minMass;
+            }
+            AppLog.i(TAG, "getMinMassForUser: No entries found");
         } catch (Exception e) {
-            Log.e(TAG, "getMinWeightForUser: Exception", e);
+            AppLog.e(TAG, "getMinMassForUser: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_MIN_MASS, start, rows);
         }
 
         return null;
     }
 
+    /**
+     * Gets the user's current and longest run of consecutive days with an entry, computed
+     * in SQLite without loading the entries.
+     *
+     * @param userId      user ID
+     * @param activeSince the current streak only counts if it reaches this date (e.g.
+     *                    yesterday); null to count the run ending at the latest entry
+     * @return streak lengths in days (both 0 if the user has no entries)
+     */
+    @NonNull
+    public Streaks getStreaks(long userId, @Nullable LocalDate activeSince) {
+        return queryStreaks(dbHelper.getReadableDatabase(), userId, activeSince);
+    }
+
+    /**
+     * Runs the streak query on {@code db}, so callers can include it in their own transaction.
+     */
+    @NonNull
+    static Streaks queryStreaks(@NonNull SQLiteDatabase db, long userId, @Nullable LocalDate activeSince) {
+        AppLog.d(TAG, "getStreaks: user_id={}", userId);
+
+        long start = QueryMetrics.begin();
+        int rows = 0;
+
+        try (Cursor cursor = db.rawQuery(SQL_STREAKS, new String[]{
+            String.valueOf(userId),
+            activeSince != null ? activeSince.format(ISO_DATE_FORMATTER) : ""
+        })) {
+            if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
+                Streaks streaks = new Streaks(
+                    cursor.getInt(cursor.getColumnIndexOrThrow("current_streak")),
+                    cursor.getInt(cursor.getColumnIndexOrThrow("longest_streak")));
+                AppLog.i(TAG, "getStreaks: current={}, longest={}", streaks.getCurrent(), streaks.getLongest());
+                return streaks;
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "getStreaks: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_STREAKS, start, rows);
+        }
+        return new Streaks(0, 0);
+    }
+
+    /**
+     * Passes every non-deleted entry of a user to {@code visitor}, oldest first, without
+     * building WeightEntry objects or holding the history in memory. Archived entries are
+     * included.
+     *
+     * @param userId  user ID
+     * @param visitor called once per entry, in weight_date order
+     * @return number of entries visited, or -1 if the query failed part way
+     */
+    public int streamHistory(long userId, @NonNull HistoryVisitor visitor) {
+        AppLog.d(TAG, "streamHistory: user_id={}", userId);
+
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
+
+        try (Cursor cursor = db.rawQuery(SQL_HISTORY, new String[]{String.valueOf(userId)})) {
+            while (cursor != null && cursor.moveToNext()) {
+                visitor.visit(LocalDate.parse(cursor.getString(0), ISO_DATE_FORMATTER),
+                        cursor.getLong(1), cursor.getDouble(2));
+                rows++;
+            }
+            AppLog.i(TAG, "streamHistory: Visited {} entries", rows);
+            return rows;
+        } catch (Exception e) {
+            AppLog.e(TAG, "streamHistory: Exception after " + rows + " entries", e);
+            return -1;
+        } finally {
+            QueryMetrics.end(SITE_STREAM_HISTORY, start, rows);
+        }
+    }
+
     /**
      * Gets the most recent weight entry for a user.
+     *
+     * <p>Coalesced: repeated and concurrent calls share one query until the next write to
+     * daily_weights (see {@link ReadCoalescer}). Treat the returned entry as read-only.</p>
      */
     @Nullable
     public WeightEntry getLatestWeightEntry(long userId) {
-        Log.d(TAG, "getLatestWeightEntry: user_id=" + userId);
+        return LATEST_ENTRY_READS.get(userId, () -> queryLatestWeightEntry(userId));
+    }
+
+    @Nullable
+    private WeightEntry queryLatestWeightEntry(long userId) {
+        AppLog.d(TAG, "getLatestWeightEntry: user_id={}", userId);
 
         SQLiteDatabase db = dbHelper.getReadableDatabase();
+        long start = QueryMetrics.begin();
+        int rows = 0;
 
-        try (Cursor cursor = db.query(
-            WeighToGoDBHelper.TABLE_DAILY_WEIGHTS,
-            null,
-            "user_id = ? AND is_deleted = 0",
-            new String[]{String.valueOf(userId)},
-            null, null,
-            "weight_date DESC, created_at DESC",
-            "1"
-        )) {
+        try (Cursor cursor = db.rawQuery(SQL_GET_LATEST, new String[]{String.valueOf(userId)})) {
             if (cursor != null && cursor.moveToFirst()) {
+                rows = 1;
                 return mapCursorToEntry(cursor);
             }
         } catch (Exception e) {
-            Log.e(TAG, "getLatestWeightEntry: Exception", e);
+            AppLog.e(TAG, "getLatestWeightEntry: Exception", e);
+        } finally {
+            QueryMetrics.end(SITE_GET_LATEST, start, rows);
         }
         return null;
     }
@@ -267,80 +524,161 @@ public class WeightEntryDAO {
      * <ul>
      *   <li>Returns 1 if entry exists and was successfully updated</li>
      *   <li>Returns 0 if entry doesn't exist (weight_id not found)</li>
+     *   <li>Returns 0 if another entry of the user already has the new date</li>
      *   <li>Returns 0 on database error (exception logged)</li>
      * </ul>
      * <p>Callers should check the return value to distinguish between these cases.</p>
+     * <p>An archived entry moves back to daily_weights first.</p>
      */
     public int updateWeightEntry(@NonNull WeightEntry entry) {
-        Log.d(TAG, "updateWeightEntry: weight_id=" + entry.getWeightId());
+        AppLog.d(TAG, "updateWeightEntry: weight_id={}", entry.getWeightId());
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        ContentValues values = new ContentValues();
-        values.put("weight_value", entry.getWeightValue());
-        values.put("weight_unit", entry.getWeightUnit());
-        values.put("weight_date", entry.getWeightDate().format(ISO_DATE_FORMATTER));
-        values.put("updated_at", LocalDateTime.now().format(ISO_DATETIME_FORMATTER));
-
-        // Allow explicit NULL for notes
-        if (entry.getNotes() != null) {
-            values.put("notes", entry.getNotes());
-        } else {
-            values.putNull("notes");
-        }
+        entry.setMassDg(WeightUtils.toDecigrams(entry.getWeightValue(), entry.getWeightUnit()));
 
+        long start = QueryMetrics.begin();
+        int rows = 0;
+        boolean restored = false;
+        db.beginTransaction();
         try {
-            int rows = db.update(
-                WeighToGoDBHelper.TABLE_DAILY_WEIGHTS,
-                values,
-                "weight_id = ?",
-                new String[]{String.valueOf(entry.getWeightId())}
-            );
-            Log.i(TAG, "updateWeightEntry: Updated " + rows + " rows");
+            restored = WeightArchiveDAO.restoreEntry(db, entry.getWeightId());
+            if (isArchivedDate(db, SITE_UPDATE_ARCHIVED_DATE, SQL_ARCHIVED_DATE_FOR_UPDATE,
+                    String.valueOf(entry.getWeightId()), entry.getWeightDate().format(ISO_DATE_FORMATTER))) {
+                AppLog.w(TAG, "updateWeightEntry: An archived entry already exists for the date");
+                return 0;
+            }
+            // Null notes are written as NULL, clearing any previous notes
+            rows = SqlStatements.executeUpdateDelete(db, SQL_UPDATE,
+                entry.getWeightValue(),
+                entry.getWeightUnit(),
+                entry.getMassDg(),
+                entry.getWeightDate().format(ISO_DATE_FORMATTER),
+                entry.getNotes(),
+                LocalDateTime.now().format(ISO_DATETIME_FORMATTER),
+                entry.getWeightId());
+            db.setTransactionSuccessful();
+            AppLog.i(TAG, "updateWeightEntry: Updated {} rows", rows);
             return rows;
         } catch (Exception e) {
-            Log.e(TAG, "updateWeightEntry: Exception", e);
+            AppLog.e(TAG, "updateWeightEntry: Exception", e);
+            rows = 0;
             return 0;
+        } finally {
+            db.endTransaction();
+            QueryMetrics.end(SITE_UPDATE, start, rows);
+            notifyWrite(rows, restored);
         }
     }
 
     /**
-     * Soft deletes a weight entry (sets is_deleted = 1).
+     * Soft deletes a weight entry (sets is_deleted = 1). An archived entry moves back to
+     * daily_weights first, so DatabaseMaintenance purges it like any other deleted entry.
      */
     public int deleteWeightEntry(long weightId) {
-        Log.d(TAG, "deleteWeightEntry: weight_id=" + weightId);
+        AppLog.d(TAG, "deleteWeightEntry: weight_id={}", weightId);
 
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        ContentValues values = new ContentValues();
-        values.put("is_deleted", 1);
-        values.put("updated_at", LocalDateTime.now().format(ISO_DATETIME_FORMATTER));
-
+        long start = QueryMetrics.begin();
+        int rows = 0;
+        boolean restored = false;
+        db.beginTransaction();
         try {
-            int rows = db.update(
-                WeighToGoDBHelper.TABLE_DAILY_WEIGHTS,
-                values,
-                "weight_id = ?",
-                new String[]{String.valueOf(weightId)}
-            );
-            Log.i(TAG, "deleteWeightEntry: Soft deleted " + rows + " rows");
+            restored = WeightArchiveDAO.restoreEntry(db, weightId);
+            rows = SqlStatements.executeUpdateDelete(db, SQL_SOFT_DELETE,
+                LocalDateTime.now().format(ISO_DATETIME_FORMATTER), weightId);
+            db.setTransactionSuccessful();
+            AppLog.i(TAG, "deleteWeightEntry: Soft deleted {} rows", rows);
             return rows;
         } catch (Exception e) {
-            Log.e(TAG, "deleteWeightEntry: Exception", e);
+            AppLog.e(TAG, "deleteWeightEntry: Exception", e);
+            rows = 0;
             return 0;
+        } finally {
+            db.endTransaction();
+            QueryMetrics.end(SITE_DELETE, start, rows);
+            notifyWrite(rows, restored);
+        }
+    }
+
+    /**
+     * Reports an update or delete; a restored entry also changed the archive and its rollup.
+     */
+    private void notifyWrite(int rows, boolean restored) {
+        if (rows > 0) {
+            dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS);
+            if (restored) {
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE);
+                dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_WEIGHT_MONTHLY_ROLLUP);
+            }
+        }
+    }
+
+    /**
+     * Builds the island starts in {@code table} for SQL_STREAKS: each entry with no entry (in
+     * either table) the day before, with the length of its island.
+     */
+    @NonNull
+    private static String islandStarts(@NonNull String table, boolean hot) {
+        return "SELECT s.weight_date AS start_date, " +
+            "CAST(julianday(MIN(" +
+                "IFNULL(" + firstDayWithoutNext(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS, true) + ", '9999-12-31'), " +
+                "IFNULL(" + firstDayWithoutNext(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE, false) + ", '9999-12-31')" +
+            ")) - julianday(s.weight_date) AS INTEGER) + 1 AS len " +
+            "FROM " + table + " s WHERE s.user_id = ?1" + (hot ? " AND s.is_deleted = 0" : "") +
+            " AND " + noEntryOn("date(s.weight_date, '-1 day')");
+    }
+
+    /**
+     * Builds the search for the first entry in {@code table} on or after s.weight_date with no
+     * entry the day after: the end of s's island, if the island ends in that table.
+     */
+    @NonNull
+    private static String firstDayWithoutNext(@NonNull String table, boolean hot) {
+        return "(SELECT e.weight_date FROM " + table + " e WHERE e.user_id = ?1" +
+            (hot ? " AND e.is_deleted = 0" : "") +
+            " AND e.weight_date >= s.weight_date AND " + noEntryOn("date(e.weight_date, '+1 day')") +
+            " ORDER BY e.weight_date LIMIT 1)";
+    }
+
+    /**
+     * Builds the check that neither table has an entry of user ?1 on {@code day}.
+     */
+    @NonNull
+    private static String noEntryOn(@NonNull String day) {
+        return "NOT EXISTS (SELECT 1 FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS + " n " +
+                "WHERE n.user_id = ?1 AND n.is_deleted = 0 AND n.weight_date = " + day + ")" +
+            " AND NOT EXISTS (SELECT 1 FROM " + WeighToGoDBHelper.TABLE_DAILY_WEIGHTS_ARCHIVE + " n " +
+                "WHERE n.user_id = ?1 AND n.weight_date = " + day + ")";
+    }
+
+    /**
+     * @return true if {@code sql} (SQL_ARCHIVED_DATE or its update form) finds an archived entry
+     */
+    private static boolean isArchivedDate(@NonNull SQLiteDatabase db, @NonNull QueryMetrics.Site site,
+                                          @NonNull String sql, @NonNull String... args) {
+        long start = QueryMetrics.begin();
+        int rows = 0;
+        try (Cursor cursor = db.rawQuery(sql, args)) {
+            rows = cursor.moveToFirst() ? 1 : 0;
+            return rows > 0;
+        } finally {
+            QueryMetrics.end(site, start, rows);
         }
     }
 
     /**
-     * Maps cursor to WeightEntry object.
+     * Maps cursor to WeightEntry object (also used by DashboardDAO).
      */
-    private WeightEntry mapCursorToEntry(@NonNull Cursor cursor) {
+    static WeightEntry mapCursorToEntry(@NonNull Cursor cursor) {
         WeightEntry entry = new WeightEntry();
 
         entry.setWeightId(cursor.getLong(cursor.getColumnIndexOrThrow("weight_id")));
         entry.setUserId(cursor.getLong(cursor.getColumnIndexOrThrow("user_id")));
         entry.setWeightValue(cursor.getDouble(cursor.getColumnIndexOrThrow("weight_value")));
         entry.setWeightUnit(cursor.getString(cursor.getColumnIndexOrThrow("weight_unit")));
+        entry.setMassDg(cursor.getLong(cursor.getColumnIndexOrThrow("mass_dg")));
 
         String dateStr = cursor.getString(cursor.getColumnIndexOrThrow("weight_date"));
         entry.setWeightDate(LocalDate.parse(dateStr, ISO_DATE_FORMATTER));
@@ -360,4 +698,40 @@ public class WeightEntryDAO {
 
         return entry;
     }
+
+    /**
+     * Receives entries from {@link #streamHistory}.
+     */
+    public interface HistoryVisitor {
+        /**
+         * @param date        weight_date
+         * @param massDg      canonical mass in decigrams
+         * @param weightValue weight as logged, in the entry's unit
+         */
+        void visit(@NonNull LocalDate date, long massDg, double weightValue);
+    }
+
+    /**
+     * Current and longest run of consecutive days with a weight entry.
+     */
+    public static final class Streaks {
+        private final int current;
+        private final int longest;
+
+        Streaks(int current, int longest) {
+            this.current = current;
+            this.longest = longest;
+        }
+
+        /**
+         * @return days in the run ending at the latest entry (0 if it ended before the cutoff)
+         */
+        public int getCurrent() {
+            return current;
+        }
+
+        public int getLongest() {
+            return longest;
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package com.example.weightogo.database;
+
+import androidx.annotation.NonNull;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * A user's weight entries in one calendar month, summarized: how many there were, the
+ * lowest, highest and mean mass, and the first and last entry of the month. Masses are in
+ * decigrams (daily_weights.mass_dg), so entries logged in lbs and kg summarize together.
+ *
+ * Stored per month in weight_monthly_rollup for archived entries (see {@link WeightArchiveDAO})
+ * and returned, merged with the entries still in daily_weights, by
+ * {@link WeightEntryDAO#getMonthlyTrend(long)}.
+ *
+ * Built up by the DAOs with {@link #add} and {@link #merge}; read-only for everyone else.
+ */
+public final class WeightMonthlySummary {
+
+    @NonNull private final YearMonth month;
+    private int entryCount;
+    private long minMassDg;
+    private long maxMassDg;
+    private long sumMassDg;
+    private LocalDate firstDate;
+    private long firstMassDg;
+    private LocalDate lastDate;
+    private long lastMassDg;
+
+    /**
+     * @param month the month being summarized (no entries yet)
+     */
+    WeightMonthlySummary(@NonNull YearMonth month) {
+        this.month = month;
+    }
+
+    /**
+     * Adds one entry of this month.
+     */
+    void add(@NonNull LocalDate date, long massDg) {
+        merge(1, massDg, massDg, massDg, date, massDg, date, massDg);
+    }
+
+    /**
+     * Adds a group of entries of this month, e.g. a weight_monthly_rollup row. On equal
+     * dates the entries added later become the month's last entry.
+     */
+    void merge(int count, long minMass, long maxMass, long sumMass,
+               @NonNull LocalDate first, long firstMass, @NonNull LocalDate last, long lastMass) {
+        if (entryCount == 0) {
+            minMassDg = minMass;
+            maxMassDg = maxMass;
+            firstDate = first;
+            firstMassDg = firstMass;
+            lastDate = last;
+            lastMassDg = lastMass;
+        } else {
+            minMassDg = Math.min(minMassDg, minMass);
+            maxMassDg = Math.max(maxMassDg, maxMass);
+            if (first.isBefore(firstDate)) {
+                firstDate = first;
+                firstMassDg = firstMass;
+            }
+            if (!last.isBefore(lastDate)) {
+                lastDate = last;
+                lastMassDg = lastMass;
+            }
+        }
+        entryCount += count;
+        sumMassDg += sumMass;
+    }
+
+    @NonNull
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public long getMinMassDg() {
+        return minMassDg;
+    }
+
+    public long getMaxMassDg() {
+        return maxMassDg;
+    }
+
+    /**
+     * @return sum of the month's masses (kept instead of the mean so months merge exactly)
+     */
+    public long getSumMassDg() {
+        return sumMassDg;
+    }
+
+    /**
+     * @return mean mass of the month's entries, in decigrams
+     */
+    public double getMeanMassDg() {
+        return entryCount == 0 ? 0 : (double) sumMassDg / entryCount;
+    }
+
+    /**
+     * @return date of the month's earliest entry
+     */
+    public LocalDate getFirstDate() {
+        return firstDate;
+    }
+
+    public long getFirstMassDg() {
+        return firstMassDg;
+    }
+
+    /**
+     * @return date of the month's latest entry
+     */
+    public LocalDate getLastDate() {
+        return lastDate;
+    }
+
+    public long getLastMassDg() {
+        return lastMassDg;
+    }
+}
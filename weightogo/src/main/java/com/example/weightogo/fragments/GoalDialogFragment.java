@@ -12,10 +12,10 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.DialogFragment;
 
+import com.example.weightogo.AppContainer;
 import com.example.weightogo.R;
 import com.example.weightogo.database.GoalWeightDAO;
 import com.example.weightogo.database.UserPreferenceDAO;
-import com.example.weightogo.database.WeighToGoDBHelper;
 import com.example.weightogo.models.GoalWeight;
 import com.example.weightogo.utils.DateUtils;
 import com.example.weightogo.utils.GoalUtils;
@@ -186,10 +186,10 @@ public class GoalDialogFragment extends DialogFragment {
             throw new IllegalArgumentException("Invalid arguments: userId and currentWeight must be positive");
         }
 
-        // Initialize DAOs
-        WeighToGoDBHelper dbHelper = WeighToGoDBHelper.getInstance(requireContext());
-        goalWeightDAO = new GoalWeightDAO(dbHelper);
-        userPreferenceDAO = new UserPreferenceDAO(dbHelper);
+        // Shared DAOs from the application container
+        AppContainer container = AppContainer.from(requireContext());
+        goalWeightDAO = container.getGoalWeightDAO();
+        userPreferenceDAO = container.getUserPreferenceDAO();
 
         // Load existing goal if in edit mode
         if (existingGoalId > 0) {
@@ -9,16 +9,10 @@ import java.time.LocalDateTime;
  * Model class representing a milestone achievement.
  * Corresponds to the achievements table in the database.
  *
- * Achievement Types:
- * - GOAL_REACHED: Target weight achieved
- * - FIRST_ENTRY: First weight logged
- * - STREAK_7: 7-day logging streak
- * - STREAK_30: 30-day logging streak
- * - MILESTONE_5: Lost 5 lbs/kg
- * - MILESTONE_10: Lost 10 lbs/kg
- * - MILESTONE_25: Lost 25 lbs/kg
- * - MILESTONE_50: Lost 50 lbs/kg
- * - NEW_LOW: New lowest weight
+ * Only the type and value are stored; the title and description are resolved
+ * when shown via {@link AchievementType#getTitle} and {@link AchievementType#getDescription}.
+ *
+ * Achievement Types: see {@link AchievementType}
  */
 public class Achievement {
 
@@ -31,16 +25,10 @@ public class Achievement {
     /** Foreign key reference to goal_weights table (optional - may be null) */
     @Nullable private Long goalId;
 
-    /** Type of achievement (e.g., GOAL_REACHED, FIRST_ENTRY, STREAK_7) */
-    @NonNull private String achievementType;
-
-    /** Achievement title for display */
-    @NonNull private String title;
+    /** Type of achievement (stored as its code) */
+    @NonNull private AchievementType achievementType;
 
-    /** Detailed description of the achievement */
-    @Nullable private String description;
-
-    /** Associated value (e.g., pounds lost, streak days) */
+    /** Associated value (e.g., goal weight, milestone size, streak days) */
     @Nullable private Double value;
 
     /** Timestamp when achievement was earned */
@@ -81,32 +69,14 @@ public class Achievement {
     }
 
     @NonNull
-    public String getAchievementType() {
+    public AchievementType getAchievementType() {
         return achievementType;
     }
 
-    public void setAchievementType(@NonNull String achievementType) {
+    public void setAchievementType(@NonNull AchievementType achievementType) {
         this.achievementType = achievementType;
     }
 
-    @NonNull
-    public String getTitle() {
-        return title;
-    }
-
-    public void setTitle(@NonNull String title) {
-        this.title = title;
-    }
-
-    @Nullable
-    public String getDescription() {
-        return description;
-    }
-
-    public void setDescription(@Nullable String description) {
-        this.description = description;
-    }
-
     @Nullable
     public Double getValue() {
         return value;
@@ -140,9 +110,7 @@ public class Achievement {
                 "achievementId=" + achievementId +
                 ", userId=" + userId +
                 ", goalId=" + goalId +
-                ", achievementType='" + achievementType + '\'' +
-                ", title='" + title + '\'' +
-                ", description='" + description + '\'' +
+                ", achievementType=" + achievementType +
                 ", value=" + value +
                 ", achievedAt=" + achievedAt +
                 ", isNotified=" + isNotified +
@@ -0,0 +1,133 @@
+package com.example.weightogo.models;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.StringRes;
+
+import com.example.weightogo.R;
+import com.example.weightogo.utils.WeightUtils;
+
+/**
+ * Kinds of achievement, stored in achievements.achievement_code.
+ *
+ * Codes are persisted and must never be changed or reused; add new types with the next
+ * free code. Titles and descriptions are not stored: they are resolved from string
+ * resources when shown, from the achievement's value and the unit to display it in.
+ */
+public enum AchievementType {
+
+    GOAL_REACHED(1, true, true,
+            R.string.achievement_title_goal_reached, R.string.achievement_desc_goal_reached),
+    FIRST_ENTRY(2, true, false,
+            R.string.achievement_title_first_entry, R.string.achievement_desc_first_entry),
+    STREAK_7(3, true, false,
+            R.string.achievement_title_streak_7, R.string.achievement_desc_streak_7),
+    STREAK_30(4, true, false,
+            R.string.achievement_title_streak_30, R.string.achievement_desc_streak_30),
+    MILESTONE_5(5, true, false,
+            R.string.achievement_title_milestone, R.string.achievement_desc_milestone_5),
+    MILESTONE_10(6, true, false,
+            R.string.achievement_title_milestone, R.string.achievement_desc_milestone_10),
+    MILESTONE_25(7, true, false,
+            R.string.achievement_title_milestone, R.string.achievement_desc_milestone_25),
+    MILESTONE_50(8, true, false,
+            R.string.achievement_title_milestone, R.string.achievement_desc_milestone_50),
+    /** Repeatable: awarded every time the user goes below their previous lowest weight */
+    NEW_LOW(9, false, true,
+            R.string.achievement_title_new_low, R.string.achievement_desc_new_low);
+
+    private static final AchievementType[] BY_CODE = new AchievementType[10];
+
+    static {
+        for (AchievementType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+    private final boolean oneTime;
+    private final boolean weightValue;
+    @StringRes private final int titleRes;
+    @StringRes private final int descriptionRes;
+
+    AchievementType(int code, boolean oneTime, boolean weightValue,
+                    @StringRes int titleRes, @StringRes int descriptionRes) {
+        this.code = code;
+        this.oneTime = oneTime;
+        this.weightValue = weightValue;
+        this.titleRes = titleRes;
+        this.descriptionRes = descriptionRes;
+    }
+
+    /**
+     * @return stable code stored in achievements.achievement_code
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return true if a user can earn this only once (enforced by idx_achievements_user_code_once)
+     */
+    public boolean isOneTime() {
+        return oneTime;
+    }
+
+    /**
+     * @return true if earned by progress toward a goal (stored with that goal's goal_id)
+     */
+    public boolean isGoalProgress() {
+        switch (this) {
+            case GOAL_REACHED:
+            case MILESTONE_5:
+            case MILESTONE_10:
+            case MILESTONE_25:
+            case MILESTONE_50:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param code stored achievement_code
+     * @return the type, or null for an unknown code
+     */
+    @Nullable
+    public static AchievementType fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * Resolves the display title, e.g. "10 lbs Milestone!".
+     *
+     * @param context any Context
+     * @param value   the achievement's value (weight, milestone size or streak days); may be null
+     * @param unit    unit to show weights in ("lbs" or "kg")
+     */
+    @NonNull
+    public String getTitle(@NonNull Context context, @Nullable Double value, @NonNull String unit) {
+        return context.getString(titleRes, formatValue(value), unit);
+    }
+
+    /**
+     * Resolves the display description; see {@link #getTitle}.
+     */
+    @NonNull
+    public String getDescription(@NonNull Context context, @Nullable Double value, @NonNull String unit) {
+        return context.getString(descriptionRes, formatValue(value), unit);
+    }
+
+    /**
+     * Weights keep one decimal; milestone sizes and streak days are whole numbers.
+     */
+    @NonNull
+    private String formatValue(@Nullable Double value) {
+        if (value == null) {
+            return "";
+        }
+        return weightValue ? WeightUtils.formatWeight(value) : String.valueOf(value.intValue());
+    }
+}
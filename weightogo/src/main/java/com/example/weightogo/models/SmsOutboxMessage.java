@@ -0,0 +1,150 @@
+package com.example.weightogo.models;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Model class representing a queued achievement SMS.
+ * Corresponds to the sms_outbox table in the database.
+ *
+ * The row only references the achievement; phone number and message text are
+ * resolved when the message is delivered, so preference changes made while a
+ * message is queued are honored.
+ *
+ * Status Lifecycle:
+ * - PENDING: Waiting for next_attempt_at
+ * - SENDING: Handed to SmsManager, waiting for the sent broadcast
+ * - SENT: Carrier accepted the message
+ * - FAILED: Gave up after the maximum number of attempts
+ */
+public class SmsOutboxMessage {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SENDING = "SENDING";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+
+    /** Primary key - unique identifier for queued message */
+    private long outboxId;
+
+    /** Foreign key reference to users table */
+    private long userId;
+
+    /** Foreign key reference to achievements table */
+    private long achievementId;
+
+    /** Delivery status (PENDING, SENDING, SENT, FAILED) */
+    @NonNull private String status;
+
+    /** Number of delivery attempts made so far */
+    private int attempts;
+
+    /** Earliest time the next attempt may run */
+    @NonNull private LocalDateTime nextAttemptAt;
+
+    /** Reason for the last failed attempt */
+    @Nullable private String lastError;
+
+    /** Timestamp when message was queued */
+    @NonNull private LocalDateTime createdAt;
+
+    /** Timestamp when message was last updated */
+    @NonNull private LocalDateTime updatedAt;
+
+    /**
+     * Default constructor.
+     */
+    public SmsOutboxMessage() {
+    }
+
+    public long getOutboxId() {
+        return outboxId;
+    }
+
+    public void setOutboxId(long outboxId) {
+        this.outboxId = outboxId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public long getAchievementId() {
+        return achievementId;
+    }
+
+    public void setAchievementId(long achievementId) {
+        this.achievementId = achievementId;
+    }
+
+    @NonNull
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(@NonNull String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    @NonNull
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(@NonNull LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    @Nullable
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(@Nullable String lastError) {
+        this.lastError = lastError;
+    }
+
+    @NonNull
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(@NonNull LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @NonNull
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(@NonNull LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "SmsOutboxMessage{" +
+                "outboxId=" + outboxId +
+                ", achievementId=" + achievementId +
+                ", status='" + status + '\'' +
+                ", attempts=" + attempts +
+                ", nextAttemptAt=" + nextAttemptAt +
+                '}';
+    }
+}
@@ -21,6 +21,9 @@ public class WeightEntry {
     /** Weight measurement value (numeric) */
     private double weightValue;
 
+    /** Canonical mass in decigrams (mass_dg), independent of weightUnit; set by WeightEntryDAO */
+    private long massDg;
+
     /** Unit of measurement: 'lbs' or 'kg' */
     @NonNull private String weightUnit;
 
@@ -69,6 +72,14 @@ public class WeightEntry {
         this.weightValue = weightValue;
     }
 
+    public long getMassDg() {
+        return massDg;
+    }
+
+    public void setMassDg(long massDg) {
+        this.massDg = massDg;
+    }
+
     @NonNull
     public String getWeightUnit() {
         return weightUnit;
@@ -148,6 +159,7 @@ public class WeightEntry {
                 "weightId=" + weightId +
                 ", userId=" + userId +
                 ", weightValue=" + weightValue +
+                ", massDg=" + massDg +
                 ", weightUnit='" + weightUnit + '\'' +
                 ", weightDate=" + weightDate +
                 ", notes='" + notes + '\'' +
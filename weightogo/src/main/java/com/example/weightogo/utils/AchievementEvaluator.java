@@ -0,0 +1,182 @@
+package com.example.weightogo.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.AchievementType;
+import com.example.weightogo.models.GoalWeight;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Works out which achievements a user's whole weight history has earned, in one pass.
+ *
+ * Feed every non-deleted entry to {@link #accept} in weight_date order (see
+ * WeightEntryDAO.streamHistory), then read {@link #getEarned()}. Each rule keeps a fixed
+ * amount of state (the previous day and run length, the lowest mass so far, the best
+ * progress toward the goal), so memory does not grow with the history and 100k entries
+ * take milliseconds.
+ *
+ * Rules match AchievementManager's checks, applied to every point in the history:
+ * - FIRST_ENTRY: the first entry
+ * - STREAK_7 / STREAK_30: the day a run of consecutive days reaches 7 / 30
+ * - NEW_LOW: every entry lighter than all before it (not the first entry)
+ * - GOAL_REACHED: an entry within 0.5 (goal unit) of the active goal
+ * - MILESTONE_5/10/25: progress from the goal's start weight, in the goal's direction
+ *
+ * Goal rules only look at entries dated on or after the goal was set, and compare
+ * canonical masses, so entries logged in either unit count. Each achievement is dated
+ * at the start of the day of the entry that earned it.
+ */
+public final class AchievementEvaluator {
+
+    /** Types the evaluator decides; MILESTONE_50 is never awarded, so it is left alone */
+    public static final Set<AchievementType> EVALUATED_TYPES =
+            Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(AchievementType.MILESTONE_50)));
+
+    private static final double GOAL_TOLERANCE = 0.5;
+
+    private static final AchievementType[] MILESTONE_TYPES = {
+            AchievementType.MILESTONE_5, AchievementType.MILESTONE_10, AchievementType.MILESTONE_25
+    };
+    private static final double[] MILESTONE_SIZES = {5.0, 10.0, 25.0};
+
+    private final long userId;
+    private final List<Achievement> earned = new ArrayList<>();
+
+    // Active goal, with weights converted to decigrams (goalId null if there is no goal)
+    @Nullable private final Long goalId;
+    @Nullable private final LocalDate goalSince;
+    private final double goalWeight;
+    private final long startMassDg;
+    private final long goalMassDg;
+    private final long toleranceDg;
+    private final long[] milestoneDg = new long[MILESTONE_SIZES.length];
+    private final boolean lossGoal;
+
+    // Rule state
+    private boolean hasEntries;
+    private long previousDay;
+    private int run;
+    private boolean streak7;
+    private boolean streak30;
+    private long minMassDg = Long.MAX_VALUE;
+    private boolean goalReached;
+    private int milestonesReached;
+
+    /**
+     * @param userId     user whose history is evaluated
+     * @param activeGoal the user's active goal, or null if none (goal rules are skipped)
+     */
+    public AchievementEvaluator(long userId, @Nullable GoalWeight activeGoal) {
+        this.userId = userId;
+        if (activeGoal == null) {
+            goalId = null;
+            goalSince = null;
+            goalWeight = 0;
+            startMassDg = 0;
+            goalMassDg = 0;
+            toleranceDg = 0;
+            lossGoal = false;
+            return;
+        }
+
+        String unit = activeGoal.getGoalUnit();
+        goalId = activeGoal.getGoalId();
+        goalSince = activeGoal.getCreatedAt() != null ? activeGoal.getCreatedAt().toLocalDate() : null;
+        goalWeight = activeGoal.getGoalWeight();
+        startMassDg = WeightUtils.toDecigrams(activeGoal.getStartWeight(), unit);
+        goalMassDg = WeightUtils.toDecigrams(goalWeight, unit);
+        toleranceDg = WeightUtils.toDecigrams(GOAL_TOLERANCE, unit);
+        for (int i = 0; i < MILESTONE_SIZES.length; i++) {
+            milestoneDg[i] = WeightUtils.toDecigrams(MILESTONE_SIZES[i], unit);
+        }
+        lossGoal = goalMassDg < startMassDg;
+    }
+
+    /**
+     * Feeds the next entry. Entries must arrive in ascending date order, one per day.
+     *
+     * @param date        the entry's weight_date
+     * @param massDg      the entry's canonical mass (mass_dg)
+     * @param weightValue the entry's weight as logged, stored as NEW_LOW's value
+     */
+    public void accept(@NonNull LocalDate date, long massDg, double weightValue) {
+        long day = date.toEpochDay();
+
+        checkFirstEntry(date);
+        checkStreaks(date, day);
+        checkNewLow(date, massDg, weightValue);
+        if (goalId != null && (goalSince == null || !date.isBefore(goalSince))) {
+            checkGoalReached(date, massDg);
+            checkMilestones(date, massDg);
+        }
+
+        hasEntries = true;
+        previousDay = day;
+    }
+
+    /**
+     * @return every achievement the history earns, in the order they were earned
+     */
+    @NonNull
+    public List<Achievement> getEarned() {
+        return earned;
+    }
+
+    private void checkFirstEntry(LocalDate date) {
+        if (!hasEntries) {
+            earn(date, AchievementType.FIRST_ENTRY, null, null);
+        }
+    }
+
+    private void checkStreaks(LocalDate date, long day) {
+        run = hasEntries && day == previousDay + 1 ? run + 1 : 1;
+        if (!streak7 && run == 7) {
+            streak7 = true;
+            earn(date, AchievementType.STREAK_7, null, 7.0);
+        } else if (!streak30 && run == 30) {
+            streak30 = true;
+            earn(date, AchievementType.STREAK_30, null, 30.0);
+        }
+    }
+
+    private void checkNewLow(LocalDate date, long massDg, double weightValue) {
+        if (hasEntries && massDg < minMassDg) {
+            earn(date, AchievementType.NEW_LOW, null, weightValue);
+        }
+        minMassDg = Math.min(minMassDg, massDg);
+    }
+
+    private void checkGoalReached(LocalDate date, long massDg) {
+        if (!goalReached && Math.abs(massDg - goalMassDg) <= toleranceDg) {
+            goalReached = true;
+            earn(date, AchievementType.GOAL_REACHED, goalId, goalWeight);
+        }
+    }
+
+    private void checkMilestones(LocalDate date, long massDg) {
+        long progressDg = lossGoal ? startMassDg - massDg : massDg - startMassDg;
+        while (milestonesReached < MILESTONE_TYPES.length && progressDg >= milestoneDg[milestonesReached]) {
+            earn(date, MILESTONE_TYPES[milestonesReached], goalId, MILESTONE_SIZES[milestonesReached]);
+            milestonesReached++;
+        }
+    }
+
+    private void earn(LocalDate date, AchievementType type, @Nullable Long goalId, @Nullable Double value) {
+        Achievement achievement = new Achievement();
+        achievement.setUserId(userId);
+        achievement.setGoalId(goalId);
+        achievement.setAchievementType(type);
+        achievement.setValue(value);
+        achievement.setAchievedAt(date.atStartOfDay());
+        achievement.setNotified(false);
+        earned.add(achievement);
+    }
+}
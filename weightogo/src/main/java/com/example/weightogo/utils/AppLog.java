@@ -0,0 +1,292 @@
+package com.example.weightogo.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.example.weightogo.BuildConfig;
+
+/**
+ * Logging facade with level checks and deferred formatting.
+ *
+ * <p><strong>Why:</strong> {@code Log.d(TAG, "getPreference: user_id=" + userId)} builds its
+ * message (StringBuilder, char[] and String) before {@code Log.d} is even called, so every DAO
+ * call paid for its log lines in release builds too. Here the message is a template with
+ * {@code {}} placeholders that is only formatted after the level check passes:</p>
+ * <pre>
+ * AppLog.d(TAG, "getPreference: user_id={}, key={}", userId, key);
+ * </pre>
+ *
+ * <p><strong>No varargs:</strong> Overloads take a fixed number of arguments, with primitive
+ * {@code long}/{@code double} variants, so a disabled call does not allocate an Object[] or box
+ * its arguments.</p>
+ *
+ * <p><strong>Levels:</strong> Debug builds log everything. Release builds drop DEBUG and VERBOSE,
+ * and R8 (minifyEnabled in the release build type) removes the d/v call sites and their
+ * arguments using the rules in proguard-rules.pro.</p>
+ *
+ * <p><strong>Privacy:</strong> Never pass usernames, phone numbers or other PII, even to
+ * {@link #d}. Log IDs instead, and mask phone numbers with
+ * {@link ValidationUtils#maskPhoneNumber(String)}.</p>
+ */
+public final class AppLog {
+
+    private static final String PLACEHOLDER = "{}";
+
+    /** Lowest enabled level (android.util.Log constants) */
+    private static volatile int minLevel = BuildConfig.DEBUG ? Log.VERBOSE : Log.INFO;
+
+    private AppLog() {
+        // Static utility
+    }
+
+    // ================================================================================
+    // Level checks
+    // ================================================================================
+
+    /**
+     * @return true if debug output is enabled; guard expensive log-only work with this
+     */
+    public static boolean isDebugEnabled() {
+        return minLevel <= Log.DEBUG;
+    }
+
+    /**
+     * @param level android.util.Log level constant
+     * @return true if messages at this level are emitted
+     */
+    public static boolean isLoggable(int level) {
+        return level >= minLevel;
+    }
+
+    /**
+     * Overrides the minimum level (tests and diagnostics only).
+     *
+     * @param level android.util.Log level constant
+     */
+    @VisibleForTesting
+    public static void setMinLevel(int level) {
+        minLevel = level;
+    }
+
+    // ================================================================================
+    // DEBUG
+    // ================================================================================
+
+    public static void d(@NonNull String tag, @NonNull String msg) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, msg);
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String fmt, long a1) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, format(fmt, String.valueOf(a1)));
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String fmt, double a1) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, format(fmt, String.valueOf(a1)));
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String fmt, @Nullable Object a1) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, format(fmt, String.valueOf(a1)));
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String fmt, long a1, long a2) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String fmt, long a1, double a2) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String fmt, double a1, double a2) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String fmt, long a1, @Nullable Object a2) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String fmt, long a1, boolean a2) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String fmt, @Nullable Object a1, long a2) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String fmt, @Nullable Object a1, @Nullable Object a2) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void d(@NonNull String tag, @NonNull String fmt,
+                         @Nullable Object a1, @Nullable Object a2, @Nullable Object a3) {
+        if (minLevel <= Log.DEBUG) {
+            Log.d(tag, format(fmt, String.valueOf(a1), String.valueOf(a2), String.valueOf(a3)));
+        }
+    }
+
+    // ================================================================================
+    // INFO
+    // ================================================================================
+
+    public static void i(@NonNull String tag, @NonNull String msg) {
+        if (minLevel <= Log.INFO) {
+            Log.i(tag, msg);
+        }
+    }
+
+    public static void i(@NonNull String tag, @NonNull String fmt, long a1) {
+        if (minLevel <= Log.INFO) {
+            Log.i(tag, format(fmt, String.valueOf(a1)));
+        }
+    }
+
+    public static void i(@NonNull String tag, @NonNull String fmt, double a1) {
+        if (minLevel <= Log.INFO) {
+            Log.i(tag, format(fmt, String.valueOf(a1)));
+        }
+    }
+
+    public static void i(@NonNull String tag, @NonNull String fmt, @Nullable Object a1) {
+        if (minLevel <= Log.INFO) {
+            Log.i(tag, format(fmt, String.valueOf(a1)));
+        }
+    }
+
+    public static void i(@NonNull String tag, @NonNull String fmt, long a1, long a2) {
+        if (minLevel <= Log.INFO) {
+            Log.i(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void i(@NonNull String tag, @NonNull String fmt, long a1, @Nullable Object a2) {
+        if (minLevel <= Log.INFO) {
+            Log.i(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void i(@NonNull String tag, @NonNull String fmt, @Nullable Object a1, long a2) {
+        if (minLevel <= Log.INFO) {
+            Log.i(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void i(@NonNull String tag, @NonNull String fmt, @Nullable Object a1, @Nullable Object a2) {
+        if (minLevel <= Log.INFO) {
+            Log.i(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void i(@NonNull String tag, @NonNull String fmt,
+                         @Nullable Object a1, @Nullable Object a2, @Nullable Object a3) {
+        if (minLevel <= Log.INFO) {
+            Log.i(tag, format(fmt, String.valueOf(a1), String.valueOf(a2), String.valueOf(a3)));
+        }
+    }
+
+    // ================================================================================
+    // WARN
+    // ================================================================================
+
+    public static void w(@NonNull String tag, @NonNull String msg) {
+        if (minLevel <= Log.WARN) {
+            Log.w(tag, msg);
+        }
+    }
+
+    public static void w(@NonNull String tag, @NonNull String msg, @NonNull Throwable tr) {
+        if (minLevel <= Log.WARN) {
+            Log.w(tag, msg, tr);
+        }
+    }
+
+    public static void w(@NonNull String tag, @NonNull String fmt, long a1) {
+        if (minLevel <= Log.WARN) {
+            Log.w(tag, format(fmt, String.valueOf(a1)));
+        }
+    }
+
+    public static void w(@NonNull String tag, @NonNull String fmt, double a1) {
+        if (minLevel <= Log.WARN) {
+            Log.w(tag, format(fmt, String.valueOf(a1)));
+        }
+    }
+
+    public static void w(@NonNull String tag, @NonNull String fmt, @Nullable Object a1) {
+        if (minLevel <= Log.WARN) {
+            Log.w(tag, format(fmt, String.valueOf(a1)));
+        }
+    }
+
+    public static void w(@NonNull String tag, @NonNull String fmt, @Nullable Object a1, @Nullable Object a2) {
+        if (minLevel <= Log.WARN) {
+            Log.w(tag, format(fmt, String.valueOf(a1), String.valueOf(a2)));
+        }
+    }
+
+    public static void w(@NonNull String tag, @NonNull String fmt,
+                         @Nullable Object a1, @Nullable Object a2, @Nullable Object a3) {
+        if (minLevel <= Log.WARN) {
+            Log.w(tag, format(fmt, String.valueOf(a1), String.valueOf(a2), String.valueOf(a3)));
+        }
+    }
+
+    // ================================================================================
+    // ERROR (always emitted; error paths are cold so no primitive overloads)
+    // ================================================================================
+
+    public static void e(@NonNull String tag, @NonNull String msg) {
+        Log.e(tag, msg);
+    }
+
+    public static void e(@NonNull String tag, @NonNull String msg, @Nullable Throwable tr) {
+        Log.e(tag, msg, tr);
+    }
+
+    // ================================================================================
+    // Formatting
+    // ================================================================================
+
+    /**
+     * Replaces each {@code {}} in the template with the next argument, in order.
+     * Extra placeholders are left as-is; extra arguments are ignored.
+     */
+    @NonNull
+    static String format(@NonNull String fmt, @NonNull String... args) {
+        StringBuilder builder = new StringBuilder(fmt.length() + 16 * args.length);
+        int from = 0;
+        for (String arg : args) {
+            int at = fmt.indexOf(PLACEHOLDER, from);
+            if (at < 0) {
+                break;
+            }
+            builder.append(fmt, from, at).append(arg);
+            from = at + PLACEHOLDER.length();
+        }
+        builder.append(fmt, from, fmt.length());
+        return builder.toString();
+    }
+}
@@ -3,24 +3,61 @@ package com.example.weightogo.utils;
 import android.os.Handler;
 import android.os.Looper;
 
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
 
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.Locale;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility class for executing background tasks with result callbacks on the UI thread.
- * Uses ExecutorService for background work and Handler for UI thread callbacks.
+ * Uses a prioritized thread pool for background work and Handler for UI thread callbacks.
  *
  * <p><strong>Use Case:</strong> CPU-intensive operations like password hashing that should
  * not block the UI thread.</p>
  *
+ * <p><strong>Priorities:</strong> Queued work runs in {@link Priority} order (FIFO within a
+ * priority), so a screen load submitted with {@link Priority#UI} starts before queued rehash or
+ * export jobs submitted with {@link Priority#BACKGROUND}. Running tasks are never preempted.</p>
+ *
+ * <p><strong>Cancellation:</strong> Each {@code execute} call returns the task, which acts as a
+ * handle. {@link #cancel()} removes a queued task from the pool and drops the callback reference,
+ * so a cancelled task no longer keeps its Activity reachable. When called on the main thread,
+ * cancel() guarantees the callback will not run afterwards.</p>
+ *
+ * <p><strong>Lifecycle:</strong> The {@link LifecycleOwner} overload cancels the task
+ * automatically when the owner is destroyed. Use it for any callback that touches views.</p>
+ *
  * <p><strong>Thread Safety:</strong> Results are always delivered on the main/UI thread
  * via Handler, making it safe to update UI components in callbacks.</p>
  *
  * @param <R> The type of result returned by the background task
  */
-public class BackgroundTask<R> {
+public final class BackgroundTask<R> implements Runnable, Comparable<BackgroundTask<?>> {
+
+    private static final String TAG = "BackgroundTask";
+
+    /**
+     * Queue lanes, highest priority first.
+     */
+    public enum Priority {
+        /** Work the user is waiting on (screen loads, sign-up hashing) */
+        UI,
+        /** Default for callers that do not specify a priority */
+        DEFAULT,
+        /** Deferrable work (password rehash, exports, cleanup) */
+        BACKGROUND
+    }
 
     /**
      * Callback interface for background task results.
@@ -60,29 +97,295 @@ public class BackgroundTask<R> {
         R execute() throws Exception;
     }
 
-    private static final Executor EXECUTOR = Executors.newFixedThreadPool(4);
+    @VisibleForTesting
+    static final int POOL_SIZE = 4;
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final AtomicInteger PEAK_QUEUE_DEPTH = new AtomicInteger();
+    private static final AtomicLong CANCELLED_COUNT = new AtomicLong();
+
+    /** Enqueue-to-start wait per priority, in microseconds */
+    private static final LatencyHistogram[] WAIT_TIMES = new LatencyHistogram[Priority.values().length];
+
+    static {
+        for (int i = 0; i < WAIT_TIMES.length; i++) {
+            WAIT_TIMES[i] = new LatencyHistogram();
+        }
+    }
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+        POOL_SIZE, POOL_SIZE,
+        30, TimeUnit.SECONDS,
+        new PriorityBlockingQueue<>(),
+        new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                return new Thread(runnable, TAG + "-" + count.incrementAndGet());
+            }
+        }
+    );
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
     private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
 
+    // Task state
+    private final Work<R> work;
+    private final Priority priority;
+    private final long sequence;
+    private final long enqueuedAtNanos;
+    @Nullable
+    private volatile Callback<R> callback;
+    private volatile boolean cancelled;
+    @Nullable
+    private LifecycleOwner owner;           // main thread only
+    @Nullable
+    private DefaultLifecycleObserver observer;  // main thread only
+
+    private BackgroundTask(@NonNull Work<R> work, @NonNull Callback<R> callback, @NonNull Priority priority) {
+        this.work = work;
+        this.callback = callback;
+        this.priority = priority;
+        this.sequence = SEQUENCE.getAndIncrement();
+        this.enqueuedAtNanos = System.nanoTime();
+    }
+
+    // ================================================================================
+    // Submission
+    // ================================================================================
+
     /**
      * Execute work on background thread and deliver result on UI thread.
      *
      * @param work The work to execute in background
      * @param callback Callback for result (called on UI thread)
      * @param <R> The type of result
+     * @return handle for cancelling the task
      */
-    public static <R> void execute(@NonNull Work<R> work, @NonNull Callback<R> callback) {
-        EXECUTOR.execute(() -> {
-            try {
-                // Execute work on background thread
-                R result = work.execute();
+    @NonNull
+    public static <R> BackgroundTask<R> execute(@NonNull Work<R> work, @NonNull Callback<R> callback) {
+        return execute(Priority.DEFAULT, work, callback);
+    }
 
-                // Deliver result on UI thread
-                MAIN_HANDLER.post(() -> callback.onResult(result));
+    /**
+     * Execute work in the given priority lane and deliver result on UI thread.
+     *
+     * @param priority Queue lane for the work
+     * @param work The work to execute in background
+     * @param callback Callback for result (called on UI thread)
+     * @param <R> The type of result
+     * @return handle for cancelling the task
+     */
+    @NonNull
+    public static <R> BackgroundTask<R> execute(@NonNull Priority priority, @NonNull Work<R> work,
+                                                @NonNull Callback<R> callback) {
+        BackgroundTask<R> task = new BackgroundTask<>(work, callback, priority);
+        enqueue(task);
+        return task;
+    }
 
-            } catch (Exception e) {
-                // Deliver error on UI thread
-                MAIN_HANDLER.post(() -> callback.onError(e));
+    /**
+     * Execute work bound to a lifecycle: the task is cancelled (and its callback released)
+     * when the owner is destroyed. If the owner is already destroyed, nothing runs.
+     *
+     * @param owner Activity or other lifecycle owner whose views the callback touches
+     * @param priority Queue lane for the work
+     * @param work The work to execute in background
+     * @param callback Callback for result (called on UI thread while owner is alive)
+     * @param <R> The type of result
+     * @return handle for cancelling the task
+     */
+    @MainThread
+    @NonNull
+    public static <R> BackgroundTask<R> execute(@NonNull LifecycleOwner owner, @NonNull Priority priority,
+                                                @NonNull Work<R> work, @NonNull Callback<R> callback) {
+        BackgroundTask<R> task = new BackgroundTask<>(work, callback, priority);
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            AppLog.d(TAG, "execute: owner already destroyed, skipping task #{}", task.sequence);
+            task.cancel();
+            return task;
+        }
+
+        task.owner = owner;
+        task.observer = new DefaultLifecycleObserver() {
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner source) {
+                task.cancel();
             }
-        });
+        };
+        lifecycle.addObserver(task.observer);
+        enqueue(task);
+        return task;
+    }
+
+    private static void enqueue(@NonNull BackgroundTask<?> task) {
+        EXECUTOR.execute(task);
+        int depth = EXECUTOR.getQueue().size();
+        PEAK_QUEUE_DEPTH.accumulateAndGet(depth, Math::max);
+    }
+
+    // ================================================================================
+    // Handle
+    // ================================================================================
+
+    /**
+     * Cancel the task. A queued task is removed without running; a running task finishes
+     * but its result is discarded. Safe to call more than once and from any thread.
+     */
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        callback = null;
+        if (EXECUTOR.remove(this)) {
+            AppLog.d(TAG, "cancel: removed queued task #{}", sequence);
+        }
+        CANCELLED_COUNT.incrementAndGet();
+
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            unbind();
+        } else {
+            MAIN_HANDLER.post(this::unbind);
+        }
+    }
+
+    /**
+     * @return true if {@link #cancel()} was called (directly or by lifecycle destroy)
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return the lane this task was submitted to
+     */
+    @NonNull
+    public Priority getPriority() {
+        return priority;
+    }
+
+    // ================================================================================
+    // Execution
+    // ================================================================================
+
+    @Override
+    public void run() {
+        if (cancelled) {
+            return;
+        }
+        long waitMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - enqueuedAtNanos);
+        WAIT_TIMES[priority.ordinal()].record(waitMicros);
+
+        try {
+            // Execute work on background thread
+            R result = work.execute();
+
+            // Deliver result on UI thread
+            MAIN_HANDLER.post(() -> deliverResult(result));
+
+        } catch (Exception e) {
+            // Deliver error on UI thread
+            MAIN_HANDLER.post(() -> deliverError(e));
+        }
+    }
+
+    private void deliverResult(R result) {
+        Callback<R> target = callback;
+        unbind();
+        if (target != null && !cancelled) {
+            target.onResult(result);
+        }
+    }
+
+    private void deliverError(Exception error) {
+        Callback<R> target = callback;
+        unbind();
+        if (target != null && !cancelled) {
+            target.onError(error);
+        }
+    }
+
+    /**
+     * Remove the lifecycle observer so the owner no longer references this task (main thread).
+     */
+    private void unbind() {
+        if (owner != null && observer != null) {
+            owner.getLifecycle().removeObserver(observer);
+        }
+        owner = null;
+        observer = null;
+    }
+
+    /**
+     * Orders the executor queue: higher priority first, then submission order.
+     */
+    @Override
+    public int compareTo(@NonNull BackgroundTask<?> other) {
+        int byPriority = Integer.compare(priority.ordinal(), other.priority.ordinal());
+        return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+    }
+
+    // ================================================================================
+    // Metrics
+    // ================================================================================
+
+    /**
+     * @return number of tasks waiting for a worker thread
+     */
+    public static int getQueueDepth() {
+        return EXECUTOR.getQueue().size();
+    }
+
+    /**
+     * @return largest queue depth observed at submission time
+     */
+    public static int getPeakQueueDepth() {
+        return PEAK_QUEUE_DEPTH.get();
+    }
+
+    /**
+     * @param priority Queue lane
+     * @return enqueue-to-start wait times for the lane, in microseconds
+     */
+    @NonNull
+    public static LatencyHistogram.Snapshot getWaitTimeSnapshot(@NonNull Priority priority) {
+        return WAIT_TIMES[priority.ordinal()].snapshot();
+    }
+
+    /**
+     * Build a short text report of executor state for the diagnostics screen.
+     *
+     * @return multi-line report
+     */
+    @NonNull
+    public static String buildReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.US,
+            "Background tasks: active=%d queued=%d peak_queued=%d completed=%d cancelled=%d%n",
+            EXECUTOR.getActiveCount(), getQueueDepth(), getPeakQueueDepth(),
+            EXECUTOR.getCompletedTaskCount(), CANCELLED_COUNT.get()));
+        for (Priority lane : Priority.values()) {
+            report.append("  wait[").append(lane.name()).append("] (us): ")
+                .append(getWaitTimeSnapshot(lane)).append('\n');
+        }
+        return report.toString();
+    }
+
+    /**
+     * Clear metrics (tests only). Does not touch queued or running tasks.
+     */
+    @VisibleForTesting
+    static void resetMetricsForTesting() {
+        PEAK_QUEUE_DEPTH.set(0);
+        CANCELLED_COUNT.set(0);
+        for (LatencyHistogram histogram : WAIT_TIMES) {
+            histogram.reset();
+        }
     }
 }
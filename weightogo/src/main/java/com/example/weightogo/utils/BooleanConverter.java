@@ -1,7 +1,5 @@
 package com.example.weightogo.utils;
 
-import android.util.Log;
-
 /**
  * Utility class for converting between Java boolean and SQLite INTEGER (0/1).
  *
@@ -55,7 +53,7 @@ public final class BooleanConverter {
      */
     public static boolean fromInteger(int value) {
         if (value < 0 || value > 1) {
-            Log.w(TAG, "fromInteger: unexpected value '" + value + "' (expected 0 or 1), treating as boolean");
+            AppLog.w(TAG, "fromInteger: unexpected value '{}' (expected 0 or 1), treating as boolean", value);
         }
         return value != 0;
     }
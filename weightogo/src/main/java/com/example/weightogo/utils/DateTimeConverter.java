@@ -1,7 +1,5 @@
 package com.example.weightogo.utils;
 
-import android.util.Log;
-
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -62,14 +60,14 @@ public final class DateTimeConverter {
      */
     public static String toTimestamp(LocalDateTime dateTime) {
         if (dateTime == null) {
-            Log.w(TAG, "toTimestamp: called with null LocalDateTime");
+            AppLog.w(TAG, "toTimestamp: called with null LocalDateTime");
             return null;
         }
 
         try {
             return dateTime.format(TIMESTAMP_FORMATTER);
         } catch (DateTimeException e) {
-            Log.e(TAG, "toTimestamp: error formatting LocalDateTime '" + dateTime + "': " + e.getMessage(), e);
+            AppLog.e(TAG, "toTimestamp: error formatting LocalDateTime '" + dateTime + "': " + e.getMessage(), e);
             return null;
         }
     }
@@ -82,14 +80,14 @@ public final class DateTimeConverter {
      */
     public static LocalDateTime fromTimestamp(String timestamp) {
         if (ValidationUtils.isNullOrEmpty(timestamp)) {
-            Log.w(TAG, "fromTimestamp: called with null or empty string");
+            AppLog.w(TAG, "fromTimestamp: called with null or empty string");
             return null;
         }
 
         try {
             return LocalDateTime.parse(timestamp, TIMESTAMP_FORMATTER);
         } catch (DateTimeParseException e) {
-            Log.e(TAG, "fromTimestamp: error parsing timestamp string '" + timestamp + "': " + e.getMessage(), e);
+            AppLog.e(TAG, "fromTimestamp: error parsing timestamp string '" + timestamp + "': " + e.getMessage(), e);
             return null;
         }
     }
@@ -102,14 +100,14 @@ public final class DateTimeConverter {
      */
     public static String toDateString(LocalDate date) {
         if (date == null) {
-            Log.w(TAG, "toDateString: called with null LocalDate");
+            AppLog.w(TAG, "toDateString: called with null LocalDate");
             return null;
         }
 
         try {
             return date.format(DATE_FORMATTER);
         } catch (DateTimeException e) {
-            Log.e(TAG, "toDateString: error formatting LocalDate '" + date + "': " + e.getMessage(), e);
+            AppLog.e(TAG, "toDateString: error formatting LocalDate '" + date + "': " + e.getMessage(), e);
             return null;
         }
     }
@@ -122,14 +120,14 @@ public final class DateTimeConverter {
      */
     public static LocalDate fromDateString(String dateString) {
         if (ValidationUtils.isNullOrEmpty(dateString)) {
-            Log.w(TAG, "fromDateString: called with null or empty string");
+            AppLog.w(TAG, "fromDateString: called with null or empty string");
             return null;
         }
 
         try {
             return LocalDate.parse(dateString, DATE_FORMATTER);
         } catch (DateTimeParseException e) {
-            Log.e(TAG, "fromDateString: error parsing date string '" + dateString + "': " + e.getMessage(), e);
+            AppLog.e(TAG, "fromDateString: error parsing date string '" + dateString + "': " + e.getMessage(), e);
             return null;
         }
     }
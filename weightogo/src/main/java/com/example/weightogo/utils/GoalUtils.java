@@ -1,7 +1,5 @@
 package com.example.weightogo.utils;
 
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
@@ -77,26 +75,26 @@ public final class GoalUtils {
     public static boolean isValidGoal(double currentWeight, double goalWeight, @NonNull String unit) {
         // Runtime null check for unit parameter
         if (unit == null) {
-            Log.e(TAG, "isValidGoal: unit parameter cannot be null");
+            AppLog.e(TAG, "isValidGoal: unit parameter cannot be null");
             return false;
         }
 
-        Log.d(TAG, "isValidGoal: current=" + currentWeight + ", goal=" + goalWeight + ", unit=" + unit);
+        AppLog.d(TAG, "isValidGoal: current={}, goal={}, unit={}", currentWeight, goalWeight, unit);
 
         // Rule 1: Goal must differ from current weight
         double difference = Math.abs(goalWeight - currentWeight);
         if (difference < MIN_WEIGHT_DIFFERENCE) {
-            Log.w(TAG, "isValidGoal: goal weight is too close to current weight (difference: " + difference + ")");
+            AppLog.w(TAG, "isValidGoal: goal weight is too close to current weight (difference: {})", difference);
             return false;
         }
 
         // Rule 2: Goal must be within valid range for the unit
         if (!WeightUtils.isValidWeight(goalWeight, unit)) {
-            Log.w(TAG, "isValidGoal: goal weight is outside valid range for " + unit);
+            AppLog.w(TAG, "isValidGoal: goal weight is outside valid range for {}", unit);
             return false;
         }
 
-        Log.d(TAG, "isValidGoal: goal is valid");
+        AppLog.d(TAG, "isValidGoal: goal is valid");
         return true;
     }
 
@@ -116,7 +114,7 @@ public final class GoalUtils {
     public static boolean isValidTargetDate(@Nullable LocalDate targetDate) {
         // Null check
         if (targetDate == null) {
-            Log.w(TAG, "isValidTargetDate: target date is null");
+            AppLog.w(TAG, "isValidTargetDate: target date is null");
             return false;
         }
 
@@ -126,9 +124,9 @@ public final class GoalUtils {
         boolean isValid = targetDate.isAfter(today);
 
         if (!isValid) {
-            Log.w(TAG, "isValidTargetDate: target date must be in the future (provided: " + targetDate + ", today: " + today + ")");
+            AppLog.w(TAG, "isValidTargetDate: target date must be in the future (provided: {}, today: {})", targetDate, today);
         } else {
-            Log.d(TAG, "isValidTargetDate: target date is valid (" + targetDate + ")");
+            AppLog.d(TAG, "isValidTargetDate: target date is valid ({})", targetDate);
         }
 
         return isValid;
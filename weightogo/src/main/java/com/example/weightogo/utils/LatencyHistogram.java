@@ -0,0 +1,176 @@
+package com.example.weightogo.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ *
+ * <p>Each power-of-two range is split into {@value #SUB_BUCKET_COUNT} linear sub-buckets,
+ * so every recorded value lands in a bucket whose width is at most 1/8 of its lower bound
+ * (worst-case relative error 12.5%). Values below {@value #SUB_BUCKET_COUNT} are exact.</p>
+ *
+ * <p><strong>Thread Safety:</strong> {@link #record(long)} only performs atomic increments and a
+ * CAS loop for the maximum, so it can be called from any thread without locking. Snapshots are
+ * not atomic across buckets, which is acceptable for diagnostics.</p>
+ *
+ * <p>Units are chosen by the caller (QueryMetrics and BackgroundTask record microseconds).</p>
+ */
+public final class LatencyHistogram {
+
+    /** log2 of the number of linear sub-buckets per power of two */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /** Linear sub-buckets per power of two (8 → 12.5% worst-case error) */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /** Largest shift tracked; values ≥ 2^(MAX_SHIFT + 4) are clamped into the top bucket */
+    private static final int MAX_SHIFT = 36;
+
+    /** Total bucket count: one exact range plus (MAX_SHIFT + 1) log-linear ranges */
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_SHIFT + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a single value. Negative values are clamped to zero.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Takes a point-in-time snapshot of the histogram.
+     *
+     * @return immutable snapshot with count, mean and common percentiles
+     */
+    @NonNull
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = buckets.get(i);
+            total += copy[i];
+        }
+
+        long maxValue = max.get();
+        return new Snapshot(
+                total,
+                total == 0 ? 0 : sum.get() / total,
+                percentile(copy, total, 0.50, maxValue),
+                percentile(copy, total, 0.90, maxValue),
+                percentile(copy, total, 0.99, maxValue),
+                maxValue
+        );
+    }
+
+    /**
+     * Maps a value to its bucket index.
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        if (shift > MAX_SHIFT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the highest value that maps to the given bucket.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long maxValue) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // Never report more than the exact observed maximum
+                return Math.min(bucketUpperBound(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Immutable view of a histogram at a point in time.
+     */
+    public static final class Snapshot {
+        public final long count;
+        public final long mean;
+        public final long p50;
+        public final long p90;
+        public final long p99;
+        public final long max;
+
+        Snapshot(long count, long mean, long p50, long p90, long p99, long max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "n=%d mean=%d p50=%d p90=%d p99=%d max=%d",
+                    count, mean, p50, p90, p99, max);
+        }
+    }
+}
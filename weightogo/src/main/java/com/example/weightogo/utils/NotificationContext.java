@@ -0,0 +1,109 @@
+package com.example.weightogo.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * Everything SMSNotificationManager needs to decide whether and where to send an SMS
+ * for one user: phone number, SMS preferences and permission state.
+ *
+ * Loaded once with {@link SMSNotificationManager#loadNotificationContext(long)} (one user
+ * read and one preference read) and then reused for every message in a batch, instead of
+ * querying the user and each preference again per achievement.
+ *
+ * Immutable; reflects the database at load time.
+ */
+public final class NotificationContext {
+
+    // Defaults used when a preference has never been set
+    private static final String DEFAULT_SMS_ENABLED = "false";
+    private static final String DEFAULT_GOAL_ALERTS = "true";
+    private static final String DEFAULT_MILESTONE_ALERTS = "true";
+    private static final String DEFAULT_REMINDER_ENABLED = "false";
+
+    /** Preference key read for the unit in achievement SMS (kept from the original lookup) */
+    static final String KEY_WEIGHT_UNIT = "weight_unit_preference";
+    private static final String DEFAULT_WEIGHT_UNIT = "lbs";
+
+    private final long userId;
+    @Nullable private final String phoneNumber;
+    private final boolean smsEnabled;
+    private final boolean goalAlertsEnabled;
+    private final boolean milestoneAlertsEnabled;
+    private final boolean reminderEnabled;
+    @NonNull private final String weightUnit;
+    private final boolean smsPermissionGranted;
+    private final boolean postNotificationsPermissionGranted;
+
+    /**
+     * @param userId                             user the context belongs to
+     * @param phoneNumber                        user's phone number, or null if none (or user not found)
+     * @param preferences                        user's preferences (pref_key to pref_value)
+     * @param smsPermissionGranted               SEND_SMS granted
+     * @param postNotificationsPermissionGranted POST_NOTIFICATIONS granted or not required
+     */
+    NotificationContext(long userId,
+                        @Nullable String phoneNumber,
+                        @NonNull Map<String, String> preferences,
+                        boolean smsPermissionGranted,
+                        boolean postNotificationsPermissionGranted) {
+        this.userId = userId;
+        this.phoneNumber = phoneNumber;
+        this.smsEnabled = isTrue(preferences, SMSNotificationManager.KEY_SMS_ENABLED, DEFAULT_SMS_ENABLED);
+        this.goalAlertsEnabled = isTrue(preferences, SMSNotificationManager.KEY_GOAL_ALERTS, DEFAULT_GOAL_ALERTS);
+        this.milestoneAlertsEnabled =
+                isTrue(preferences, SMSNotificationManager.KEY_MILESTONE_ALERTS, DEFAULT_MILESTONE_ALERTS);
+        this.reminderEnabled =
+                isTrue(preferences, SMSNotificationManager.KEY_REMINDER_ENABLED, DEFAULT_REMINDER_ENABLED);
+        String unit = preferences.get(KEY_WEIGHT_UNIT);
+        this.weightUnit = unit != null ? unit : DEFAULT_WEIGHT_UNIT;
+        this.smsPermissionGranted = smsPermissionGranted;
+        this.postNotificationsPermissionGranted = postNotificationsPermissionGranted;
+    }
+
+    private static boolean isTrue(@NonNull Map<String, String> preferences, @NonNull String key,
+                                  @NonNull String defaultValue) {
+        String value = preferences.get(key);
+        return "true".equals(value != null ? value : defaultValue);
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    @Nullable
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public boolean isSmsEnabled() {
+        return smsEnabled;
+    }
+
+    public boolean isGoalAlertsEnabled() {
+        return goalAlertsEnabled;
+    }
+
+    public boolean isMilestoneAlertsEnabled() {
+        return milestoneAlertsEnabled;
+    }
+
+    public boolean isReminderEnabled() {
+        return reminderEnabled;
+    }
+
+    @NonNull
+    public String getWeightUnit() {
+        return weightUnit;
+    }
+
+    public boolean isSmsPermissionGranted() {
+        return smsPermissionGranted;
+    }
+
+    public boolean isPostNotificationsPermissionGranted() {
+        return postNotificationsPermissionGranted;
+    }
+}
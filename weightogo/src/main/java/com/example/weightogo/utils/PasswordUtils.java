@@ -1,7 +1,5 @@
 package com.example.weightogo.utils;
 
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
@@ -91,11 +89,11 @@ public final class PasswordUtils {
             // Encode to Base64 for storage
             String salt = Base64.getEncoder().encodeToString(saltBytes);
 
-            Log.d(TAG, "Generated new salt (length: " + salt.length() + " chars)");
+            AppLog.d(TAG, "Generated new salt (length: {} chars)", salt.length());
             return salt;
 
         } catch (Exception e) {
-            Log.e(TAG, "Error generating salt: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error generating salt: " + e.getMessage(), e);
             // Re-throw as runtime exception - salt generation failure is critical
             throw new RuntimeException("Failed to generate salt", e);
         }
@@ -120,11 +118,11 @@ public final class PasswordUtils {
     public static String hashPassword(@Nullable String password, @Nullable String salt) {
         // Validate inputs
         if (ValidationUtils.isNullOrEmpty(password)) {
-            Log.w(TAG, "hashPassword: password is null or empty");
+            AppLog.w(TAG, "hashPassword: password is null or empty");
             return null;
         }
         if (ValidationUtils.isNullOrEmpty(salt)) {
-            Log.w(TAG, "hashPassword: salt is null or empty");
+            AppLog.w(TAG, "hashPassword: salt is null or empty");
             return null;
         }
 
@@ -139,14 +137,14 @@ public final class PasswordUtils {
             // Encode to Base64 for storage
             String hash = Base64.getEncoder().encodeToString(hashBytes);
 
-            Log.d(TAG, "Password hashed successfully (hash length: " + hash.length() + " chars)");
+            AppLog.d(TAG, "Password hashed successfully (hash length: {} chars)", hash.length());
             return hash;
 
         } catch (NoSuchAlgorithmException e) {
-            Log.e(TAG, "SHA-256 algorithm not available: " + e.getMessage(), e);
+            AppLog.e(TAG, "SHA-256 algorithm not available: " + e.getMessage(), e);
             return null;
         } catch (Exception e) {
-            Log.e(TAG, "Error hashing password: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error hashing password: " + e.getMessage(), e);
             return null;
         }
     }
@@ -168,15 +166,15 @@ public final class PasswordUtils {
     public static boolean verifyPassword(@Nullable String password, @Nullable String salt, @Nullable String storedHash) {
         // Validate inputs
         if (ValidationUtils.isNullOrEmpty(password)) {
-            Log.w(TAG, "verifyPassword: password is null or empty");
+            AppLog.w(TAG, "verifyPassword: password is null or empty");
             return false;
         }
         if (ValidationUtils.isNullOrEmpty(salt)) {
-            Log.w(TAG, "verifyPassword: salt is null or empty");
+            AppLog.w(TAG, "verifyPassword: salt is null or empty");
             return false;
         }
         if (ValidationUtils.isNullOrEmpty(storedHash)) {
-            Log.w(TAG, "verifyPassword: storedHash is null or empty");
+            AppLog.w(TAG, "verifyPassword: storedHash is null or empty");
             return false;
         }
 
@@ -185,7 +183,7 @@ public final class PasswordUtils {
             String computedHash = hashPassword(password, salt);
 
             if (computedHash == null) {
-                Log.e(TAG, "verifyPassword: failed to compute hash");
+                AppLog.e(TAG, "verifyPassword: failed to compute hash");
                 return false;
             }
 
@@ -200,15 +198,15 @@ public final class PasswordUtils {
 
             // Log result (never log the actual password or hashes)
             if (isMatch) {
-                Log.i(TAG, "Password verification successful");
+                AppLog.i(TAG, "Password verification successful");
             } else {
-                Log.w(TAG, "Password verification failed");
+                AppLog.w(TAG, "Password verification failed");
             }
 
             return isMatch;
 
         } catch (Exception e) {
-            Log.e(TAG, "Error verifying password: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error verifying password: " + e.getMessage(), e);
             return false;
         }
     }
@@ -1,7 +1,5 @@
 package com.example.weightogo.utils;
 
-import android.util.Log;
-
 import at.favre.lib.crypto.bcrypt.BCrypt;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -41,17 +39,17 @@ public class PasswordUtilsV2 {
     @Nullable
     public static String hashPasswordBcrypt(@NonNull String password) {
         if (password == null || password.isEmpty()) {
-            Log.w(TAG, "hashPasswordBcrypt: Empty password provided");
+            AppLog.w(TAG, "hashPasswordBcrypt: Empty password provided");
             return null;
         }
 
         try {
             String hash = BCrypt.withDefaults().hashToString(BCRYPT_COST, password.toCharArray());
-            Log.d(TAG, "hashPasswordBcrypt: Successfully hashed password with bcrypt");
+            AppLog.d(TAG, "hashPasswordBcrypt: Successfully hashed password with bcrypt");
             return hash;
 
         } catch (Exception e) {
-            Log.e(TAG, "hashPasswordBcrypt: Failed to hash password", e);
+            AppLog.e(TAG, "hashPasswordBcrypt: Failed to hash password", e);
             return null;
         }
     }
@@ -66,12 +64,12 @@ public class PasswordUtilsV2 {
      */
     public static boolean verifyPasswordBcrypt(@NonNull String password, @NonNull String bcryptHash) {
         if (password == null || password.isEmpty()) {
-            Log.w(TAG, "verifyPasswordBcrypt: Empty password provided");
+            AppLog.w(TAG, "verifyPasswordBcrypt: Empty password provided");
             return false;
         }
 
         if (bcryptHash == null || bcryptHash.isEmpty()) {
-            Log.w(TAG, "verifyPasswordBcrypt: Empty hash provided");
+            AppLog.w(TAG, "verifyPasswordBcrypt: Empty hash provided");
             return false;
         }
 
@@ -80,15 +78,15 @@ public class PasswordUtilsV2 {
             boolean verified = result.verified;
 
             if (verified) {
-                Log.d(TAG, "verifyPasswordBcrypt: Password verified successfully");
+                AppLog.d(TAG, "verifyPasswordBcrypt: Password verified successfully");
             } else {
-                Log.w(TAG, "verifyPasswordBcrypt: Password verification failed");
+                AppLog.w(TAG, "verifyPasswordBcrypt: Password verification failed");
             }
 
             return verified;
 
         } catch (Exception e) {
-            Log.e(TAG, "verifyPasswordBcrypt: Exception during verification", e);
+            AppLog.e(TAG, "verifyPasswordBcrypt: Exception during verification", e);
             return false;
         }
     }
@@ -112,7 +110,7 @@ public class PasswordUtilsV2 {
                                          @NonNull String algorithm,
                                          @NonNull String storedHash,
                                          @NonNull String salt) {
-        Log.d(TAG, "verifyPassword: Verifying password with algorithm: " + algorithm);
+        AppLog.d(TAG, "verifyPassword: Verifying password with algorithm: {}", algorithm);
 
         if (ALGORITHM_BCRYPT.equals(algorithm)) {
             return verifyPasswordBcrypt(password, storedHash);
@@ -122,7 +120,7 @@ public class PasswordUtilsV2 {
             return PasswordUtils.verifyPassword(password, salt, storedHash);
 
         } else {
-            Log.w(TAG, "verifyPassword: Unknown algorithm: " + algorithm);
+            AppLog.w(TAG, "verifyPassword: Unknown algorithm: {}", algorithm);
             return false;
         }
     }
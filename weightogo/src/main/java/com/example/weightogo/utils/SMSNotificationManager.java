@@ -1,20 +1,34 @@
 package com.example.weightogo.utils;
 
 import android.Manifest;
+import android.app.PendingIntent;
 import android.content.Context;
 import android.content.pm.PackageManager;
 import android.os.Build;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.core.content.ContextCompat;
 
 import com.example.weightogo.R;
 import com.example.weightogo.database.AchievementDAO;
+import com.example.weightogo.database.SmsOutboxDAO;
 import com.example.weightogo.database.UserDAO;
 import com.example.weightogo.database.UserPreferenceDAO;
 import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.AchievementType;
 import com.example.weightogo.models.User;
+import com.example.weightogo.workers.SmsOutboxWorker;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Singleton manager for sending SMS notifications.
@@ -34,6 +48,16 @@ import com.example.weightogo.models.User;
  * - sms_milestone_alerts (milestone alerts)
  * - sms_reminder_enabled (daily reminder)
  *
+ * **Delivery:** Achievement SMS from the save path are queued with
+ * enqueueAchievementSms() and sent by SmsOutboxWorker; the send*Sms() methods
+ * send synchronously and must not be called on the UI thread.
+ *
+ * **Rate Limiting and Aggregation:** Every send takes a token from a per-user,
+ * per-destination {@link SmsRateLimiter}; sends with no token left are held back.
+ * Achievements unlocked within {@link #AGGREGATION_WINDOW_MILLIS} of each other
+ * (e.g. MILESTONE_5, MILESTONE_10 and GOAL_REACHED from one weigh-in) are merged
+ * into one message, sent as a multipart SMS if it does not fit in one.
+ *
  * **Thread Safety:** Singleton pattern with synchronized getInstance()
  */
 public class SMSNotificationManager {
@@ -48,12 +72,24 @@ public class SMSNotificationManager {
     public static final String KEY_GOAL_ALERTS = "sms_goal_alerts";
     public static final String KEY_MILESTONE_ALERTS = "sms_milestone_alerts";
     public static final String KEY_REMINDER_ENABLED = "sms_reminder_enabled";
+    /** Local reminder time, zero-padded "HH:mm" */
+    public static final String KEY_REMINDER_TIME = "sms_reminder_time";
+    /** Reminder time for users who never picked one */
+    public static final String DEFAULT_REMINDER_TIME = "09:00";
+    /** Date (yyyy-MM-dd) of the last daily reminder sent, so a sweep never reminds twice a day */
+    public static final String KEY_REMINDER_LAST_SENT = "sms_reminder_last_sent";
+
+    /** Achievements for one user unlocked this close together are sent as one message */
+    public static final long AGGREGATION_WINDOW_MILLIS = TimeUnit.SECONDS.toMillis(30);
 
     // Dependencies
     private final Context context;
     private final UserDAO userDAO;
     private final UserPreferenceDAO userPreferenceDAO;
     private final AchievementDAO achievementDAO;
+    private final SmsOutboxDAO smsOutboxDAO;
+    private final SmsSender smsSender;
+    private final SmsRateLimiter rateLimiter;
 
     /**
      * Private constructor for singleton pattern.
@@ -62,34 +98,60 @@ public class SMSNotificationManager {
      * @param userDAO UserDAO instance
      * @param userPreferenceDAO UserPreferenceDAO instance
      * @param achievementDAO AchievementDAO instance
+     * @param smsOutboxDAO SmsOutboxDAO instance
      */
     private SMSNotificationManager(@NonNull Context context,
                                     @NonNull UserDAO userDAO,
                                     @NonNull UserPreferenceDAO userPreferenceDAO,
-                                    @NonNull AchievementDAO achievementDAO) {
+                                    @NonNull AchievementDAO achievementDAO,
+                                    @NonNull SmsOutboxDAO smsOutboxDAO) {
+        this(context, userDAO, userPreferenceDAO, achievementDAO, smsOutboxDAO,
+                SmsSender.platform(), new SmsRateLimiter());
+    }
+
+    /**
+     * Creates a non-singleton instance with a custom sender and rate limiter (tests only).
+     */
+    @VisibleForTesting
+    SMSNotificationManager(@NonNull Context context,
+                           @NonNull UserDAO userDAO,
+                           @NonNull UserPreferenceDAO userPreferenceDAO,
+                           @NonNull AchievementDAO achievementDAO,
+                           @NonNull SmsOutboxDAO smsOutboxDAO,
+                           @NonNull SmsSender smsSender,
+                           @NonNull SmsRateLimiter rateLimiter) {
         this.context = context.getApplicationContext();
         this.userDAO = userDAO;
         this.userPreferenceDAO = userPreferenceDAO;
         this.achievementDAO = achievementDAO;
+        this.smsOutboxDAO = smsOutboxDAO;
+        this.smsSender = smsSender;
+        this.rateLimiter = rateLimiter;
     }
 
     /**
      * Gets singleton instance of SMSNotificationManager.
      * Thread-safe with synchronized block.
      *
+     * The DAO arguments are only used by the first call; app code should get the manager
+     * from AppContainer.getSmsNotificationManager() so it is always built from the shared DAOs.
+     *
      * @param context Application context
      * @param userDAO UserDAO instance
      * @param userPreferenceDAO UserPreferenceDAO instance
      * @param achievementDAO AchievementDAO instance
+     * @param smsOutboxDAO SmsOutboxDAO instance
      * @return Singleton instance
      */
     public static synchronized SMSNotificationManager getInstance(@NonNull Context context,
                                                                    @NonNull UserDAO userDAO,
                                                                    @NonNull UserPreferenceDAO userPreferenceDAO,
-                                                                   @NonNull AchievementDAO achievementDAO) {
+                                                                   @NonNull AchievementDAO achievementDAO,
+                                                                   @NonNull SmsOutboxDAO smsOutboxDAO) {
         if (instance == null) {
-            instance = new SMSNotificationManager(context, userDAO, userPreferenceDAO, achievementDAO);
-            Log.d(TAG, "getInstance: Created new SMSNotificationManager instance");
+            instance = new SMSNotificationManager(context, userDAO, userPreferenceDAO, achievementDAO,
+                    smsOutboxDAO);
+            AppLog.d(TAG, "getInstance: Created new SMSNotificationManager instance");
         }
         return instance;
     }
@@ -103,7 +165,7 @@ public class SMSNotificationManager {
         boolean hasPermission = ContextCompat.checkSelfPermission(context, Manifest.permission.SEND_SMS)
                 == PackageManager.PERMISSION_GRANTED;
 
-        Log.d(TAG, "hasSmsSendPermission: " + hasPermission);
+        AppLog.d(TAG, "hasSmsSendPermission: {}", hasPermission);
         return hasPermission;
     }
 
@@ -116,7 +178,7 @@ public class SMSNotificationManager {
     public boolean hasPostNotificationsPermission() {
         // Android 12 and below don't require POST_NOTIFICATIONS
         if (Build.VERSION.SDK_INT < Build.VERSION_CODES.TIRAMISU) {
-            Log.d(TAG, "hasPostNotificationsPermission: true (Android < 13, permission not required)");
+            AppLog.d(TAG, "hasPostNotificationsPermission: true (Android < 13, permission not required)");
             return true;
         }
 
@@ -124,10 +186,30 @@ public class SMSNotificationManager {
         boolean hasPermission = ContextCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
                 == PackageManager.PERMISSION_GRANTED;
 
-        Log.d(TAG, "hasPostNotificationsPermission: " + hasPermission + " (Android 13+)");
+        AppLog.d(TAG, "hasPostNotificationsPermission: {} (Android 13+)", hasPermission);
         return hasPermission;
     }
 
+    /**
+     * Loads the user's phone number, SMS preferences and permission state in one user read
+     * and one preference read. Pass the result to the context-based methods to evaluate
+     * several messages without querying again.
+     *
+     * @param userId User ID
+     * @return Notification context (phone number is null if the user was not found)
+     */
+    @NonNull
+    public NotificationContext loadNotificationContext(long userId) {
+        User user = userDAO.getUserById(userId);
+        Map<String, String> preferences = userPreferenceDAO.getPreferenceMap(userId);
+        return new NotificationContext(
+                userId,
+                user != null ? user.getPhoneNumber() : null,
+                preferences,
+                hasSmsSendPermission(),
+                hasPostNotificationsPermission());
+    }
+
     /**
      * Checks if SMS can be sent for a user.
      *
@@ -141,34 +223,42 @@ public class SMSNotificationManager {
      * @return true if all conditions met, false otherwise
      */
     public boolean canSendSms(long userId) {
-        Log.d(TAG, "canSendSms: Checking for user_id=" + userId);
+        return canSendSms(loadNotificationContext(userId));
+    }
+
+    /**
+     * Checks if SMS can be sent, using an already loaded context.
+     *
+     * @param notificationContext Context from loadNotificationContext()
+     * @return true if all conditions met, false otherwise
+     */
+    public boolean canSendSms(@NonNull NotificationContext notificationContext) {
+        AppLog.d(TAG, "canSendSms: Checking for user_id={}", notificationContext.getUserId());
 
         // Check user has phone number
-        User user = userDAO.getUserById(userId);
-        if (user == null || user.getPhoneNumber() == null) {
-            Log.w(TAG, "canSendSms: User or phone number not found");
+        if (notificationContext.getPhoneNumber() == null) {
+            AppLog.w(TAG, "canSendSms: User or phone number not found");
             return false;
         }
 
         // Check SMS notifications enabled
-        String smsEnabled = userPreferenceDAO.getPreference(userId, KEY_SMS_ENABLED, "false");
-        if (!"true".equals(smsEnabled)) {
-            Log.d(TAG, "canSendSms: SMS notifications disabled in preferences");
+        if (!notificationContext.isSmsEnabled()) {
+            AppLog.d(TAG, "canSendSms: SMS notifications disabled in preferences");
             return false;
         }
 
         // Check permissions
-        if (!hasSmsSendPermission()) {
-            Log.w(TAG, "canSendSms: SEND_SMS permission not granted");
+        if (!notificationContext.isSmsPermissionGranted()) {
+            AppLog.w(TAG, "canSendSms: SEND_SMS permission not granted");
             return false;
         }
 
-        if (!hasPostNotificationsPermission()) {
-            Log.w(TAG, "canSendSms: POST_NOTIFICATIONS permission not granted");
+        if (!notificationContext.isPostNotificationsPermissionGranted()) {
+            AppLog.w(TAG, "canSendSms: POST_NOTIFICATIONS permission not granted");
             return false;
         }
 
-        Log.d(TAG, "canSendSms: All conditions met, can send SMS");
+        AppLog.d(TAG, "canSendSms: All conditions met, can send SMS");
         return true;
     }
 
@@ -181,34 +271,37 @@ public class SMSNotificationManager {
      * @return true if SMS sent successfully, false otherwise
      */
     public boolean sendGoalAchievedSms(long userId, double goalWeight, String unit) {
-        Log.d(TAG, "sendGoalAchievedSms: Checking conditions for user_id=" + userId);
-
-        // Check if we can send SMS
-        if (!canSendSms(userId)) {
-            Log.d(TAG, "sendGoalAchievedSms: Cannot send SMS (canSendSms returned false)");
-            return false;
-        }
+        OutgoingSms sms = composeGoalAchievedSms(loadNotificationContext(userId), goalWeight, unit);
+        return sms != null && sendSms(sms, null);
+    }
 
-        // Check if goal alerts are enabled
-        String goalAlertsEnabled = userPreferenceDAO.getPreference(userId, KEY_GOAL_ALERTS, "true");
-        if (!"true".equals(goalAlertsEnabled)) {
-            Log.d(TAG, "sendGoalAchievedSms: Goal alerts disabled in preferences");
-            return false;
+    /**
+     * Builds the goal achievement SMS if the user's settings allow it.
+     *
+     * @param notificationContext Context from loadNotificationContext()
+     * @param goalWeight Goal weight achieved
+     * @param unit Weight unit (lbs/kg)
+     * @return message to send, or null if SMS is disabled or not possible
+     */
+    @Nullable
+    private OutgoingSms composeGoalAchievedSms(@NonNull NotificationContext notificationContext,
+                                               double goalWeight, String unit) {
+        if (!canSendSms(notificationContext)) {
+            AppLog.d(TAG, "composeGoalAchievedSms: Cannot send SMS (canSendSms returned false)");
+            return null;
         }
 
-        // Get user phone number
-        User user = userDAO.getUserById(userId);
-        if (user == null || user.getPhoneNumber() == null) {
-            Log.w(TAG, "sendGoalAchievedSms: User or phone number not found");
-            return false;
+        if (!notificationContext.isGoalAlertsEnabled()) {
+            AppLog.d(TAG, "composeGoalAchievedSms: Goal alerts disabled in preferences");
+            return null;
         }
 
         // Get message template and format
         String messageTemplate = context.getString(R.string.sms_goal_achieved);
         String message = String.format(messageTemplate, goalWeight, unit);
 
-        // Send SMS
-        return sendSms(user.getPhoneNumber(), message, "Goal achieved");
+        return new OutgoingSms(notificationContext.getUserId(), notificationContext.getPhoneNumber(),
+                message, "Goal achieved");
     }
 
     /**
@@ -220,26 +313,29 @@ public class SMSNotificationManager {
      * @return true if SMS sent successfully, false otherwise
      */
     public boolean sendMilestoneSms(long userId, int milestone, String unit) {
-        Log.d(TAG, "sendMilestoneSms: Checking conditions for user_id=" + userId + ", milestone=" + milestone);
-
-        // Check if we can send SMS
-        if (!canSendSms(userId)) {
-            Log.d(TAG, "sendMilestoneSms: Cannot send SMS (canSendSms returned false)");
-            return false;
-        }
+        OutgoingSms sms = composeMilestoneSms(loadNotificationContext(userId), milestone, unit);
+        return sms != null && sendSms(sms, null);
+    }
 
-        // Check if milestone alerts are enabled
-        String milestoneAlertsEnabled = userPreferenceDAO.getPreference(userId, KEY_MILESTONE_ALERTS, "true");
-        if (!"true".equals(milestoneAlertsEnabled)) {
-            Log.d(TAG, "sendMilestoneSms: Milestone alerts disabled in preferences");
-            return false;
+    /**
+     * Builds the milestone SMS if the user's settings allow it.
+     *
+     * @param notificationContext Context from loadNotificationContext()
+     * @param milestone Milestone amount (e.g., 5, 10, 25)
+     * @param unit Weight unit (lbs/kg)
+     * @return message to send, or null if SMS is disabled or not possible
+     */
+    @Nullable
+    private OutgoingSms composeMilestoneSms(@NonNull NotificationContext notificationContext,
+                                            int milestone, String unit) {
+        if (!canSendSms(notificationContext)) {
+            AppLog.d(TAG, "composeMilestoneSms: Cannot send SMS (canSendSms returned false)");
+            return null;
         }
 
-        // Get user phone number
-        User user = userDAO.getUserById(userId);
-        if (user == null || user.getPhoneNumber() == null) {
-            Log.w(TAG, "sendMilestoneSms: User or phone number not found");
-            return false;
+        if (!notificationContext.isMilestoneAlertsEnabled()) {
+            AppLog.d(TAG, "composeMilestoneSms: Milestone alerts disabled in preferences");
+            return null;
         }
 
         // Get message template and format
@@ -247,8 +343,8 @@ public class SMSNotificationManager {
         String messageTemplate = context.getString(R.string.sms_milestone_5);
         String message = String.format(messageTemplate, milestone, unit);
 
-        // Send SMS
-        return sendSms(user.getPhoneNumber(), message, "Milestone " + milestone + " " + unit);
+        return new OutgoingSms(notificationContext.getUserId(), notificationContext.getPhoneNumber(), message,
+                "Milestone " + milestone + " " + unit);
     }
 
     /**
@@ -258,33 +354,55 @@ public class SMSNotificationManager {
      * @return true if SMS sent successfully, false otherwise
      */
     public boolean sendDailyReminderSms(long userId) {
-        Log.d(TAG, "sendDailyReminderSms: Checking conditions for user_id=" + userId);
+        AppLog.d(TAG, "sendDailyReminderSms: Checking conditions for user_id={}", userId);
 
-        // Check if we can send SMS
-        if (!canSendSms(userId)) {
-            Log.d(TAG, "sendDailyReminderSms: Cannot send SMS (canSendSms returned false)");
+        NotificationContext notificationContext = loadNotificationContext(userId);
+        if (!canSendSms(notificationContext)) {
+            AppLog.d(TAG, "sendDailyReminderSms: Cannot send SMS (canSendSms returned false)");
             return false;
         }
 
-        // Check if daily reminders are enabled
-        String reminderEnabled = userPreferenceDAO.getPreference(userId, KEY_REMINDER_ENABLED, "false");
-        if (!"true".equals(reminderEnabled)) {
-            Log.d(TAG, "sendDailyReminderSms: Daily reminders disabled in preferences");
+        if (!notificationContext.isReminderEnabled()) {
+            AppLog.d(TAG, "sendDailyReminderSms: Daily reminders disabled in preferences");
             return false;
         }
 
-        // Get user phone number
-        User user = userDAO.getUserById(userId);
-        if (user == null || user.getPhoneNumber() == null) {
-            Log.w(TAG, "sendDailyReminderSms: User or phone number not found");
-            return false;
+        // Get message template
+        String message = context.getString(R.string.sms_daily_reminder);
+
+        return sendSms(new OutgoingSms(userId, notificationContext.getPhoneNumber(), message, "Daily reminder"), null);
+    }
+
+    /**
+     * Sends the daily reminder to users already selected by
+     * UserPreferenceDAO.getReminderRecipients() (preferences, phone number and today's
+     * entry checked in SQL). Only the device permissions are checked here, once.
+     *
+     * @param recipients map of user_id to phone_number
+     * @return IDs of the users whose reminder was handed to SmsManager
+     */
+    @NonNull
+    public List<Long> sendDailyReminders(@NonNull Map<Long, String> recipients) {
+        AppLog.d(TAG, "sendDailyReminders: {} recipients", recipients.size());
+
+        List<Long> reminded = new ArrayList<>();
+        if (recipients.isEmpty()) {
+            return reminded;
+        }
+        if (!hasSmsSendPermission() || !hasPostNotificationsPermission()) {
+            AppLog.w(TAG, "sendDailyReminders: SMS permissions not granted, skipping sweep");
+            return reminded;
         }
 
-        // Get message template
         String message = context.getString(R.string.sms_daily_reminder);
+        for (Map.Entry<Long, String> recipient : recipients.entrySet()) {
+            if (sendSms(new OutgoingSms(recipient.getKey(), recipient.getValue(), message, "Daily reminder"), null)) {
+                reminded.add(recipient.getKey());
+            }
+        }
 
-        // Send SMS
-        return sendSms(user.getPhoneNumber(), message, "Daily reminder");
+        AppLog.i(TAG, "sendDailyReminders: Sent {} of {} reminders", reminded.size(), recipients.size());
+        return reminded;
     }
 
     /**
@@ -297,135 +415,338 @@ public class SMSNotificationManager {
      * @return true if SMS sent successfully, false if skipped/failed
      */
     public boolean sendAchievementSms(@NonNull Achievement achievement) {
-        Log.d(TAG, "sendAchievementSms: Processing achievement type=" + achievement.getAchievementType());
-
-        long userId = achievement.getUserId();
-        String achievementType = achievement.getAchievementType();
-        boolean smsSent = false;
+        return sendAchievementSms(loadNotificationContext(achievement.getUserId()), achievement);
+    }
 
-        // Handle different achievement types
-        switch (achievementType) {
-            case "GOAL_REACHED":
-                // Check goal alerts preference
-                String goalAlertsEnabled = userPreferenceDAO.getPreference(userId, KEY_GOAL_ALERTS, "true");
-                if ("true".equals(goalAlertsEnabled)) {
-                    Double goalWeight = achievement.getValue();
-                    if (goalWeight != null) {
-                        // Get user's weight unit preference (default to lbs)
-                        String unit = userPreferenceDAO.getPreference(userId, "weight_unit_preference", "lbs");
-                        smsSent = sendGoalAchievedSms(userId, goalWeight, unit);
-                    }
-                }
-                break;
-
-            case "MILESTONE_5":
-            case "MILESTONE_10":
-            case "MILESTONE_25":
-            case "MILESTONE_50":
-                // Check milestone alerts preference
-                String milestoneAlertsEnabled = userPreferenceDAO.getPreference(userId, KEY_MILESTONE_ALERTS, "true");
-                if ("true".equals(milestoneAlertsEnabled)) {
-                    Double milestoneValue = achievement.getValue();
-                    if (milestoneValue != null) {
-                        String unit = userPreferenceDAO.getPreference(userId, "weight_unit_preference", "lbs");
-                        smsSent = sendMilestoneSms(userId, milestoneValue.intValue(), unit);
-                    }
-                }
-                break;
-
-            case "FIRST_ENTRY":
-            case "STREAK_7":
-            case "STREAK_30":
-            case "NEW_LOW":
-                // These use milestone alerts preference for now
-                // Could add separate preferences in future
-                String streakAlertsEnabled = userPreferenceDAO.getPreference(userId, KEY_MILESTONE_ALERTS, "true");
-                if ("true".equals(streakAlertsEnabled)) {
-                    // For now, skip SMS for these types (would need new message templates)
-                    Log.d(TAG, "sendAchievementSms: Skipping SMS for " + achievementType + " (no template)");
-                }
-                break;
+    /**
+     * Sends SMS for achievement using an already loaded context, and marks it as notified.
+     */
+    private boolean sendAchievementSms(@NonNull NotificationContext notificationContext,
+                                       @NonNull Achievement achievement) {
+        AppLog.d(TAG, "sendAchievementSms: Processing achievement type={}", achievement.getAchievementType());
 
-            default:
-                Log.w(TAG, "sendAchievementSms: Unknown achievement type: " + achievementType);
-                break;
-        }
+        OutgoingSms sms = composeAchievementSms(notificationContext, achievement);
+        boolean smsSent = sms != null && sendSms(sms, null);
 
         // Mark achievement as notified if SMS was sent
         if (smsSent) {
             int updated = achievementDAO.updateIsNotified(achievement.getAchievementId(), true);
             if (updated > 0) {
-                Log.i(TAG, "sendAchievementSms: Marked achievement as notified: " + achievement.getAchievementId());
+                AppLog.i(TAG, "sendAchievementSms: Marked achievement as notified: {}", achievement.getAchievementId());
             } else {
-                Log.w(TAG, "sendAchievementSms: Failed to mark achievement as notified");
+                AppLog.w(TAG, "sendAchievementSms: Failed to mark achievement as notified");
             }
         }
 
         return smsSent;
     }
 
+    /**
+     * Builds the SMS for an achievement if it has a template and the user's settings allow it.
+     * Used by SmsOutboxWorker at delivery time, so preference changes made while the
+     * message was queued are honored.
+     *
+     * @param notificationContext Context from loadNotificationContext() for the achievement's user
+     * @param achievement Achievement to notify about
+     * @return message to send, or null if the achievement should not be sent
+     */
+    @Nullable
+    public OutgoingSms composeAchievementSms(@NonNull NotificationContext notificationContext,
+                                             @NonNull Achievement achievement) {
+        AchievementType achievementType = achievement.getAchievementType();
+
+        switch (achievementType) {
+            case GOAL_REACHED:
+                Double goalWeight = achievement.getValue();
+                if (goalWeight == null) {
+                    return null;
+                }
+                return composeGoalAchievedSms(notificationContext, goalWeight, notificationContext.getWeightUnit());
+
+            case MILESTONE_5:
+            case MILESTONE_10:
+            case MILESTONE_25:
+            case MILESTONE_50:
+                Double milestoneValue = achievement.getValue();
+                if (milestoneValue == null) {
+                    return null;
+                }
+                return composeMilestoneSms(notificationContext, milestoneValue.intValue(),
+                        notificationContext.getWeightUnit());
+
+            case FIRST_ENTRY:
+            case STREAK_7:
+            case STREAK_30:
+            case NEW_LOW:
+                // No message templates for these types yet
+                AppLog.d(TAG, "composeAchievementSms: Skipping SMS for {} (no template)", achievementType);
+                return null;
+
+            default:
+                AppLog.w(TAG, "composeAchievementSms: Unknown achievement type: {}", achievementType);
+                return null;
+        }
+    }
+
+    /**
+     * Queues SMS for new achievements and schedules SmsOutboxWorker to deliver them.
+     * Runs no preference or user queries, so it is cheap enough for the save path;
+     * settings are checked when the worker composes each message.
+     *
+     * @param achievements Newly saved achievements
+     * @return Number of messages queued
+     */
+    public int enqueueAchievementSms(@NonNull List<Achievement> achievements) {
+        List<Achievement> sendable = new ArrayList<>();
+        for (Achievement achievement : achievements) {
+            if (hasSmsTemplate(achievement.getAchievementType())) {
+                sendable.add(achievement);
+            }
+        }
+        if (sendable.isEmpty()) {
+            return 0;
+        }
+
+        int queued = smsOutboxDAO.enqueueAchievements(sendable);
+        if (queued > 0) {
+            // Wait out the aggregation window so achievements from quick successive saves merge
+            SmsOutboxWorker.schedule(context, AGGREGATION_WINDOW_MILLIS);
+        }
+        AppLog.d(TAG, "enqueueAchievementSms: Queued {} of {} achievements", queued, achievements.size());
+        return queued;
+    }
+
+    /**
+     * @param achievementType Achievement type
+     * @return true if composeAchievementSms() can produce a message for this type
+     */
+    private static boolean hasSmsTemplate(@NonNull AchievementType achievementType) {
+        switch (achievementType) {
+            case GOAL_REACHED:
+            case MILESTONE_5:
+            case MILESTONE_10:
+            case MILESTONE_25:
+            case MILESTONE_50:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * Sends SMS for multiple achievements in batch.
      * Useful for sending all unnotified achievements at once.
      *
+     * Achievements are grouped per user, and those unlocked within
+     * {@link #AGGREGATION_WINDOW_MILLIS} of each other are sent as one message.
+     *
      * @param achievements List of achievements to notify
-     * @return Number of SMS sent successfully
+     * @return Number of achievements notified (one SMS may cover several)
      */
-    public int sendAchievementBatch(@NonNull java.util.List<Achievement> achievements) {
-        Log.d(TAG, "sendAchievementBatch: Processing " + achievements.size() + " achievements");
-
-        int successCount = 0;
+    public int sendAchievementBatch(@NonNull List<Achievement> achievements) {
+        AppLog.d(TAG, "sendAchievementBatch: Processing {} achievements", achievements.size());
 
+        Map<Long, List<Achievement>> byUser = new LinkedHashMap<>();
         for (Achievement achievement : achievements) {
-            boolean sent = sendAchievementSms(achievement);
-            if (sent) {
-                successCount++;
+            byUser.computeIfAbsent(achievement.getUserId(), id -> new ArrayList<>()).add(achievement);
+        }
+
+        int notifiedCount = 0;
+        for (Map.Entry<Long, List<Achievement>> entry : byUser.entrySet()) {
+            // One context per user for the whole batch (one user read + one preference read each)
+            NotificationContext notificationContext = loadNotificationContext(entry.getKey());
+
+            for (List<Achievement> window : groupByAggregationWindow(entry.getValue())) {
+                List<Achievement> composed = new ArrayList<>();
+                List<OutgoingSms> messages = new ArrayList<>();
+                for (Achievement achievement : window) {
+                    OutgoingSms sms = composeAchievementSms(notificationContext, achievement);
+                    if (sms != null) {
+                        composed.add(achievement);
+                        messages.add(sms);
+                    }
+                }
+                if (messages.isEmpty() || !sendSms(aggregate(messages), null)) {
+                    continue;
+                }
+                long[] notifiedIds = new long[composed.size()];
+                for (int i = 0; i < notifiedIds.length; i++) {
+                    notifiedIds[i] = composed.get(i).getAchievementId();
+                }
+                achievementDAO.markNotified(notifiedIds);
+                notifiedCount += composed.size();
             }
         }
 
-        Log.i(TAG, "sendAchievementBatch: Sent " + successCount + " of " + achievements.size() + " SMS");
-        return successCount;
+        AppLog.i(TAG, "sendAchievementBatch: Notified {} of {} achievements", notifiedCount, achievements.size());
+        return notifiedCount;
     }
 
     /**
-     * Private helper method to send SMS using Android SmsManager.
+     * Splits one user's achievements into groups whose achieved_at times lie within
+     * {@link #AGGREGATION_WINDOW_MILLIS} of the first achievement in the group.
      *
-     * @param phoneNumber E.164 formatted phone number
-     * @param message SMS message text
-     * @param messageType Type of message for logging (e.g., "Goal achieved", "Milestone 5 lbs")
-     * @return true if SMS sent successfully, false on error
+     * @param achievements Achievements for a single user
+     * @return groups in achieved_at order (achievements without a time join the first group)
      */
-    private boolean sendSms(@NonNull String phoneNumber, @NonNull String message, @NonNull String messageType) {
+    @NonNull
+    static List<List<Achievement>> groupByAggregationWindow(@NonNull List<Achievement> achievements) {
+        List<Achievement> sorted = new ArrayList<>(achievements);
+        sorted.sort(Comparator.comparing(Achievement::getAchievedAt,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        List<List<Achievement>> groups = new ArrayList<>();
+        List<Achievement> current = null;
+        LocalDateTime windowStart = null;
+        for (Achievement achievement : sorted) {
+            LocalDateTime achievedAt = achievement.getAchievedAt();
+            boolean inWindow = current != null && (achievedAt == null || windowStart == null
+                    || Duration.between(windowStart, achievedAt).toMillis() <= AGGREGATION_WINDOW_MILLIS);
+            if (!inWindow) {
+                current = new ArrayList<>();
+                groups.add(current);
+            }
+            if (windowStart == null || !inWindow) {
+                windowStart = achievedAt;
+            }
+            current.add(achievement);
+        }
+        return groups;
+    }
+
+    /**
+     * Merges messages for the same user and destination into one SMS.
+     *
+     * @param messages Messages to merge (at least one, all for the same user and number)
+     * @return the single message unchanged, or one message with the texts on separate lines
+     */
+    @NonNull
+    public OutgoingSms aggregate(@NonNull List<OutgoingSms> messages) {
+        if (messages.isEmpty()) {
+            throw new IllegalArgumentException("messages must not be empty");
+        }
+        OutgoingSms first = messages.get(0);
+        if (messages.size() == 1) {
+            return first;
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (OutgoingSms sms : messages) {
+            if (sms.userId != first.userId || !sms.phoneNumber.equals(first.phoneNumber)) {
+                throw new IllegalArgumentException("messages must share user and destination");
+            }
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(sms.message);
+        }
+        return new OutgoingSms(first.userId, first.phoneNumber, text.toString(),
+                messages.size() + " achievements");
+    }
+
+    /**
+     * @param notificationContext Context from loadNotificationContext()
+     * @return 0 if the rate limiter would let an SMS to this user through now, otherwise
+     *         milliseconds until it will
+     */
+    public long getRateLimitDelayMillis(@NonNull NotificationContext notificationContext) {
+        String phoneNumber = notificationContext.getPhoneNumber();
+        if (phoneNumber == null) {
+            return 0;
+        }
+        return rateLimiter.millisUntilAvailable(notificationContext.getUserId(), phoneNumber);
+    }
+
+    /**
+     * Hands an SMS to Android SmsManager, as a multipart message if it does not fit in one.
+     * Held back (returns false) if the user's rate limit is exhausted.
+     *
+     * @param sms Message to send
+     * @param sentIntents Creates the broadcast fired with each part's carrier result, or null
+     *                    for fire-and-forget. Every part of a multipart message gets its own.
+     * @return true if SmsManager accepted the message, false if rate limited or on error
+     */
+    public boolean sendSms(@NonNull OutgoingSms sms, @Nullable SentIntentFactory sentIntents) {
+        String phoneNumber = sms.phoneNumber;
+        String message = sms.message;
+        String messageType = sms.messageType;
         try {
             String maskedPhone = ValidationUtils.maskPhoneNumber(phoneNumber);
-            Log.d(TAG, "sendSms: Attempting to send " + messageType + " SMS to " + maskedPhone);
-
-            android.telephony.SmsManager smsManager = android.telephony.SmsManager.getDefault();
-            smsManager.sendTextMessage(
-                    phoneNumber,    // destination phone number
-                    null,           // service center address (null = use default)
-                    message,        // message text
-                    null,           // sentIntent (null = no notification)
-                    null            // deliveryIntent (null = no delivery confirmation)
-            );
-
-            Log.i(TAG, "sendSms: Successfully sent " + messageType + " SMS to " + maskedPhone);
+            AppLog.d(TAG, "sendSms: Attempting to send {} SMS to {}", messageType, maskedPhone);
+
+            if (!rateLimiter.tryAcquire(sms.userId, phoneNumber)) {
+                AppLog.w(TAG, "sendSms: Rate limit reached for {}, {} SMS held back", maskedPhone, messageType);
+                return false;
+            }
+
+            ArrayList<String> parts = smsSender.divideMessage(message);
+            if (parts.size() > 1) {
+                ArrayList<PendingIntent> partIntents = null;
+                if (sentIntents != null) {
+                    partIntents = new ArrayList<>(parts.size());
+                    for (int part = 0; part < parts.size(); part++) {
+                        partIntents.add(sentIntents.create(part, parts.size()));
+                    }
+                }
+                smsSender.sendMultipartTextMessage(phoneNumber, parts, partIntents);
+            } else {
+                smsSender.sendTextMessage(phoneNumber, message,
+                        sentIntents != null ? sentIntents.create(0, 1) : null);
+            }
+
+            AppLog.i(TAG, "sendSms: Handed {} SMS ({} parts) for {} to SmsManager",
+                    messageType, parts.size(), maskedPhone);
             return true;
 
         } catch (SecurityException e) {
             // Thrown if SEND_SMS permission not granted
-            Log.e(TAG, "sendSms: SecurityException - SEND_SMS permission not granted", e);
+            AppLog.e(TAG, "sendSms: SecurityException - SEND_SMS permission not granted", e);
             return false;
 
         } catch (IllegalArgumentException e) {
             // Thrown if phone number or message is invalid
-            Log.e(TAG, "sendSms: IllegalArgumentException - Invalid phone or message", e);
+            AppLog.e(TAG, "sendSms: IllegalArgumentException - Invalid phone or message", e);
             return false;
 
         } catch (Exception e) {
             // Catch any other unexpected exceptions
-            Log.e(TAG, "sendSms: Unexpected exception while sending " + messageType + " SMS", e);
+            AppLog.e(TAG, "sendSms: Unexpected exception while sending " + messageType + " SMS", e);
             return false;
         }
     }
+
+    /**
+     * SMS ready to hand to SmsManager.
+     */
+    public static final class OutgoingSms {
+        /** Recipient user ID (rate limiter key) */
+        public final long userId;
+        /** E.164 formatted destination */
+        @NonNull public final String phoneNumber;
+        /** Message text */
+        @NonNull public final String message;
+        /** Message type for logging (e.g., "Goal achieved") */
+        @NonNull public final String messageType;
+
+        public OutgoingSms(long userId, @NonNull String phoneNumber, @NonNull String message,
+                           @NonNull String messageType) {
+            this.userId = userId;
+            this.phoneNumber = phoneNumber;
+            this.message = message;
+            this.messageType = messageType;
+        }
+    }
+
+    /**
+     * Creates the sentIntent for each part of an SMS handed to {@link #sendSms}.
+     */
+    public interface SentIntentFactory {
+        /**
+         * @param part      zero-based index of the part
+         * @param partCount number of parts the message was split into
+         * @return broadcast fired with that part's carrier result
+         */
+        @NonNull
+        PendingIntent create(int part, int partCount);
+    }
 }
@@ -2,7 +2,6 @@ package com.example.weightogo.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -44,7 +43,12 @@ import java.time.LocalDateTime;
  * sessionManager.logout();
  * </pre>
  *
- * **Thread Safety:** All methods are synchronized for thread-safe access.
+ * **Thread Safety:** The session is held in memory as an immutable {@link Session} behind a
+ * volatile reference. Reads ({@link #isLoggedIn()}, {@link #getCurrentUserId()},
+ * {@link #getCurrentUser()}, {@link #getSession()}) take no lock and allocate nothing.
+ * {@link #createSession(User)} and {@link #logout()} are synchronized with each other,
+ * publish the new snapshot in one write, then persist it with an asynchronous apply().
+ * SharedPreferences is only read once, when the singleton is created.
  */
 public class SessionManager {
 
@@ -78,6 +82,12 @@ public class SessionManager {
      */
     private final SharedPreferences preferences;
 
+    /**
+     * Current session, or null when logged out. Replaced as a whole, never modified.
+     */
+    @Nullable
+    private volatile Session session;
+
     /**
      * Private constructor to enforce Singleton pattern.
      *
@@ -90,7 +100,25 @@ public class SessionManager {
         // Use Application context to prevent memory leaks
         this.preferences = context.getApplicationContext()
                 .getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        Log.d(TAG, "SessionManager initialized");
+        this.session = readPersistedSession(preferences);
+        AppLog.d(TAG, "SessionManager initialized, logged_in={}", session != null);
+    }
+
+    /**
+     * Restores the session saved by a previous process, if any.
+     */
+    @Nullable
+    private static Session readPersistedSession(@NonNull SharedPreferences preferences) {
+        if (!preferences.getBoolean(KEY_IS_LOGGED_IN, false)) {
+            return null;
+        }
+        long userId = preferences.getLong(KEY_USER_ID, NO_SESSION_USER_ID);
+        String username = preferences.getString(KEY_USERNAME, null);
+        if (userId == NO_SESSION_USER_ID || username == null) {
+            AppLog.w(TAG, "readPersistedSession: Invalid session data");
+            return null;
+        }
+        return new Session(userId, username, preferences.getString(KEY_DISPLAY_NAME, null));
     }
 
     /**
@@ -112,7 +140,7 @@ public class SessionManager {
     public static synchronized SessionManager getInstance(@NonNull Context context) {
         if (instance == null) {
             instance = new SessionManager(context);
-            Log.i(TAG, "Created new SessionManager instance");
+            AppLog.i(TAG, "Created new SessionManager instance");
         }
         return instance;
     }
@@ -126,6 +154,9 @@ public class SessionManager {
      * @param user the authenticated user
      */
     public synchronized void createSession(@NonNull User user) {
+        // Publish first so readers see the new session immediately
+        session = new Session(user.getUserId(), user.getUsername(), user.getDisplayName());
+
         SharedPreferences.Editor editor = preferences.edit();
 
         editor.putLong(KEY_USER_ID, user.getUserId());
@@ -135,8 +166,7 @@ public class SessionManager {
 
         editor.apply();  // Asynchronous write
 
-        // Use Log.d() for sensitive data (username) - automatically stripped in release builds by R8/ProGuard
-        Log.d(TAG, "Session created for user: " + user.getUsername() + " (ID: " + user.getUserId() + ")");
+        AppLog.d(TAG, "Session created for user_id={}", user.getUserId());
     }
 
     /**
@@ -144,7 +174,10 @@ public class SessionManager {
      *
      * **IMPORTANT:** Returns a partial User object with ONLY session data:
      * - ✅ Valid fields: userId, username, displayName
-     * - ❌ Invalid fields: passwordHash="", salt="", createdAt=now(), updatedAt=now(), isActive=true (dummy values)
+     * - ❌ Invalid fields: passwordHash="", salt="", createdAt/updatedAt=session start, isActive=true (dummy values)
+     *
+     * The same instance is returned for the whole session (built once by createSession);
+     * treat it as read-only. Prefer {@link #getSession()} in new code.
      *
      * **If you need full User data, query UserDAO.getUserById(userId) instead.**
      *
@@ -153,42 +186,22 @@ public class SessionManager {
      * - Timestamps are not needed for session management (performance)
      * - User object requires @NonNull fields, so dummy values are used as placeholders
      *
-     * **TECHNICAL DEBT:** This design will be refactored in Phase 7.7 to use a dedicated
-     * SessionUser class (userId, username, displayName only) instead of full User object.
-     *
      * @return User object with session data if logged in, null otherwise
      */
     @Nullable
-    public synchronized User getCurrentUser() {
-        if (!isLoggedIn()) {
-            Log.d(TAG, "getCurrentUser: No active session");
-            return null;
-        }
-
-        long userId = preferences.getLong(KEY_USER_ID, NO_SESSION_USER_ID);
-        String username = preferences.getString(KEY_USERNAME, null);
-        String displayName = preferences.getString(KEY_DISPLAY_NAME, null);
-
-        if (userId == NO_SESSION_USER_ID || username == null) {
-            Log.w(TAG, "getCurrentUser: Invalid session data");
-            return null;
-        }
+    public User getCurrentUser() {
+        Session current = session;
+        return current != null ? current.user : null;
+    }
 
-        // Reconstruct partial User object (session data only)
-        User user = new User();
-        user.setUserId(userId);
-        user.setUsername(username);
-        user.setDisplayName(displayName);
-
-        // Set dummy values for required @NonNull fields (not persisted in session)
-        user.setPasswordHash("");
-        user.setSalt("");
-        user.setCreatedAt(LocalDateTime.now());
-        user.setUpdatedAt(LocalDateTime.now());
-        user.setActive(true);
-
-        Log.d(TAG, "getCurrentUser: Retrieved user " + username);
-        return user;
+    /**
+     * Get the current session snapshot.
+     *
+     * @return immutable session if logged in, null otherwise
+     */
+    @Nullable
+    public Session getSession() {
+        return session;
     }
 
     /**
@@ -196,10 +209,9 @@ public class SessionManager {
      *
      * @return user ID if session exists, -1 otherwise (sentinel value)
      */
-    public synchronized long getCurrentUserId() {
-        long userId = preferences.getLong(KEY_USER_ID, NO_SESSION_USER_ID);
-        Log.d(TAG, "getCurrentUserId: " + userId);
-        return userId;
+    public long getCurrentUserId() {
+        Session current = session;
+        return current != null ? current.userId : NO_SESSION_USER_ID;
     }
 
     /**
@@ -207,10 +219,8 @@ public class SessionManager {
      *
      * @return true if session exists, false otherwise
      */
-    public synchronized boolean isLoggedIn() {
-        boolean loggedIn = preferences.getBoolean(KEY_IS_LOGGED_IN, false);
-        Log.d(TAG, "isLoggedIn: " + loggedIn);
-        return loggedIn;
+    public boolean isLoggedIn() {
+        return session != null;
     }
 
     /**
@@ -220,12 +230,56 @@ public class SessionManager {
      * User must login again to access protected features.
      */
     public synchronized void logout() {
-        String username = preferences.getString(KEY_USERNAME, "unknown");
+        long userId = getCurrentUserId();
+        session = null;
 
         SharedPreferences.Editor editor = preferences.edit();
         editor.clear();  // Remove all session data
         editor.apply();  // Asynchronous write
 
-        Log.i(TAG, "Session cleared for user: " + username);
+        AppLog.i(TAG, "Session cleared for user_id={}", userId);
+    }
+
+    /**
+     * Immutable snapshot of the logged-in user's session data.
+     */
+    public static final class Session {
+        private final long userId;
+        @NonNull private final String username;
+        @Nullable private final String displayName;
+        @NonNull private final User user;
+
+        Session(long userId, @NonNull String username, @Nullable String displayName) {
+            this.userId = userId;
+            this.username = username;
+            this.displayName = displayName;
+
+            // Partial User for getCurrentUser(), built once per session
+            User partial = new User();
+            partial.setUserId(userId);
+            partial.setUsername(username);
+            partial.setDisplayName(displayName);
+            partial.setPasswordHash("");
+            partial.setSalt("");
+            LocalDateTime now = LocalDateTime.now();
+            partial.setCreatedAt(now);
+            partial.setUpdatedAt(now);
+            partial.setActive(true);
+            this.user = partial;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        @NonNull
+        public String getUsername() {
+            return username;
+        }
+
+        @Nullable
+        public String getDisplayName() {
+            return displayName;
+        }
     }
 }
@@ -0,0 +1,132 @@
+package com.example.weightogo.utils;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiter for outgoing SMS, keyed by user and destination number.
+ *
+ * Each bucket starts full with {@code capacity} tokens and regains one token every
+ * {@code refillIntervalMillis}, so a user can receive a short burst of texts but
+ * never more than one per interval on average. Sending takes one token; when the
+ * bucket is empty the send is held back instead of being handed to the carrier.
+ *
+ * Buckets live in memory only: a process restart refills them, which errs on the
+ * side of delivering a message.
+ *
+ * Thread-safe (all methods synchronized).
+ */
+public final class SmsRateLimiter {
+
+    /**
+     * Time source in milliseconds; must not go backwards.
+     */
+    public interface Clock {
+        long millis();
+    }
+
+    /** Default burst size per user and destination */
+    static final int DEFAULT_CAPACITY = 3;
+
+    /** Default time to regain one token */
+    static final long DEFAULT_REFILL_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(20);
+
+    private final int capacity;
+    private final long refillIntervalMillis;
+    private final Clock clock;
+    private final Map<String, Bucket> buckets = new HashMap<>();
+
+    /**
+     * Creates a limiter with the default capacity and refill interval, using
+     * SystemClock.elapsedRealtime() (unaffected by wall clock changes).
+     */
+    public SmsRateLimiter() {
+        this(DEFAULT_CAPACITY, DEFAULT_REFILL_INTERVAL_MILLIS, SystemClock::elapsedRealtime);
+    }
+
+    /**
+     * @param capacity             tokens per bucket (burst size), at least 1
+     * @param refillIntervalMillis time to regain one token, greater than 0
+     * @param clock                time source
+     */
+    public SmsRateLimiter(int capacity, long refillIntervalMillis, @NonNull Clock clock) {
+        if (capacity < 1 || refillIntervalMillis <= 0) {
+            throw new IllegalArgumentException("capacity must be >= 1 and refillIntervalMillis > 0");
+        }
+        this.capacity = capacity;
+        this.refillIntervalMillis = refillIntervalMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a token for one message if one is available.
+     *
+     * @param userId      recipient user ID
+     * @param destination destination phone number
+     * @return true if the message may be sent now
+     */
+    public synchronized boolean tryAcquire(long userId, @NonNull String destination) {
+        Bucket bucket = refill(userId, destination);
+        if (bucket.tokens == 0) {
+            return false;
+        }
+        if (bucket.tokens == capacity) {
+            // A full bucket earns nothing; the refill interval starts with this send
+            bucket.lastRefillMillis = clock.millis();
+        }
+        bucket.tokens--;
+        return true;
+    }
+
+    /**
+     * @param userId      recipient user ID
+     * @param destination destination phone number
+     * @return 0 if a token is available now, otherwise milliseconds until the next token
+     */
+    public synchronized long millisUntilAvailable(long userId, @NonNull String destination) {
+        Bucket bucket = refill(userId, destination);
+        if (bucket.tokens > 0) {
+            return 0;
+        }
+        return Math.max(1, bucket.lastRefillMillis + refillIntervalMillis - clock.millis());
+    }
+
+    /**
+     * Looks up the bucket and adds the tokens earned since its last refill.
+     */
+    @NonNull
+    private Bucket refill(long userId, @NonNull String destination) {
+        long now = clock.millis();
+        String key = userId + ":" + destination;
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new Bucket(capacity, now);
+            buckets.put(key, bucket);
+            return bucket;
+        }
+
+        long earned = (now - bucket.lastRefillMillis) / refillIntervalMillis;
+        if (earned > 0) {
+            bucket.tokens = (int) Math.min(capacity, bucket.tokens + earned);
+            // Keep the remainder so partial intervals are not lost
+            bucket.lastRefillMillis = bucket.tokens == capacity ? now
+                    : bucket.lastRefillMillis + earned * refillIntervalMillis;
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+        int tokens;
+        long lastRefillMillis;
+
+        Bucket(int tokens, long lastRefillMillis) {
+            this.tokens = tokens;
+            this.lastRefillMillis = lastRefillMillis;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.weightogo.utils;
+
+import android.app.PendingIntent;
+import android.telephony.SmsManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+/**
+ * The part of Android SmsManager used by SMSNotificationManager.
+ *
+ * Exists so tests can record outgoing messages instead of going through the
+ * telephony stack; production code uses {@link #platform()}.
+ */
+public interface SmsSender {
+
+    /**
+     * Splits a message into carrier-sized parts (see SmsManager.divideMessage()).
+     *
+     * @param text full message text
+     * @return one part if the message fits in a single SMS, otherwise several
+     */
+    @NonNull
+    ArrayList<String> divideMessage(@NonNull String text);
+
+    /**
+     * Sends a single-part message (see SmsManager.sendTextMessage()).
+     */
+    void sendTextMessage(@NonNull String destination, @NonNull String text,
+                         @Nullable PendingIntent sentIntent);
+
+    /**
+     * Sends a message as one concatenated SMS (see SmsManager.sendMultipartTextMessage()).
+     *
+     * @param sentIntents one entry per part (entries may be null), or null for none
+     */
+    void sendMultipartTextMessage(@NonNull String destination, @NonNull ArrayList<String> parts,
+                                  @Nullable ArrayList<PendingIntent> sentIntents);
+
+    /**
+     * @return sender backed by the default SmsManager
+     */
+    @NonNull
+    static SmsSender platform() {
+        return new SmsSender() {
+            @NonNull
+            @Override
+            public ArrayList<String> divideMessage(@NonNull String text) {
+                return SmsManager.getDefault().divideMessage(text);
+            }
+
+            @Override
+            public void sendTextMessage(@NonNull String destination, @NonNull String text,
+                                        @Nullable PendingIntent sentIntent) {
+                SmsManager.getDefault().sendTextMessage(destination, null, text, sentIntent, null);
+            }
+
+            @Override
+            public void sendMultipartTextMessage(@NonNull String destination, @NonNull ArrayList<String> parts,
+                                                 @Nullable ArrayList<PendingIntent> sentIntents) {
+                SmsManager.getDefault().sendMultipartTextMessage(destination, null, parts, sentIntents, null);
+            }
+        };
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.weightogo.utils;
 
 import android.os.Build;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -126,7 +125,7 @@ public final class ValidationUtils {
     public static boolean isValidUsername(@Nullable String username) {
         // Null or empty check
         if (isNullOrEmpty(username)) {
-            Log.w(TAG, "isValidUsername: username is null or empty");
+            AppLog.w(TAG, "isValidUsername: username is null or empty");
             return false;
         }
 
@@ -134,9 +133,9 @@ public final class ValidationUtils {
         boolean isValid = USERNAME_PATTERN.matcher(username).matches();
 
         if (!isValid) {
-            Log.w(TAG, "isValidUsername: username does not match pattern (3-20 chars, alphanumeric + underscore)");
+            AppLog.w(TAG, "isValidUsername: username does not match pattern (3-20 chars, alphanumeric + underscore)");
         } else {
-            Log.d(TAG, "isValidUsername: username is valid");
+            AppLog.d(TAG, "isValidUsername: username is valid");
         }
 
         return isValid;
@@ -163,13 +162,13 @@ public final class ValidationUtils {
     public static boolean isValidPassword(@Nullable String password) {
         // Null or empty check
         if (isNullOrEmpty(password)) {
-            Log.w(TAG, "isValidPassword: password is null or empty");
+            AppLog.w(TAG, "isValidPassword: password is null or empty");
             return false;
         }
 
         // Length check
         if (password.length() < MIN_PASSWORD_LENGTH) {
-            Log.w(TAG, "isValidPassword: password is too short (min " + MIN_PASSWORD_LENGTH + " chars)");
+            AppLog.w(TAG, "isValidPassword: password is too short (min {} chars)", MIN_PASSWORD_LENGTH);
             return false;
         }
 
@@ -177,11 +176,11 @@ public final class ValidationUtils {
         boolean hasDigit = password.chars().anyMatch(Character::isDigit);
 
         if (!hasDigit) {
-            Log.w(TAG, "isValidPassword: password does not contain a digit");
+            AppLog.w(TAG, "isValidPassword: password does not contain a digit");
             return false;
         }
 
-        Log.d(TAG, "isValidPassword: password is valid");
+        AppLog.d(TAG, "isValidPassword: password is valid");
         return true;
     }
 
@@ -211,7 +210,7 @@ public final class ValidationUtils {
     public static boolean isValidPhoneNumber(@Nullable String phoneNumber) {
         // Null or empty check
         if (isNullOrEmpty(phoneNumber)) {
-            Log.w(TAG, "isValidPhoneNumber: phone number is null or empty");
+            AppLog.w(TAG, "isValidPhoneNumber: phone number is null or empty");
             return false;
         }
 
@@ -222,9 +221,9 @@ public final class ValidationUtils {
         boolean isValid = PHONE_PATTERN.matcher(cleanPhone).matches();
 
         if (!isValid) {
-            Log.w(TAG, "isValidPhoneNumber: phone does not match E.164 pattern (10-15 digits, optional +)");
+            AppLog.w(TAG, "isValidPhoneNumber: phone does not match E.164 pattern (10-15 digits, optional +)");
         } else {
-            Log.d(TAG, "isValidPhoneNumber: phone is valid E.164 format");
+            AppLog.d(TAG, "isValidPhoneNumber: phone is valid E.164 format");
         }
 
         return isValid;
@@ -253,7 +252,7 @@ public final class ValidationUtils {
     public static String formatPhoneE164(@Nullable String phoneNumber) {
         // Validate first
         if (!isValidPhoneNumber(phoneNumber)) {
-            Log.w(TAG, "formatPhoneE164: phone number is invalid, cannot format");
+            AppLog.w(TAG, "formatPhoneE164: phone number is invalid, cannot format");
             return null;
         }
 
@@ -262,21 +261,21 @@ public final class ValidationUtils {
 
         // Already E.164 format (starts with +)
         if (cleanPhone.startsWith("+")) {
-            Log.d(TAG, "formatPhoneE164: already E.164 format");
+            AppLog.d(TAG, "formatPhoneE164: already E.164 format");
             return cleanPhone;
         }
 
         // Assume US country code for 10-digit numbers
         if (cleanPhone.length() == 10) {
             String e164 = "+1" + cleanPhone;
-            Log.d(TAG, "formatPhoneE164: converted US number to E.164: " + e164);
+            AppLog.d(TAG, "formatPhoneE164: converted US number to E.164");
             return e164;
         }
 
         // All other cases: prepend + if not present
         // (International numbers 11-15 digits should already have country code)
         String e164 = "+" + cleanPhone;
-        Log.d(TAG, "formatPhoneE164: prepended + to phone number");
+        AppLog.d(TAG, "formatPhoneE164: prepended + to phone number");
         return e164;
     }
 
@@ -307,7 +306,7 @@ public final class ValidationUtils {
     public static String getPhoneValidationError(@Nullable String phoneNumber) {
         // Priority 1: Check null or empty
         if (isNullOrEmpty(phoneNumber)) {
-            Log.d(TAG, "getPhoneValidationError: phone is null or empty");
+            AppLog.d(TAG, "getPhoneValidationError: phone is null or empty");
             return "error_phone_required";
         }
 
@@ -317,7 +316,7 @@ public final class ValidationUtils {
         // Priority 2: Check for invalid characters (only digits and + allowed)
         // Allow optional + at start, then only digits
         if (!cleanPhone.matches("^\\+?[0-9]+$")) {
-            Log.d(TAG, "getPhoneValidationError: phone contains invalid characters");
+            AppLog.d(TAG, "getPhoneValidationError: phone contains invalid characters");
             return "error_phone_invalid_chars";
         }
 
@@ -327,24 +326,24 @@ public final class ValidationUtils {
 
         // Priority 3: Check too short
         if (digitCount < 10) {
-            Log.d(TAG, "getPhoneValidationError: phone is too short (" + digitCount + " digits)");
+            AppLog.d(TAG, "getPhoneValidationError: phone is too short ({} digits)", digitCount);
             return "error_phone_too_short";
         }
 
         // Priority 4: Check too long
         if (digitCount > 15) {
-            Log.d(TAG, "getPhoneValidationError: phone is too long (" + digitCount + " digits)");
+            AppLog.d(TAG, "getPhoneValidationError: phone is too long ({} digits)", digitCount);
             return "error_phone_too_long";
         }
 
         // Priority 5: Check E.164 pattern (validates first digit cannot be 0)
         if (!PHONE_PATTERN.matcher(cleanPhone).matches()) {
-            Log.d(TAG, "getPhoneValidationError: phone does not match E.164 pattern");
+            AppLog.d(TAG, "getPhoneValidationError: phone does not match E.164 pattern");
             return "error_phone_invalid";
         }
 
         // Valid phone number
-        Log.d(TAG, "getPhoneValidationError: phone is valid");
+        AppLog.d(TAG, "getPhoneValidationError: phone is valid");
         return null;
     }
 
@@ -446,7 +445,7 @@ public final class ValidationUtils {
                 || product.contains("vbox");  // VirtualBox (Genymotion)
 
         // Log result only (not device details for security)
-        Log.d(TAG, "isRunningOnEmulator: " + isEmulator);
+        AppLog.d(TAG, "isRunningOnEmulator: {}", isEmulator);
 
         return isEmulator;
     }
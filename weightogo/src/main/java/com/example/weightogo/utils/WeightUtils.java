@@ -1,7 +1,5 @@
 package com.example.weightogo.utils;
 
-import android.util.Log;
-
 /**
  * Utility class for weight conversion (lbs ↔ kg) and validation.
  *
@@ -33,6 +31,17 @@ public final class WeightUtils {
      */
     public static final double LBS_TO_KG_CONVERSION = 0.453592;
 
+    /**
+     * Decigrams in one kilogram. Masses are stored canonically as whole decigrams
+     * (daily_weights.mass_dg) so they compare and aggregate exactly across units.
+     */
+    public static final long DECIGRAMS_PER_KG = 10_000L;
+
+    /**
+     * Decigrams in one pound (4535.92)
+     */
+    public static final double DECIGRAMS_PER_LB = LBS_TO_KG_CONVERSION * DECIGRAMS_PER_KG;
+
     /**
      * Maximum weight in pounds (700.0 lbs)
      */
@@ -72,14 +81,14 @@ public final class WeightUtils {
      */
     public static double convertLbsToKg(double weightLbs) {
         if (weightLbs < 0) {
-            Log.w(TAG, "convertLbsToKg: negative weight provided: " + weightLbs);
+            AppLog.w(TAG, "convertLbsToKg: negative weight provided: {}", weightLbs);
             return 0.0;
         }
 
         double weightKg = weightLbs * LBS_TO_KG_CONVERSION;
         double rounded = roundToOneDecimal(weightKg);
 
-        Log.d(TAG, "Converted " + weightLbs + " lbs to " + rounded + " kg");
+        AppLog.d(TAG, "Converted {} lbs to {} kg", weightLbs, rounded);
         return rounded;
     }
 
@@ -91,17 +100,42 @@ public final class WeightUtils {
      */
     public static double convertKgToLbs(double weightKg) {
         if (weightKg < 0) {
-            Log.w(TAG, "convertKgToLbs: negative weight provided: " + weightKg);
+            AppLog.w(TAG, "convertKgToLbs: negative weight provided: {}", weightKg);
             return 0.0;
         }
 
         double weightLbs = weightKg / LBS_TO_KG_CONVERSION;
         double rounded = roundToOneDecimal(weightLbs);
 
-        Log.d(TAG, "Converted " + weightKg + " kg to " + rounded + " lbs");
+        AppLog.d(TAG, "Converted {} kg to {} lbs", weightKg, rounded);
         return rounded;
     }
 
+    /**
+     * Converts a weight to its canonical mass in whole decigrams.
+     * Must match the backfill expression in WeighToGoDBHelper.upgradeToV5().
+     *
+     * @param value weight in {@code unit}
+     * @param unit  "kg"; anything else is treated as "lbs"
+     * @return mass in decigrams, rounded to the nearest decigram
+     */
+    public static long toDecigrams(double value, String unit) {
+        double factor = "kg".equals(unit) ? DECIGRAMS_PER_KG : DECIGRAMS_PER_LB;
+        return Math.round(value * factor);
+    }
+
+    /**
+     * Converts a canonical mass (or a difference between two masses) to a display unit.
+     *
+     * @param massDg mass in decigrams; may be negative for differences
+     * @param unit   "kg"; anything else is treated as "lbs"
+     * @return weight in {@code unit}, rounded to 1 decimal place
+     */
+    public static double fromDecigrams(long massDg, String unit) {
+        double factor = "kg".equals(unit) ? DECIGRAMS_PER_KG : DECIGRAMS_PER_LB;
+        return roundToOneDecimal(massDg / factor);
+    }
+
     /**
      * Rounds a double value to one decimal place.
      *
@@ -145,7 +179,7 @@ public final class WeightUtils {
     public static double convertBetweenUnits(double value, String fromUnit, String toUnit) {
         // Validate input - negative values not allowed
         if (value < 0) {
-            Log.w(TAG, "convertBetweenUnits: negative weight provided: " + value);
+            AppLog.w(TAG, "convertBetweenUnits: negative weight provided: {}", value);
             return 0.0;
         }
 
@@ -165,7 +199,7 @@ public final class WeightUtils {
         }
 
         // Invalid unit combination
-        Log.w(TAG, "convertBetweenUnits: invalid unit combination: " + fromUnit + " to " + toUnit);
+        AppLog.w(TAG, "convertBetweenUnits: invalid unit combination: {} to {}", fromUnit, toUnit);
         return 0.0;
     }
 
@@ -182,7 +216,7 @@ public final class WeightUtils {
      */
     public static boolean isValidWeight(double weight, String unit) {
         if (weight < MIN_WEIGHT) {
-            Log.w(TAG, "isValidWeight: negative weight: " + weight);
+            AppLog.w(TAG, "isValidWeight: negative weight: {}", weight);
             return false;
         }
 
@@ -192,13 +226,13 @@ public final class WeightUtils {
         } else if ("kg".equals(unit)) {
             max = MAX_WEIGHT_KG;
         } else {
-            Log.w(TAG, "isValidWeight: unknown unit: " + unit);
+            AppLog.w(TAG, "isValidWeight: unknown unit: {}", unit);
             return false;
         }
 
         boolean isValid = weight >= MIN_WEIGHT && weight <= max;
         if (!isValid) {
-            Log.w(TAG, "isValidWeight: " + weight + " " + unit + " exceeds range [" + MIN_WEIGHT + ", " + max + "]");
+            AppLog.w(TAG, "isValidWeight: {} {} outside allowed range", weight, unit);
         }
 
         return isValid;
@@ -0,0 +1,110 @@
+package com.example.weightogo.workers;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.weightogo.AppContainer;
+import com.example.weightogo.models.Achievement;
+import com.example.weightogo.utils.AppLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkManager Worker that re-evaluates one user's achievements against their whole
+ * history (AchievementManager.reevaluateHistory()).
+ *
+ * New entries are checked on save by AchievementManager.checkAchievements(); edits and
+ * deletes can change streaks, lows and goal progress anywhere in the history, so they
+ * schedule this worker instead. Newly earned achievements dated within
+ * AchievementManager.REEVALUATION_NOTIFY_DAYS get their SMS queued like those from a save;
+ * older ones are stored as already notified. Achievements no longer earned are removed.
+ *
+ * Scheduling:
+ * Unique one-time work per user ({@link #UNIQUE_WORK_PREFIX} + user ID), replaced by each
+ * schedule() call and delayed by {@link #DEBOUNCE_MILLIS}, so a burst of edits runs it once.
+ */
+public class AchievementReevaluationWorker extends Worker {
+
+    private static final String TAG = "AchievementReevalWorker";
+
+    public static final String UNIQUE_WORK_PREFIX = "achievement_reevaluation_";
+
+    static final String KEY_USER_ID = "user_id";
+
+    /** Delay before a run, so several edits in a row share one pass over the history */
+    static final long DEBOUNCE_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    /**
+     * Constructor required by WorkManager.
+     *
+     * @param context Application context
+     * @param params  Worker parameters
+     */
+    public AchievementReevaluationWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules a re-evaluation for a user, replacing any not yet started.
+     *
+     * @param context any Context
+     * @param userId  user whose history changed
+     */
+    public static void schedule(@NonNull Context context, long userId) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(AchievementReevaluationWorker.class)
+                .setInputData(new Data.Builder().putLong(KEY_USER_ID, userId).build())
+                .setInitialDelay(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniqueWork(
+                UNIQUE_WORK_PREFIX + userId,
+                ExistingWorkPolicy.REPLACE,
+                request
+        );
+        AppLog.d(TAG, "schedule: Re-evaluation for user_id={} in {} ms", userId, DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Re-evaluates the user's achievements and queues SMS for any newly earned recently.
+     *
+     * @return Result.success(), Result.failure() without a user ID, Result.retry() on an
+     *         unexpected error
+     */
+    @NonNull
+    @Override
+    public Result doWork() {
+        long userId = getInputData().getLong(KEY_USER_ID, -1);
+        if (userId <= 0) {
+            AppLog.w(TAG, "doWork: No user_id in input data");
+            return Result.failure();
+        }
+
+        try {
+            AppContainer container = AppContainer.from(getApplicationContext());
+            List<Achievement> recent = new ArrayList<>();
+            for (Achievement achievement : container.getAchievementManager().reevaluateHistory(userId)) {
+                if (!achievement.isNotified()) {
+                    recent.add(achievement);
+                }
+            }
+            if (!recent.isEmpty()) {
+                int queued = container.getSmsNotificationManager().enqueueAchievementSms(recent);
+                AppLog.d(TAG, "doWork: Queued {} achievement SMS", queued);
+            }
+            return Result.success();
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "doWork: Unexpected exception, will retry", e);
+            return Result.retry();
+        }
+    }
+}
@@ -1,39 +1,55 @@
 package com.example.weightogo.workers;
 
 import android.content.Context;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 
-import com.example.weightogo.database.AchievementDAO;
-import com.example.weightogo.database.UserDAO;
+import com.example.weightogo.AppContainer;
 import com.example.weightogo.database.UserPreferenceDAO;
-import com.example.weightogo.database.WeighToGoDBHelper;
-import com.example.weightogo.database.WeightEntryDAO;
-import com.example.weightogo.models.WeightEntry;
+import com.example.weightogo.utils.AppLog;
 import com.example.weightogo.utils.SMSNotificationManager;
-import com.example.weightogo.utils.SessionManager;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
 
 /**
  * WorkManager Worker for sending daily reminder SMS.
  *
- * Scheduled as periodic work (24-hour interval) to remind users
- * to log their weight if they haven't already done so today.
+ * Each user picks a local reminder time (SMSNotificationManager.KEY_REMINDER_TIME,
+ * default 9:00 AM). Times are grouped into 15-minute buckets (see ReminderBuckets) and
+ * one run covers a whole bucket, reminding every user in it who hasn't logged their
+ * weight today.
  *
  * Behavior:
- * - Returns Result.success() if no logged-in user (skip reminder)
- * - Returns Result.success() if user already logged weight today (skip reminder)
- * - Calls SMSNotificationManager.sendDailyReminderSms() if user hasn't logged
- * - Returns Result.success() if SMS sent or skipped
- * - Returns Result.retry() if SMS sending failed (will retry later)
+ * - Finds all recipients due before the end of the current bucket with one query
+ *   (UserPreferenceDAO.getReminderRecipients()), so a late run also catches up on
+ *   any buckets it missed
+ * - Sends the reminders in one pass via SMSNotificationManager.sendDailyReminders()
+ * - Records today's date under KEY_REMINDER_LAST_SENT for each user reminded, so no
+ *   user is reminded twice a day (e.g. when clocks fall back and a bucket repeats)
+ * - Always returns Result.success(), even when the run fails: the next run is enqueued
+ *   with APPEND_OR_REPLACE behind this one, and a failed work request would cancel it.
+ *   A missed reminder is covered by the next day's run
  *
  * Scheduling:
- * Scheduled from SettingsActivity when user enables daily reminders
- * (see handleReminderToggle() method).
+ * One unique chain ({@link #UNIQUE_WORK_NAME}) of OneTimeWorkRequests for all users.
+ * Each run enqueues the next non-empty bucket, so wakeups per day are bounded by the
+ * number of distinct buckets, not users. {@link #schedule(Context)} replaces the
+ * pending run when a user changes their reminder settings, and TimeChangeReceiver
+ * does the same when the time zone or clock changes. DST needs no rescheduling: the
+ * delay is computed with ZonedDateTime, and the last-sent guard absorbs repeated hours.
  *
  * Phase 7.6 - Daily Reminder System
  */
@@ -41,6 +57,10 @@ public class DailyReminderWorker extends Worker {
 
     private static final String TAG = "DailyReminderWorker";
 
+    public static final String UNIQUE_WORK_NAME = "daily_reminder";
+
+    private final UserPreferenceDAO userPreferenceDAO;
+
     /**
      * Constructor required by WorkManager.
      *
@@ -48,67 +68,108 @@ public class DailyReminderWorker extends Worker {
      * @param params  Worker parameters
      */
     public DailyReminderWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        this(context, params, AppContainer.from(context).getUserPreferenceDAO());
+    }
+
+    /**
+     * Creates a worker reading preferences through the given DAO (tests only).
+     */
+    @VisibleForTesting
+    DailyReminderWorker(@NonNull Context context, @NonNull WorkerParameters params,
+                        @NonNull UserPreferenceDAO userPreferenceDAO) {
         super(context, params);
+        this.userPreferenceDAO = userPreferenceDAO;
     }
 
     /**
-     * Executes daily reminder logic.
+     * (Re)schedules the next run for the current set of reminder times, replacing any
+     * pending run. Call after a user's reminder settings change or the clock/zone moves.
+     * Must not be called on the main thread (reads the database).
      *
-     * Checks if user logged weight today, and sends SMS reminder if not.
+     * @param context any Context
+     */
+    public static void schedule(@NonNull Context context) {
+        scheduleNext(context, AppContainer.from(context).getUserPreferenceDAO(), ExistingWorkPolicy.REPLACE);
+    }
+
+    /**
+     * Enqueues the run for the next non-empty bucket after now.
      *
-     * @return Result.success() if reminder sent/skipped, Result.retry() if failed
+     * @param context           any Context
+     * @param userPreferenceDAO DAO used to read the reminder times
+     * @param policy            REPLACE from outside the chain; APPEND_OR_REPLACE from a run,
+     *                          so the running work isn't cancelled
      */
-    @NonNull
-    @Override
-    public Result doWork() {
-        Context context = getApplicationContext();
+    private static void scheduleNext(@NonNull Context context,
+                                     @NonNull UserPreferenceDAO userPreferenceDAO,
+                                     @NonNull ExistingWorkPolicy policy) {
+        WorkManager workManager = WorkManager.getInstance(context);
+
+        SortedSet<Integer> buckets = ReminderBuckets.bucketsOf(userPreferenceDAO.getReminderTimes());
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime nextRun = ReminderBuckets.nextRun(now, buckets);
+        if (nextRun == null) {
+            if (policy == ExistingWorkPolicy.REPLACE) {
+                workManager.cancelUniqueWork(UNIQUE_WORK_NAME);
+            }
+            AppLog.d(TAG, "scheduleNext: No users have reminders enabled");
+            return;
+        }
 
-        Log.d(TAG, "doWork: Daily reminder worker started");
+        long delayMillis = Duration.between(now, nextRun).toMillis();
 
-        // Get user ID from input data (thread-safe, passed from SettingsActivity)
-        long userId = getInputData().getLong("USER_ID", -1);
-        if (userId == -1) {
-            Log.d(TAG, "doWork: No user ID provided, skipping reminder");
-            return Result.success();
-        }
+        // Create constraints (requires battery not low)
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresBatteryNotLow(true)
+                .build();
 
-        Log.d(TAG, "doWork: Checking reminder for user_id=" + userId);
+        OneTimeWorkRequest reminderWork = new OneTimeWorkRequest.Builder(DailyReminderWorker.class)
+                .setConstraints(constraints)
+                .setInitialDelay(delayMillis, TimeUnit.MILLISECONDS)
+                .build();
 
-        // Initialize managers
-        WeighToGoDBHelper dbHelper = WeighToGoDBHelper.getInstance(context);
-        WeightEntryDAO weightEntryDAO = new WeightEntryDAO(dbHelper);
-        AchievementDAO achievementDAO = new AchievementDAO(dbHelper);
-        UserDAO userDAO = new UserDAO(dbHelper);
-        UserPreferenceDAO userPreferenceDAO = new UserPreferenceDAO(dbHelper);
-        SMSNotificationManager smsManager = SMSNotificationManager.getInstance(context,
-                userDAO, userPreferenceDAO, achievementDAO);
+        workManager.enqueueUniqueWork(UNIQUE_WORK_NAME, policy, reminderWork);
 
-        // Check if user logged weight today
-        LocalDate today = LocalDate.now();
-        WeightEntry todayEntry = weightEntryDAO.getWeightEntryForDate(userId, today);
+        AppLog.i(TAG, "scheduleNext: {} reminder buckets, next run at {} (in {} minutes)",
+                buckets.size(), nextRun.toLocalTime(), delayMillis / 1000 / 60);
+    }
 
-        if (todayEntry != null) {
-            Log.d(TAG, "doWork: User already logged weight today, skipping reminder");
-            return Result.success();
-        }
+    /**
+     * Reminds every eligible user due by the end of the current bucket, then schedules
+     * the next bucket.
+     *
+     * @return Result.success()
+     */
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
 
-        Log.d(TAG, "doWork: User has not logged weight today, attempting to send reminder SMS");
-
-        // Send reminder SMS
-        // Note: sendDailyReminderSms() returns false if:
-        // - User has no phone number (configuration issue - don't retry)
-        // - Reminders are disabled (user preference - don't retry)
-        // - SMS notifications are disabled (user preference - don't retry)
-        // - Actual SMS send failed (could retry, but will be handled by next scheduled run)
-        // Always return success to avoid unnecessary retries
-        boolean sent = smsManager.sendDailyReminderSms(userId);
-
-        if (sent) {
-            Log.i(TAG, "doWork: Daily reminder SMS sent to user " + userId);
-        } else {
-            Log.d(TAG, "doWork: Daily reminder SMS not sent (user config or send failure)");
+        ZonedDateTime now = ZonedDateTime.now();
+        LocalDate today = now.toLocalDate();
+        String dueBefore = ReminderBuckets.bucketEndBound(ReminderBuckets.bucketOf(now.toLocalTime()));
+
+        AppLog.d(TAG, "doWork: Daily reminder run started, due before {}", dueBefore);
+
+        try {
+            Map<Long, String> recipients = userPreferenceDAO.getReminderRecipients(today, dueBefore);
+            if (recipients.isEmpty()) {
+                AppLog.d(TAG, "doWork: No users need a reminder now");
+            } else {
+                List<Long> reminded = AppContainer.from(context).getSmsNotificationManager()
+                        .sendDailyReminders(recipients);
+                for (long userId : reminded) {
+                    userPreferenceDAO.setPreference(userId,
+                            SMSNotificationManager.KEY_REMINDER_LAST_SENT, today.toString());
+                }
+                AppLog.i(TAG, "doWork: Sent {} of {} daily reminders", reminded.size(), recipients.size());
+            }
+        } catch (Exception e) {
+            // Swallowed: failing this work would also fail the next run appended behind it
+            AppLog.e(TAG, "doWork: Exception", e);
         }
 
+        scheduleNext(context, userPreferenceDAO, ExistingWorkPolicy.APPEND_OR_REPLACE);
         return Result.success();
     }
 }
@@ -0,0 +1,144 @@
+package com.example.weightogo.workers;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.weightogo.AppContainer;
+import com.example.weightogo.database.DatabaseMaintenance;
+import com.example.weightogo.database.WeightArchiveDAO;
+import com.example.weightogo.utils.AppLog;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkManager Worker that keeps the database file small and its statistics current.
+ *
+ * Each run (see {@link WeightArchiveDAO} and {@link DatabaseMaintenance}):
+ * 1. Archives the entries older than their horizon of users who opted in to archiving
+ * 2. Hard-deletes weight entries soft-deleted more than {@link #RETENTION_DAYS} ago, in
+ *    batches of {@link #PURGE_BATCH_SIZE}
+ * 3. Runs ANALYZE the first time, PRAGMA optimize afterwards
+ * 4. Switches a database created by an older version to auto_vacuum = INCREMENTAL
+ *    (once; a full VACUUM). New databases start in that mode
+ * 5. Releases up to {@link #MAX_VACUUM_PAGES_PER_RUN} free pages
+ *
+ * The rows archived and purged and the bytes reclaimed are logged and returned as output data.
+ *
+ * Scheduling:
+ * Unique periodic work ({@link #UNIQUE_WORK_NAME}), once a day while the device is idle
+ * and charging, so the VACUUM and the purge never compete with the user.
+ */
+public class MaintenanceWorker extends Worker {
+
+    private static final String TAG = "MaintenanceWorker";
+
+    public static final String UNIQUE_WORK_NAME = "database_maintenance";
+
+    public static final String KEY_ROWS_ARCHIVED = "rows_archived";
+    public static final String KEY_ROWS_PURGED = "rows_purged";
+    public static final String KEY_BYTES_RECLAIMED = "bytes_reclaimed";
+
+    /** Days a deleted entry is kept before it is purged */
+    static final int RETENTION_DAYS = 30;
+
+    /** Rows deleted per transaction */
+    static final int PURGE_BATCH_SIZE = 500;
+
+    /** Most pages released per run (4 MB with the default 4 KB page) */
+    static final int MAX_VACUUM_PAGES_PER_RUN = 1024;
+
+    /**
+     * Constructor required by WorkManager.
+     *
+     * @param context Application context
+     * @param params  Worker parameters
+     */
+    public MaintenanceWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules the daily maintenance run, keeping an already scheduled one.
+     *
+     * @param context any Context
+     */
+    public static void schedule(@NonNull Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresDeviceIdle(true)
+                .setRequiresCharging(true)
+                .build();
+
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+                MaintenanceWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                UNIQUE_WORK_NAME,
+                ExistingPeriodicWorkPolicy.KEEP,
+                request
+        );
+        AppLog.d(TAG, "schedule: Daily maintenance scheduled");
+    }
+
+    /**
+     * Runs the maintenance steps.
+     *
+     * @return Result.success() with {@link #KEY_ROWS_ARCHIVED}, {@link #KEY_ROWS_PURGED} and
+     *         {@link #KEY_BYTES_RECLAIMED},
+     *         Result.retry() on an unexpected error
+     */
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            AppContainer container = AppContainer.from(getApplicationContext());
+            DatabaseMaintenance maintenance = new DatabaseMaintenance(container.getDbHelper());
+            WeightArchiveDAO archiveDAO = new WeightArchiveDAO(container.getDbHelper());
+            long sizeBefore = maintenance.getDatabaseSizeBytes();
+
+            // One transaction per user; a stopped run keeps the users it finished
+            int rowsArchived = 0;
+            LocalDate today = LocalDate.now();
+            for (Map.Entry<Long, Integer> horizon : container.getUserPreferenceDAO().getArchiveHorizons().entrySet()) {
+                if (isStopped()) {
+                    return Result.retry();
+                }
+                rowsArchived += archiveDAO.archiveEntries(horizon.getKey(), horizon.getValue(), today);
+            }
+
+            int rowsPurged = maintenance.purgeDeletedEntries(
+                    LocalDateTime.now().minusDays(RETENTION_DAYS), PURGE_BATCH_SIZE, this::isStopped);
+            if (isStopped()) {
+                return Result.retry();
+            }
+            maintenance.optimize();
+            maintenance.enableIncrementalVacuum();
+            maintenance.incrementalVacuum(MAX_VACUUM_PAGES_PER_RUN);
+
+            long bytesReclaimed = Math.max(0, sizeBefore - maintenance.getDatabaseSizeBytes());
+            AppLog.i(TAG, "doWork: Archived {} entries, purged {} entries, reclaimed {} bytes",
+                    rowsArchived, rowsPurged, bytesReclaimed);
+            return Result.success(new Data.Builder()
+                    .putInt(KEY_ROWS_ARCHIVED, rowsArchived)
+                    .putInt(KEY_ROWS_PURGED, rowsPurged)
+                    .putLong(KEY_BYTES_RECLAIMED, bytesReclaimed)
+                    .build());
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "doWork: Unexpected exception, will retry", e);
+            return Result.retry();
+        }
+    }
+}
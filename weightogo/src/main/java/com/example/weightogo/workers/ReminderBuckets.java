@@ -0,0 +1,119 @@
+package com.example.weightogo.workers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.weightogo.utils.SMSNotificationManager;
+
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Time arithmetic for the daily reminder scheduler.
+ *
+ * Reminder times are stored per user as local wall-clock "HH:mm" and grouped into
+ * {@link #BUCKET_MINUTES}-minute buckets (0 = 00:00-00:14 ... 95 = 23:45-23:59).
+ * DailyReminderWorker runs once at the start of each non-empty bucket, so the number
+ * of wakeups per day is bounded by the number of distinct buckets, not users.
+ *
+ * All "next run" calculations go through ZonedDateTime in the current zone, so the
+ * delay to the next bucket is correct across DST transitions (a start time inside a
+ * spring-forward gap moves to just after the gap).
+ */
+final class ReminderBuckets {
+
+    static final int BUCKET_MINUTES = 15;
+    static final int BUCKETS_PER_DAY = 24 * 60 / BUCKET_MINUTES;
+
+    private ReminderBuckets() {
+        // Static helpers only
+    }
+
+    /**
+     * @param time local time
+     * @return bucket containing {@code time}
+     */
+    static int bucketOf(@NonNull LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / BUCKET_MINUTES;
+    }
+
+    /**
+     * @param bucket bucket index
+     * @return local time the bucket starts
+     */
+    @NonNull
+    static LocalTime bucketStart(int bucket) {
+        return LocalTime.MIN.plusMinutes((long) bucket * BUCKET_MINUTES);
+    }
+
+    /**
+     * Exclusive upper bound of a bucket as an "HH:mm" string, for comparing against stored
+     * reminder times (zero-padded "HH:mm" strings sort in time order). The last bucket's
+     * bound is "24:00", which sorts after every valid time.
+     *
+     * @param bucket bucket index
+     * @return "HH:mm" of the next bucket's start
+     */
+    @NonNull
+    static String bucketEndBound(int bucket) {
+        int minutes = (bucket + 1) * BUCKET_MINUTES;
+        return String.format(Locale.US, "%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    /**
+     * Parses a stored reminder time.
+     *
+     * @param value stored "HH:mm" value, or null
+     * @return parsed time, or {@link SMSNotificationManager#DEFAULT_REMINDER_TIME} if missing or malformed
+     */
+    @NonNull
+    static LocalTime parseReminderTime(@Nullable String value) {
+        if (value != null) {
+            try {
+                return LocalTime.parse(value);
+            } catch (DateTimeParseException e) {
+                // Fall through to the default
+            }
+        }
+        return LocalTime.parse(SMSNotificationManager.DEFAULT_REMINDER_TIME);
+    }
+
+    /**
+     * @param reminderTimes stored "HH:mm" reminder times (duplicates allowed)
+     * @return distinct buckets, in time order
+     */
+    @NonNull
+    static SortedSet<Integer> bucketsOf(@NonNull Collection<String> reminderTimes) {
+        SortedSet<Integer> buckets = new TreeSet<>();
+        for (String time : reminderTimes) {
+            buckets.add(bucketOf(parseReminderTime(time)));
+        }
+        return buckets;
+    }
+
+    /**
+     * Finds the start of the next non-empty bucket strictly after {@code now}.
+     *
+     * @param now     current time in the device's zone
+     * @param buckets non-empty buckets
+     * @return next run time (today or tomorrow), or null if there are no buckets
+     */
+    @Nullable
+    static ZonedDateTime nextRun(@NonNull ZonedDateTime now, @NonNull SortedSet<Integer> buckets) {
+        if (buckets.isEmpty()) {
+            return null;
+        }
+        for (int bucket : buckets) {
+            ZonedDateTime start = ZonedDateTime.of(now.toLocalDate(), bucketStart(bucket), now.getZone());
+            if (start.isAfter(now)) {
+                return start;
+            }
+        }
+        return ZonedDateTime.of(now.toLocalDate().plusDays(1), bucketStart(buckets.first()), now.getZone());
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.weightogo.workers;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.work.BackoffPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.weightogo.AppContainer;
+import com.example.weightogo.database.AchievementDAO;
+import com.example.weightogo.database.SmsOutboxDAO;
+import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.SmsOutboxMessage;
+import com.example.weightogo.utils.AppLog;
+import com.example.weightogo.utils.NotificationContext;
+import com.example.weightogo.utils.SMSNotificationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkManager Worker that drains the sms_outbox table.
+ *
+ * Achievement SMS are queued by SMSNotificationManager.enqueueAchievementSms()
+ * when a weight entry is saved; this worker delivers them off the UI thread.
+ *
+ * Behavior:
+ * - Requeues SENDING messages whose sent broadcast never arrived (process died)
+ * - Delivers due PENDING messages in batches of {@link #BATCH_SIZE}
+ * - Composes each message at delivery time; messages whose alert was turned off,
+ *   or whose achievement no longer exists, are dropped
+ * - Merges each user's due messages into one SMS and hands it to SmsManager with
+ *   a sentIntent on every part; SmsSentReceiver records the carrier result for all of them
+ * - Postpones a user's messages while their SMS rate limit is exhausted
+ * - Failed attempts are retried with exponential backoff (30 s doubling, capped
+ *   at 1 h) until {@link #MAX_ATTEMPTS}, then marked FAILED
+ * - Schedules its own next run for the earliest pending retry
+ *
+ * Scheduling:
+ * Unique one-time work ({@link #UNIQUE_WORK_NAME}), replaced by each schedule()
+ * call. Claims are conditional updates, so overlapping runs never send a
+ * message twice.
+ */
+public class SmsOutboxWorker extends Worker {
+
+    private static final String TAG = "SmsOutboxWorker";
+
+    public static final String UNIQUE_WORK_NAME = "sms_outbox";
+
+    /** Messages read per query */
+    static final int BATCH_SIZE = 20;
+
+    /** Batches per run before yielding to a rescheduled run */
+    static final int MAX_BATCHES_PER_RUN = 10;
+
+    /** Attempts before a message is marked FAILED */
+    static final int MAX_ATTEMPTS = 5;
+
+    static final long BASE_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final long MAX_BACKOFF_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /** SENDING messages with no sent result after this long are assumed lost */
+    static final long SENT_RESULT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * Constructor required by WorkManager.
+     *
+     * @param context Application context
+     * @param params  Worker parameters
+     */
+    public SmsOutboxWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules an outbox run, replacing any run already scheduled.
+     *
+     * @param context     any Context
+     * @param delayMillis delay before the run (0 = as soon as possible)
+     */
+    public static void schedule(@NonNull Context context, long delayMillis) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(SmsOutboxWorker.class)
+                .setInitialDelay(Math.max(0, delayMillis), TimeUnit.MILLISECONDS)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BASE_BACKOFF_MILLIS, TimeUnit.MILLISECONDS)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniqueWork(
+                UNIQUE_WORK_NAME,
+                ExistingWorkPolicy.REPLACE,
+                request
+        );
+        AppLog.d(TAG, "schedule: Outbox run in {} ms", delayMillis);
+    }
+
+    /**
+     * Schedules a run for the earliest pending retry, if any.
+     *
+     * @param context   any Context
+     * @param outboxDAO outbox DAO
+     * @param checkBy   latest time to run even if nothing is pending (null = no limit)
+     */
+    static void scheduleNextAttempt(@NonNull Context context, @NonNull SmsOutboxDAO outboxDAO,
+                                    @Nullable LocalDateTime checkBy) {
+        LocalDateTime next = outboxDAO.getNextAttemptTime();
+        if (checkBy != null && (next == null || checkBy.isBefore(next))) {
+            next = checkBy;
+        }
+        if (next == null) {
+            AppLog.d(TAG, "scheduleNextAttempt: Outbox empty, nothing to schedule");
+            return;
+        }
+        schedule(context, Duration.between(LocalDateTime.now(), next).toMillis());
+    }
+
+    /**
+     * Records a failed attempt: retries with backoff, or gives up after MAX_ATTEMPTS.
+     *
+     * @param outboxDAO outbox DAO
+     * @param outboxId  message that failed (must be SENDING)
+     * @param attempts  attempts made so far, including the failed one
+     * @param error     reason for the failure
+     */
+    static void recordFailure(@NonNull SmsOutboxDAO outboxDAO, long outboxId, int attempts,
+                              @NonNull String error) {
+        if (attempts >= MAX_ATTEMPTS) {
+            outboxDAO.markFailed(outboxId, error);
+            AppLog.w(TAG, "recordFailure: outbox_id={} failed after {} attempts: {}", outboxId, attempts, error);
+        } else {
+            LocalDateTime next = LocalDateTime.now().plus(backoffMillis(attempts), ChronoUnit.MILLIS);
+            outboxDAO.scheduleRetry(outboxId, next, error);
+            AppLog.i(TAG, "recordFailure: outbox_id={} attempt {} failed, retry at {}", outboxId, attempts, next);
+        }
+    }
+
+    /**
+     * @param attempts attempts made so far (1 or more)
+     * @return delay before the next attempt
+     */
+    static long backoffMillis(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(BASE_BACKOFF_MILLIS << doublings, MAX_BACKOFF_MILLIS);
+    }
+
+    /**
+     * Delivers due outbox messages.
+     *
+     * @return Result.success() normally, Result.retry() on an unexpected error
+     */
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        AppLog.d(TAG, "doWork: Outbox worker started");
+
+        try {
+            AppContainer container = AppContainer.from(context);
+            SmsOutboxDAO outboxDAO = container.getSmsOutboxDAO();
+            AchievementDAO achievementDAO = container.getAchievementDAO();
+            SMSNotificationManager smsManager = container.getSmsNotificationManager();
+
+            outboxDAO.requeueStaleSending(
+                    LocalDateTime.now().minus(SENT_RESULT_TIMEOUT_MILLIS, ChronoUnit.MILLIS));
+
+            // Settings are resolved once per user per run, not once per message
+            Map<Long, NotificationContext> contexts = new HashMap<>();
+            int handed = 0;
+            for (int batch = 0; batch < MAX_BATCHES_PER_RUN && !isStopped(); batch++) {
+                List<SmsOutboxMessage> due = outboxDAO.getDueMessages(LocalDateTime.now(), BATCH_SIZE);
+                if (due.isEmpty()) {
+                    break;
+                }
+                // All due messages for a user go out as one SMS
+                Map<Long, List<SmsOutboxMessage>> byUser = new LinkedHashMap<>();
+                for (SmsOutboxMessage message : due) {
+                    byUser.computeIfAbsent(message.getUserId(), id -> new ArrayList<>()).add(message);
+                }
+                for (List<SmsOutboxMessage> messages : byUser.values()) {
+                    if (isStopped()) {
+                        break;
+                    }
+                    handed += deliver(context, outboxDAO, achievementDAO, smsManager, contexts, messages);
+                }
+            }
+
+            AppLog.i(TAG, "doWork: Handed {} messages to SmsManager", handed);
+
+            // Come back for retries, and for sent results that never arrive
+            LocalDateTime checkBy = handed > 0
+                    ? LocalDateTime.now().plus(SENT_RESULT_TIMEOUT_MILLIS, ChronoUnit.MILLIS)
+                    : null;
+            scheduleNextAttempt(context, outboxDAO, checkBy);
+            return Result.success();
+
+        } catch (Exception e) {
+            AppLog.e(TAG, "doWork: Unexpected exception, will retry", e);
+            return Result.retry();
+        }
+    }
+
+    /**
+     * Claims one user's due messages and sends them as a single aggregated SMS.
+     * If the user's SMS rate limit is exhausted, the messages are postponed
+     * without claiming them, so the wait does not count as a failed attempt.
+     *
+     * @param messages due messages for one user
+     * @return number of messages handed to SmsManager
+     */
+    private int deliver(@NonNull Context context, @NonNull SmsOutboxDAO outboxDAO,
+                        @NonNull AchievementDAO achievementDAO,
+                        @NonNull SMSNotificationManager smsManager,
+                        @NonNull Map<Long, NotificationContext> contexts,
+                        @NonNull List<SmsOutboxMessage> messages) {
+        NotificationContext notificationContext =
+                contexts.computeIfAbsent(messages.get(0).getUserId(), smsManager::loadNotificationContext);
+
+        long delayMillis = smsManager.getRateLimitDelayMillis(notificationContext);
+        if (delayMillis > 0) {
+            LocalDateTime next = LocalDateTime.now().plus(delayMillis, ChronoUnit.MILLIS);
+            for (SmsOutboxMessage message : messages) {
+                outboxDAO.postpone(message.getOutboxId(), next);
+            }
+            AppLog.d(TAG, "deliver: Rate limited, {} messages postponed by {} ms", messages.size(), delayMillis);
+            return 0;
+        }
+
+        List<SmsOutboxMessage> claimed = new ArrayList<>();
+        List<SMSNotificationManager.OutgoingSms> composed = new ArrayList<>();
+        for (SmsOutboxMessage message : messages) {
+            long outboxId = message.getOutboxId();
+            if (outboxDAO.claimForSending(outboxId) == 0) {
+                AppLog.d(TAG, "deliver: outbox_id={} already claimed", outboxId);
+                continue;
+            }
+
+            Achievement achievement = achievementDAO.getAchievementById(message.getAchievementId());
+            SMSNotificationManager.OutgoingSms sms = achievement != null
+                    ? smsManager.composeAchievementSms(notificationContext, achievement)
+                    : null;
+            if (sms == null) {
+                // Alert turned off, no phone/permission, or achievement gone: nothing to retry
+                outboxDAO.deleteMessage(outboxId);
+                AppLog.d(TAG, "deliver: outbox_id={} dropped (not sendable)", outboxId);
+                continue;
+            }
+            claimed.add(message);
+            composed.add(sms);
+        }
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        long[] outboxIds = new long[claimed.size()];
+        for (int i = 0; i < outboxIds.length; i++) {
+            outboxIds[i] = claimed.get(i).getOutboxId();
+        }
+        SMSNotificationManager.SentIntentFactory sentIntents = SmsSentReceiver.sentIntents(context, outboxIds);
+        if (!smsManager.sendSms(smsManager.aggregate(composed), sentIntents)) {
+            for (SmsOutboxMessage message : claimed) {
+                recordFailure(outboxDAO, message.getOutboxId(), message.getAttempts() + 1,
+                        "SmsManager rejected message");
+            }
+            return 0;
+        }
+        return claimed.size();
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.weightogo.workers;
+
+import android.app.Activity;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.weightogo.AppContainer;
+import com.example.weightogo.database.SmsOutboxDAO;
+import com.example.weightogo.models.SmsOutboxMessage;
+import com.example.weightogo.utils.AppLog;
+import com.example.weightogo.utils.BackgroundTask;
+import com.example.weightogo.utils.SMSNotificationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Receives the sentIntent broadcast for outbox SMS handed to SmsManager by
+ * SmsOutboxWorker and records the carrier result.
+ *
+ * Behavior:
+ * - Every part of a multipart SMS has its own sentIntent
+ * - RESULT_OK from every part: messages marked SENT and their achievements marked
+ *   notified, one batched update each in one transaction
+ * - Any error code from any part: retried with backoff via SmsOutboxWorker.recordFailure();
+ *   results from the remaining parts are then ignored
+ * - Part results are tallied in memory; if the process dies mid-send the messages stay
+ *   SENDING until SmsOutboxWorker requeues them
+ *
+ * Database work runs on BackgroundTask's BACKGROUND lane; goAsync() keeps the
+ * broadcast alive until it finishes.
+ */
+public class SmsSentReceiver extends BroadcastReceiver {
+
+    private static final String TAG = "SmsSentReceiver";
+
+    static final String ACTION_SMS_SENT = "com.example.weightogo.action.SMS_SENT";
+    static final String EXTRA_OUTBOX_IDS = "outbox_ids";
+    static final String EXTRA_SEND_ID = "send_id";
+    static final String EXTRA_PART_COUNT = "part_count";
+
+    /**
+     * Source of PendingIntent request codes. Each part gets its own, so no two live intents
+     * match and a new send never picks up a previous send's extras. Seeded from the clock
+     * so codes from before a process restart are unlikely to be reused.
+     */
+    private static final AtomicInteger NEXT_REQUEST_CODE = new AtomicInteger((int) System.currentTimeMillis());
+
+    /** Results still expected per multipart send, keyed by send ID */
+    private static final Map<Integer, PartTally> PENDING_SENDS = new HashMap<>();
+
+    /**
+     * Creates the sentIntents for one SMS covering one or more outbox messages.
+     *
+     * @param context   any Context
+     * @param outboxIds outbox message IDs merged into the SMS (at least one)
+     * @return factory creating a one-shot broadcast PendingIntent per part
+     */
+    @NonNull
+    static SMSNotificationManager.SentIntentFactory sentIntents(@NonNull Context context, @NonNull long[] outboxIds) {
+        int sendId = NEXT_REQUEST_CODE.getAndIncrement();
+        return (part, partCount) -> {
+            Intent intent = new Intent(context, SmsSentReceiver.class)
+                    .setAction(ACTION_SMS_SENT)
+                    .putExtra(EXTRA_OUTBOX_IDS, outboxIds)
+                    .putExtra(EXTRA_SEND_ID, sendId)
+                    .putExtra(EXTRA_PART_COUNT, partCount);
+            return PendingIntent.getBroadcast(context, NEXT_REQUEST_CODE.getAndIncrement(), intent,
+                    PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_ONE_SHOT);
+        };
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        long[] outboxIds = intent.getLongArrayExtra(EXTRA_OUTBOX_IDS);
+        if (outboxIds == null || outboxIds.length == 0) {
+            AppLog.w(TAG, "onReceive: Missing outbox_ids");
+            return;
+        }
+
+        Integer collected = collectPart(intent.getIntExtra(EXTRA_SEND_ID, 0),
+                intent.getIntExtra(EXTRA_PART_COUNT, 1), getResultCode());
+        if (collected == null) {
+            return;
+        }
+
+        int resultCode = collected;
+        Context appContext = context.getApplicationContext();
+        PendingResult pendingResult = goAsync();
+
+        BackgroundTask.execute(BackgroundTask.Priority.BACKGROUND,
+            () -> handleResult(appContext, outboxIds, resultCode),
+            new BackgroundTask.Callback<Integer>() {
+                @Override
+                public void onResult(Integer result) {
+                    pendingResult.finish();
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    AppLog.e(TAG, "onReceive: Failed to record result for " + outboxIds.length + " outbox messages", error);
+                    pendingResult.finish();
+                }
+            });
+    }
+
+    /**
+     * Folds one part's carrier result into its send.
+     *
+     * @param sendId     send the part belongs to
+     * @param partCount  number of parts in the send
+     * @param resultCode the part's broadcast result code
+     * @return result to record for the whole SMS: the first error from any part, or RESULT_OK
+     *         once every part succeeded; null while parts are outstanding or after an error
+     *         was already returned
+     */
+    @Nullable
+    static synchronized Integer collectPart(int sendId, int partCount, int resultCode) {
+        if (partCount <= 1) {
+            return resultCode;
+        }
+
+        PartTally tally = PENDING_SENDS.get(sendId);
+        if (tally == null) {
+            tally = new PartTally(partCount);
+            PENDING_SENDS.put(sendId, tally);
+        }
+        tally.outstanding--;
+        if (tally.outstanding <= 0) {
+            PENDING_SENDS.remove(sendId);
+        }
+
+        if (resultCode != Activity.RESULT_OK) {
+            if (tally.failed) {
+                return null;
+            }
+            tally.failed = true;
+            return resultCode;
+        }
+        return tally.outstanding <= 0 && !tally.failed ? Activity.RESULT_OK : null;
+    }
+
+    /**
+     * Records the carrier result for the SENDING messages merged into one SMS. On success
+     * the messages are marked SENT and their achievements notified with one batched update
+     * each, in one transaction.
+     *
+     * @param context    application context
+     * @param outboxIds  outbox message IDs the SMS covered
+     * @param resultCode broadcast result code (Activity.RESULT_OK or an SmsManager error)
+     * @return number of messages updated
+     */
+    static int handleResult(@NonNull Context context, @NonNull long[] outboxIds, int resultCode) {
+        AppContainer container = AppContainer.from(context);
+        SmsOutboxDAO outboxDAO = container.getSmsOutboxDAO();
+
+        List<SmsOutboxMessage> sending = new ArrayList<>();
+        for (SmsOutboxMessage message : outboxDAO.getMessages(outboxIds)) {
+            if (SmsOutboxMessage.STATUS_SENDING.equals(message.getStatus())) {
+                sending.add(message);
+            }
+        }
+        if (sending.isEmpty()) {
+            AppLog.d(TAG, "handleResult: None of {} outbox messages is still SENDING, ignoring", outboxIds.length);
+            return 0;
+        }
+
+        if (resultCode != Activity.RESULT_OK) {
+            for (SmsOutboxMessage message : sending) {
+                SmsOutboxWorker.recordFailure(outboxDAO, message.getOutboxId(), message.getAttempts(),
+                        "Send failed with result code " + resultCode);
+            }
+            SmsOutboxWorker.scheduleNextAttempt(context, outboxDAO, null);
+            return sending.size();
+        }
+
+        long[] sentIds = new long[sending.size()];
+        long[] achievementIds = new long[sending.size()];
+        for (int i = 0; i < sending.size(); i++) {
+            sentIds[i] = sending.get(i).getOutboxId();
+            achievementIds[i] = sending.get(i).getAchievementId();
+        }
+
+        SQLiteDatabase db = container.getDbHelper().getWritableDatabase();
+        int sent;
+        db.beginTransaction();
+        try {
+            sent = outboxDAO.markSent(sentIds);
+            container.getAchievementDAO().markNotified(achievementIds);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        AppLog.i(TAG, "handleResult: {} outbox messages sent", sent);
+        return sent;
+    }
+
+    /**
+     * Part results received so far for one multipart send.
+     */
+    private static final class PartTally {
+        int outstanding;
+        boolean failed;
+
+        PartTally(int partCount) {
+            this.outstanding = partCount;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.weightogo.workers;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.example.weightogo.utils.AppLog;
+import com.example.weightogo.utils.BackgroundTask;
+
+/**
+ * Re-anchors the daily reminder chain when the time zone or wall clock changes.
+ *
+ * WorkManager delays are elapsed-time based, so after a zone change the pending
+ * reminder run would fire at the old zone's local time. Only the single pending run of
+ * DailyReminderWorker is replaced; there is no per-user or per-bucket work to touch.
+ * DST transitions don't broadcast and don't need this (see DailyReminderWorker).
+ *
+ * Database work runs on BackgroundTask's BACKGROUND lane; goAsync() keeps the
+ * broadcast alive until it finishes.
+ */
+public class TimeChangeReceiver extends BroadcastReceiver {
+
+    private static final String TAG = "TimeChangeReceiver";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (!Intent.ACTION_TIMEZONE_CHANGED.equals(action) && !Intent.ACTION_TIME_CHANGED.equals(action)) {
+            return;
+        }
+
+        AppLog.d(TAG, "onReceive: {}, rescheduling daily reminders", action);
+        Context appContext = context.getApplicationContext();
+        PendingResult pendingResult = goAsync();
+
+        BackgroundTask.execute(BackgroundTask.Priority.BACKGROUND,
+            () -> {
+                DailyReminderWorker.schedule(appContext);
+                return true;
+            },
+            new BackgroundTask.Callback<Boolean>() {
+                @Override
+                public void onResult(Boolean result) {
+                    pendingResult.finish();
+                }
+
+                @Override
+                public void onError(Exception error) {
+                    AppLog.e(TAG, "onReceive: Failed to reschedule daily reminders", error);
+                    pendingResult.finish();
+                }
+            });
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.weightogo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Arrays;
+
+/**
+ * Unit tests for AppContainer.
+ * Verifies components are created lazily, once, and shared by every caller.
+ * Uses fresh containers where creation order matters, since the Application's own
+ * container is already being filled by the startup prefetch.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AppContainerTest {
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.getApplication();
+    }
+
+    /**
+     * Test 1: the container comes from the Application and a new one starts empty.
+     */
+    @Test
+    public void test_from_beforeFirstUse_createsNothing() {
+        // ACT
+        AppContainer container = new AppContainer(context);
+
+        // ASSERT
+        assertSame(AppContainer.from(context), AppContainer.from(context));
+        assertTrue(container.getCreatedComponents().isEmpty());
+    }
+
+    /**
+     * Test 2: the login screen's UserDAO only opens the database helper.
+     */
+    @Test
+    public void test_getUserDAO_createsOnlyHelperAndUserDAO() {
+        // ARRANGE
+        AppContainer container = new AppContainer(context);
+
+        // ACT
+        container.getUserDAO();
+
+        // ASSERT
+        assertEquals(Arrays.asList("WeighToGoDBHelper", "UserDAO"), container.getCreatedComponents());
+    }
+
+    /**
+     * Test 3: repeated calls return the same instances.
+     */
+    @Test
+    public void test_getters_calledTwice_returnSameInstance() {
+        // ARRANGE
+        AppContainer container = AppContainer.from(context);
+
+        // ASSERT
+        assertSame(container.getWeightEntryDAO(), container.getWeightEntryDAO());
+        assertSame(container.getAchievementManager(), container.getAchievementManager());
+        assertSame(container.getSmsNotificationManager(), container.getSmsNotificationManager());
+    }
+
+    /**
+     * Test 4: AchievementManager pulls in its DAOs once, shared with other callers.
+     */
+    @Test
+    public void test_getAchievementManager_reusesExistingDaos() {
+        // ARRANGE
+        AppContainer container = new AppContainer(context);
+        container.getWeightEntryDAO();
+
+        // ACT
+        container.getAchievementManager();
+
+        // ASSERT
+        assertEquals(Arrays.asList("WeighToGoDBHelper", "WeightEntryDAO", "AchievementDAO",
+                "GoalWeightDAO", "AchievementManager"), container.getCreatedComponents());
+    }
+}
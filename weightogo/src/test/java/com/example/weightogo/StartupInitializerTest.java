@@ -0,0 +1,148 @@
+package com.example.weightogo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import com.example.weightogo.database.DashboardSnapshot;
+import com.example.weightogo.database.WeighToGoDBHelper;
+import com.example.weightogo.models.User;
+import com.example.weightogo.models.WeightEntry;
+import com.example.weightogo.utils.SessionManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Unit tests for StartupInitializer.
+ * Runs the prefetch inline on a fresh container so results are deterministic.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class StartupInitializerTest {
+
+    private Context context;
+    private AppContainer container;
+    private SessionManager sessionManager;
+    private long testUserId;
+
+    @Before
+    public void setUp() throws Exception {
+        context = RuntimeEnvironment.getApplication();
+        container = new AppContainer(context);
+        sessionManager = SessionManager.getInstance(context);
+        sessionManager.logout();
+
+        User user = new User();
+        user.setUsername("startup_user_" + System.currentTimeMillis());
+        user.setPasswordHash("hash123");
+        user.setSalt("salt123");
+        user.setPasswordAlgorithm("SHA256");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        user.setActive(true);
+        testUserId = container.getUserDAO().insertUser(user);
+        assertTrue("Test user should be created", testUserId > 0);
+        user.setUserId(testUserId);
+
+        WeightEntry entry = new WeightEntry();
+        entry.setUserId(testUserId);
+        entry.setWeightValue(180.0);
+        entry.setWeightUnit("lbs");
+        entry.setWeightDate(LocalDate.now());
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setUpdatedAt(LocalDateTime.now());
+        assertTrue(container.getWeightEntryDAO().insertWeightEntry(entry) > 0);
+
+        sessionManager.createSession(user);
+    }
+
+    @After
+    public void tearDown() {
+        sessionManager.logout();
+        if (testUserId > 0) {
+            container.getUserDAO().deleteUser(testUserId);
+        }
+    }
+
+    /**
+     * Test 1: a logged-in user's dashboard is prefetched and can be taken once.
+     */
+    @Test
+    public void test_takeDashboardSnapshot_withSession_returnsSnapshotOnce() {
+        // ARRANGE
+        StartupInitializer initializer = new StartupInitializer(context, container);
+        initializer.startInline();
+
+        // ACT
+        DashboardSnapshot first = initializer.takeDashboardSnapshot(testUserId);
+        DashboardSnapshot second = initializer.takeDashboardSnapshot(testUserId);
+
+        // ASSERT
+        assertNotNull(first);
+        assertEquals(testUserId, first.getUserId());
+        assertNotNull(first.getDisplayName());
+        assertEquals(1, first.getWeightEntries().size());
+        assertNull(second);
+    }
+
+    /**
+     * Test 2: the snapshot is not handed to a different user.
+     */
+    @Test
+    public void test_takeDashboardSnapshot_forOtherUser_returnsNull() {
+        // ARRANGE
+        StartupInitializer initializer = new StartupInitializer(context, container);
+        initializer.startInline();
+
+        // ACT & ASSERT
+        assertNull(initializer.takeDashboardSnapshot(testUserId + 1));
+    }
+
+    /**
+     * Test 3: without a session only the database is opened.
+     */
+    @Test
+    public void test_startInline_withoutSession_opensDatabaseOnly() {
+        // ARRANGE
+        sessionManager.logout();
+        AppContainer fresh = new AppContainer(context);
+        StartupInitializer initializer = new StartupInitializer(context, fresh);
+
+        // ACT
+        initializer.startInline();
+
+        // ASSERT
+        assertNull(initializer.takeDashboardSnapshot(testUserId));
+        assertEquals(Arrays.asList("WeighToGoDBHelper", "UserDAO"), fresh.getCreatedComponents());
+    }
+
+    /**
+     * Test 4: the snapshot's stamp goes stale after a later write.
+     */
+    @Test
+    public void test_snapshotStamp_afterWrite_hasChanged() {
+        // ARRANGE
+        StartupInitializer initializer = new StartupInitializer(context, container);
+        initializer.startInline();
+        DashboardSnapshot snapshot = initializer.takeDashboardSnapshot(testUserId);
+        assertNotNull(snapshot);
+        WeighToGoDBHelper dbHelper = container.getDbHelper();
+
+        // ACT
+        dbHelper.getInvalidationTracker().notifyWrite(WeighToGoDBHelper.TABLE_DAILY_WEIGHTS);
+
+        // ASSERT
+        assertTrue(dbHelper.getInvalidationTracker().hasChanged(snapshot.getStamp()));
+    }
+}
@@ -2,6 +2,7 @@ package com.example.weightogo.adapters;
 
 import android.content.Context;
 
+import com.example.weightogo.database.GoalProgress;
 import com.example.weightogo.models.GoalWeight;
 
 import org.junit.Before;
@@ -34,7 +35,7 @@ import static org.junit.Assert.assertNotNull;
 public class GoalHistoryAdapterTest {
 
     private GoalHistoryAdapter adapter;
-    private List<GoalWeight> testGoals;
+    private List<GoalProgress> testGoals;
     private Context context;
 
     @Before
@@ -50,7 +51,7 @@ public class GoalHistoryAdapterTest {
     @Test
     public void test_constructor_withEmptyList_createsAdapter() {
         // ARRANGE
-        List<GoalWeight> emptyList = new ArrayList<>();
+        List<GoalProgress> emptyList = new ArrayList<>();
 
         // ACT
         adapter = new GoalHistoryAdapter(emptyList);
@@ -88,7 +89,7 @@ public class GoalHistoryAdapterTest {
         assertEquals("Initial count should be 0", 0, adapter.getItemCount());
 
         // Create new goals
-        List<GoalWeight> newGoals = new ArrayList<>();
+        List<GoalProgress> newGoals = new ArrayList<>();
         createTestGoals(2);
         newGoals.addAll(testGoals);
 
@@ -138,7 +139,8 @@ public class GoalHistoryAdapterTest {
             goal.setAchieved(true);
             goal.setCreatedAt(LocalDateTime.now().minusDays(60 + i));
             goal.setUpdatedAt(LocalDateTime.now().minusDays(15 + i));
-            testGoals.add(goal);
+            testGoals.add(new GoalProgress(goal, LocalDate.now().minusDays(15 + i), 30, 152.0, 149.5,
+                    LocalDate.now().minusDays(20 + i)));
         }
     }
 }
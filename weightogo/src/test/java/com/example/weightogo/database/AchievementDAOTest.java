@@ -4,11 +4,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import android.content.Context;
 
 import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.AchievementType;
 import com.example.weightogo.models.GoalWeight;
 import com.example.weightogo.models.User;
 
@@ -20,6 +22,8 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -90,9 +94,7 @@ public class AchievementDAOTest {
         Achievement achievement = new Achievement();
         achievement.setUserId(testUserId);
         achievement.setGoalId(testGoalId);
-        achievement.setAchievementType("GOAL_REACHED");
-        achievement.setTitle("Goal Reached!");
-        achievement.setDescription("You reached your goal of 150 lbs");
+        achievement.setAchievementType(AchievementType.GOAL_REACHED);
         achievement.setValue(150.0);
         achievement.setAchievedAt(LocalDateTime.now());
         achievement.setNotified(false);
@@ -107,9 +109,9 @@ public class AchievementDAOTest {
     @Test
     public void test_getAchievementsForUser_withMultiple_returnsAllUserAchievements() {
         // ARRANGE
-        Achievement achievement1 = createTestAchievement("FIRST_ENTRY", "First Step!", false);
-        Achievement achievement2 = createTestAchievement("MILESTONE_5", "5 lbs Lost!", false);
-        Achievement achievement3 = createTestAchievement("STREAK_7", "7-Day Streak!", false);
+        Achievement achievement1 = createTestAchievement(AchievementType.FIRST_ENTRY, false);
+        Achievement achievement2 = createTestAchievement(AchievementType.MILESTONE_5, false);
+        Achievement achievement3 = createTestAchievement(AchievementType.STREAK_7, false);
 
         long id1 = achievementDAO.insertAchievement(achievement1);
         long id2 = achievementDAO.insertAchievement(achievement2);
@@ -128,9 +130,9 @@ public class AchievementDAOTest {
     @Test
     public void test_getAchievementsByType_filtersCorrectly() {
         // ARRANGE
-        Achievement milestone5 = createTestAchievement("MILESTONE_5", "5 lbs Lost!", false);
-        Achievement milestone10 = createTestAchievement("MILESTONE_10", "10 lbs Lost!", false);
-        Achievement streak7 = createTestAchievement("STREAK_7", "7-Day Streak!", false);
+        Achievement milestone5 = createTestAchievement(AchievementType.MILESTONE_5, false);
+        Achievement milestone10 = createTestAchievement(AchievementType.MILESTONE_10, false);
+        Achievement streak7 = createTestAchievement(AchievementType.STREAK_7, false);
 
         achievementDAO.insertAchievement(milestone5);
         achievementDAO.insertAchievement(milestone10);
@@ -138,19 +140,19 @@ public class AchievementDAOTest {
 
         // ACT
         List<Achievement> milestoneAchievements = achievementDAO.getAchievementsByType(
-                testUserId, "MILESTONE_5");
+                testUserId, AchievementType.MILESTONE_5);
 
         // ASSERT
         assertNotNull("Filtered list should not be null", milestoneAchievements);
         assertEquals("Should have 1 MILESTONE_5 achievement", 1, milestoneAchievements.size());
-        assertEquals("Should be MILESTONE_5 type", "MILESTONE_5",
+        assertEquals("Should be MILESTONE_5 type", AchievementType.MILESTONE_5,
                 milestoneAchievements.get(0).getAchievementType());
     }
 
     @Test
     public void test_updateIsNotified_setsFlag() {
         // ARRANGE
-        Achievement achievement = createTestAchievement("GOAL_REACHED", "Goal Reached!", false);
+        Achievement achievement = createTestAchievement(AchievementType.GOAL_REACHED, false);
         long achievementId = achievementDAO.insertAchievement(achievement);
         assertTrue("Achievement should be inserted", achievementId > 0);
 
@@ -169,9 +171,9 @@ public class AchievementDAOTest {
     @Test
     public void test_getUnnotifiedAchievements_returnsOnlyUnnotified() {
         // ARRANGE
-        Achievement notified = createTestAchievement("FIRST_ENTRY", "First!", true);
-        Achievement unnotified1 = createTestAchievement("MILESTONE_5", "5 lbs!", false);
-        Achievement unnotified2 = createTestAchievement("STREAK_7", "Streak!", false);
+        Achievement notified = createTestAchievement(AchievementType.FIRST_ENTRY, true);
+        Achievement unnotified1 = createTestAchievement(AchievementType.MILESTONE_5, false);
+        Achievement unnotified2 = createTestAchievement(AchievementType.STREAK_7, false);
 
         long id1 = achievementDAO.insertAchievement(notified);
         long id2 = achievementDAO.insertAchievement(unnotified1);
@@ -197,8 +199,7 @@ public class AchievementDAOTest {
         // ARRANGE
         Achievement achievement = new Achievement();
         achievement.setUserId(99999); // Non-existent user
-        achievement.setAchievementType("GOAL_REACHED");
-        achievement.setTitle("Test");
+        achievement.setAchievementType(AchievementType.GOAL_REACHED);
         achievement.setAchievedAt(LocalDateTime.now());
         achievement.setNotified(false);
 
@@ -215,9 +216,7 @@ public class AchievementDAOTest {
         Achievement achievement = new Achievement();
         achievement.setUserId(testUserId);
         achievement.setGoalId(null); // NULL goal ID
-        achievement.setAchievementType("FIRST_ENTRY");
-        achievement.setTitle("First Step!");
-        achievement.setDescription("You logged your first weight entry");
+        achievement.setAchievementType(AchievementType.FIRST_ENTRY);
         achievement.setAchievedAt(LocalDateTime.now());
         achievement.setNotified(false);
 
@@ -249,12 +248,12 @@ public class AchievementDAOTest {
     @Test
     public void test_hasAchievementType_withExisting_returnsTrue() {
         // ARRANGE
-        Achievement achievement = createTestAchievement("GOAL_REACHED", "Goal!", false);
+        Achievement achievement = createTestAchievement(AchievementType.GOAL_REACHED, false);
         long id = achievementDAO.insertAchievement(achievement);
         assertTrue("Achievement should be inserted", id > 0);
 
         // ACT
-        boolean exists = achievementDAO.hasAchievementType(testUserId, "GOAL_REACHED");
+        boolean exists = achievementDAO.hasAchievementType(testUserId, AchievementType.GOAL_REACHED);
 
         // ASSERT
         assertTrue("GOAL_REACHED should exist for user", exists);
@@ -265,13 +264,13 @@ public class AchievementDAOTest {
         // ARRANGE - Insert 3 achievements with different timestamps
         LocalDateTime now = LocalDateTime.now();
 
-        Achievement old = createTestAchievement("FIRST_ENTRY", "First!", false);
+        Achievement old = createTestAchievement(AchievementType.FIRST_ENTRY, false);
         old.setAchievedAt(now.minusDays(2));
 
-        Achievement middle = createTestAchievement("MILESTONE_5", "5 lbs!", false);
+        Achievement middle = createTestAchievement(AchievementType.MILESTONE_5, false);
         middle.setAchievedAt(now.minusDays(1));
 
-        Achievement recent = createTestAchievement("STREAK_7", "Streak!", false);
+        Achievement recent = createTestAchievement(AchievementType.STREAK_7, false);
         recent.setAchievedAt(now);
 
         // Insert in random order
@@ -284,11 +283,11 @@ public class AchievementDAOTest {
 
         // ASSERT
         assertEquals("Should have 3 achievements", 3, achievements.size());
-        assertEquals("First should be most recent", "STREAK_7",
+        assertEquals("First should be most recent", AchievementType.STREAK_7,
                 achievements.get(0).getAchievementType());
-        assertEquals("Second should be middle", "MILESTONE_5",
+        assertEquals("Second should be middle", AchievementType.MILESTONE_5,
                 achievements.get(1).getAchievementType());
-        assertEquals("Third should be oldest", "FIRST_ENTRY",
+        assertEquals("Third should be oldest", AchievementType.FIRST_ENTRY,
                 achievements.get(2).getAchievementType());
     }
 
@@ -299,7 +298,7 @@ public class AchievementDAOTest {
         // ARRANGE - no achievements inserted
 
         // ACT
-        boolean exists = achievementDAO.hasAchievementType(testUserId, "GOAL_REACHED");
+        boolean exists = achievementDAO.hasAchievementType(testUserId, AchievementType.GOAL_REACHED);
 
         // ASSERT
         assertFalse("GOAL_REACHED should not exist", exists);
@@ -310,10 +309,10 @@ public class AchievementDAOTest {
         // ARRANGE
         LocalDateTime now = LocalDateTime.now();
 
-        Achievement old = createTestAchievement("FIRST_ENTRY", "First!", false);
+        Achievement old = createTestAchievement(AchievementType.FIRST_ENTRY, false);
         old.setAchievedAt(now.minusDays(5));
 
-        Achievement latest = createTestAchievement("GOAL_REACHED", "Goal!", false);
+        Achievement latest = createTestAchievement(AchievementType.GOAL_REACHED, false);
         latest.setAchievedAt(now);
 
         achievementDAO.insertAchievement(old);
@@ -324,14 +323,14 @@ public class AchievementDAOTest {
 
         // ASSERT
         assertNotNull("Latest achievement should not be null", latestAchievement);
-        assertEquals("Should be GOAL_REACHED", "GOAL_REACHED",
+        assertEquals("Should be GOAL_REACHED", AchievementType.GOAL_REACHED,
                 latestAchievement.getAchievementType());
     }
 
     @Test
     public void test_insertAchievement_withValue_savesCorrectly() {
         // ARRANGE
-        Achievement achievement = createTestAchievement("MILESTONE_10", "10 lbs Lost!", false);
+        Achievement achievement = createTestAchievement(AchievementType.MILESTONE_10, false);
         achievement.setValue(10.0); // Milestone value
 
         // ACT
@@ -358,18 +357,153 @@ public class AchievementDAOTest {
         assertNull("Latest should be null when no achievements exist", latest);
     }
 
+    // ========== One-Time Achievement Tests ==========
+
+    @Test
+    public void test_insertAchievement_withOneTimeTypeAlreadyAwarded_returnsMinus1() {
+        // ARRANGE
+        long firstId = achievementDAO.insertAchievement(createTestAchievement(AchievementType.FIRST_ENTRY, false));
+
+        // ACT
+        long secondId = achievementDAO.insertAchievement(createTestAchievement(AchievementType.FIRST_ENTRY, false));
+
+        // ASSERT
+        assertTrue("First award should be inserted", firstId > 0);
+        assertEquals("Second award should be ignored", -1, secondId);
+        assertEquals(1, achievementDAO.getAchievementsByType(testUserId, AchievementType.FIRST_ENTRY).size());
+    }
+
+    @Test
+    public void test_insertAchievements_withMixedBatch_returnsOnlyInsertedRows() {
+        // ARRANGE - FIRST_ENTRY already awarded; NEW_LOW may repeat
+        achievementDAO.insertAchievement(createTestAchievement(AchievementType.FIRST_ENTRY, false));
+        Achievement duplicate = createTestAchievement(AchievementType.FIRST_ENTRY, false);
+        Achievement milestone = createTestAchievement(AchievementType.MILESTONE_5, false);
+        Achievement low1 = createTestAchievement(AchievementType.NEW_LOW, false);
+        Achievement low2 = createTestAchievement(AchievementType.NEW_LOW, false);
+
+        // ACT
+        List<Achievement> inserted = achievementDAO.insertAchievements(
+                Arrays.asList(duplicate, milestone, low1, low2));
+
+        // ASSERT
+        assertEquals(3, inserted.size());
+        assertSame(milestone, inserted.get(0));
+        assertTrue("Inserted rows get their IDs", milestone.getAchievementId() > 0);
+        assertEquals("Skipped row keeps no ID", 0, duplicate.getAchievementId());
+        assertEquals(2, achievementDAO.getAchievementsByType(testUserId, AchievementType.NEW_LOW).size());
+        assertEquals(4, achievementDAO.getAchievementsForUser(testUserId).size());
+    }
+
+    @Test
+    public void test_insertAchievements_withSameOneTimeTypeTwice_insertsOnce() {
+        // ACT
+        List<Achievement> inserted = achievementDAO.insertAchievements(Arrays.asList(
+                createTestAchievement(AchievementType.STREAK_7, false),
+                createTestAchievement(AchievementType.STREAK_7, false)));
+
+        // ASSERT
+        assertEquals(1, inserted.size());
+        assertEquals(1, achievementDAO.getAchievementsByType(testUserId, AchievementType.STREAK_7).size());
+    }
+
+    @Test
+    public void test_markNotified_withSeveralIds_updatesOnlyThose() {
+        // ARRANGE
+        long id1 = achievementDAO.insertAchievement(createTestAchievement(AchievementType.FIRST_ENTRY, false));
+        long id2 = achievementDAO.insertAchievement(createTestAchievement(AchievementType.MILESTONE_5, false));
+        long id3 = achievementDAO.insertAchievement(createTestAchievement(AchievementType.STREAK_7, false));
+
+        // ACT
+        int updated = achievementDAO.markNotified(new long[]{id1, id3, 99999L});
+
+        // ASSERT
+        assertEquals("Unknown IDs are ignored", 2, updated);
+        List<Achievement> unnotified = achievementDAO.getUnnotifiedAchievements(testUserId);
+        assertEquals(1, unnotified.size());
+        assertEquals(id2, unnotified.get(0).getAchievementId());
+    }
+
+    @Test
+    public void test_markNotified_withMoreIdsThanOneStatement_updatesAll() {
+        // ARRANGE - more IDs than fit in one IN (...) list
+        List<Achievement> lows = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            lows.add(createTestAchievement(AchievementType.NEW_LOW, false));
+        }
+        List<Achievement> inserted = achievementDAO.insertAchievements(lows);
+        long[] ids = new long[inserted.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = inserted.get(i).getAchievementId();
+        }
+
+        // ACT
+        int updated = achievementDAO.markNotified(ids);
+
+        // ASSERT
+        assertEquals(1200, updated);
+        assertTrue(achievementDAO.getUnnotifiedAchievements(testUserId).isEmpty());
+    }
+
+    @Test
+    public void test_markNotified_withNoIds_returnsZero() {
+        assertEquals(0, achievementDAO.markNotified(new long[0]));
+    }
+
+    @Test
+    public void test_getAchievementFeed_pagesThroughHistoryNewestFirst() {
+        // ARRANGE - 5 achievements, two sharing a timestamp across the page boundary
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        LocalDateTime[] times = {now.minusDays(4), now.minusDays(3), now.minusDays(2), now.minusDays(2), now};
+        List<Long> expected = new ArrayList<>();
+        for (LocalDateTime time : times) {
+            Achievement low = createTestAchievement(AchievementType.NEW_LOW, false);
+            low.setAchievedAt(time);
+            // Newest first; of the two with the same achieved_at, the higher ID comes first
+            expected.add(0, achievementDAO.insertAchievement(low));
+        }
+
+        // ACT
+        List<Long> actual = new ArrayList<>();
+        Achievement last = null;
+        List<Achievement> page;
+        int pages = 0;
+        do {
+            page = achievementDAO.getAchievementFeed(testUserId, last, 2);
+            for (Achievement achievement : page) {
+                actual.add(achievement.getAchievementId());
+            }
+            last = page.isEmpty() ? null : page.get(page.size() - 1);
+            pages++;
+        } while (page.size() == 2);
+
+        // ASSERT
+        assertEquals(expected, actual);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    public void test_getAchievementFeed_withOtherUsersAchievements_returnsOnlyUsers() {
+        // ARRANGE
+        achievementDAO.insertAchievement(createTestAchievement(AchievementType.FIRST_ENTRY, false));
+
+        // ACT
+        List<Achievement> page = achievementDAO.getAchievementFeed(testUserId + 1, null, 10);
+
+        // ASSERT
+        assertTrue(page.isEmpty());
+    }
+
     // ========== Helper Methods ==========
 
     /**
      * Helper method to create a test achievement with common defaults.
      */
-    private Achievement createTestAchievement(String type, String title, boolean isNotified) {
+    private Achievement createTestAchievement(AchievementType type, boolean isNotified) {
         Achievement achievement = new Achievement();
         achievement.setUserId(testUserId);
         achievement.setGoalId(testGoalId);
         achievement.setAchievementType(type);
-        achievement.setTitle(title);
-        achievement.setDescription("Test description for " + title);
         achievement.setAchievedAt(LocalDateTime.now());
         achievement.setNotified(isNotified);
         return achievement;
@@ -0,0 +1,220 @@
+package com.example.weightogo.database;
+
+import static com.example.weightogo.database.WeightEntryFixtures.insertEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import com.example.weightogo.models.GoalWeight;
+import com.example.weightogo.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Unit tests for DashboardDAO.
+ * Tests the combined header row, entry paging and the streak that runs past the page.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DashboardDAOTest {
+
+    private WeighToGoDBHelper dbHelper;
+    private DashboardDAO dashboardDAO;
+    private UserDAO userDAO;
+    private WeightEntryDAO weightEntryDAO;
+    private GoalWeightDAO goalWeightDAO;
+    private long testUserId;
+
+    @Before
+    public void setUp() throws DuplicateUsernameException, DatabaseException {
+        Context context = RuntimeEnvironment.getApplication();
+        dbHelper = WeighToGoDBHelper.getInstance(context);
+        dashboardDAO = new DashboardDAO(dbHelper);
+        userDAO = new UserDAO(dbHelper);
+        weightEntryDAO = new WeightEntryDAO(dbHelper);
+        goalWeightDAO = new GoalWeightDAO(dbHelper);
+
+        User testUser = new User();
+        testUser.setUsername("dashboard_user_" + System.currentTimeMillis());
+        testUser.setDisplayName("Dash Board");
+        testUser.setPasswordHash("hash123");
+        testUser.setSalt("salt123");
+        testUser.setPasswordAlgorithm("SHA256");
+        testUser.setCreatedAt(LocalDateTime.now());
+        testUser.setUpdatedAt(LocalDateTime.now());
+        testUser.setActive(true);
+
+        testUserId = userDAO.insertUser(testUser);
+        assertTrue("Test user should be created", testUserId > 0);
+    }
+
+    @After
+    public void tearDown() {
+        if (testUserId > 0) {
+            userDAO.deleteUser(testUserId);
+        }
+    }
+
+    /**
+     * Test 1: a user with no entries or goal gets an empty snapshot with their name.
+     */
+    @Test
+    public void test_getDashboardSnapshot_withNoData_returnsNameOnly() {
+        // ACT
+        DashboardSnapshot snapshot = dashboardDAO.getDashboardSnapshot(testUserId);
+
+        // ASSERT
+        assertEquals(testUserId, snapshot.getUserId());
+        assertEquals("Dash Board", snapshot.getDisplayName());
+        assertTrue(snapshot.getWeightEntries().isEmpty());
+        assertNull(snapshot.getLatestEntry());
+        assertNull(snapshot.getActiveGoal());
+        assertEquals(0, snapshot.getEntryCount());
+        assertEquals(0, snapshot.getDayStreak());
+    }
+
+    /**
+     * Test 2: the active goal and the newest entries come back together.
+     */
+    @Test
+    public void test_getDashboardSnapshot_withGoalAndEntries_returnsBoth() {
+        // ARRANGE
+        LocalDate today = LocalDate.now();
+        insertEntry(weightEntryDAO, testUserId, today.minusDays(3), 182.0);
+        insertEntry(weightEntryDAO, testUserId, today, 180.0);
+        long goalId = insertActiveGoal(170.0);
+
+        // ACT
+        DashboardSnapshot snapshot = dashboardDAO.getDashboardSnapshot(testUserId);
+
+        // ASSERT
+        GoalWeight goal = snapshot.getActiveGoal();
+        assertNotNull(goal);
+        assertEquals(goalId, goal.getGoalId());
+        assertEquals(170.0, goal.getGoalWeight(), 0.001);
+        assertEquals(2, snapshot.getEntryCount());
+        assertEquals(today, snapshot.getLatestEntry().getWeightDate());
+        assertEquals(1, snapshot.getDayStreak());
+    }
+
+    /**
+     * Test 3: only one page of entries is returned, but the count covers all of them.
+     */
+    @Test
+    public void test_getDashboardSnapshot_withPageSize_limitsEntries() {
+        // ARRANGE
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 5; i++) {
+            insertEntry(weightEntryDAO, testUserId, today.minusDays(i * 2), 180.0 + i);
+        }
+
+        // ACT
+        DashboardSnapshot snapshot = dashboardDAO.getDashboardSnapshot(testUserId, 3);
+
+        // ASSERT
+        assertEquals(3, snapshot.getWeightEntries().size());
+        assertEquals(5, snapshot.getEntryCount());
+        assertEquals(today, snapshot.getWeightEntries().get(0).getWeightDate());
+    }
+
+    /**
+     * Test 4: a streak longer than the page is counted to its first gap.
+     */
+    @Test
+    public void test_getDashboardSnapshot_withStreakPastPage_countsWholeStreak() {
+        // ARRANGE: 6 consecutive days, a gap, then an older entry
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 6; i++) {
+            insertEntry(weightEntryDAO, testUserId, today.minusDays(i), 180.0);
+        }
+        insertEntry(weightEntryDAO, testUserId, today.minusDays(8), 185.0);
+
+        // ACT
+        DashboardSnapshot snapshot = dashboardDAO.getDashboardSnapshot(testUserId, 2);
+
+        // ASSERT
+        assertEquals(2, snapshot.getWeightEntries().size());
+        assertEquals(6, snapshot.getDayStreak());
+    }
+
+    /**
+     * Test 5: deleted entries and inactive goals are left out.
+     */
+    @Test
+    public void test_getDashboardSnapshot_ignoresDeletedEntriesAndInactiveGoals() {
+        // ARRANGE
+        long weightId = insertEntry(weightEntryDAO, testUserId, LocalDate.now(), 180.0);
+        weightEntryDAO.deleteWeightEntry(weightId);
+        long goalId = insertActiveGoal(170.0);
+        goalWeightDAO.deactivateGoal(goalId);
+
+        // ACT
+        DashboardSnapshot snapshot = dashboardDAO.getDashboardSnapshot(testUserId);
+
+        // ASSERT
+        assertEquals(0, snapshot.getEntryCount());
+        assertNull(snapshot.getActiveGoal());
+    }
+
+    /**
+     * Test 6: the snapshot's stamp goes stale when a dashboard table is written.
+     */
+    @Test
+    public void test_getDashboardSnapshot_afterWrite_stampHasChanged() {
+        // ARRANGE
+        DashboardSnapshot snapshot = dashboardDAO.getDashboardSnapshot(testUserId);
+        InvalidationTracker tracker = dbHelper.getInvalidationTracker();
+        assertFalse(tracker.hasChanged(snapshot.getStamp()));
+
+        // ACT
+        insertEntry(weightEntryDAO, testUserId, LocalDate.now(), 179.0);
+
+        // ASSERT
+        assertTrue(tracker.hasChanged(snapshot.getStamp()));
+    }
+
+    /**
+     * Test 7: archived entries are listed and counted with the rest.
+     */
+    @Test
+    public void test_getDashboardSnapshot_withArchivedEntries_listsThem() {
+        // ARRANGE
+        LocalDate today = LocalDate.now();
+        insertEntry(weightEntryDAO, testUserId, today.minusYears(2), 185.0);
+        insertEntry(weightEntryDAO, testUserId, today, 180.0);
+        new WeightArchiveDAO(dbHelper).archiveEntries(testUserId, 12, today);
+
+        // ACT
+        DashboardSnapshot snapshot = dashboardDAO.getDashboardSnapshot(testUserId);
+
+        // ASSERT
+        assertEquals(2, snapshot.getEntryCount());
+        assertEquals(2, snapshot.getWeightEntries().size());
+        assertEquals(today.minusYears(2), snapshot.getWeightEntries().get(1).getWeightDate());
+    }
+
+    private long insertActiveGoal(double goalWeight) {
+        GoalWeight goal = new GoalWeight();
+        goal.setUserId(testUserId);
+        goal.setGoalWeight(goalWeight);
+        goal.setGoalUnit("lbs");
+        goal.setStartWeight(190.0);
+        goal.setCreatedAt(LocalDateTime.now());
+        goal.setUpdatedAt(LocalDateTime.now());
+        goal.setActive(true);
+        long goalId = goalWeightDAO.insertGoal(goal);
+        assertTrue("Goal should be created", goalId > 0);
+        return goalId;
+    }
+}
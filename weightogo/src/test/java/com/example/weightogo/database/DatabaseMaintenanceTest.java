@@ -0,0 +1,174 @@
+package com.example.weightogo.database;
+
+import static com.example.weightogo.database.WeightEntryFixtures.insertEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.example.weightogo.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Unit tests for DatabaseMaintenance.
+ * Tests the retention-bound purge, statistics refresh, and auto_vacuum conversion and reclaim.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DatabaseMaintenanceTest {
+
+    private WeighToGoDBHelper dbHelper;
+    private DatabaseMaintenance maintenance;
+    private WeightEntryDAO weightEntryDAO;
+    private UserDAO userDAO;
+    private long testUserId;
+
+    @Before
+    public void setUp() throws DuplicateUsernameException, DatabaseException {
+        Context context = RuntimeEnvironment.getApplication();
+        dbHelper = WeighToGoDBHelper.getInstance(context);
+        maintenance = new DatabaseMaintenance(dbHelper);
+        weightEntryDAO = new WeightEntryDAO(dbHelper);
+        userDAO = new UserDAO(dbHelper);
+
+        User testUser = new User();
+        testUser.setUsername("testuser_maint_" + System.currentTimeMillis());
+        testUser.setPasswordHash("hash123");
+        testUser.setSalt("salt123");
+        testUser.setPasswordAlgorithm("SHA256");
+        testUser.setCreatedAt(LocalDateTime.now());
+        testUser.setUpdatedAt(LocalDateTime.now());
+        testUser.setActive(true);
+
+        testUserId = userDAO.insertUser(testUser);
+        assertTrue("Test user should be created", testUserId > 0);
+    }
+
+    @After
+    public void tearDown() {
+        if (testUserId > 0) {
+            userDAO.deleteUser(testUserId);
+        }
+    }
+
+    @Test
+    public void test_purgeDeletedEntries_acrossBatches_purgesOnlyOldDeletedRows() {
+        // ARRANGE - 5 deleted 60 days ago, 1 deleted today, 2 live
+        LocalDate day = LocalDate.now().minusDays(100);
+        for (int i = 0; i < 5; i++) {
+            long weightId = insertEntry(weightEntryDAO, testUserId, day.plusDays(i));
+            weightEntryDAO.deleteWeightEntry(weightId);
+            setUpdatedAt(weightId, LocalDateTime.now().minusDays(60));
+        }
+        weightEntryDAO.deleteWeightEntry(insertEntry(weightEntryDAO, testUserId, day.plusDays(10)));
+        insertEntry(weightEntryDAO, testUserId, day.plusDays(11));
+        insertEntry(weightEntryDAO, testUserId, day.plusDays(12));
+
+        // ACT
+        int purged = maintenance.purgeDeletedEntries(LocalDateTime.now().minusDays(30), 2, () -> false);
+
+        // ASSERT
+        assertEquals(5, purged);
+        assertEquals(1, countRows("is_deleted = 1"));
+        assertEquals(2, countRows("is_deleted = 0"));
+    }
+
+    @Test
+    public void test_purgeDeletedEntries_whenStopRequested_purgesNothing() {
+        // ARRANGE
+        long weightId = insertEntry(weightEntryDAO, testUserId, LocalDate.now().minusDays(5));
+        weightEntryDAO.deleteWeightEntry(weightId);
+        setUpdatedAt(weightId, LocalDateTime.now().minusDays(60));
+
+        // ACT
+        int purged = maintenance.purgeDeletedEntries(LocalDateTime.now().minusDays(30), 100, () -> true);
+
+        // ASSERT
+        assertEquals(0, purged);
+        assertEquals(1, countRows("is_deleted = 1"));
+    }
+
+    @Test
+    public void test_optimize_afterFirstRun_usesPragmaOptimize() {
+        // ACT
+        maintenance.optimize();
+        boolean analyzedAgain = maintenance.optimize();
+
+        // ASSERT - statistics exist, so the second run is the cheap PRAGMA optimize
+        assertFalse(analyzedAgain);
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(
+                "SELECT 1 FROM sqlite_master WHERE name = 'sqlite_stat1'", null)) {
+            assertTrue("ANALYZE should have created sqlite_stat1", cursor.moveToFirst());
+        }
+    }
+
+    @Test
+    public void test_enableIncrementalVacuum_onOlderDatabase_switchesModeOnce() {
+        // ARRANGE - databases created before new installs started in INCREMENTAL mode
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.execSQL("PRAGMA auto_vacuum = NONE");
+        db.execSQL("VACUUM");
+
+        // ACT
+        boolean converted = maintenance.enableIncrementalVacuum();
+        boolean convertedAgain = maintenance.enableIncrementalVacuum();
+
+        // ASSERT
+        assertEquals(DatabaseMaintenance.AUTO_VACUUM_INCREMENTAL,
+                maintenance.getAutoVacuumMode(dbHelper.getReadableDatabase()));
+        assertTrue(converted);
+        assertFalse(convertedAgain);
+    }
+
+    @Test
+    public void test_incrementalVacuum_afterPurge_reclaimsBoundedPages() {
+        // ARRANGE - padded rows spread over many pages, then purged
+        maintenance.enableIncrementalVacuum();
+        StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            padding.append('x');
+        }
+        LocalDate day = LocalDate.now().minusDays(500);
+        for (int i = 0; i < 200; i++) {
+            long weightId = insertEntry(weightEntryDAO, testUserId, day.plusDays(i));
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            db.execSQL("UPDATE daily_weights SET notes = ?, is_deleted = 1, updated_at = ? WHERE weight_id = ?",
+                    new Object[]{padding.toString(), LocalDateTime.now().minusDays(60).toString(), weightId});
+        }
+        maintenance.purgeDeletedEntries(LocalDateTime.now().minusDays(30), 50, () -> false);
+        long sizeBefore = maintenance.getDatabaseSizeBytes();
+        long pageSize = dbHelper.getReadableDatabase().getPageSize();
+
+        // ACT
+        long reclaimed = maintenance.incrementalVacuum(10);
+
+        // ASSERT
+        assertEquals(10 * pageSize, reclaimed);
+        assertEquals(sizeBefore - reclaimed, maintenance.getDatabaseSizeBytes());
+    }
+
+    private void setUpdatedAt(long weightId, LocalDateTime updatedAt) {
+        dbHelper.getWritableDatabase().execSQL(
+                "UPDATE daily_weights SET updated_at = ? WHERE weight_id = ?",
+                new Object[]{updatedAt.toString(), weightId});
+    }
+
+    private int countRows(String condition) {
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(
+                "SELECT COUNT(*) FROM daily_weights WHERE user_id = ? AND " + condition,
+                new String[]{String.valueOf(testUserId)})) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
+}
@@ -10,6 +10,8 @@ import android.content.Context;
 
 import com.example.weightogo.models.GoalWeight;
 import com.example.weightogo.models.User;
+import com.example.weightogo.models.WeightEntry;
+import com.example.weightogo.utils.WeightUtils;
 
 import org.junit.After;
 import org.junit.Before;
@@ -158,26 +160,63 @@ public class GoalWeightDAOTest {
     }
 
     @Test
-    public void test_getActiveGoal_withMultipleGoals_returnsMostRecent() {
-        try {
-            // ARRANGE - Insert two active goals (edge case)
-            GoalWeight goal1 = createTestGoal(testUserId, 150.0, 180.0, true, false);
-            GoalWeight goal2 = createTestGoal(testUserId, 145.0, 175.0, true, false);
+    public void test_insertGoal_withSecondActiveGoal_isRejected() {
+        // ARRANGE
+        GoalWeight goal1 = createTestGoal(testUserId, 150.0, 180.0, true, false);
+        GoalWeight goal2 = createTestGoal(testUserId, 145.0, 175.0, true, false);
+        long goalId1 = goalWeightDAO.insertGoal(goal1);
 
-            Thread.sleep(10); // Ensure different created_at timestamps
-            goalWeightDAO.insertGoal(goal1);
-            Thread.sleep(10);
-            goalWeightDAO.insertGoal(goal2);
+        // ACT
+        long goalId2 = goalWeightDAO.insertGoal(goal2);
+        GoalWeight activeGoal = goalWeightDAO.getActiveGoal(testUserId);
 
-            // ACT
-            GoalWeight activeGoal = goalWeightDAO.getActiveGoal(testUserId);
+        // ASSERT - idx_goals_user_one_active allows one active goal per user
+        assertEquals("Second active goal should be rejected", -1, goalId2);
+        assertNotNull("Active goal should be found", activeGoal);
+        assertEquals("First goal should stay active", goalId1, activeGoal.getGoalId());
+    }
 
-            // ASSERT
-            assertNotNull("Active goal should be found", activeGoal);
-            assertEquals("Should return most recent active goal", 145.0, activeGoal.getGoalWeight(), 0.01);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+    @Test
+    public void test_setNewActiveGoal_withActiveGoal_swapsActiveGoal() {
+        // ARRANGE
+        long oldGoalId = goalWeightDAO.setNewActiveGoal(createTestGoal(testUserId, 150.0, 180.0, true, false));
+
+        // ACT
+        long newGoalId = goalWeightDAO.setNewActiveGoal(createTestGoal(testUserId, 145.0, 175.0, true, false));
+        GoalWeight activeGoal = goalWeightDAO.getActiveGoal(testUserId);
+
+        // ASSERT
+        assertTrue("New goal should be inserted", newGoalId > oldGoalId);
+        assertNotNull("Active goal should be found", activeGoal);
+        assertEquals("New goal should be active", newGoalId, activeGoal.getGoalId());
+        assertFalse("Old goal should be inactive", goalWeightDAO.getGoalById(oldGoalId).isActive());
+    }
+
+    @Test
+    public void test_setNewActiveGoal_withInvalidUserId_keepsNothingAndReturnsMinusOne() {
+        // ARRANGE
+        GoalWeight goal = createTestGoal(99999, 150.0, 180.0, true, false);
+
+        // ACT
+        long goalId = goalWeightDAO.setNewActiveGoal(goal);
+
+        // ASSERT
+        assertEquals("Insert failure should roll back the swap", -1, goalId);
+        assertNull(goalWeightDAO.getActiveGoal(99999));
+    }
+
+    @Test
+    public void test_setNewActiveGoal_withInactiveGoal_storesItAsActive() {
+        // ARRANGE
+        GoalWeight goal = createTestGoal(testUserId, 150.0, 180.0, false, false);
+
+        // ACT
+        long goalId = goalWeightDAO.setNewActiveGoal(goal);
+
+        // ASSERT
+        GoalWeight activeGoal = goalWeightDAO.getActiveGoal(testUserId);
+        assertNotNull("Goal should be stored as active", activeGoal);
+        assertEquals(goalId, activeGoal.getGoalId());
     }
 
     @Test
@@ -259,9 +298,9 @@ public class GoalWeightDAOTest {
     }
 
     @Test
-    public void test_deactivateAllGoalsForUser_deactivatesMultipleGoals() {
+    public void test_deactivateAllGoalsForUser_deactivatesActiveGoal() {
         // ARRANGE
-        GoalWeight goal1 = createTestGoal(testUserId, 150.0, 180.0, true, false);
+        GoalWeight goal1 = createTestGoal(testUserId, 150.0, 180.0, false, false); // Already inactive
         GoalWeight goal2 = createTestGoal(testUserId, 145.0, 175.0, true, false);
         GoalWeight goal3 = createTestGoal(testUserId, 140.0, 170.0, false, false); // Already inactive
 
@@ -274,7 +313,7 @@ public class GoalWeightDAOTest {
         GoalWeight activeGoal = goalWeightDAO.getActiveGoal(testUserId);
 
         // ASSERT
-        assertEquals("Should update 2 rows (2 active goals)", 2, rowsUpdated);
+        assertEquals("Should update 1 row (the active goal)", 1, rowsUpdated);
         assertNull("Should have no active goal after deactivation", activeGoal);
     }
 
@@ -519,6 +558,129 @@ public class GoalWeightDAOTest {
     }
 
     // Helper method to create test goals
+    // ========== GOAL PROGRESS TESTS ==========
+
+    @Test
+    public void test_getGoalHistoryWithProgress_aggregatesEntriesInEachGoalWindow() {
+        // ARRANGE - past loss goal in lbs (Jan 1-31), then an active goal in kg (from Feb 1)
+        long pastGoalId = insertWindowGoal(190.0, 200.0, "lbs",
+            LocalDateTime.of(2025, 1, 1, 8, 0), LocalDateTime.of(2025, 1, 31, 9, 0), false);
+        long activeGoalId = insertWindowGoal(80.0, 86.0, "kg",
+            LocalDateTime.of(2025, 2, 1, 8, 0), LocalDateTime.of(2025, 2, 1, 8, 0), true);
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < 45; i++) {
+            insertEntry(day.plusDays(i), 200.0 - i * 0.5, "lbs");  // 200 down to 178 lbs
+        }
+
+        // ACT
+        List<GoalProgress> history = goalWeightDAO.getGoalHistoryWithProgress(testUserId);
+
+        // ASSERT - newest first
+        assertEquals(2, history.size());
+        GoalProgress active = history.get(0);
+        GoalProgress past = history.get(1);
+        assertEquals(activeGoalId, active.getGoal().getGoalId());
+        assertEquals(pastGoalId, past.getGoal().getGoalId());
+
+        // Past goal: Jan 1-31 (31 entries), last entry 185 lbs, reached 190.5 (within 0.5) on Jan 20
+        assertEquals(LocalDate.of(2025, 1, 31), past.getWindowEnd());
+        assertEquals(31, past.getEntryCount());
+        assertEquals(-15.0, past.getActualChange(), 0.01);
+        assertEquals(185.0, past.getBestWeight(), 0.01);
+        assertEquals(LocalDate.of(2025, 1, 20), past.getReachedDate());
+        assertEquals(19, past.getDaysToAchieve());
+
+        // Active goal: Feb 1 on (14 entries, 184.5 to 178 lbs), in kg to 1 decimal, not reached yet
+        assertNull(active.getWindowEnd());
+        assertEquals(14, active.getEntryCount());
+        assertEquals(178.0 * WeightUtils.LBS_TO_KG_CONVERSION - 86.0, active.getActualChange(), 0.05);
+        assertEquals(178.0 * WeightUtils.LBS_TO_KG_CONVERSION, active.getBestWeight(), 0.05);
+        assertNull(active.getReachedDate());
+        assertEquals(-1, active.getDaysToAchieve());
+    }
+
+    @Test
+    public void test_getGoalHistoryWithProgress_gainGoal_usesHighestWeightAsBest() {
+        // ARRANGE
+        insertWindowGoal(160.0, 150.0, "lbs",
+            LocalDateTime.of(2025, 3, 1, 8, 0), LocalDateTime.of(2025, 3, 31, 8, 0), false);
+        insertEntry(LocalDate.of(2025, 3, 2), 152.0, "lbs");
+        insertEntry(LocalDate.of(2025, 3, 10), 159.6, "lbs");
+        insertEntry(LocalDate.of(2025, 3, 20), 157.0, "lbs");
+
+        // ACT
+        GoalProgress progress = goalWeightDAO.getGoalHistoryWithProgress(testUserId).get(0);
+
+        // ASSERT
+        assertEquals(159.6, progress.getBestWeight(), 0.01);
+        assertEquals(7.0, progress.getActualChange(), 0.01);
+        assertEquals(LocalDate.of(2025, 3, 10), progress.getReachedDate());
+    }
+
+    @Test
+    public void test_getGoalHistoryWithProgress_withoutEntriesInWindow_returnsEmptyProgress() {
+        // ARRANGE - entries only before the goal, plus a deleted one inside it
+        insertWindowGoal(150.0, 180.0, "lbs",
+            LocalDateTime.of(2025, 5, 1, 8, 0), LocalDateTime.of(2025, 5, 31, 8, 0), false);
+        insertEntry(LocalDate.of(2025, 4, 30), 180.0, "lbs");
+        WeightEntryDAO weightEntryDAO = new WeightEntryDAO(dbHelper);
+        weightEntryDAO.deleteWeightEntry(insertEntry(LocalDate.of(2025, 5, 10), 149.0, "lbs"));
+
+        // ACT
+        GoalProgress progress = goalWeightDAO.getGoalHistoryWithProgress(testUserId).get(0);
+
+        // ASSERT
+        assertEquals(0, progress.getEntryCount());
+        assertNull(progress.getActualChange());
+        assertNull(progress.getBestWeight());
+        assertNull(progress.getReachedDate());
+    }
+
+    @Test
+    public void test_getGoalHistoryWithProgress_withArchivedEntries_combinesBothTables() {
+        // ARRANGE - January 2024 loss goal; two entries archived, then a later one backdated
+        insertWindowGoal(190.0, 200.0, "lbs",
+            LocalDateTime.of(2024, 1, 1, 8, 0), LocalDateTime.of(2024, 1, 31, 9, 0), false);
+        insertEntry(LocalDate.of(2024, 1, 5), 195.0, "lbs");
+        insertEntry(LocalDate.of(2024, 1, 10), 190.2, "lbs");
+        insertEntry(LocalDate.of(2025, 12, 1), 170.0, "lbs");
+        assertEquals(2, new WeightArchiveDAO(dbHelper).archiveEntries(testUserId, 6, LocalDate.of(2025, 12, 15)));
+        insertEntry(LocalDate.of(2024, 1, 31), 192.0, "lbs");
+
+        // ACT
+        GoalProgress progress = goalWeightDAO.getGoalHistoryWithProgress(testUserId).get(0);
+
+        // ASSERT - latest from daily_weights, best and reached date from the archive
+        assertEquals(3, progress.getEntryCount());
+        assertEquals(-8.0, progress.getActualChange(), 0.01);
+        assertEquals(190.2, progress.getBestWeight(), 0.01);
+        assertEquals(LocalDate.of(2024, 1, 10), progress.getReachedDate());
+    }
+
+    private long insertWindowGoal(double goalWeight, double startWeight, String unit,
+                                  LocalDateTime createdAt, LocalDateTime updatedAt, boolean isActive) {
+        GoalWeight goal = createTestGoal(testUserId, goalWeight, startWeight, isActive, false);
+        goal.setGoalUnit(unit);
+        goal.setCreatedAt(createdAt);
+        goal.setUpdatedAt(updatedAt);
+        long goalId = goalWeightDAO.insertGoal(goal);
+        assertTrue("Goal should be created", goalId > 0);
+        return goalId;
+    }
+
+    private long insertEntry(LocalDate date, double value, String unit) {
+        WeightEntry entry = new WeightEntry();
+        entry.setUserId(testUserId);
+        entry.setWeightValue(value);
+        entry.setWeightUnit(unit);
+        entry.setWeightDate(date);
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setUpdatedAt(LocalDateTime.now());
+        long weightId = new WeightEntryDAO(dbHelper).insertWeightEntry(entry);
+        assertTrue("Entry should be created", weightId > 0);
+        return weightId;
+    }
+
     private GoalWeight createTestGoal(long userId, double goalWeight, double startWeight, boolean isActive, boolean isAchieved) {
         GoalWeight goal = new GoalWeight();
         goal.setUserId(userId);
@@ -0,0 +1,251 @@
+package com.example.weightogo.database;
+
+import android.content.Context;
+
+import com.example.weightogo.models.User;
+import com.example.weightogo.models.WeightEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for InvalidationTracker and ObservableQuery.
+ * Tests table versions, stamps, observers, skipped re-queries, priming, and DAO write notifications.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class InvalidationTrackerTest {
+
+    private static final String TABLE = "test_table";
+    private static final String OTHER_TABLE = "other_table";
+
+    private InvalidationTracker tracker;
+    private WeighToGoDBHelper dbHelper;
+    private UserDAO userDAO;
+    private long testUserId;
+
+    @Before
+    public void setUp() {
+        tracker = new InvalidationTracker();
+    }
+
+    @After
+    public void tearDown() {
+        if (testUserId > 0) {
+            userDAO.deleteUser(testUserId);
+        }
+    }
+
+    @Test
+    public void test_notifyWrite_bumpsOnlyThatTable() {
+        // ACT
+        tracker.notifyWrite(TABLE);
+
+        // ASSERT
+        assertEquals(1, tracker.getVersion(TABLE));
+        assertEquals(0, tracker.getVersion(OTHER_TABLE));
+    }
+
+    @Test
+    public void test_hasChanged_withWriteToStampedTable_returnsTrue() {
+        // ARRANGE
+        InvalidationTracker.Stamp stamp = tracker.stamp(TABLE, OTHER_TABLE);
+
+        // ACT
+        tracker.notifyWrite(OTHER_TABLE);
+
+        // ASSERT
+        assertTrue(tracker.hasChanged(stamp));
+    }
+
+    @Test
+    public void test_hasChanged_withWriteToOtherTable_returnsFalse() {
+        // ARRANGE
+        InvalidationTracker.Stamp stamp = tracker.stamp(TABLE);
+
+        // ACT
+        tracker.notifyWrite(OTHER_TABLE);
+
+        // ASSERT
+        assertFalse(tracker.hasChanged(stamp));
+    }
+
+    @Test
+    public void test_notifyWrite_callsObserversUntilRemoved() {
+        // ARRANGE
+        List<String> seen = new ArrayList<>();
+        InvalidationTracker.Observer observer = seen::add;
+        tracker.addObserver(observer);
+
+        // ACT
+        tracker.notifyWrite(TABLE);
+        tracker.removeObserver(observer);
+        tracker.notifyWrite(OTHER_TABLE);
+
+        // ASSERT
+        assertEquals(1, seen.size());
+        assertEquals(TABLE, seen.get(0));
+    }
+
+    @Test
+    public void test_refresh_withoutWrites_runsQueryOnce() {
+        // ARRANGE
+        AtomicInteger runs = new AtomicInteger();
+        ObservableQuery<Integer> query = new ObservableQuery<>(tracker, runs::incrementAndGet, TABLE);
+
+        // ACT
+        boolean first = query.refresh();
+        boolean second = query.refresh();
+
+        // ASSERT
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(1, runs.get());
+        assertEquals(Integer.valueOf(1), query.getValue());
+    }
+
+    @Test
+    public void test_refresh_afterWrite_rerunsQuery() {
+        // ARRANGE
+        AtomicInteger runs = new AtomicInteger();
+        ObservableQuery<Integer> query = new ObservableQuery<>(tracker, runs::incrementAndGet, TABLE);
+        query.refresh();
+
+        // ACT
+        tracker.notifyWrite(TABLE);
+        boolean reran = query.refresh();
+
+        // ASSERT
+        assertTrue(reran);
+        assertEquals(Integer.valueOf(2), query.getValue());
+    }
+
+    @Test
+    public void test_refresh_afterInvalidate_rerunsQuery() {
+        // ARRANGE
+        AtomicInteger runs = new AtomicInteger();
+        ObservableQuery<Integer> query = new ObservableQuery<>(tracker, runs::incrementAndGet, TABLE);
+        query.refresh();
+
+        // ACT
+        query.invalidate();
+
+        // ASSERT
+        assertTrue(query.isStale());
+        assertTrue(query.refresh());
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    public void test_refresh_afterPrime_reportsPrimedValueWithoutQuery() {
+        // ARRANGE
+        AtomicInteger runs = new AtomicInteger();
+        ObservableQuery<Integer> query = new ObservableQuery<>(tracker, runs::incrementAndGet, TABLE);
+
+        // ACT
+        query.prime(42, tracker.stamp(TABLE));
+        boolean first = query.refresh();
+        boolean second = query.refresh();
+
+        // ASSERT
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(0, runs.get());
+        assertEquals(Integer.valueOf(42), query.getValue());
+    }
+
+    @Test
+    public void test_refresh_afterPrimeAndWrite_rerunsQuery() {
+        // ARRANGE
+        AtomicInteger runs = new AtomicInteger();
+        ObservableQuery<Integer> query = new ObservableQuery<>(tracker, runs::incrementAndGet, TABLE);
+        query.prime(42, tracker.stamp(TABLE));
+
+        // ACT
+        tracker.notifyWrite(TABLE);
+        boolean reran = query.refresh();
+
+        // ASSERT
+        assertTrue(reran);
+        assertEquals(Integer.valueOf(1), query.getValue());
+    }
+
+    @Test
+    public void test_daoWrite_marksQueryStaleAndDropsCoalescedRead() throws DatabaseException {
+        // ARRANGE
+        createTestUser();
+        WeightEntryDAO weightEntryDAO = new WeightEntryDAO(dbHelper);
+        ObservableQuery<WeightEntry> latest = new ObservableQuery<>(dbHelper.getInvalidationTracker(),
+                () -> weightEntryDAO.getLatestWeightEntry(testUserId),
+                WeighToGoDBHelper.TABLE_DAILY_WEIGHTS);
+        latest.refresh();
+
+        // ACT
+        weightEntryDAO.insertWeightEntry(newEntry(180.0));
+
+        // ASSERT
+        assertTrue(latest.isStale());
+        assertTrue(latest.refresh());
+        assertEquals(180.0, latest.getValue().getWeightValue(), 0.001);
+    }
+
+    @Test
+    public void test_daoWrite_toOtherTable_leavesQueryFresh() throws DatabaseException {
+        // ARRANGE
+        createTestUser();
+        GoalWeightDAO goalWeightDAO = new GoalWeightDAO(dbHelper);
+        ObservableQuery<Object> goal = new ObservableQuery<>(dbHelper.getInvalidationTracker(),
+                () -> goalWeightDAO.getActiveGoal(testUserId),
+                WeighToGoDBHelper.TABLE_GOAL_WEIGHTS);
+        goal.refresh();
+
+        // ACT
+        new WeightEntryDAO(dbHelper).insertWeightEntry(newEntry(175.0));
+
+        // ASSERT
+        assertFalse(goal.refresh());
+    }
+
+    private void createTestUser() throws DatabaseException {
+        Context context = RuntimeEnvironment.getApplication();
+        dbHelper = WeighToGoDBHelper.getInstance(context);
+        userDAO = new UserDAO(dbHelper);
+
+        User testUser = new User();
+        testUser.setUsername("trackeruser");
+        testUser.setPasswordHash("hash123");
+        testUser.setSalt("salt123");
+        testUser.setPasswordAlgorithm("SHA256");
+        testUser.setCreatedAt(LocalDateTime.now());
+        testUser.setUpdatedAt(LocalDateTime.now());
+        testUser.setActive(true);
+
+        testUserId = userDAO.insertUser(testUser);
+        assertTrue("Test user should be created", testUserId > 0);
+    }
+
+    private WeightEntry newEntry(double value) {
+        WeightEntry entry = new WeightEntry();
+        entry.setUserId(testUserId);
+        entry.setWeightValue(value);
+        entry.setWeightUnit("lbs");
+        entry.setWeightDate(LocalDate.now());
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setUpdatedAt(LocalDateTime.now());
+        entry.setDeleted(false);
+        return entry;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.weightogo.database;
+
+import android.content.Context;
+
+import com.example.weightogo.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.weightogo.database.WeightEntryFixtures.insertEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for QueryMetrics.
+ * Tests enable/disable behavior, per-site recording from real DAO calls,
+ * slow-query sampling, and the text report with query plans.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class QueryMetricsTest {
+
+    private static final String SITE_ENTRIES_FOR_USER = "WeightEntryDAO.getWeightEntriesForUser";
+
+    private WeighToGoDBHelper dbHelper;
+    private WeightEntryDAO weightEntryDAO;
+    private UserDAO userDAO;
+    private long testUserId;
+
+    @Before
+    public void setUp() throws DatabaseException {
+        Context context = RuntimeEnvironment.getApplication();
+        dbHelper = WeighToGoDBHelper.getInstance(context);
+        weightEntryDAO = new WeightEntryDAO(dbHelper);
+        userDAO = new UserDAO(dbHelper);
+
+        User testUser = new User();
+        testUser.setUsername("metricsuser");
+        testUser.setPasswordHash("hash123");
+        testUser.setSalt("salt123");
+        testUser.setPasswordAlgorithm("SHA256");
+        testUser.setCreatedAt(LocalDateTime.now());
+        testUser.setUpdatedAt(LocalDateTime.now());
+        testUser.setActive(true);
+        testUserId = userDAO.insertUser(testUser);
+
+        QueryMetrics.resetForTesting();
+    }
+
+    @After
+    public void tearDown() {
+        QueryMetrics.resetForTesting();
+        if (testUserId > 0) {
+            userDAO.deleteUser(testUserId);
+        }
+    }
+
+    @Test
+    public void test_begin_whenDisabled_returnsSentinelAndRecordsNothing() {
+        // ARRANGE
+        QueryMetrics.setEnabled(false);
+
+        // ACT
+        long start = QueryMetrics.begin();
+        weightEntryDAO.getWeightEntriesForUser(testUserId);
+
+        // ASSERT
+        assertEquals(QueryMetrics.DISABLED, start);
+        assertNull(findSite(SITE_ENTRIES_FOR_USER));
+    }
+
+    @Test
+    public void test_daoCall_whenEnabled_recordsLatencyAndRows() {
+        // ARRANGE
+        QueryMetrics.setEnabled(true);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.now());
+        insertEntry(weightEntryDAO, testUserId, LocalDate.now().minusDays(1));
+
+        // ACT
+        weightEntryDAO.getWeightEntriesForUser(testUserId);
+        weightEntryDAO.getWeightEntriesForUser(testUserId);
+
+        // ASSERT
+        QueryMetrics.Site site = findSite(SITE_ENTRIES_FOR_USER);
+        assertNotNull("Site should be active after calls", site);
+        assertEquals(2, site.snapshot().count);
+        assertEquals(4, site.getRowCount());
+    }
+
+    @Test
+    public void test_end_belowThreshold_doesNotCaptureSlowSample() {
+        // ARRANGE
+        QueryMetrics.setEnabled(true);
+        QueryMetrics.setSlowThresholdMs(60_000);
+
+        // ACT
+        weightEntryDAO.getLatestWeightEntry(testUserId);
+
+        // ASSERT
+        assertTrue(QueryMetrics.getSlowSamples().isEmpty());
+    }
+
+    @Test
+    public void test_end_aboveThreshold_capturesSlowSample() {
+        // ARRANGE
+        QueryMetrics.setEnabled(true);
+        QueryMetrics.setSlowThresholdMs(0);
+
+        // ACT
+        weightEntryDAO.getLatestWeightEntry(testUserId);
+
+        // ASSERT
+        List<QueryMetrics.SlowSample> samples = QueryMetrics.getSlowSamples();
+        assertFalse(samples.isEmpty());
+        assertEquals("WeightEntryDAO.getLatestWeightEntry", samples.get(0).getSiteName());
+    }
+
+    @Test
+    public void test_buildReport_withSlowQuery_includesQueryPlan() {
+        // ARRANGE
+        QueryMetrics.setEnabled(true);
+        QueryMetrics.setSlowThresholdMs(0);
+        weightEntryDAO.getWeightEntriesForUser(testUserId);
+
+        // ACT
+        String report = QueryMetrics.buildReport(dbHelper.getReadableDatabase());
+
+        // ASSERT
+        assertTrue(report.contains(SITE_ENTRIES_FOR_USER));
+        assertTrue("Report should include the plan for daily_weights:\n" + report,
+                report.contains("daily_weights"));
+    }
+
+    @Test
+    public void test_reset_clearsRecordedCalls() {
+        // ARRANGE
+        QueryMetrics.setEnabled(true);
+        weightEntryDAO.getWeightEntriesForUser(testUserId);
+
+        // ACT
+        QueryMetrics.reset();
+
+        // ASSERT
+        assertNull(findSite(SITE_ENTRIES_FOR_USER));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_setSlowThresholdMs_withNegativeValue_throwsException() {
+        // ACT
+        QueryMetrics.setSlowThresholdMs(-1);
+    }
+
+    private QueryMetrics.Site findSite(String name) {
+        for (QueryMetrics.Site site : QueryMetrics.getActiveSites()) {
+            if (site.getName().equals(name)) {
+                return site;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.weightogo.database;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Checks the query plan of every DAO query registered with QueryMetrics against the
+ * schema onCreate builds: no full table scans and no temp B-tree sorts.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class QueryPlanTest {
+
+    /** Temp B-trees a query needs by nature, by site name */
+    private static final Map<String, String> ALLOWED_TEMP_BTREES = Collections.singletonMap(
+        "UserPreferenceDAO.getReminderTimes", "USE TEMP B-TREE FOR DISTINCT");
+
+    private WeighToGoDBHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.getApplication();
+        dbHelper = WeighToGoDBHelper.getInstance(context);
+
+        // Loading each DAO registers its sites
+        new UserDAO(dbHelper);
+        new WeightEntryDAO(dbHelper);
+        new GoalWeightDAO(dbHelper);
+        new AchievementDAO(dbHelper);
+        new UserPreferenceDAO(dbHelper);
+        new SmsOutboxDAO(dbHelper);
+        new DashboardDAO(dbHelper);
+        new DatabaseMaintenance(dbHelper);
+        new WeightArchiveDAO(dbHelper);
+    }
+
+    @Test
+    public void test_everyDaoQuery_usesIndexWithoutTempBTree() {
+        // ARRANGE
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        List<String> failures = new ArrayList<>();
+        int checked = 0;
+
+        // ACT
+        for (QueryMetrics.Site site : QueryMetrics.getRegisteredSites()) {
+            if (site.sql == null) {
+                continue;
+            }
+            checked++;
+            List<String> plan = QueryMetrics.explain(db, site.sql);
+            for (String line : plan) {
+                String detail = line.toUpperCase(Locale.US);
+                boolean tableScan = detail.startsWith("SCAN") && !detail.contains("SUBQUERY");
+                boolean tempBTree = detail.contains("TEMP B-TREE")
+                    && !line.equals(ALLOWED_TEMP_BTREES.get(site.getName()));
+                if (tableScan || tempBTree || detail.startsWith("(PLAN UNAVAILABLE")) {
+                    failures.add(site.getName() + ": " + line + " in " + plan);
+                }
+            }
+        }
+
+        // ASSERT
+        assertTrue("Expected the DAO sites to be registered, found " + checked, checked >= 55);
+        assertTrue(String.join("\n", failures), failures.isEmpty());
+    }
+
+    @Test
+    public void test_historyReads_areCoveredByIndex() {
+        // ARRANGE
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        QueryMetrics.Site site = registeredSite("WeightEntryDAO.streamHistory");
+
+        // ACT
+        String plan = QueryMetrics.explain(db, site.sql).toString();
+
+        // ASSERT
+        assertTrue(plan, plan.contains("COVERING INDEX idx_weights_archive_user_history"));
+        assertTrue(plan, plan.contains("COVERING INDEX idx_weights_user_history"));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    private static QueryMetrics.Site registeredSite(String name) {
+        for (QueryMetrics.Site site : QueryMetrics.getRegisteredSites()) {
+            if (site.getName().equals(name)) {
+                return site;
+            }
+        }
+        throw new AssertionError("Site not registered: " + name);
+    }
+}
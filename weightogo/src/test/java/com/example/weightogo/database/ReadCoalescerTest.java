@@ -0,0 +1,177 @@
+package com.example.weightogo.database;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for ReadCoalescer.
+ * Tests result sharing, concurrent single-flight loads, and table-scoped invalidation.
+ */
+public class ReadCoalescerTest {
+
+    private static final String TABLE = "test_table";
+    private static final String OTHER_TABLE = "other_table";
+
+    private static final ReadCoalescer<Long, Object> READS = ReadCoalescer.create("ReadCoalescerTest.reads", TABLE);
+
+    private AtomicInteger queries;
+
+    @Before
+    public void setUp() {
+        ReadCoalescer.resetForTesting();
+        queries = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        ReadCoalescer.resetForTesting();
+    }
+
+    @Test
+    public void test_get_calledTwice_runsOneQuery() {
+        // ARRANGE
+        Object row = new Object();
+
+        // ACT
+        Object first = READS.get(1L, () -> load(row));
+        Object second = READS.get(1L, () -> load(row));
+
+        // ASSERT
+        assertSame(row, first);
+        assertSame(row, second);
+        assertEquals(1, queries.get());
+        assertEquals(1, READS.getLoadCount());
+        assertEquals(1, READS.getSharedCount());
+    }
+
+    @Test
+    public void test_get_withDifferentKeys_runsQueryPerKey() {
+        // ACT
+        READS.get(1L, () -> load(new Object()));
+        READS.get(2L, () -> load(new Object()));
+
+        // ASSERT
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void test_get_withNullResult_cachesNull() {
+        // ACT
+        Object first = READS.get(1L, () -> load(null));
+        Object second = READS.get(1L, () -> load(null));
+
+        // ASSERT
+        assertNull(first);
+        assertNull(second);
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    public void test_invalidate_forSameTable_forcesNewQuery() {
+        // ARRANGE
+        READS.get(1L, () -> load("old"));
+
+        // ACT
+        ReadCoalescer.invalidate(TABLE);
+        Object result = READS.get(1L, () -> load("new"));
+
+        // ASSERT
+        assertEquals("new", result);
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void test_invalidate_forOtherTable_keepsResult() {
+        // ARRANGE
+        READS.get(1L, () -> load("cached"));
+
+        // ACT
+        ReadCoalescer.invalidate(OTHER_TABLE);
+        Object result = READS.get(1L, () -> load("new"));
+
+        // ASSERT
+        assertEquals("cached", result);
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    public void test_get_whenLoaderThrows_rethrowsAndDoesNotCache() {
+        // ARRANGE
+        try {
+            READS.get(1L, () -> {
+                throw new IllegalStateException("query failed");
+            });
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        // ACT
+        Object result = READS.get(1L, () -> load("recovered"));
+
+        // ASSERT
+        assertEquals("recovered", result);
+    }
+
+    @Test
+    public void test_get_concurrentCallers_shareOneInFlightQuery() throws Exception {
+        // ARRANGE
+        int callers = 8;
+        Object row = new Object();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<Future<Object>> results = new ArrayList<>();
+
+        try {
+            // ACT - first caller blocks inside the query while the rest arrive
+            results.add(pool.submit(() -> READS.get(1L, () -> {
+                loading.countDown();
+                awaitQuietly(release);
+                return load(row);
+            })));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                results.add(pool.submit(() -> READS.get(1L, () -> load(new Object()))));
+            }
+            release.countDown();
+
+            // ASSERT
+            for (Future<Object> result : results) {
+                assertSame(row, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, queries.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Object load(Object value) {
+        queries.incrementAndGet();
+        return value;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
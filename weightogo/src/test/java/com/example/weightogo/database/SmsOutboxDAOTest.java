@@ -0,0 +1,236 @@
+package com.example.weightogo.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.AchievementType;
+import com.example.weightogo.models.SmsOutboxMessage;
+import com.example.weightogo.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for SmsOutboxDAO.
+ * Tests enqueueing, due-message lookup, status transitions, and stale SENDING recovery.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SmsOutboxDAOTest {
+
+    private WeighToGoDBHelper dbHelper;
+    private SmsOutboxDAO smsOutboxDAO;
+    private AchievementDAO achievementDAO;
+    private UserDAO userDAO;
+    private long testUserId;
+
+    @Before
+    public void setUp() throws DuplicateUsernameException, DatabaseException {
+        Context context = RuntimeEnvironment.getApplication();
+        dbHelper = WeighToGoDBHelper.getInstance(context);
+        smsOutboxDAO = new SmsOutboxDAO(dbHelper);
+        achievementDAO = new AchievementDAO(dbHelper);
+        userDAO = new UserDAO(dbHelper);
+
+        User testUser = new User();
+        testUser.setUsername("testuser_outbox_" + System.currentTimeMillis());
+        testUser.setPasswordHash("hash123");
+        testUser.setSalt("salt123");
+        testUser.setPasswordAlgorithm("SHA256");
+        testUser.setCreatedAt(LocalDateTime.now());
+        testUser.setUpdatedAt(LocalDateTime.now());
+        testUser.setActive(true);
+
+        testUserId = userDAO.insertUser(testUser);
+        assertTrue("Test user should be created", testUserId > 0);
+    }
+
+    @After
+    public void tearDown() {
+        if (testUserId > 0) {
+            userDAO.deleteUser(testUserId);
+        }
+    }
+
+    @Test
+    public void test_enqueueAchievements_withTwoAchievements_queuesDuePendingRows() {
+        // ARRANGE
+        List<Achievement> achievements = Arrays.asList(saveAchievement(AchievementType.MILESTONE_5), saveAchievement(AchievementType.GOAL_REACHED));
+
+        // ACT
+        int queued = smsOutboxDAO.enqueueAchievements(achievements);
+
+        // ASSERT
+        assertEquals(2, queued);
+        List<SmsOutboxMessage> due = smsOutboxDAO.getDueMessages(LocalDateTime.now().plusSeconds(1), 20);
+        assertEquals(2, due.size());
+        assertEquals(SmsOutboxMessage.STATUS_PENDING, due.get(0).getStatus());
+        assertEquals(0, due.get(0).getAttempts());
+    }
+
+    @Test
+    public void test_enqueueAchievements_withEmptyList_returnsZero() {
+        // ACT
+        int queued = smsOutboxDAO.enqueueAchievements(Collections.emptyList());
+
+        // ASSERT
+        assertEquals(0, queued);
+    }
+
+    @Test
+    public void test_claimForSending_calledTwice_onlyFirstClaims() {
+        // ARRANGE
+        long outboxId = enqueueOne();
+
+        // ACT
+        int first = smsOutboxDAO.claimForSending(outboxId);
+        int second = smsOutboxDAO.claimForSending(outboxId);
+
+        // ASSERT
+        assertEquals(1, first);
+        assertEquals(0, second);
+        SmsOutboxMessage message = smsOutboxDAO.getMessage(outboxId);
+        assertNotNull(message);
+        assertEquals(SmsOutboxMessage.STATUS_SENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+    }
+
+    @Test
+    public void test_scheduleRetry_movesMessageOutOfDueWindow() {
+        // ARRANGE
+        long outboxId = enqueueOne();
+        smsOutboxDAO.claimForSending(outboxId);
+        LocalDateTime retryAt = LocalDateTime.now().plusMinutes(5);
+
+        // ACT
+        int updated = smsOutboxDAO.scheduleRetry(outboxId, retryAt, "radio off");
+
+        // ASSERT
+        assertEquals(1, updated);
+        assertTrue(smsOutboxDAO.getDueMessages(LocalDateTime.now().plusSeconds(1), 20).isEmpty());
+        assertNotNull(smsOutboxDAO.getNextAttemptTime());
+        assertEquals("radio off", smsOutboxDAO.getMessage(outboxId).getLastError());
+    }
+
+    @Test
+    public void test_markSent_withPendingMessage_doesNothing() {
+        // ARRANGE
+        long outboxId = enqueueOne();
+
+        // ACT
+        int updated = smsOutboxDAO.markSent(outboxId);
+
+        // ASSERT
+        assertEquals(0, updated);
+        assertEquals(SmsOutboxMessage.STATUS_PENDING, smsOutboxDAO.getMessage(outboxId).getStatus());
+    }
+
+    @Test
+    public void test_markSent_withSendingMessage_clearsFromPending() {
+        // ARRANGE
+        long outboxId = enqueueOne();
+        smsOutboxDAO.claimForSending(outboxId);
+
+        // ACT
+        int updated = smsOutboxDAO.markSent(outboxId);
+
+        // ASSERT
+        assertEquals(1, updated);
+        assertEquals(SmsOutboxMessage.STATUS_SENT, smsOutboxDAO.getMessage(outboxId).getStatus());
+        assertNull(smsOutboxDAO.getNextAttemptTime());
+    }
+
+    @Test
+    public void test_markSent_withBatch_updatesOnlySendingMessages() {
+        // ARRANGE
+        long sendingId = enqueueOne();
+        smsOutboxDAO.claimForSending(sendingId);
+        long pendingId = enqueueOne();
+
+        // ACT
+        int updated = smsOutboxDAO.markSent(new long[]{sendingId, pendingId});
+
+        // ASSERT
+        assertEquals(1, updated);
+        assertEquals(SmsOutboxMessage.STATUS_SENT, smsOutboxDAO.getMessage(sendingId).getStatus());
+        assertEquals(SmsOutboxMessage.STATUS_PENDING, smsOutboxDAO.getMessage(pendingId).getStatus());
+        assertEquals(2, smsOutboxDAO.getMessages(new long[]{sendingId, pendingId}).size());
+    }
+
+    @Test
+    public void test_requeueStaleSending_withLostResult_returnsMessageToPending() {
+        // ARRANGE
+        long outboxId = enqueueOne();
+        smsOutboxDAO.claimForSending(outboxId);
+
+        // ACT
+        int requeued = smsOutboxDAO.requeueStaleSending(LocalDateTime.now().plusMinutes(1));
+
+        // ASSERT
+        assertEquals(1, requeued);
+        assertEquals(SmsOutboxMessage.STATUS_PENDING, smsOutboxDAO.getMessage(outboxId).getStatus());
+    }
+
+    @Test
+    public void test_deleteUser_cascadesToOutbox() {
+        // ARRANGE
+        long outboxId = enqueueOne();
+
+        // ACT
+        userDAO.deleteUser(testUserId);
+        testUserId = 0;
+
+        // ASSERT
+        assertNull(smsOutboxDAO.getMessage(outboxId));
+    }
+
+    @Test
+    public void test_postpone_withPendingMessage_movesOutOfDueWindowWithoutAttempt() {
+        // ARRANGE
+        long outboxId = enqueueOne();
+
+        // ACT
+        int updated = smsOutboxDAO.postpone(outboxId, LocalDateTime.now().plusMinutes(5));
+
+        // ASSERT
+        assertEquals(1, updated);
+        assertTrue(smsOutboxDAO.getDueMessages(LocalDateTime.now().plusSeconds(1), 20).isEmpty());
+        SmsOutboxMessage message = smsOutboxDAO.getMessage(outboxId);
+        assertEquals(SmsOutboxMessage.STATUS_PENDING, message.getStatus());
+        assertEquals(0, message.getAttempts());
+    }
+
+    private long enqueueOne() {
+        assertEquals(1, smsOutboxDAO.enqueueAchievements(Collections.singletonList(saveAchievement(AchievementType.MILESTONE_5))));
+        List<SmsOutboxMessage> due = smsOutboxDAO.getDueMessages(LocalDateTime.now().plusSeconds(1), 1);
+        assertEquals(1, due.size());
+        return due.get(0).getOutboxId();
+    }
+
+    private Achievement saveAchievement(AchievementType type) {
+        Achievement achievement = new Achievement();
+        achievement.setUserId(testUserId);
+        achievement.setAchievementType(type);
+        achievement.setValue(5.0);
+        achievement.setAchievedAt(LocalDateTime.now());
+        achievement.setNotified(false);
+
+        long achievementId = achievementDAO.insertAchievement(achievement);
+        assertTrue("Achievement should be created", achievementId > 0);
+        achievement.setAchievementId(achievementId);
+        return achievement;
+    }
+}
@@ -8,8 +8,10 @@ import android.content.Context;
 
 import com.example.weightogo.models.User;
 import com.example.weightogo.models.UserPreference;
+import com.example.weightogo.models.WeightEntry;
 
 import java.util.List;
+import java.util.Map;
 
 import org.junit.After;
 import org.junit.Before;
@@ -18,6 +20,7 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -282,4 +285,188 @@ public class UserPreferenceDAOTest {
             }
         }
     }
+
+    /**
+     * Test 11: getPreferenceMap returns every preference for the user in one call.
+     */
+    @Test
+    public void test_getPreferenceMap_withSeveralPreferences_returnsAllKeys() {
+        // ARRANGE
+        userPreferenceDAO.setPreference(testUserId, "sms_notifications_enabled", "true");
+        userPreferenceDAO.setPreference(testUserId, "sms_goal_alerts", "false");
+
+        // ACT
+        Map<String, String> preferences = userPreferenceDAO.getPreferenceMap(testUserId);
+
+        // ASSERT
+        assertEquals("Should return both preferences", 2, preferences.size());
+        assertEquals("true", preferences.get("sms_notifications_enabled"));
+        assertEquals("false", preferences.get("sms_goal_alerts"));
+    }
+
+    /**
+     * Test 12: getPreferenceMap returns an empty map for a user with no preferences.
+     */
+    @Test
+    public void test_getPreferenceMap_withNoPreferences_returnsEmptyMap() {
+        // ACT
+        Map<String, String> preferences = userPreferenceDAO.getPreferenceMap(testUserId);
+
+        // ASSERT
+        assertTrue("Should return empty map", preferences.isEmpty());
+    }
+
+    /**
+     * Test 13: getReminderRecipients returns a user with reminders on and no entry today.
+     */
+    @Test
+    public void test_getReminderRecipients_eligibleUser_isReturned() {
+        // ARRANGE
+        enableReminders(testUserId, "+12025551234");
+
+        // ACT
+        Map<Long, String> recipients = userPreferenceDAO.getReminderRecipients(LocalDate.now(), "24:00");
+
+        // ASSERT
+        assertEquals("+12025551234", recipients.get(testUserId));
+    }
+
+    /**
+     * Test 14: getReminderRecipients skips users who already logged today or have SMS off.
+     */
+    @Test
+    public void test_getReminderRecipients_loggedTodayOrSmsDisabled_isExcluded() throws DatabaseException {
+        // ARRANGE - testUser logged today
+        enableReminders(testUserId, "+12025551234");
+        WeightEntry entry = new WeightEntry();
+        entry.setUserId(testUserId);
+        entry.setWeightValue(150.0);
+        entry.setWeightUnit("lbs");
+        entry.setWeightDate(LocalDate.now());
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setUpdatedAt(LocalDateTime.now());
+        assertTrue(new WeightEntryDAO(dbHelper).insertWeightEntry(entry) > 0);
+
+        // ARRANGE - second user has reminders on but the SMS master toggle off
+        long user2Id = userDAO.insertUser(createTestUser("reminder_user2"));
+        try {
+            enableReminders(user2Id, "+12025559999");
+            userPreferenceDAO.setPreference(user2Id, "sms_notifications_enabled", "false");
+
+            // ACT
+            Map<Long, String> recipients = userPreferenceDAO.getReminderRecipients(LocalDate.now(), "24:00");
+
+            // ASSERT
+            assertFalse("User who logged today should be excluded", recipients.containsKey(testUserId));
+            assertFalse("User with SMS disabled should be excluded", recipients.containsKey(user2Id));
+        } finally {
+            userDAO.deleteUser(user2Id);
+        }
+    }
+
+    /**
+     * Test 15: getReminderRecipients only returns users whose reminder time is before the bound.
+     */
+    @Test
+    public void test_getReminderRecipients_reminderTimeAfterBound_isExcluded() {
+        // ARRANGE - default time is 09:00
+        enableReminders(testUserId, "+12025551234");
+
+        // ACT
+        Map<Long, String> early = userPreferenceDAO.getReminderRecipients(LocalDate.now(), "08:15");
+        Map<Long, String> due = userPreferenceDAO.getReminderRecipients(LocalDate.now(), "09:15");
+
+        // ASSERT
+        assertFalse(early.containsKey(testUserId));
+        assertTrue(due.containsKey(testUserId));
+    }
+
+    /**
+     * Test 16: getReminderRecipients skips users already reminded on that date.
+     */
+    @Test
+    public void test_getReminderRecipients_alreadyRemindedToday_isExcluded() {
+        // ARRANGE
+        enableReminders(testUserId, "+12025551234");
+        userPreferenceDAO.setPreference(testUserId, "sms_reminder_last_sent", LocalDate.now().toString());
+
+        // ACT
+        Map<Long, String> today = userPreferenceDAO.getReminderRecipients(LocalDate.now(), "24:00");
+        Map<Long, String> tomorrow = userPreferenceDAO.getReminderRecipients(LocalDate.now().plusDays(1), "24:00");
+
+        // ASSERT
+        assertFalse(today.containsKey(testUserId));
+        assertTrue(tomorrow.containsKey(testUserId));
+    }
+
+    /**
+     * Test 17: getReminderTimes returns each reminder user's time once, with the default for unset times.
+     */
+    @Test
+    public void test_getReminderTimes_returnsDistinctTimesWithDefault() throws DatabaseException {
+        // ARRANGE
+        enableReminders(testUserId, "+12025551234");
+        long user2Id = userDAO.insertUser(createTestUser("reminder_time_user2"));
+        try {
+            enableReminders(user2Id, "+12025559999");
+            userPreferenceDAO.setPreference(user2Id, "sms_reminder_time", "18:30");
+
+            // ACT
+            List<String> times = userPreferenceDAO.getReminderTimes();
+
+            // ASSERT
+            assertEquals(2, times.size());
+            assertTrue(times.contains("09:00"));
+            assertTrue(times.contains("18:30"));
+        } finally {
+            userDAO.deleteUser(user2Id);
+        }
+    }
+
+    /**
+     * Test 18: archiving is off by default and accepts only horizons in range.
+     */
+    @Test
+    public void test_setArchiveHorizonMonths_validatesRange() {
+        // ACT
+        int byDefault = userPreferenceDAO.getArchiveHorizonMonths(testUserId);
+        boolean tooShort = userPreferenceDAO.setArchiveHorizonMonths(testUserId,
+                UserPreferenceDAO.MIN_ARCHIVE_HORIZON_MONTHS - 1);
+        boolean valid = userPreferenceDAO.setArchiveHorizonMonths(testUserId, 12);
+
+        // ASSERT
+        assertEquals(0, byDefault);
+        assertFalse(tooShort);
+        assertTrue(valid);
+        assertEquals(12, userPreferenceDAO.getArchiveHorizonMonths(testUserId));
+    }
+
+    /**
+     * Test 19: getArchiveHorizons returns only the users who opted in.
+     */
+    @Test
+    public void test_getArchiveHorizons_returnsOptedInUsersOnly() throws DatabaseException {
+        // ARRANGE
+        userPreferenceDAO.setArchiveHorizonMonths(testUserId, 24);
+        long user2Id = userDAO.insertUser(createTestUser("archive_user2"));
+        try {
+            userPreferenceDAO.setArchiveHorizonMonths(user2Id, 12);
+            userPreferenceDAO.setArchiveHorizonMonths(user2Id, 0);
+
+            // ACT
+            Map<Long, Integer> horizons = userPreferenceDAO.getArchiveHorizons();
+
+            // ASSERT
+            assertEquals(1, horizons.size());
+            assertEquals(Integer.valueOf(24), horizons.get(testUserId));
+        } finally {
+            userDAO.deleteUser(user2Id);
+        }
+    }
+
+    private void enableReminders(long userId, String phoneNumber) {
+        userDAO.updatePhoneNumber(userId, phoneNumber);
+        userPreferenceDAO.setPreference(userId, "sms_notifications_enabled", "true");
+        userPreferenceDAO.setPreference(userId, "sms_reminder_enabled", "true");
+    }
 }
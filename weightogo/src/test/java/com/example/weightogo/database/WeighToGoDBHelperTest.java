@@ -2,8 +2,12 @@ package com.example.weightogo.database;
 
 import android.content.Context;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteConstraintException;
 import android.database.sqlite.SQLiteDatabase;
 
+import com.example.weightogo.models.AchievementType;
+import com.example.weightogo.utils.WeightUtils;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -126,7 +130,7 @@ public class WeighToGoDBHelperTest {
         // ASSERT - Check table schema
         try (Cursor cursor = db.rawQuery("PRAGMA table_info(daily_weights)", null)) {
             int columnCount = cursor.getCount();
-            assertEquals("daily_weights table should have 9 columns", 9, columnCount);
+            assertEquals("daily_weights table should have 10 columns", 10, columnCount);
 
             // Verify required columns exist
             boolean hasWeightId = false;
@@ -292,64 +296,65 @@ public class WeighToGoDBHelperTest {
     }
 
     /**
-     * Test 9: onCreate creates unique index on users.username
-     * Username must be unique and queries should be fast
+     * Test 9: onCreate enforces unique usernames with the column's UNIQUE index only (v10)
+     * idx_users_username duplicated it and was dropped
      */
     @Test
-    public void test_onCreate_createsUniqueIndexOnUsername() {
+    public void test_onCreate_enforcesUniqueUsernameWithoutDuplicateIndex() {
         // ACT
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        // ASSERT - Check index exists
+        // ASSERT - No duplicate index
         try (Cursor cursor = db.rawQuery(
             "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_users_username'",
             null
         )) {
-            assertTrue("Index idx_users_username should exist", cursor.moveToFirst());
+            assertFalse("Index idx_users_username should not exist", cursor.moveToFirst());
         }
 
-        // ASSERT - Verify it's a unique index by checking sql column
-        try (Cursor cursor = db.rawQuery(
-            "SELECT sql FROM sqlite_master WHERE type='index' AND name='idx_users_username'",
-            null
-        )) {
-            assertTrue("Should find index definition", cursor.moveToFirst());
-            String sql = cursor.getString(0);
-            assertTrue("Index should be UNIQUE", sql.toUpperCase().contains("UNIQUE"));
+        // ASSERT - Username lookups still use a unique index
+        try (Cursor cursor = db.rawQuery("PRAGMA index_list(users)", null)) {
+            boolean unique = false;
+            while (cursor.moveToNext()) {
+                unique |= cursor.getInt(cursor.getColumnIndexOrThrow("unique")) == 1;
+            }
+            assertTrue("users should keep a UNIQUE index for username", unique);
         }
     }
 
     /**
-     * Test 10: onCreate creates index on users.email (conditional)
+     * Test 10: onCreate does not create idx_users_email (v10)
+     * No query looks users up by email
      */
     @Test
-    public void test_onCreate_createsIndexOnUsersEmail() {
+    public void test_onCreate_doesNotCreateIndexOnUsersEmail() {
         // ACT
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        // ASSERT - Check index exists
+        // ASSERT
         try (Cursor cursor = db.rawQuery(
             "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_users_email'",
             null
         )) {
-            assertTrue("Index idx_users_email should exist", cursor.moveToFirst());
+            assertFalse("Index idx_users_email should not exist", cursor.moveToFirst());
         }
     }
 
     /**
-     * Test 11: onCreate creates index on users.is_active
+     * Test 11: onCreate does not create idx_users_active (v10)
+     * No query filters users by is_active alone
      */
     @Test
-    public void test_onCreate_createsIndexOnUsersActive() {
+    public void test_onCreate_doesNotCreateIndexOnUsersActive() {
         // ACT
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        // ASSERT - Check index exists
+        // ASSERT
         try (Cursor cursor = db.rawQuery(
             "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_users_active'",
             null
         )) {
-            assertTrue("Index idx_users_active should exist", cursor.moveToFirst());
+            assertFalse("Index idx_users_active should not exist", cursor.moveToFirst());
         }
     }
 
@@ -372,151 +377,170 @@ public class WeighToGoDBHelperTest {
     }
 
     /**
-     * Test 13: onCreate creates index on daily_weights.weight_date
-     * Optimizes date sorting and range queries
+     * Test 13: onCreate creates the covering history index on daily_weights (v10)
+     * Serves streamHistory, getStreaks and goal progress without reading the table
      */
     @Test
-    public void test_onCreate_createsIndexOnWeightsDate() {
+    public void test_onCreate_createsIndexOnWeightsUserHistory() {
         // ACT
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        // ASSERT - Check index exists
+        // ASSERT - Check index exists and is partial
         try (Cursor cursor = db.rawQuery(
-            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_weights_date'",
+            "SELECT sql FROM sqlite_master WHERE type='index' AND name='idx_weights_user_history'",
             null
         )) {
-            assertTrue("Index idx_weights_date should exist", cursor.moveToFirst());
+            assertTrue("Index idx_weights_user_history should exist", cursor.moveToFirst());
+            assertTrue("Index should skip deleted rows", cursor.getString(0).contains("WHERE is_deleted = 0"));
         }
     }
 
     /**
-     * Test 14: onCreate creates index on daily_weights(user_id, created_at DESC)
-     * Optimizes queries for recent entries by user
+     * Test 14: onCreate does not create unused daily_weights indexes (v10)
+     * No query reads daily_weights by weight_date or created_at alone
      */
     @Test
-    public void test_onCreate_createsIndexOnWeightsUserCreated() {
+    public void test_onCreate_doesNotCreateUnusedWeightsIndexes() {
         // ACT
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        // ASSERT - Check index exists
+        // ASSERT
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_weights_date'",
+            null
+        )) {
+            assertFalse("Index idx_weights_date should not exist", cursor.moveToFirst());
+        }
         try (Cursor cursor = db.rawQuery(
             "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_weights_user_created'",
             null
         )) {
-            assertTrue("Index idx_weights_user_created should exist", cursor.moveToFirst());
+            assertFalse("Index idx_weights_user_created should not exist", cursor.moveToFirst());
         }
     }
 
     /**
-     * Test 15: onCreate creates composite index on goal_weights(user_id, is_active)
-     * Optimizes finding active goal for user
+     * Test 15: onCreate creates partial unique index on goal_weights(user_id) WHERE is_active = 1
+     * Allows one active goal per user and finds it with one seek (v9)
      */
     @Test
-    public void test_onCreate_createsIndexOnGoalsUserActive() {
+    public void test_onCreate_createsIndexOnGoalsUserOneActive() {
         // ACT
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
         // ASSERT - Check index exists
         try (Cursor cursor = db.rawQuery(
-            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_goals_user_active'",
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_goals_user_one_active'",
+            null
+        )) {
+            assertTrue("Index idx_goals_user_one_active should exist", cursor.moveToFirst());
+        }
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_goals_user_created'",
             null
         )) {
-            assertTrue("Index idx_goals_user_active should exist", cursor.moveToFirst());
+            assertTrue("Index idx_goals_user_created should exist", cursor.moveToFirst());
         }
     }
 
     /**
-     * Test 16: onCreate creates index on goal_weights.is_achieved
+     * Test 16: onCreate does not create idx_goals_achieved (v10)
+     * No query filters goals by is_achieved
      */
     @Test
-    public void test_onCreate_createsIndexOnGoalsAchieved() {
+    public void test_onCreate_doesNotCreateIndexOnGoalsAchieved() {
         // ACT
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        // ASSERT - Check index exists
+        // ASSERT
         try (Cursor cursor = db.rawQuery(
             "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_goals_achieved'",
             null
         )) {
-            assertTrue("Index idx_goals_achieved should exist", cursor.moveToFirst());
+            assertFalse("Index idx_goals_achieved should not exist", cursor.moveToFirst());
         }
     }
 
     /**
-     * Test 17: onCreate creates index on achievements.user_id
+     * Test 17: onCreate creates the covering achievements feed index
      */
     @Test
-    public void test_onCreate_createsIndexOnAchievementsUser() {
+    public void test_onCreate_createsIndexOnAchievementsUserFeed() {
         // ACT
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
         // ASSERT - Check index exists
         try (Cursor cursor = db.rawQuery(
-            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_achievements_user'",
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_achievements_user_feed'",
             null
         )) {
-            assertTrue("Index idx_achievements_user should exist", cursor.moveToFirst());
+            assertTrue("Index idx_achievements_user_feed should exist", cursor.moveToFirst());
         }
     }
 
     /**
-     * Test 18: onCreate creates composite index on achievements(user_id, is_notified)
+     * Test 18: onCreate does not create idx_achievements_unnotified (v10)
+     * The covering feed index already returns a user's unnotified achievements in order
      */
     @Test
-    public void test_onCreate_createsIndexOnAchievementsUnnotified() {
+    public void test_onCreate_doesNotCreateIndexOnAchievementsUnnotified() {
         // ACT
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        // ASSERT - Check index exists
+        // ASSERT
         try (Cursor cursor = db.rawQuery(
             "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_achievements_unnotified'",
             null
         )) {
-            assertTrue("Index idx_achievements_unnotified should exist", cursor.moveToFirst());
+            assertFalse("Index idx_achievements_unnotified should not exist", cursor.moveToFirst());
         }
     }
 
     /**
-     * Test 19: onCreate creates index on achievements.achievement_type
+     * Test 19: onCreate does not create idx_achievements_code (v10)
+     * No query filters achievements by code without user_id
      */
     @Test
-    public void test_onCreate_createsIndexOnAchievementsType() {
+    public void test_onCreate_doesNotCreateIndexOnAchievementsCode() {
         // ACT
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        // ASSERT - Check index exists
+        // ASSERT
         try (Cursor cursor = db.rawQuery(
-            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_achievements_type'",
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_achievements_code'",
             null
         )) {
-            assertTrue("Index idx_achievements_type should exist", cursor.moveToFirst());
+            assertFalse("Index idx_achievements_code should not exist", cursor.moveToFirst());
         }
     }
 
     /**
-     * Test 20: onCreate creates unique composite index on user_preferences(user_id, pref_key)
+     * Test 20: onCreate relies on user_preferences' UNIQUE (user_id, pref_key) constraint (v10)
+     * idx_prefs_user_key duplicated its index and was dropped
      */
     @Test
-    public void test_onCreate_createsUniqueIndexOnPrefsUserKey() {
+    public void test_onCreate_enforcesUniquePrefsUserKeyWithoutDuplicateIndex() {
         // ACT
         SQLiteDatabase db = dbHelper.getWritableDatabase();
 
-        // ASSERT - Check index exists
+        // ASSERT - No duplicate index
         try (Cursor cursor = db.rawQuery(
             "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_prefs_user_key'",
             null
         )) {
-            assertTrue("Index idx_prefs_user_key should exist", cursor.moveToFirst());
+            assertFalse("Index idx_prefs_user_key should not exist", cursor.moveToFirst());
         }
 
-        // ASSERT - Verify it's a unique index
-        try (Cursor cursor = db.rawQuery(
-            "SELECT sql FROM sqlite_master WHERE type='index' AND name='idx_prefs_user_key'",
-            null
-        )) {
-            assertTrue("Should find index definition", cursor.moveToFirst());
-            String sql = cursor.getString(0);
-            assertTrue("Index should be UNIQUE", sql.toUpperCase().contains("UNIQUE"));
+        // ASSERT - The constraint still rejects a second value for the same key
+        long userId = insertUpgradeUser(db, "prefs_unique_user");
+        String insertPref = "INSERT INTO user_preferences (user_id, pref_key, pref_value, created_at, updated_at) " +
+            "VALUES (?, 'weight_unit', ?, '2025-12-10T10:00:00', '2025-12-10T10:00:00')";
+        db.execSQL(insertPref, new Object[]{userId, "lbs"});
+        try {
+            db.execSQL(insertPref, new Object[]{userId, "kg"});
+            fail("Duplicate (user_id, pref_key) should be rejected");
+        } catch (SQLiteConstraintException expected) {
+            // expected
         }
     }
 
@@ -633,13 +657,13 @@ public class WeighToGoDBHelperTest {
         // ASSERT - Check table schema
         try (Cursor cursor = db.rawQuery("PRAGMA table_info(achievements)", null)) {
             int columnCount = cursor.getCount();
-            assertEquals("achievements table should have 9 columns", 9, columnCount);
+            assertEquals("achievements table should have 7 columns", 7, columnCount);
 
             // Verify required columns exist
             boolean hasAchievementId = false;
             boolean hasUserId = false;
             boolean hasGoalId = false;
-            boolean hasAchievementType = false;
+            boolean hasAchievementCode = false;
             boolean hasIsNotified = false;
 
             while (cursor.moveToNext()) {
@@ -647,14 +671,14 @@ public class WeighToGoDBHelperTest {
                 if (columnName.equals("achievement_id")) hasAchievementId = true;
                 if (columnName.equals("user_id")) hasUserId = true;
                 if (columnName.equals("goal_id")) hasGoalId = true;
-                if (columnName.equals("achievement_type")) hasAchievementType = true;
+                if (columnName.equals("achievement_code")) hasAchievementCode = true;
                 if (columnName.equals("is_notified")) hasIsNotified = true;
             }
 
             assertTrue("achievements should have achievement_id column", hasAchievementId);
             assertTrue("achievements should have user_id column", hasUserId);
             assertTrue("achievements should have goal_id column", hasGoalId);
-            assertTrue("achievements should have achievement_type column", hasAchievementType);
+            assertTrue("achievements should have achievement_code column", hasAchievementCode);
             assertTrue("achievements should have is_notified column", hasIsNotified);
         }
     }
@@ -700,4 +724,428 @@ public class WeighToGoDBHelperTest {
             assertTrue("user_preferences should have pref_value column", hasPrefValue);
         }
     }
+
+    /**
+     * Test 24: onCreate creates sms_outbox table with correct schema (v3)
+     */
+    @Test
+    public void test_onCreate_createsSmsOutboxTable() {
+        // ACT
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        // ASSERT - Check table exists
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='table' AND name='sms_outbox'",
+            null
+        )) {
+            assertTrue("sms_outbox table should exist", cursor.moveToFirst());
+        }
+
+        // ASSERT - Check due-message index exists
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_outbox_status_due'",
+            null
+        )) {
+            assertTrue("idx_outbox_status_due index should exist", cursor.moveToFirst());
+        }
+
+        // ASSERT - Check table schema
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(sms_outbox)", null)) {
+            assertEquals("sms_outbox table should have 9 columns", 9, cursor.getCount());
+        }
+    }
+
+    /**
+     * Test 25: onCreate creates idx_prefs_key_value for the reminder sweep (v4)
+     */
+    @Test
+    public void test_onCreate_createsPrefsKeyValueIndex() {
+        // ACT
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        // ASSERT
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_prefs_key_value'",
+            null
+        )) {
+            assertTrue("idx_prefs_key_value index should exist", cursor.moveToFirst());
+        }
+    }
+
+    /**
+     * Test 26: onCreate creates idx_weights_user_mass for MIN(mass_dg) lookups (v5)
+     */
+    @Test
+    public void test_onCreate_createsWeightsUserMassIndex() {
+        // ACT
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        // ASSERT
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_weights_user_mass'",
+            null
+        )) {
+            assertTrue("idx_weights_user_mass index should exist", cursor.moveToFirst());
+        }
+    }
+
+    /**
+     * Test 27: onUpgrade v4->v5 adds mass_dg and backfills it from weight_value and weight_unit
+     */
+    @Test
+    public void test_onUpgrade_v4ToV5_addsAndBackfillsMassColumn() {
+        // ARRANGE - Recreate daily_weights with the v4 schema (no mass_dg)
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.execSQL("DROP INDEX IF EXISTS idx_weights_user_mass");
+        db.execSQL("DROP TABLE IF EXISTS daily_weights");
+        db.execSQL(
+            "CREATE TABLE daily_weights (" +
+            "weight_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "user_id INTEGER NOT NULL, " +
+            "weight_value REAL NOT NULL, " +
+            "weight_unit TEXT NOT NULL, " +
+            "weight_date TEXT NOT NULL, " +
+            "notes TEXT, " +
+            "created_at TEXT NOT NULL, " +
+            "updated_at TEXT NOT NULL, " +
+            "is_deleted INTEGER NOT NULL DEFAULT 0)"
+        );
+        db.execSQL(
+            "INSERT INTO daily_weights (user_id, weight_value, weight_unit, weight_date, created_at, updated_at) VALUES " +
+            "(1, 180.0, 'lbs', '2025-12-01', '2025-12-01 08:00:00', '2025-12-01 08:00:00'), " +
+            "(1, 80.0, 'kg', '2025-12-02', '2025-12-02 08:00:00', '2025-12-02 08:00:00')"
+        );
+
+        // ACT - Run twice to check the migration can be re-run
+        dbHelper.onUpgrade(db, 4, 5);
+        dbHelper.onUpgrade(db, 4, 5);
+
+        // ASSERT - Each row holds its mass in decigrams, computed like WeightUtils.toDecigrams()
+        try (Cursor cursor = db.rawQuery("SELECT mass_dg FROM daily_weights ORDER BY weight_date", null)) {
+            assertTrue(cursor.moveToNext());
+            assertEquals(WeightUtils.toDecigrams(180.0, "lbs"), cursor.getLong(0));
+            assertTrue(cursor.moveToNext());
+            assertEquals(WeightUtils.toDecigrams(80.0, "kg"), cursor.getLong(0));
+        }
+
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_weights_user_mass'",
+            null
+        )) {
+            assertTrue("idx_weights_user_mass index should exist after upgrade", cursor.moveToFirst());
+        }
+    }
+
+    /**
+     * Test 28: onUpgrade v5->v6 removes duplicate one-time achievements and enforces uniqueness
+     */
+    @Test
+    public void test_onUpgrade_v5ToV6_dedupesOneTimeAchievements() {
+        // ARRANGE - v5 had no unique index, so a race could award FIRST_ENTRY twice
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        recreateV6AchievementsTable(db);
+        long userId = insertUpgradeUser(db, "v6user");
+        for (String type : new String[]{"FIRST_ENTRY", "FIRST_ENTRY", "NEW_LOW", "NEW_LOW"}) {
+            db.execSQL("INSERT INTO achievements (user_id, achievement_type, title, achieved_at) " +
+                "VALUES (" + userId + ", '" + type + "', 'Title', '2025-12-10T10:00:00')");
+        }
+
+        // ACT - falls through to v7, which converts the surviving rows to codes
+        dbHelper.onUpgrade(db, 5, 6);
+
+        // ASSERT - one FIRST_ENTRY kept, repeatable NEW_LOW untouched
+        try (Cursor cursor = db.rawQuery(
+            "SELECT achievement_code, COUNT(*) FROM achievements WHERE user_id = ? " +
+                "GROUP BY achievement_code ORDER BY achievement_code",
+            new String[]{String.valueOf(userId)}
+        )) {
+            assertTrue(cursor.moveToNext());
+            assertEquals(AchievementType.FIRST_ENTRY.getCode(), cursor.getInt(0));
+            assertEquals(1, cursor.getInt(1));
+            assertTrue(cursor.moveToNext());
+            assertEquals(AchievementType.NEW_LOW.getCode(), cursor.getInt(0));
+            assertEquals(2, cursor.getInt(1));
+        }
+
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_achievements_user_code_once'",
+            null
+        )) {
+            assertTrue("idx_achievements_user_code_once should exist after upgrade", cursor.moveToFirst());
+        }
+    }
+
+    /**
+     * Test 29: onUpgrade v6->v7 converts types to codes, keeping IDs, values and queued SMS
+     */
+    @Test
+    public void test_onUpgrade_v6ToV7_convertsTypesToCodes() {
+        // ARRANGE - a v6 table with one known and one unknown type, and a queued SMS
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        recreateV6AchievementsTable(db);
+        long userId = insertUpgradeUser(db, "v7user");
+        db.execSQL("INSERT INTO achievements (achievement_id, user_id, achievement_type, title, value, achieved_at) " +
+            "VALUES (41, " + userId + ", 'GOAL_REACHED', 'Goal Reached!', 150.0, '2025-12-10T10:00:00')");
+        db.execSQL("INSERT INTO achievements (achievement_id, user_id, achievement_type, title, achieved_at) " +
+            "VALUES (42, " + userId + ", 'RETIRED_TYPE', 'Old', '2025-12-10T10:00:00')");
+        db.execSQL("INSERT INTO sms_outbox (user_id, achievement_id, next_attempt_at, created_at, updated_at) " +
+            "VALUES (" + userId + ", 41, '2025-12-10T10:00:00', '2025-12-10T10:00:00', '2025-12-10T10:00:00')");
+
+        // ACT
+        dbHelper.onUpgrade(db, 6, 7);
+
+        // ASSERT - the known row keeps its ID and value, the unknown one is dropped
+        try (Cursor cursor = db.rawQuery(
+            "SELECT achievement_id, achievement_code, value FROM achievements WHERE user_id = ?",
+            new String[]{String.valueOf(userId)}
+        )) {
+            assertEquals(1, cursor.getCount());
+            assertTrue(cursor.moveToFirst());
+            assertEquals(41, cursor.getLong(0));
+            assertEquals(AchievementType.GOAL_REACHED.getCode(), cursor.getInt(1));
+            assertEquals(150.0, cursor.getDouble(2), 0.001);
+        }
+
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(achievements)", null)) {
+            while (cursor.moveToNext()) {
+                String columnName = cursor.getString(cursor.getColumnIndexOrThrow("name"));
+                assertNotEquals("title should be dropped", "title", columnName);
+            }
+        }
+
+        // ASSERT - the queued SMS survived the rebuild and still cascades
+        try (Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM sms_outbox WHERE achievement_id = 41", null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(1, cursor.getInt(0));
+        }
+        db.execSQL("DELETE FROM achievements WHERE achievement_id = 41");
+        try (Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM sms_outbox WHERE achievement_id = 41", null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(0, cursor.getInt(0));
+        }
+    }
+
+    /**
+     * Test 30: onUpgrade v7->v8 swaps idx_achievements_user for the covering feed index
+     */
+    @Test
+    public void test_onUpgrade_v7ToV8_replacesAchievementsUserIndex() {
+        // ARRANGE - v7 indexes
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.execSQL("DROP INDEX IF EXISTS idx_achievements_user_feed");
+        db.execSQL("CREATE INDEX idx_achievements_user ON achievements(user_id)");
+
+        // ACT
+        dbHelper.onUpgrade(db, 7, 8);
+
+        // ASSERT
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_achievements_user_feed'",
+            null
+        )) {
+            assertTrue("idx_achievements_user_feed should exist after upgrade", cursor.moveToFirst());
+        }
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_achievements_user'",
+            null
+        )) {
+            assertFalse("idx_achievements_user should be dropped", cursor.moveToFirst());
+        }
+    }
+
+    /**
+     * Test 31: onUpgrade v8->v9 keeps each user's newest active goal and enforces one active goal
+     */
+    @Test
+    public void test_onUpgrade_v8ToV9_keepsNewestActiveGoalAndEnforcesUniqueness() {
+        // ARRANGE - v8 indexes, and a user with three active goals
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.execSQL("DROP INDEX IF EXISTS idx_goals_user_one_active");
+        db.execSQL("DROP INDEX IF EXISTS idx_goals_user_created");
+        db.execSQL("CREATE INDEX idx_goals_user_active ON goal_weights(user_id, is_active)");
+        long userId = insertUpgradeUser(db, "v9_upgrade_user");
+        String insertGoal = "INSERT INTO goal_weights " +
+            "(goal_id, user_id, goal_weight, goal_unit, start_weight, created_at, updated_at, is_active) " +
+            "VALUES (?, ?, 150.0, 'lbs', 180.0, ?, ?, 1)";
+        db.execSQL(insertGoal, new Object[]{71, userId, "2025-01-01T10:00:00", "2025-01-01T10:00:00"});
+        db.execSQL(insertGoal, new Object[]{72, userId, "2025-03-01T10:00:00", "2025-03-01T10:00:00"});
+        db.execSQL(insertGoal, new Object[]{73, userId, "2025-02-01T10:00:00", "2025-02-01T10:00:00"});
+
+        // ACT
+        dbHelper.onUpgrade(db, 8, 9);
+
+        // ASSERT - only the newest is still active
+        try (Cursor cursor = db.rawQuery(
+            "SELECT goal_id FROM goal_weights WHERE user_id = ? AND is_active = 1",
+            new String[]{String.valueOf(userId)}
+        )) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(72, cursor.getLong(0));
+            assertFalse("Only one goal should stay active", cursor.moveToNext());
+        }
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_goals_user_active'",
+            null
+        )) {
+            assertFalse("idx_goals_user_active should be dropped", cursor.moveToFirst());
+        }
+
+        // ASSERT - a second active goal is rejected
+        try {
+            db.execSQL(insertGoal, new Object[]{74, userId, "2025-04-01T10:00:00", "2025-04-01T10:00:00"});
+            fail("Second active goal should violate idx_goals_user_one_active");
+        } catch (SQLiteConstraintException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Test 32: onUpgrade v9->v10 adds idx_weights_user_history and drops the unused indexes
+     */
+    @Test
+    public void test_onUpgrade_v9ToV10_replacesUnusedIndexes() {
+        // ARRANGE - v9 indexes
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.execSQL("DROP INDEX IF EXISTS idx_weights_user_history");
+        db.execSQL("CREATE INDEX idx_weights_date ON daily_weights(weight_date)");
+        db.execSQL("CREATE INDEX idx_goals_achieved ON goal_weights(is_achieved)");
+        db.execSQL("CREATE UNIQUE INDEX idx_prefs_user_key ON user_preferences(user_id, pref_key)");
+        db.execSQL("CREATE UNIQUE INDEX idx_users_username ON users(username)");
+
+        // ACT
+        dbHelper.onUpgrade(db, 9, 10);
+
+        // ASSERT
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_weights_user_history'",
+            null
+        )) {
+            assertTrue("idx_weights_user_history should exist after upgrade", cursor.moveToFirst());
+        }
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name IN " +
+                "('idx_weights_date', 'idx_goals_achieved', 'idx_prefs_user_key', 'idx_users_username')",
+            null
+        )) {
+            assertFalse("Unused indexes should be dropped", cursor.moveToFirst());
+        }
+    }
+
+    /**
+     * Test 33: onCreate creates the archive and monthly rollup tables (v11)
+     */
+    @Test
+    public void test_onCreate_createsArchiveAndRollupTables() {
+        // ACT
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        // ASSERT
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='table' AND name IN " +
+                "('daily_weights_archive', 'weight_monthly_rollup')",
+            null
+        )) {
+            assertEquals("Both tables should exist", 2, cursor.getCount());
+        }
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE type='index' AND name='idx_weights_archive_user_history'",
+            null
+        )) {
+            assertTrue("idx_weights_archive_user_history index should exist", cursor.moveToFirst());
+        }
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(daily_weights_archive)", null)) {
+            assertEquals("Archive should have the daily_weights columns", 10, cursor.getCount());
+        }
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(weight_monthly_rollup)", null)) {
+            assertEquals("weight_monthly_rollup table should have 10 columns", 10, cursor.getCount());
+        }
+    }
+
+    /**
+     * Test 34: onUpgrade v10->v11 adds the archive (one entry per user and date) and rollup
+     * tables, which cascade on user delete
+     */
+    @Test
+    public void test_onUpgrade_v10ToV11_addsArchiveTables() {
+        // ARRANGE - v10 schema
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        db.execSQL("DROP TABLE IF EXISTS daily_weights_archive");
+        db.execSQL("DROP TABLE IF EXISTS weight_monthly_rollup");
+
+        // ACT
+        dbHelper.onUpgrade(db, 10, 11);
+        long userId = insertUpgradeUser(db, "v11_upgrade_user");
+        db.execSQL("INSERT INTO weight_monthly_rollup (user_id, month_start, entry_count, min_mass_dg, " +
+            "max_mass_dg, sum_mass_dg, first_date, first_mass_dg, last_date, last_mass_dg) " +
+            "VALUES (" + userId + ", '2024-01-01', 1, 816466, 816466, 816466, '2024-01-05', 816466, " +
+            "'2024-01-05', 816466)");
+        for (long weightId = 1001; weightId <= 1002; weightId++) {
+            db.execSQL("INSERT OR IGNORE INTO daily_weights_archive (weight_id, user_id, weight_value, " +
+                "weight_unit, weight_date, created_at, updated_at, mass_dg) VALUES (" + weightId + ", " +
+                userId + ", 180.0, 'lbs', '2024-01-05', '2024-01-05T08:00:00', '2024-01-05T08:00:00', 816466)");
+        }
+        try (Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM daily_weights_archive", null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("A second archived entry for the date should be rejected", 1, cursor.getInt(0));
+        }
+        db.execSQL("DELETE FROM users WHERE user_id = " + userId);
+
+        // ASSERT
+        try (Cursor cursor = db.rawQuery(
+            "SELECT name FROM sqlite_master WHERE name IN " +
+                "('daily_weights_archive', 'weight_monthly_rollup', 'idx_weights_archive_user_history')",
+            null
+        )) {
+            assertEquals("Tables and index should exist after upgrade", 3, cursor.getCount());
+        }
+        try (Cursor cursor = db.rawQuery("SELECT COUNT(*) FROM weight_monthly_rollup", null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("Rollup rows should cascade with the user", 0, cursor.getInt(0));
+        }
+    }
+
+    /**
+     * Test 35: a new database is created in auto_vacuum = INCREMENTAL mode
+     */
+    @Test
+    public void test_onConfigure_newDatabase_usesIncrementalAutoVacuum() {
+        // ACT
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        // ASSERT
+        try (Cursor cursor = db.rawQuery("PRAGMA auto_vacuum", null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("auto_vacuum should be INCREMENTAL (2)", 2, cursor.getInt(0));
+        }
+    }
+
+    /**
+     * Replaces achievements with its v6 shape (type, title and description as text).
+     */
+    private static void recreateV6AchievementsTable(SQLiteDatabase db) {
+        db.execSQL("DROP TABLE achievements");
+        db.execSQL("CREATE TABLE achievements (" +
+            "achievement_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "user_id INTEGER NOT NULL, " +
+            "goal_id INTEGER, " +
+            "achievement_type TEXT NOT NULL, " +
+            "title TEXT NOT NULL, " +
+            "description TEXT, " +
+            "value REAL, " +
+            "achieved_at TEXT NOT NULL, " +
+            "is_notified INTEGER NOT NULL DEFAULT 0, " +
+            "FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE, " +
+            "FOREIGN KEY (goal_id) REFERENCES goal_weights(goal_id) ON DELETE SET NULL)");
+    }
+
+    private static long insertUpgradeUser(SQLiteDatabase db, String username) {
+        db.execSQL(
+            "INSERT INTO users (username, password_hash, salt, created_at, updated_at) " +
+            "VALUES ('" + username + "', 'hash123', 'salt456', '2025-12-10 10:00:00', '2025-12-10 10:00:00')"
+        );
+        try (Cursor cursor = db.rawQuery("SELECT user_id FROM users WHERE username = ?", new String[]{username})) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        }
+    }
 }
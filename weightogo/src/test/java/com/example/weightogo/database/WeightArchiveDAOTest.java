@@ -0,0 +1,302 @@
+package com.example.weightogo.database;
+
+import static com.example.weightogo.database.WeightEntryFixtures.insertEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import com.example.weightogo.models.GoalWeight;
+import com.example.weightogo.models.User;
+import com.example.weightogo.models.WeightEntry;
+import com.example.weightogo.utils.WeightUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Unit tests for WeightArchiveDAO.
+ * Tests moving entries past the horizon, the monthly rollup, and what is kept in daily_weights.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class WeightArchiveDAOTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 12, 15);
+
+    private WeighToGoDBHelper dbHelper;
+    private WeightArchiveDAO archiveDAO;
+    private WeightEntryDAO weightEntryDAO;
+    private UserDAO userDAO;
+    private long testUserId;
+
+    @Before
+    public void setUp() throws DuplicateUsernameException, DatabaseException {
+        Context context = RuntimeEnvironment.getApplication();
+        dbHelper = WeighToGoDBHelper.getInstance(context);
+        archiveDAO = new WeightArchiveDAO(dbHelper);
+        weightEntryDAO = new WeightEntryDAO(dbHelper);
+        userDAO = new UserDAO(dbHelper);
+
+        User testUser = new User();
+        testUser.setUsername("testuser_archive_" + System.currentTimeMillis());
+        testUser.setPasswordHash("hash123");
+        testUser.setSalt("salt123");
+        testUser.setPasswordAlgorithm("SHA256");
+        testUser.setCreatedAt(LocalDateTime.now());
+        testUser.setUpdatedAt(LocalDateTime.now());
+        testUser.setActive(true);
+
+        testUserId = userDAO.insertUser(testUser);
+        assertTrue("Test user should be created", testUserId > 0);
+    }
+
+    @After
+    public void tearDown() {
+        if (testUserId > 0) {
+            userDAO.deleteUser(testUserId);
+        }
+    }
+
+    @Test
+    public void test_archiveEntries_beforeHorizon_movesEntriesAndSummarizesMonths() {
+        // ARRANGE - two entries in Jan 2024, one in Feb 2024, one this month
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 10), 180.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 20), 176.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 2, 5), 178.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 12, 1), 170.0);
+
+        // ACT
+        int moved = archiveDAO.archiveEntries(testUserId, 6, TODAY);
+
+        // ASSERT
+        assertEquals(3, moved);
+        assertEquals(1, count("SELECT COUNT(*) FROM daily_weights WHERE user_id = ?"));
+        assertEquals(3, count("SELECT COUNT(*) FROM daily_weights_archive WHERE user_id = ?"));
+        assertEquals(2, count("SELECT COUNT(*) FROM weight_monthly_rollup WHERE user_id = ?"));
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(
+                "SELECT entry_count, min_mass_dg, max_mass_dg, sum_mass_dg, first_date, first_mass_dg, " +
+                    "last_date, last_mass_dg FROM weight_monthly_rollup " +
+                    "WHERE user_id = ? AND month_start = '2024-01-01'",
+                new String[]{String.valueOf(testUserId)})) {
+            assertTrue("January should be summarized", cursor.moveToFirst());
+            assertEquals(2, cursor.getInt(0));
+            assertEquals(dg(176.0), cursor.getLong(1));
+            assertEquals(dg(180.0), cursor.getLong(2));
+            assertEquals(dg(180.0) + dg(176.0), cursor.getLong(3));
+            assertEquals("2024-01-10", cursor.getString(4));
+            assertEquals(dg(180.0), cursor.getLong(5));
+            assertEquals("2024-01-20", cursor.getString(6));
+            assertEquals(dg(176.0), cursor.getLong(7));
+        }
+    }
+
+    @Test
+    public void test_archiveEntries_withCurrentRunPastHorizon_keepsRunHot() {
+        // ARRANGE - an old entry, then a daily run from May 20 to today
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 1, 5), 180.0);
+        for (LocalDate day = LocalDate.of(2025, 5, 20); !day.isAfter(TODAY); day = day.plusDays(1)) {
+            insertEntry(weightEntryDAO, testUserId, day, 175.0);
+        }
+        int runLength = weightEntryDAO.getStreaks(testUserId, null).getCurrent();
+
+        // ACT - the horizon (June) falls inside the run
+        int moved = archiveDAO.archiveEntries(testUserId, 6, TODAY);
+
+        // ASSERT
+        assertEquals("Only the entry before the run's month moves", 1, moved);
+        assertEquals(runLength, weightEntryDAO.getStreaks(testUserId, null).getCurrent());
+    }
+
+    @Test
+    public void test_archiveEntries_withActiveGoal_keepsGoalWindowHot() {
+        // ARRANGE - goal created in March
+        GoalWeight goal = new GoalWeight();
+        goal.setUserId(testUserId);
+        goal.setGoalWeight(160.0);
+        goal.setGoalUnit("lbs");
+        goal.setStartWeight(180.0);
+        goal.setCreatedAt(LocalDateTime.of(2025, 3, 10, 9, 0));
+        goal.setUpdatedAt(LocalDateTime.of(2025, 3, 10, 9, 0));
+        goal.setActive(true);
+        goal.setAchieved(false);
+        assertTrue(new GoalWeightDAO(dbHelper).insertGoal(goal) > 0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 1, 5), 180.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 3, 2), 178.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 4, 1), 176.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 12, 1), 170.0);
+
+        // ACT
+        int moved = archiveDAO.archiveEntries(testUserId, 6, TODAY);
+
+        // ASSERT - January moves; March onwards stays
+        assertEquals(1, moved);
+        assertEquals(3, count("SELECT COUNT(*) FROM daily_weights WHERE user_id = ?"));
+    }
+
+    @Test
+    public void test_archiveEntries_withBackdatedEntry_rebuildsItsMonth() {
+        // ARRANGE - January archived, then another January entry logged
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 10), 180.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 12, 1), 170.0);
+        archiveDAO.archiveEntries(testUserId, 6, TODAY);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 25), 174.0);
+
+        // ACT
+        int moved = archiveDAO.archiveEntries(testUserId, 6, TODAY);
+
+        // ASSERT
+        assertEquals(1, moved);
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(
+                "SELECT entry_count, min_mass_dg, last_date FROM weight_monthly_rollup " +
+                    "WHERE user_id = ? AND month_start = '2024-01-01'",
+                new String[]{String.valueOf(testUserId)})) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(2, cursor.getInt(0));
+            assertEquals(dg(174.0), cursor.getLong(1));
+            assertEquals("2024-01-25", cursor.getString(2));
+        }
+    }
+
+    @Test
+    public void test_archiveEntries_afterBackdatingOntoArchivedDate_keepsOneEntryPerDate() {
+        // ARRANGE - January 10 archived, then the same date logged again
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 10), 180.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 12, 1), 170.0);
+        archiveDAO.archiveEntries(testUserId, 6, TODAY);
+        WeightEntry backdated = new WeightEntry();
+        backdated.setUserId(testUserId);
+        backdated.setWeightValue(174.0);
+        backdated.setWeightUnit("lbs");
+        backdated.setWeightDate(LocalDate.of(2024, 1, 10));
+        backdated.setCreatedAt(LocalDateTime.now());
+        backdated.setUpdatedAt(LocalDateTime.now());
+
+        // ACT
+        long weightId = weightEntryDAO.insertWeightEntry(backdated);
+        int moved = archiveDAO.archiveEntries(testUserId, 6, TODAY);
+
+        // ASSERT - the insert is rejected and the archived entry is still the date's entry
+        assertEquals(-1, weightId);
+        assertEquals(0, moved);
+        assertEquals(1, count("SELECT COUNT(*) FROM daily_weights_archive WHERE user_id = ?"));
+        WeightEntry entry = weightEntryDAO.getWeightEntryForDate(testUserId, LocalDate.of(2024, 1, 10));
+        assertNotNull("The archived entry should be found by date", entry);
+        assertEquals(180.0, entry.getWeightValue(), 0.001);
+    }
+
+    @Test
+    public void test_archiveEntries_withEntryOnArchivedDate_replacesArchivedEntry() {
+        // ARRANGE - an entry on an archived date, logged before the insert path checked the archive
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 10), 180.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 12, 1), 170.0);
+        archiveDAO.archiveEntries(testUserId, 6, TODAY);
+        dbHelper.getWritableDatabase().execSQL("INSERT INTO daily_weights (user_id, weight_value, weight_unit, " +
+            "mass_dg, weight_date, created_at, updated_at) VALUES (" + testUserId + ", 174.0, 'lbs', " +
+            dg(174.0) + ", '2024-01-10', '2025-12-14T08:00:00', '2025-12-14T08:00:00')");
+
+        // ACT
+        int moved = archiveDAO.archiveEntries(testUserId, 6, TODAY);
+
+        // ASSERT
+        assertEquals(1, moved);
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(
+                "SELECT COUNT(*), MIN(mass_dg) FROM daily_weights_archive WHERE user_id = ?",
+                new String[]{String.valueOf(testUserId)})) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("One archived entry per date", 1, cursor.getInt(0));
+            assertEquals("The later entry replaces the archived one", dg(174.0), cursor.getLong(1));
+        }
+        assertEquals(1, count("SELECT entry_count FROM weight_monthly_rollup " +
+            "WHERE user_id = ? AND month_start = '2024-01-01'"));
+    }
+
+    @Test
+    public void test_archiveEntries_withDeletedEntry_leavesItForPurge() {
+        // ARRANGE
+        long deletedId = insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 10), 180.0);
+        weightEntryDAO.deleteWeightEntry(deletedId);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 11), 179.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 12, 1), 170.0);
+
+        // ACT
+        int moved = archiveDAO.archiveEntries(testUserId, 6, TODAY);
+
+        // ASSERT
+        assertEquals(1, moved);
+        assertEquals(1, count("SELECT COUNT(*) FROM daily_weights WHERE user_id = ? AND is_deleted = 1"));
+    }
+
+    @Test
+    public void test_updateWeightEntry_withArchivedEntry_restoresItAndRebuildsMonth() {
+        // ARRANGE
+        long weightId = insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 10), 180.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 20), 178.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 12, 1), 170.0);
+        archiveDAO.archiveEntries(testUserId, 6, TODAY);
+        WeightEntry entry = weightEntryDAO.getWeightEntryById(weightId);
+        assertNotNull(entry);
+        entry.setWeightValue(179.0);
+
+        // ACT
+        int rows = weightEntryDAO.updateWeightEntry(entry);
+
+        // ASSERT - the entry is back in daily_weights; January now summarizes the other entry
+        assertEquals(1, rows);
+        assertEquals(1, count("SELECT COUNT(*) FROM daily_weights_archive WHERE user_id = ?"));
+        assertEquals(2, count("SELECT COUNT(*) FROM daily_weights WHERE user_id = ?"));
+        assertEquals(1, count("SELECT entry_count FROM weight_monthly_rollup " +
+            "WHERE user_id = ? AND month_start = '2024-01-01'"));
+        assertEquals(179.0, weightEntryDAO.getWeightEntryById(weightId).getWeightValue(), 0.001);
+    }
+
+    @Test
+    public void test_deleteWeightEntry_withLastArchivedEntryOfMonth_dropsMonthRollup() {
+        // ARRANGE
+        long weightId = insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 10), 180.0);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2025, 12, 1), 170.0);
+        archiveDAO.archiveEntries(testUserId, 6, TODAY);
+
+        // ACT
+        int rows = weightEntryDAO.deleteWeightEntry(weightId);
+
+        // ASSERT - soft deleted in daily_weights, left for DatabaseMaintenance to purge
+        assertEquals(1, rows);
+        assertEquals(0, count("SELECT COUNT(*) FROM daily_weights_archive WHERE user_id = ?"));
+        assertEquals(0, count("SELECT COUNT(*) FROM weight_monthly_rollup WHERE user_id = ?"));
+        assertEquals(1, count("SELECT COUNT(*) FROM daily_weights WHERE user_id = ? AND is_deleted = 1"));
+        assertEquals(1, weightEntryDAO.getWeightEntriesForUser(testUserId).size());
+    }
+
+    @Test
+    public void test_archiveEntries_withInvalidHorizon_movesNothing() {
+        // ARRANGE
+        insertEntry(weightEntryDAO, testUserId, LocalDate.of(2024, 1, 10), 180.0);
+
+        // ACT
+        int moved = archiveDAO.archiveEntries(testUserId, 0, TODAY);
+
+        // ASSERT
+        assertEquals(0, moved);
+        assertEquals(1, count("SELECT COUNT(*) FROM daily_weights WHERE user_id = ?"));
+    }
+
+    private int count(String sql) {
+        try (Cursor cursor = dbHelper.getReadableDatabase().rawQuery(sql,
+                new String[]{String.valueOf(testUserId)})) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
+
+    private static long dg(double lbs) {
+        return WeightUtils.toDecigrams(lbs, "lbs");
+    }
+}
@@ -9,6 +9,7 @@ import android.content.Context;
 
 import com.example.weightogo.models.User;
 import com.example.weightogo.models.WeightEntry;
+import com.example.weightogo.utils.WeightUtils;
 
 import org.junit.After;
 import org.junit.Before;
@@ -19,6 +20,9 @@ import org.robolectric.RuntimeEnvironment;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -463,6 +467,266 @@ public class WeightEntryDAOTest {
         assertEquals("Latest weight should be 171.0", 171.0, latest.getWeightValue(), 0.01);
     }
 
+    @Test
+    public void test_getLatestWeightEntry_afterInsert_returnsNewEntry() {
+        // ARRANGE - First read is shared with later reads until a write
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 8), false));
+        WeightEntry before = weightEntryDAO.getLatestWeightEntry(testUserId);
+
+        // ACT
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 169.0, LocalDate.of(2025, 12, 9), false));
+        WeightEntry after = weightEntryDAO.getLatestWeightEntry(testUserId);
+
+        // ASSERT
+        assertEquals(170.0, before.getWeightValue(), 0.01);
+        assertEquals("Insert should invalidate the shared result", 169.0, after.getWeightValue(), 0.01);
+    }
+
+    @Test
+    public void test_getLatestWeightEntry_afterDelete_returnsPreviousEntry() {
+        // ARRANGE
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 8), false));
+        long newestId = weightEntryDAO.insertWeightEntry(
+                createTestEntry(testUserId, 169.0, LocalDate.of(2025, 12, 9), false));
+        weightEntryDAO.getLatestWeightEntry(testUserId);
+
+        // ACT
+        weightEntryDAO.deleteWeightEntry(newestId);
+        WeightEntry latest = weightEntryDAO.getLatestWeightEntry(testUserId);
+
+        // ASSERT
+        assertNotNull(latest);
+        assertEquals("Soft delete should invalidate the shared result", 170.0, latest.getWeightValue(), 0.01);
+    }
+
+    @Test
+    public void test_getLatestWeightEntry_afterDeletingHotEntries_returnsNewestArchivedEntry() {
+        // ARRANGE - two entries archived, then the only entry left in daily_weights deleted
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 180.0, LocalDate.of(2024, 1, 10), false));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 178.0, LocalDate.of(2024, 2, 10), false));
+        long hotId = weightEntryDAO.insertWeightEntry(
+                createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 1), false));
+        new WeightArchiveDAO(dbHelper).archiveEntries(testUserId, 6, LocalDate.of(2025, 12, 15));
+        weightEntryDAO.deleteWeightEntry(hotId);
+
+        // ACT
+        WeightEntry latest = weightEntryDAO.getLatestWeightEntry(testUserId);
+
+        // ASSERT
+        assertNotNull("Archived entries still count as the user's history", latest);
+        assertEquals(LocalDate.of(2024, 2, 10), latest.getWeightDate());
+        assertEquals(178.0, latest.getWeightValue(), 0.001);
+    }
+
+    @Test
+    public void test_getStreaks_withNoEntries_returnsZeros() {
+        // ACT
+        WeightEntryDAO.Streaks streaks = weightEntryDAO.getStreaks(testUserId, null);
+
+        // ASSERT
+        assertEquals(0, streaks.getCurrent());
+        assertEquals(0, streaks.getLongest());
+    }
+
+    @Test
+    public void test_getStreaks_withGaps_returnsCurrentAndLongestRuns() {
+        // ARRANGE - runs of 4 (Dec 1-4), 1 (Dec 7) and 2 (Dec 9-10); a deleted Dec 8 bridges nothing
+        for (int day : new int[]{1, 2, 3, 4, 7, 9, 10}) {
+            weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, day), false));
+        }
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 8), true));
+
+        // ACT
+        WeightEntryDAO.Streaks streaks = weightEntryDAO.getStreaks(testUserId, null);
+
+        // ASSERT
+        assertEquals("Current run ends at the latest entry", 2, streaks.getCurrent());
+        assertEquals(4, streaks.getLongest());
+    }
+
+    @Test
+    public void test_getStreaks_withRunCrossingMonthEnd_countsEveryDay() {
+        // ARRANGE
+        for (int i = 0; i < 5; i++) {
+            weightEntryDAO.insertWeightEntry(
+                    createTestEntry(testUserId, 170.0, LocalDate.of(2024, 2, 27).plusDays(i), false));
+        }
+
+        // ACT
+        WeightEntryDAO.Streaks streaks = weightEntryDAO.getStreaks(testUserId, null);
+
+        // ASSERT - Feb 27 to Mar 2 in a leap year
+        assertEquals(5, streaks.getCurrent());
+        assertEquals(5, streaks.getLongest());
+    }
+
+    @Test
+    public void test_getStreaks_withLatestEntryBeforeCutoff_returnsZeroCurrent() {
+        // ARRANGE
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 1), false));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 2), false));
+
+        // ACT
+        WeightEntryDAO.Streaks active = weightEntryDAO.getStreaks(testUserId, LocalDate.of(2025, 12, 2));
+        WeightEntryDAO.Streaks lapsed = weightEntryDAO.getStreaks(testUserId, LocalDate.of(2025, 12, 3));
+
+        // ASSERT
+        assertEquals(2, active.getCurrent());
+        assertEquals(0, lapsed.getCurrent());
+        assertEquals("Longest ignores the cutoff", 2, lapsed.getLongest());
+    }
+
+    @Test
+    public void test_getMinMassForUser_withMixedUnits_returnsLightestMass() {
+        // ARRANGE - 80 kg (176.4 lbs) is lighter than 178 lbs, but larger as a raw number
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 178.0, LocalDate.of(2025, 12, 1), false));
+        WeightEntry kgEntry = createTestEntry(testUserId, 80.0, LocalDate.of(2025, 12, 2), false);
+        kgEntry.setWeightUnit("kg");
+        weightEntryDAO.insertWeightEntry(kgEntry);
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 150.0, LocalDate.of(2025, 12, 3), true));
+
+        // ACT
+        Long minMass = weightEntryDAO.getMinMassForUser(testUserId);
+
+        // ASSERT - deleted entry is ignored
+        assertNotNull(minMass);
+        assertEquals(800_000L, minMass.longValue());
+    }
+
+    @Test
+    public void test_getMinMassForUser_withLowerArchivedEntry_returnsArchivedMass() {
+        // ARRANGE
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 160.0, LocalDate.of(2024, 1, 10), false));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 1), false));
+        new WeightArchiveDAO(dbHelper).archiveEntries(testUserId, 6, LocalDate.of(2025, 12, 15));
+
+        // ACT
+        Long minMass = weightEntryDAO.getMinMassForUser(testUserId);
+
+        // ASSERT
+        assertEquals(Long.valueOf(WeightUtils.toDecigrams(160.0, "lbs")), minMass);
+    }
+
+    @Test
+    public void test_streamHistory_withArchivedEntries_visitsAllInDateOrder() {
+        // ARRANGE
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 180.0, LocalDate.of(2024, 1, 10), false));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 178.0, LocalDate.of(2024, 2, 10), false));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 1), false));
+        new WeightArchiveDAO(dbHelper).archiveEntries(testUserId, 6, LocalDate.of(2025, 12, 15));
+        List<LocalDate> dates = new ArrayList<>();
+
+        // ACT
+        int visited = weightEntryDAO.streamHistory(testUserId, (date, massDg, weightValue) -> dates.add(date));
+
+        // ASSERT
+        assertEquals(3, visited);
+        assertEquals(Arrays.asList(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 2, 10),
+                LocalDate.of(2025, 12, 1)), dates);
+    }
+
+    @Test
+    public void test_getWeightEntriesForUser_withArchivedEntries_returnsAllNewestFirst() {
+        // ARRANGE
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 180.0, LocalDate.of(2024, 1, 10), false));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 1), false));
+        new WeightArchiveDAO(dbHelper).archiveEntries(testUserId, 6, LocalDate.of(2025, 12, 15));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 176.0, LocalDate.of(2024, 6, 1), false));
+
+        // ACT
+        List<WeightEntry> entries = weightEntryDAO.getWeightEntriesForUser(testUserId);
+
+        // ASSERT
+        assertEquals(3, entries.size());
+        assertEquals(LocalDate.of(2025, 12, 1), entries.get(0).getWeightDate());
+        assertEquals(LocalDate.of(2024, 6, 1), entries.get(1).getWeightDate());
+        assertEquals(LocalDate.of(2024, 1, 10), entries.get(2).getWeightDate());
+        assertEquals(180.0, entries.get(2).getWeightValue(), 0.001);
+    }
+
+    @Test
+    public void test_getWeightEntryById_withArchivedEntry_returnsEntry() {
+        // ARRANGE
+        long weightId = weightEntryDAO.insertWeightEntry(
+                createTestEntry(testUserId, 180.0, LocalDate.of(2024, 1, 10), false));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 1), false));
+        new WeightArchiveDAO(dbHelper).archiveEntries(testUserId, 6, LocalDate.of(2025, 12, 15));
+
+        // ACT
+        WeightEntry entry = weightEntryDAO.getWeightEntryById(weightId);
+
+        // ASSERT
+        assertNotNull(entry);
+        assertEquals(LocalDate.of(2024, 1, 10), entry.getWeightDate());
+    }
+
+    @Test
+    public void test_getStreaks_withRunSpanningArchive_countsArchivedDays() {
+        // ARRANGE - Jan 10-12 archived, then Jan 13 logged late (still in daily_weights)
+        for (int day : new int[]{10, 11, 12}) {
+            weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2024, 1, day), false));
+        }
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 1), false));
+        new WeightArchiveDAO(dbHelper).archiveEntries(testUserId, 6, LocalDate.of(2025, 12, 15));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2024, 1, 13), false));
+
+        // ACT
+        WeightEntryDAO.Streaks streaks = weightEntryDAO.getStreaks(testUserId, null);
+
+        // ASSERT
+        assertEquals(1, streaks.getCurrent());
+        assertEquals(4, streaks.getLongest());
+    }
+
+    @Test
+    public void test_getMonthlyTrend_withArchivedAndHotEntries_mergesEachMonth() {
+        // ARRANGE - January archived, then a January entry logged late (still in daily_weights)
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 180.0, LocalDate.of(2024, 1, 10), false));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 176.0, LocalDate.of(2024, 1, 20), false));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 170.0, LocalDate.of(2025, 12, 1), false));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 168.0, LocalDate.of(2025, 12, 3), false));
+        new WeightArchiveDAO(dbHelper).archiveEntries(testUserId, 6, LocalDate.of(2025, 12, 15));
+        weightEntryDAO.insertWeightEntry(createTestEntry(testUserId, 174.0, LocalDate.of(2024, 1, 25), false));
+
+        // ACT
+        List<WeightMonthlySummary> trend = weightEntryDAO.getMonthlyTrend(testUserId);
+
+        // ASSERT
+        assertEquals(2, trend.size());
+        WeightMonthlySummary january = trend.get(0);
+        assertEquals(YearMonth.of(2024, 1), january.getMonth());
+        assertEquals(3, january.getEntryCount());
+        assertEquals(WeightUtils.toDecigrams(174.0, "lbs"), january.getMinMassDg());
+        assertEquals(WeightUtils.toDecigrams(180.0, "lbs"), january.getMaxMassDg());
+        assertEquals(LocalDate.of(2024, 1, 10), january.getFirstDate());
+        assertEquals(LocalDate.of(2024, 1, 25), january.getLastDate());
+        assertEquals(WeightUtils.toDecigrams(174.0, "lbs"), january.getLastMassDg());
+        WeightMonthlySummary december = trend.get(1);
+        assertEquals(YearMonth.of(2025, 12), december.getMonth());
+        assertEquals(2, december.getEntryCount());
+        assertEquals((WeightUtils.toDecigrams(170.0, "lbs") + WeightUtils.toDecigrams(168.0, "lbs")) / 2.0,
+                december.getMeanMassDg(), 0.001);
+    }
+
+    @Test
+    public void test_updateWeightEntry_withNewUnit_recomputesMass() {
+        // ARRANGE
+        WeightEntry entry = createTestEntry(testUserId, 180.0, LocalDate.of(2025, 12, 1), false);
+        long weightId = weightEntryDAO.insertWeightEntry(entry);
+        entry.setWeightId(weightId);
+
+        // ACT
+        entry.setWeightValue(82.0);
+        entry.setWeightUnit("kg");
+        weightEntryDAO.updateWeightEntry(entry);
+        WeightEntry reloaded = weightEntryDAO.getWeightEntryById(weightId);
+
+        // ASSERT
+        assertNotNull(reloaded);
+        assertEquals(820_000L, reloaded.getMassDg());
+        assertEquals(Long.valueOf(820_000L), weightEntryDAO.getMinMassForUser(testUserId));
+    }
+
     // Helper method to create test entries
     private WeightEntry createTestEntry(long userId, double weight, LocalDate date, boolean isDeleted) {
         WeightEntry entry = new WeightEntry();
@@ -0,0 +1,47 @@
+package com.example.weightogo.database;
+
+import com.example.weightogo.models.WeightEntry;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Shared weight-entry fixtures for DAO and worker tests.
+ */
+public final class WeightEntryFixtures {
+
+    /** Weight used when a test only cares about the entry's date. */
+    public static final double DEFAULT_WEIGHT = 180.0;
+
+    private WeightEntryFixtures() {
+    }
+
+    /**
+     * Inserts a {@link #DEFAULT_WEIGHT} lbs entry and fails the test if the insert fails.
+     *
+     * @return the new weight_id
+     */
+    public static long insertEntry(WeightEntryDAO weightEntryDAO, long userId, LocalDate date) {
+        return insertEntry(weightEntryDAO, userId, date, DEFAULT_WEIGHT);
+    }
+
+    /**
+     * Inserts an entry in lbs and fails the test if the insert fails.
+     *
+     * @return the new weight_id
+     */
+    public static long insertEntry(WeightEntryDAO weightEntryDAO, long userId, LocalDate date, double weight) {
+        WeightEntry entry = new WeightEntry();
+        entry.setUserId(userId);
+        entry.setWeightValue(weight);
+        entry.setWeightUnit("lbs");
+        entry.setWeightDate(date);
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setUpdatedAt(LocalDateTime.now());
+        long weightId = weightEntryDAO.insertWeightEntry(entry);
+        assertTrue("Entry should be created", weightId > 0);
+        return weightId;
+    }
+}
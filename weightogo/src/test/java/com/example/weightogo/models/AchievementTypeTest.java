@@ -0,0 +1,104 @@
+package com.example.weightogo.models;
+
+import android.content.Context;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for AchievementType.
+ * Tests stored codes and the titles/descriptions resolved from string resources.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AchievementTypeTest {
+
+    @Test
+    public void test_getCode_forAllTypes_isUniqueAndPositive() {
+        // ARRANGE
+        Set<Integer> codes = new HashSet<>();
+
+        // ACT & ASSERT
+        for (AchievementType type : AchievementType.values()) {
+            assertTrue(type + " code should be positive", type.getCode() > 0);
+            assertTrue(type + " code should be unique", codes.add(type.getCode()));
+        }
+    }
+
+    @Test
+    public void test_getCode_storedCodes_neverChange() {
+        // ASSERT - these values are persisted in achievements.achievement_code
+        assertEquals(1, AchievementType.GOAL_REACHED.getCode());
+        assertEquals(2, AchievementType.FIRST_ENTRY.getCode());
+        assertEquals(3, AchievementType.STREAK_7.getCode());
+        assertEquals(4, AchievementType.STREAK_30.getCode());
+        assertEquals(5, AchievementType.MILESTONE_5.getCode());
+        assertEquals(6, AchievementType.MILESTONE_10.getCode());
+        assertEquals(7, AchievementType.MILESTONE_25.getCode());
+        assertEquals(8, AchievementType.MILESTONE_50.getCode());
+        assertEquals(9, AchievementType.NEW_LOW.getCode());
+    }
+
+    @Test
+    public void test_fromCode_withKnownCode_returnsType() {
+        for (AchievementType type : AchievementType.values()) {
+            assertSame(type, AchievementType.fromCode(type.getCode()));
+        }
+    }
+
+    @Test
+    public void test_fromCode_withUnknownCode_returnsNull() {
+        assertNull(AchievementType.fromCode(0));
+        assertNull(AchievementType.fromCode(-1));
+        assertNull(AchievementType.fromCode(1000));
+    }
+
+    @Test
+    public void test_isOneTime_onlyNewLowRepeats() {
+        for (AchievementType type : AchievementType.values()) {
+            assertEquals(type.toString(), type != AchievementType.NEW_LOW, type.isOneTime());
+        }
+    }
+
+    @Test
+    public void test_getTitle_withMilestone_formatsValueAndUnit() {
+        // ARRANGE
+        Context context = RuntimeEnvironment.getApplication();
+
+        // ACT
+        String title = AchievementType.MILESTONE_10.getTitle(context, 10.0, "lbs");
+
+        // ASSERT
+        assertEquals("10 lbs Milestone!", title);
+    }
+
+    @Test
+    public void test_getDescription_withNewLow_formatsWeight() {
+        // ARRANGE
+        Context context = RuntimeEnvironment.getApplication();
+
+        // ACT
+        String description = AchievementType.NEW_LOW.getDescription(context, 72.5, "kg");
+
+        // ASSERT
+        assertEquals("You've reached a new lowest weight of 72.5 kg!", description);
+    }
+
+    @Test
+    public void test_getTitle_withoutValue_returnsFixedTitle() {
+        // ARRANGE
+        Context context = RuntimeEnvironment.getApplication();
+
+        // ACT
+        String title = AchievementType.STREAK_7.getTitle(context, null, "lbs");
+
+        // ASSERT
+        assertEquals("7-Day Streak!", title);
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.weightogo.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.AchievementType;
+import com.example.weightogo.models.GoalWeight;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for AchievementEvaluator.
+ * Feeds synthetic histories in date order and checks what each rule earns.
+ */
+public class AchievementEvaluatorTest {
+
+    private static final long USER_ID = 7L;
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    @Test
+    public void test_accept_withNoEntries_earnsNothing() {
+        // ACT
+        AchievementEvaluator evaluator = new AchievementEvaluator(USER_ID, null);
+
+        // ASSERT
+        assertTrue(evaluator.getEarned().isEmpty());
+    }
+
+    @Test
+    public void test_accept_firstEntry_earnsFirstEntryButNotNewLow() {
+        // ARRANGE
+        AchievementEvaluator evaluator = new AchievementEvaluator(USER_ID, null);
+
+        // ACT
+        accept(evaluator, START, 180.0);
+
+        // ASSERT
+        assertEquals(types(AchievementType.FIRST_ENTRY), types(evaluator.getEarned()));
+        assertEquals(START.atStartOfDay(), evaluator.getEarned().get(0).getAchievedAt());
+        assertEquals(USER_ID, evaluator.getEarned().get(0).getUserId());
+    }
+
+    @Test
+    public void test_accept_newLows_earnsOnePerLowerEntry() {
+        // ARRANGE
+        AchievementEvaluator evaluator = new AchievementEvaluator(USER_ID, null);
+
+        // ACT - 180, 179 (low), 181, 179 (tie, not lower), 178.5 (low)
+        double[] weights = {180.0, 179.0, 181.0, 179.0, 178.5};
+        for (int i = 0; i < weights.length; i++) {
+            accept(evaluator, START.plusDays(i * 2L), weights[i]);
+        }
+
+        // ASSERT
+        List<Double> lows = new ArrayList<>();
+        for (Achievement achievement : evaluator.getEarned()) {
+            if (achievement.getAchievementType() == AchievementType.NEW_LOW) {
+                lows.add(achievement.getValue());
+            }
+        }
+        assertEquals(Arrays.asList(179.0, 178.5), lows);
+    }
+
+    @Test
+    public void test_accept_sevenConsecutiveDaysAfterGap_earnsStreak7OnSeventhDay() {
+        // ARRANGE
+        AchievementEvaluator evaluator = new AchievementEvaluator(USER_ID, null);
+        accept(evaluator, START, 180.0);
+        accept(evaluator, START.plusDays(1), 180.0);
+
+        // ACT - gap, then 7 days in a row
+        LocalDate runStart = START.plusDays(5);
+        for (int i = 0; i < 7; i++) {
+            accept(evaluator, runStart.plusDays(i), 180.0);
+        }
+
+        // ASSERT
+        Achievement streak = find(evaluator.getEarned(), AchievementType.STREAK_7);
+        assertEquals(runStart.plusDays(6).atStartOfDay(), streak.getAchievedAt());
+        assertEquals(7.0, streak.getValue(), 0.001);
+        assertFalse(types(evaluator.getEarned()).contains(AchievementType.STREAK_30));
+    }
+
+    @Test
+    public void test_accept_thirtyConsecutiveDays_earnsBothStreaksOnce() {
+        // ARRANGE
+        AchievementEvaluator evaluator = new AchievementEvaluator(USER_ID, null);
+
+        // ACT - two 30-day runs with a gap between them
+        for (int i = 0; i < 30; i++) {
+            accept(evaluator, START.plusDays(i), 180.0);
+        }
+        for (int i = 0; i < 30; i++) {
+            accept(evaluator, START.plusDays(40 + i), 180.0);
+        }
+
+        // ASSERT - one of each, from the first run
+        List<AchievementType> earned = types(evaluator.getEarned());
+        assertEquals(1, earned.stream().filter(t -> t == AchievementType.STREAK_7).count());
+        assertEquals(1, earned.stream().filter(t -> t == AchievementType.STREAK_30).count());
+        assertEquals(START.plusDays(29).atStartOfDay(),
+                find(evaluator.getEarned(), AchievementType.STREAK_30).getAchievedAt());
+    }
+
+    @Test
+    public void test_accept_lossGoal_earnsMilestonesAndGoalInGoalUnit() {
+        // ARRANGE - goal in kg, entries logged in lbs
+        GoalWeight goal = goal(90.0, 60.0, "kg", START);
+        AchievementEvaluator evaluator = new AchievementEvaluator(USER_ID, goal);
+
+        // ACT - 88 kg (2 kg lost), 84 kg (6 kg), 79 kg (11 kg), 60.2 kg (reached)
+        double[] kilograms = {88.0, 84.0, 79.0, 60.2};
+        for (int i = 0; i < kilograms.length; i++) {
+            double lbs = kilograms[i] / WeightUtils.LBS_TO_KG_CONVERSION;
+            evaluator.accept(START.plusDays(i * 10L), WeightUtils.toDecigrams(lbs, "lbs"), lbs);
+        }
+
+        // ASSERT
+        assertEquals(START.plusDays(10).atStartOfDay(),
+                find(evaluator.getEarned(), AchievementType.MILESTONE_5).getAchievedAt());
+        assertEquals(START.plusDays(20).atStartOfDay(),
+                find(evaluator.getEarned(), AchievementType.MILESTONE_10).getAchievedAt());
+        Achievement reached = find(evaluator.getEarned(), AchievementType.GOAL_REACHED);
+        assertEquals(60.0, reached.getValue(), 0.001);
+        assertEquals(Long.valueOf(goal.getGoalId()), reached.getGoalId());
+        assertEquals(Long.valueOf(goal.getGoalId()),
+                find(evaluator.getEarned(), AchievementType.MILESTONE_25).getGoalId());
+    }
+
+    @Test
+    public void test_accept_gainGoal_ignoresLossAndEntriesBeforeGoal() {
+        // ARRANGE - gain goal set on day 10
+        GoalWeight goal = goal(120.0, 140.0, "lbs", START.plusDays(10));
+        AchievementEvaluator evaluator = new AchievementEvaluator(USER_ID, goal);
+
+        // ACT
+        accept(evaluator, START, 130.0);                // before the goal
+        accept(evaluator, START.plusDays(12), 110.0);   // wrong direction
+        accept(evaluator, START.plusDays(14), 126.0);   // +6 lbs
+
+        // ASSERT
+        List<AchievementType> earned = types(evaluator.getEarned());
+        assertTrue(earned.contains(AchievementType.MILESTONE_5));
+        assertFalse(earned.contains(AchievementType.MILESTONE_10));
+        assertEquals(START.plusDays(14).atStartOfDay(),
+                find(evaluator.getEarned(), AchievementType.MILESTONE_5).getAchievedAt());
+    }
+
+    @Test
+    public void test_evaluatedTypes_excludesMilestone50() {
+        assertFalse(AchievementEvaluator.EVALUATED_TYPES.contains(AchievementType.MILESTONE_50));
+        assertTrue(AchievementEvaluator.EVALUATED_TYPES.contains(AchievementType.NEW_LOW));
+    }
+
+    /**
+     * 100,000 daily entries go through every rule in well under a second.
+     */
+    @Test
+    public void test_accept_hundredThousandEntries_completesUnderOneSecond() {
+        // ARRANGE
+        GoalWeight goal = goal(250.0, 150.0, "lbs", START);
+        long[] masses = new long[100_000];
+        for (int i = 0; i < masses.length; i++) {
+            masses[i] = WeightUtils.toDecigrams(250.0 - (i % 1000) * 0.1 - i * 0.0005, "lbs");
+        }
+
+        // ACT
+        long start = System.nanoTime();
+        AchievementEvaluator evaluator = new AchievementEvaluator(USER_ID, goal);
+        LocalDate date = START;
+        for (long mass : masses) {
+            evaluator.accept(date, mass, WeightUtils.fromDecigrams(mass, "lbs"));
+            date = date.plusDays(1);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // ASSERT
+        assertTrue("Took " + elapsedMillis + " ms", elapsedMillis < 1000);
+        List<AchievementType> earned = types(evaluator.getEarned());
+        assertTrue(earned.contains(AchievementType.STREAK_30));
+        assertTrue(earned.contains(AchievementType.MILESTONE_25));
+    }
+
+    private static void accept(AchievementEvaluator evaluator, LocalDate date, double lbs) {
+        evaluator.accept(date, WeightUtils.toDecigrams(lbs, "lbs"), lbs);
+    }
+
+    private static GoalWeight goal(double start, double target, String unit, LocalDate since) {
+        GoalWeight goal = new GoalWeight();
+        goal.setGoalId(3L);
+        goal.setUserId(USER_ID);
+        goal.setStartWeight(start);
+        goal.setGoalWeight(target);
+        goal.setGoalUnit(unit);
+        goal.setCreatedAt(LocalDateTime.of(since, LocalTime.NOON));
+        return goal;
+    }
+
+    private static Achievement find(List<Achievement> achievements, AchievementType type) {
+        for (Achievement achievement : achievements) {
+            if (achievement.getAchievementType() == type) {
+                return achievement;
+            }
+        }
+        throw new AssertionError(type + " not earned");
+    }
+
+    private static List<AchievementType> types(AchievementType... types) {
+        return Arrays.asList(types);
+    }
+
+    private static List<AchievementType> types(List<Achievement> achievements) {
+        List<AchievementType> types = new ArrayList<>();
+        for (Achievement achievement : achievements) {
+            types.add(achievement.getAchievementType());
+        }
+        return types;
+    }
+}
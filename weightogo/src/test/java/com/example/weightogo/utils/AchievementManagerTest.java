@@ -12,6 +12,7 @@ import com.example.weightogo.database.UserDAO;
 import com.example.weightogo.database.WeighToGoDBHelper;
 import com.example.weightogo.database.WeightEntryDAO;
 import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.AchievementType;
 import com.example.weightogo.models.GoalWeight;
 import com.example.weightogo.models.User;
 import com.example.weightogo.models.WeightEntry;
@@ -110,7 +111,7 @@ public class AchievementManagerTest {
         // ASSERT
         assertNotNull("Should return list of achievements", achievements);
         boolean hasGoalReached = achievements.stream()
-                .anyMatch(a -> "GOAL_REACHED".equals(a.getAchievementType()));
+                .anyMatch(a -> AchievementType.GOAL_REACHED.equals(a.getAchievementType()));
         assertTrue("Should award GOAL_REACHED achievement", hasGoalReached);
     }
 
@@ -127,7 +128,7 @@ public class AchievementManagerTest {
 
         // ASSERT
         boolean hasFirstEntry = achievements.stream()
-                .anyMatch(a -> "FIRST_ENTRY".equals(a.getAchievementType()));
+                .anyMatch(a -> AchievementType.FIRST_ENTRY.equals(a.getAchievementType()));
         assertTrue("Should award FIRST_ENTRY achievement", hasFirstEntry);
     }
 
@@ -157,7 +158,7 @@ public class AchievementManagerTest {
 
         // ASSERT
         boolean hasStreak7 = achievements.stream()
-                .anyMatch(a -> "STREAK_7".equals(a.getAchievementType()));
+                .anyMatch(a -> AchievementType.STREAK_7.equals(a.getAchievementType()));
         assertTrue("Should award STREAK_7 achievement", hasStreak7);
     }
 
@@ -187,7 +188,7 @@ public class AchievementManagerTest {
 
         // ASSERT
         boolean hasStreak30 = achievements.stream()
-                .anyMatch(a -> "STREAK_30".equals(a.getAchievementType()));
+                .anyMatch(a -> AchievementType.STREAK_30.equals(a.getAchievementType()));
         assertTrue("Should award STREAK_30 achievement", hasStreak30);
     }
 
@@ -214,7 +215,7 @@ public class AchievementManagerTest {
 
         // ASSERT
         boolean hasMilestone5 = achievements.stream()
-                .anyMatch(a -> "MILESTONE_5".equals(a.getAchievementType()));
+                .anyMatch(a -> AchievementType.MILESTONE_5.equals(a.getAchievementType()));
         assertTrue("Should award MILESTONE_5 achievement", hasMilestone5);
     }
 
@@ -241,7 +242,7 @@ public class AchievementManagerTest {
 
         // ASSERT
         boolean hasMilestone10 = achievements.stream()
-                .anyMatch(a -> "MILESTONE_10".equals(a.getAchievementType()));
+                .anyMatch(a -> AchievementType.MILESTONE_10.equals(a.getAchievementType()));
         assertTrue("Should award MILESTONE_10 achievement", hasMilestone10);
     }
 
@@ -268,7 +269,7 @@ public class AchievementManagerTest {
 
         // ASSERT
         boolean hasMilestone25 = achievements.stream()
-                .anyMatch(a -> "MILESTONE_25".equals(a.getAchievementType()));
+                .anyMatch(a -> AchievementType.MILESTONE_25.equals(a.getAchievementType()));
         assertTrue("Should award MILESTONE_25 achievement", hasMilestone25);
     }
 
@@ -295,7 +296,7 @@ public class AchievementManagerTest {
 
         // ASSERT
         boolean hasNewLow = achievements.stream()
-                .anyMatch(a -> "NEW_LOW".equals(a.getAchievementType()));
+                .anyMatch(a -> AchievementType.NEW_LOW.equals(a.getAchievementType()));
         assertTrue("Should award NEW_LOW achievement", hasNewLow);
     }
 
@@ -320,7 +321,7 @@ public class AchievementManagerTest {
         // First check - should award
         List<Achievement> firstCheck = achievementManager.checkAchievements(testUserId, 150.0);
         long firstCount = firstCheck.stream()
-                .filter(a -> "GOAL_REACHED".equals(a.getAchievementType()))
+                .filter(a -> AchievementType.GOAL_REACHED.equals(a.getAchievementType()))
                 .count();
 
         // ACT - Second check with same weight
@@ -328,7 +329,7 @@ public class AchievementManagerTest {
 
         // ASSERT
         long secondCount = secondCheck.stream()
-                .filter(a -> "GOAL_REACHED".equals(a.getAchievementType()))
+                .filter(a -> AchievementType.GOAL_REACHED.equals(a.getAchievementType()))
                 .count();
 
         assertEquals("Should award GOAL_REACHED once", 1, firstCount);
@@ -359,7 +360,7 @@ public class AchievementManagerTest {
         // First check - should award
         List<Achievement> firstCheck = achievementManager.checkAchievements(testUserId, 180.0);
         long firstCount = firstCheck.stream()
-                .filter(a -> "STREAK_7".equals(a.getAchievementType()))
+                .filter(a -> AchievementType.STREAK_7.equals(a.getAchievementType()))
                 .count();
 
         // ACT - Second check on same day
@@ -367,7 +368,7 @@ public class AchievementManagerTest {
 
         // ASSERT
         long secondCount = secondCheck.stream()
-                .filter(a -> "STREAK_7".equals(a.getAchievementType()))
+                .filter(a -> AchievementType.STREAK_7.equals(a.getAchievementType()))
                 .count();
 
         assertEquals("Should award STREAK_7 once", 1, firstCount);
@@ -395,7 +396,7 @@ public class AchievementManagerTest {
         // First check - should award
         List<Achievement> firstCheck = achievementManager.checkAchievements(testUserId, 175.0);
         long firstCount = firstCheck.stream()
-                .filter(a -> "MILESTONE_5".equals(a.getAchievementType()))
+                .filter(a -> AchievementType.MILESTONE_5.equals(a.getAchievementType()))
                 .count();
 
         // ACT - Second check with same weight
@@ -403,7 +404,7 @@ public class AchievementManagerTest {
 
         // ASSERT
         long secondCount = secondCheck.stream()
-                .filter(a -> "MILESTONE_5".equals(a.getAchievementType()))
+                .filter(a -> AchievementType.MILESTONE_5.equals(a.getAchievementType()))
                 .count();
 
         assertEquals("Should award MILESTONE_5 once", 1, firstCount);
@@ -437,11 +438,125 @@ public class AchievementManagerTest {
         assertTrue("Should award multiple achievements", achievements.size() >= 2);
 
         boolean hasFirstEntry = achievements.stream()
-                .anyMatch(a -> "FIRST_ENTRY".equals(a.getAchievementType()));
+                .anyMatch(a -> AchievementType.FIRST_ENTRY.equals(a.getAchievementType()));
         boolean hasMilestone5 = achievements.stream()
-                .anyMatch(a -> "MILESTONE_5".equals(a.getAchievementType()));
+                .anyMatch(a -> AchievementType.MILESTONE_5.equals(a.getAchievementType()));
 
         assertTrue("Should award FIRST_ENTRY", hasFirstEntry);
         assertTrue("Should award MILESTONE_5", hasMilestone5);
     }
+
+    /**
+     * Re-evaluation awards achievements earned by backfilled entries.
+     */
+    @Test
+    public void test_reevaluateHistory_backfilledStreak_awardsStreakAndLows() {
+        // ARRANGE - 7 consecutive days a year ago, saved without checking achievements
+        LocalDate start = LocalDate.now().minusYears(1);
+        for (int i = 0; i < 7; i++) {
+            insertEntry(start.plusDays(i), 180.0 - i);
+        }
+
+        // ACT
+        List<Achievement> awarded = achievementManager.reevaluateHistory(testUserId);
+
+        // ASSERT - FIRST_ENTRY, STREAK_7 and six NEW_LOWs
+        assertEquals(8, awarded.size());
+        assertEquals(1, achievementDAO.getAchievementsByType(testUserId, AchievementType.STREAK_7).size());
+        assertEquals(6, achievementDAO.getAchievementsByType(testUserId, AchievementType.NEW_LOW).size());
+    }
+
+    /**
+     * Re-evaluation stores old achievements as notified, so only recent ones get an SMS.
+     */
+    @Test
+    public void test_reevaluateHistory_withOldAndRecentEntries_marksOldAchievementsNotified() {
+        // ARRANGE - first entry ten days ago, a new low today
+        insertEntry(LocalDate.now().minusDays(10), 180.0);
+        insertEntry(LocalDate.now(), 175.0);
+
+        // ACT
+        achievementManager.reevaluateHistory(testUserId);
+
+        // ASSERT
+        List<Achievement> firstEntry = achievementDAO.getAchievementsByType(testUserId, AchievementType.FIRST_ENTRY);
+        List<Achievement> newLow = achievementDAO.getAchievementsByType(testUserId, AchievementType.NEW_LOW);
+        assertEquals(1, firstEntry.size());
+        assertTrue("Historical achievement should be stored as notified", firstEntry.get(0).isNotified());
+        assertEquals(1, newLow.size());
+        assertFalse("Today's achievement should still be notified", newLow.get(0).isNotified());
+    }
+
+    /**
+     * Re-evaluation removes achievements a delete took away, and is idempotent.
+     */
+    @Test
+    public void test_reevaluateHistory_afterDelete_removesLostAchievements() {
+        // ARRANGE
+        LocalDate start = LocalDate.now().minusDays(30);
+        insertEntry(start, 180.0);
+        long lowId = insertEntry(start.plusDays(2), 175.0);
+        achievementManager.reevaluateHistory(testUserId);
+        assertEquals(1, achievementDAO.getAchievementsByType(testUserId, AchievementType.NEW_LOW).size());
+
+        // ACT
+        weightEntryDAO.deleteWeightEntry(lowId);
+        List<Achievement> awarded = achievementManager.reevaluateHistory(testUserId);
+
+        // ASSERT
+        assertTrue(awarded.isEmpty());
+        assertTrue(achievementDAO.getAchievementsByType(testUserId, AchievementType.NEW_LOW).isEmpty());
+        assertEquals(1, achievementDAO.getAchievementsByType(testUserId, AchievementType.FIRST_ENTRY).size());
+        assertTrue("Nothing changes on a second run",
+                achievementManager.reevaluateHistory(testUserId).isEmpty());
+    }
+
+    /**
+     * Milestones earned under an earlier goal are kept when the active goal changes.
+     */
+    @Test
+    public void test_reevaluateHistory_withNewGoal_keepsEarlierGoalMilestones() {
+        // ARRANGE - MILESTONE_5 earned under a goal that is then replaced
+        GoalWeight oldGoal = new GoalWeight();
+        oldGoal.setUserId(testUserId);
+        oldGoal.setGoalWeight(160.0);
+        oldGoal.setStartWeight(190.0);
+        oldGoal.setGoalUnit("lbs");
+        oldGoal.setActive(true);
+        oldGoal.setCreatedAt(LocalDateTime.now().minusDays(20));
+        oldGoal.setUpdatedAt(LocalDateTime.now());
+        goalWeightDAO.setNewActiveGoal(oldGoal);
+        insertEntry(LocalDate.now().minusDays(10), 184.0);
+        achievementManager.reevaluateHistory(testUserId);
+        assertEquals(1, achievementDAO.getAchievementsByType(testUserId, AchievementType.MILESTONE_5).size());
+
+        GoalWeight newGoal = new GoalWeight();
+        newGoal.setUserId(testUserId);
+        newGoal.setGoalWeight(150.0);
+        newGoal.setStartWeight(184.0);
+        newGoal.setGoalUnit("lbs");
+        newGoal.setActive(true);
+        newGoal.setCreatedAt(LocalDateTime.now());
+        newGoal.setUpdatedAt(LocalDateTime.now());
+        goalWeightDAO.setNewActiveGoal(newGoal);
+
+        // ACT
+        achievementManager.reevaluateHistory(testUserId);
+
+        // ASSERT
+        assertEquals(1, achievementDAO.getAchievementsByType(testUserId, AchievementType.MILESTONE_5).size());
+    }
+
+    private long insertEntry(LocalDate date, double weight) {
+        WeightEntry entry = new WeightEntry();
+        entry.setUserId(testUserId);
+        entry.setWeightValue(weight);
+        entry.setWeightUnit("lbs");
+        entry.setWeightDate(date);
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setUpdatedAt(LocalDateTime.now());
+        long weightId = weightEntryDAO.insertWeightEntry(entry);
+        assertTrue("Entry should be created", weightId > 0);
+        return weightId;
+    }
 }
@@ -0,0 +1,133 @@
+package com.example.weightogo.utils;
+
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Unit tests for AppLog.
+ * Tests template formatting, level checks, and that disabled calls do not allocate.
+ */
+public class AppLogTest {
+
+    private static final String TAG = "AppLogTest";
+    private static final int ITERATIONS = 10_000;
+
+    /** Keeps eagerly built messages reachable so the JIT cannot drop them */
+    private static volatile String sink;
+
+    @After
+    public void tearDown() {
+        AppLog.setMinLevel(Log.VERBOSE);
+    }
+
+    @Test
+    public void test_format_withMatchingArgs_replacesPlaceholdersInOrder() {
+        // ACT
+        String result = AppLog.format("user_id={}, key={}", "42", "weight_unit");
+
+        // ASSERT
+        assertEquals("user_id=42, key=weight_unit", result);
+    }
+
+    @Test
+    public void test_format_withFewerArgs_leavesRemainingPlaceholders() {
+        // ACT
+        String result = AppLog.format("a={}, b={}", "1");
+
+        // ASSERT
+        assertEquals("a=1, b={}", result);
+    }
+
+    @Test
+    public void test_format_withExtraArgs_ignoresExtras() {
+        // ACT
+        String result = AppLog.format("a={}", "1", "2");
+
+        // ASSERT
+        assertEquals("a=1", result);
+    }
+
+    @Test
+    public void test_format_withNoPlaceholders_returnsTemplate() {
+        // ACT
+        String result = AppLog.format("no placeholders");
+
+        // ASSERT
+        assertEquals("no placeholders", result);
+    }
+
+    @Test
+    public void test_isLoggable_withInfoMinLevel_disablesDebugOnly() {
+        // ARRANGE
+        AppLog.setMinLevel(Log.INFO);
+
+        // ACT / ASSERT
+        assertFalse(AppLog.isDebugEnabled());
+        assertFalse(AppLog.isLoggable(Log.DEBUG));
+        assertTrue(AppLog.isLoggable(Log.INFO));
+        assertTrue(AppLog.isLoggable(Log.ERROR));
+    }
+
+    @Test
+    public void test_isDebugEnabled_withVerboseMinLevel_returnsTrue() {
+        // ARRANGE
+        AppLog.setMinLevel(Log.VERBOSE);
+
+        // ACT / ASSERT
+        assertTrue(AppLog.isDebugEnabled());
+    }
+
+    @Test
+    public void test_d_whenDisabled_allocatesFarLessThanConcatenation() {
+        // ARRANGE
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        AppLog.setMinLevel(Log.WARN);
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up both paths so JIT compilation is not counted
+        logEagerly(ITERATIONS);
+        logThroughFacade(ITERATIONS);
+
+        // ACT
+        long before = threads.getThreadAllocatedBytes(threadId);
+        logEagerly(ITERATIONS);
+        long eagerBytes = threads.getThreadAllocatedBytes(threadId) - before;
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        logThroughFacade(ITERATIONS);
+        long facadeBytes = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // ASSERT
+        assertTrue("Facade allocated " + facadeBytes + " bytes vs " + eagerBytes + " for concatenation",
+                facadeBytes * 10 < eagerBytes);
+    }
+
+    private static void logEagerly(int iterations) {
+        for (long userId = 0; userId < iterations; userId++) {
+            String msg = "getPreference: user_id=" + userId + ", rows=" + (userId & 7);
+            if (Log.isLoggable(TAG, Log.DEBUG)) {
+                Log.d(TAG, msg);
+            }
+            sink = msg;
+        }
+    }
+
+    private static void logThroughFacade(int iterations) {
+        for (long userId = 0; userId < iterations; userId++) {
+            AppLog.d(TAG, "getPreference: user_id={}, rows={}", userId, userId & 7);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.weightogo.utils;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Unit tests for BackgroundTask.
+ * Tests result delivery, cancellation, priority ordering, lifecycle binding, and metrics.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class BackgroundTaskTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    private CountDownLatch releasePool;
+
+    @Before
+    public void setUp() {
+        BackgroundTask.resetMetricsForTesting();
+    }
+
+    @After
+    public void tearDown() {
+        if (releasePool != null) {
+            releasePool.countDown();
+        }
+    }
+
+    @Test
+    public void test_execute_withSuccessfulWork_deliversResultOnMainThread() {
+        // ARRANGE
+        AtomicReference<String> result = new AtomicReference<>();
+        AtomicBoolean onMainThread = new AtomicBoolean();
+
+        // ACT
+        BackgroundTask.execute(() -> "done", value -> {
+            onMainThread.set(Looper.myLooper() == Looper.getMainLooper());
+            result.set(value);
+        });
+
+        // ASSERT
+        awaitOnMain(() -> result.get() != null);
+        assertEquals("done", result.get());
+        assertTrue(onMainThread.get());
+    }
+
+    @Test
+    public void test_execute_withThrowingWork_deliversError() {
+        // ARRANGE
+        AtomicReference<Exception> error = new AtomicReference<>();
+
+        // ACT
+        BackgroundTask.execute(
+            () -> {
+                throw new IllegalStateException("boom");
+            },
+            new BackgroundTask.Callback<Object>() {
+                @Override
+                public void onResult(Object result) {
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    error.set(e);
+                }
+            }
+        );
+
+        // ASSERT
+        awaitOnMain(() -> error.get() != null);
+        assertEquals("boom", error.get().getMessage());
+    }
+
+    @Test
+    public void test_cancel_whileQueued_neverRunsWorkOrCallback() throws InterruptedException {
+        // ARRANGE
+        blockPool();
+        AtomicBoolean workRan = new AtomicBoolean();
+        AtomicBoolean callbackRan = new AtomicBoolean();
+        BackgroundTask<String> task = BackgroundTask.execute(() -> {
+            workRan.set(true);
+            return "x";
+        }, value -> callbackRan.set(true));
+
+        // ACT
+        task.cancel();
+        releasePool.countDown();
+        BackgroundTask<String> marker = submitMarker();
+        awaitOnMain(marker::isCancelled);
+
+        // ASSERT
+        assertTrue(task.isCancelled());
+        assertFalse(workRan.get());
+        assertFalse(callbackRan.get());
+    }
+
+    @Test
+    public void test_execute_withQueuedPriorities_runsUiBeforeBackground() throws InterruptedException {
+        // ARRANGE
+        blockPool();
+        List<BackgroundTask.Priority> order = Collections.synchronizedList(new ArrayList<>());
+        for (BackgroundTask.Priority priority : Arrays.asList(
+                BackgroundTask.Priority.BACKGROUND, BackgroundTask.Priority.DEFAULT, BackgroundTask.Priority.UI)) {
+            BackgroundTask.execute(priority, () -> order.add(priority), value -> { });
+        }
+
+        // ACT
+        releasePool.countDown();
+        awaitOnMain(() -> order.size() == 3);
+
+        // ASSERT
+        assertEquals(Arrays.asList(BackgroundTask.Priority.UI, BackgroundTask.Priority.DEFAULT,
+                BackgroundTask.Priority.BACKGROUND), order);
+    }
+
+    @Test
+    public void test_execute_whenOwnerDestroyed_cancelsAndSkipsCallback() throws InterruptedException {
+        // ARRANGE
+        TestOwner owner = new TestOwner();
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_CREATE);
+        blockPool();
+        AtomicBoolean callbackRan = new AtomicBoolean();
+        BackgroundTask<String> task = BackgroundTask.execute(owner, BackgroundTask.Priority.UI,
+                () -> "x", value -> callbackRan.set(true));
+
+        // ACT
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+        releasePool.countDown();
+        BackgroundTask<String> marker = submitMarker();
+        awaitOnMain(marker::isCancelled);
+
+        // ASSERT
+        assertTrue(task.isCancelled());
+        assertFalse(callbackRan.get());
+        assertEquals(0, owner.registry.getObserverCount());
+    }
+
+    @Test
+    public void test_execute_withAlreadyDestroyedOwner_returnsCancelledTask() {
+        // ARRANGE
+        TestOwner owner = new TestOwner();
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_CREATE);
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+
+        // ACT
+        BackgroundTask<String> task = BackgroundTask.execute(owner, BackgroundTask.Priority.UI,
+                () -> "x", value -> { });
+
+        // ASSERT
+        assertTrue(task.isCancelled());
+    }
+
+    @Test
+    public void test_metrics_withQueuedTask_reportsDepthAndWaitTime() throws InterruptedException {
+        // ARRANGE
+        blockPool();
+        AtomicBoolean done = new AtomicBoolean();
+        BackgroundTask.execute(BackgroundTask.Priority.BACKGROUND, () -> "x", value -> done.set(true));
+
+        // ACT
+        int depth = BackgroundTask.getQueueDepth();
+        releasePool.countDown();
+        awaitOnMain(done::get);
+
+        // ASSERT
+        assertEquals(1, depth);
+        assertTrue(BackgroundTask.getPeakQueueDepth() >= 1);
+        assertEquals(1, BackgroundTask.getWaitTimeSnapshot(BackgroundTask.Priority.BACKGROUND).count);
+        assertTrue(BackgroundTask.buildReport().contains("wait[BACKGROUND]"));
+    }
+
+    /**
+     * Occupies every worker thread until {@link #releasePool} is counted down.
+     */
+    private void blockPool() throws InterruptedException {
+        releasePool = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(BackgroundTask.POOL_SIZE);
+        CountDownLatch release = releasePool;
+        for (int i = 0; i < BackgroundTask.POOL_SIZE; i++) {
+            BackgroundTask.execute(BackgroundTask.Priority.UI, () -> {
+                started.countDown();
+                return release.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            }, value -> { });
+        }
+        assertTrue("Pool did not start", started.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Submits a BACKGROUND task that cancels itself once it has run, which means every task
+     * queued before it has been processed.
+     */
+    private BackgroundTask<String> submitMarker() {
+        AtomicReference<BackgroundTask<String>> self = new AtomicReference<>();
+        self.set(BackgroundTask.execute(BackgroundTask.Priority.BACKGROUND, () -> "marker",
+                value -> self.get().cancel()));
+        return self.get();
+    }
+
+    private static void awaitOnMain(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out waiting for background task", System.currentTimeMillis() < deadline);
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.yield();
+        }
+    }
+
+    private static class TestOwner implements LifecycleOwner {
+        final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.weightogo.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for LatencyHistogram.
+ * Tests bucket mapping, percentile accuracy, and concurrent recording.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void test_snapshot_withNoValues_returnsZeros() {
+        // ARRANGE
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // ACT
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // ASSERT
+        assertEquals(0, snapshot.count);
+        assertEquals(0, snapshot.p50);
+        assertEquals(0, snapshot.p99);
+        assertEquals(0, snapshot.max);
+    }
+
+    @Test
+    public void test_bucketIndex_withSmallValues_isExact() {
+        // ARRANGE / ACT / ASSERT
+        for (long value = 0; value < 8; value++) {
+            assertEquals(value, LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value)));
+        }
+    }
+
+    @Test
+    public void test_bucketIndex_withLargeValues_staysWithinRelativeError() {
+        // ARRANGE
+        long[] values = {9, 100, 1_000, 16_384, 123_456, 10_000_000};
+
+        for (long value : values) {
+            // ACT
+            long upper = LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value));
+
+            // ASSERT - bucket upper bound is at most 12.5% above the value
+            assertTrue("Upper bound should cover value " + value, upper >= value);
+            assertTrue("Bucket for " + value + " too wide: " + upper, upper <= value + value / 8 + 1);
+        }
+    }
+
+    @Test
+    public void test_bucketIndex_withHugeValue_clampsToLastBucket() {
+        // ACT
+        int index = LatencyHistogram.bucketIndex(Long.MAX_VALUE);
+
+        // ASSERT
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, index);
+    }
+
+    @Test
+    public void test_snapshot_withUniformValues_reportsPercentiles() {
+        // ARRANGE
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        // ACT
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // ASSERT
+        assertEquals(1000, snapshot.count);
+        assertEquals(500, snapshot.mean);
+        assertEquals(1000, snapshot.max);
+        assertTrue("p50 ~ 500, was " + snapshot.p50, snapshot.p50 >= 500 && snapshot.p50 <= 563);
+        assertTrue("p99 ~ 990, was " + snapshot.p99, snapshot.p99 >= 990 && snapshot.p99 <= 1000);
+    }
+
+    @Test
+    public void test_record_withNegativeValue_clampsToZero() {
+        // ARRANGE
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // ACT
+        histogram.record(-5);
+
+        // ASSERT
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.snapshot().max);
+    }
+
+    @Test
+    public void test_reset_clearsAllValues() {
+        // ARRANGE
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+
+        // ACT
+        histogram.reset();
+
+        // ASSERT
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.snapshot().max);
+    }
+
+    @Test
+    public void test_record_fromManyThreads_countsEveryValue() throws InterruptedException {
+        // ARRANGE
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 10_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(i);
+                }
+            }));
+        }
+
+        // ACT
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // ASSERT
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals((long) threads * perThread, snapshot.count);
+        assertEquals(perThread - 1, snapshot.max);
+    }
+}
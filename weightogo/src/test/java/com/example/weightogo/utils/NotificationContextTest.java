@@ -0,0 +1,77 @@
+package com.example.weightogo.utils;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for NotificationContext.
+ * Verifies preference defaults and that stored preferences override them.
+ */
+public class NotificationContextTest {
+
+    /**
+     * Test 1: missing preferences fall back to the documented defaults
+     */
+    @Test
+    public void test_constructor_withNoPreferences_usesDefaults() {
+        // ACT
+        NotificationContext context = new NotificationContext(
+                1L, "+12025551234", Collections.emptyMap(), true, true);
+
+        // ASSERT
+        assertFalse("SMS should be disabled by default", context.isSmsEnabled());
+        assertTrue("Goal alerts should be enabled by default", context.isGoalAlertsEnabled());
+        assertTrue("Milestone alerts should be enabled by default", context.isMilestoneAlertsEnabled());
+        assertFalse("Reminders should be disabled by default", context.isReminderEnabled());
+        assertEquals("lbs", context.getWeightUnit());
+    }
+
+    /**
+     * Test 2: stored preferences override the defaults
+     */
+    @Test
+    public void test_constructor_withStoredPreferences_overridesDefaults() {
+        // ARRANGE
+        Map<String, String> preferences = new HashMap<>();
+        preferences.put(SMSNotificationManager.KEY_SMS_ENABLED, "true");
+        preferences.put(SMSNotificationManager.KEY_GOAL_ALERTS, "false");
+        preferences.put(SMSNotificationManager.KEY_MILESTONE_ALERTS, "false");
+        preferences.put(SMSNotificationManager.KEY_REMINDER_ENABLED, "true");
+        preferences.put(NotificationContext.KEY_WEIGHT_UNIT, "kg");
+
+        // ACT
+        NotificationContext context = new NotificationContext(1L, "+12025551234", preferences, true, false);
+
+        // ASSERT
+        assertTrue(context.isSmsEnabled());
+        assertFalse(context.isGoalAlertsEnabled());
+        assertFalse(context.isMilestoneAlertsEnabled());
+        assertTrue(context.isReminderEnabled());
+        assertEquals("kg", context.getWeightUnit());
+        assertTrue(context.isSmsPermissionGranted());
+        assertFalse(context.isPostNotificationsPermissionGranted());
+    }
+
+    /**
+     * Test 3: context does not change when the source map is modified later
+     */
+    @Test
+    public void test_constructor_sourceMapModifiedLater_contextUnchanged() {
+        // ARRANGE
+        Map<String, String> preferences = new HashMap<>();
+        preferences.put(SMSNotificationManager.KEY_SMS_ENABLED, "true");
+        NotificationContext context = new NotificationContext(1L, null, preferences, true, true);
+
+        // ACT
+        preferences.put(SMSNotificationManager.KEY_SMS_ENABLED, "false");
+
+        // ASSERT
+        assertTrue("Context should be a snapshot", context.isSmsEnabled());
+        assertNull(context.getPhoneNumber());
+    }
+}
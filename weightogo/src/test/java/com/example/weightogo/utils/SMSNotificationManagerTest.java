@@ -1,11 +1,20 @@
 package com.example.weightogo.utils;
 
 import android.Manifest;
+import android.app.PendingIntent;
 import android.content.Context;
+import android.content.Intent;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.example.weightogo.database.AchievementDAO;
+import com.example.weightogo.database.SmsOutboxDAO;
 import com.example.weightogo.database.UserDAO;
 import com.example.weightogo.database.UserPreferenceDAO;
+import com.example.weightogo.database.WeighToGoDBHelper;
+import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.AchievementType;
 import com.example.weightogo.models.User;
 
 import org.junit.Before;
@@ -18,6 +27,13 @@ import org.robolectric.RuntimeEnvironment;
 import org.robolectric.Shadows;
 import org.robolectric.shadows.ShadowApplication;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -45,10 +61,13 @@ public class SMSNotificationManagerTest {
     @Mock
     private AchievementDAO mockAchievementDAO;
 
+    private SmsOutboxDAO smsOutboxDAO;
+
     @Before
     public void setUp() {
         MockitoAnnotations.openMocks(this);
         context = RuntimeEnvironment.getApplication();
+        smsOutboxDAO = new SmsOutboxDAO(WeighToGoDBHelper.getInstance(context));
         // SMSNotificationManager will be initialized in individual tests
     }
 
@@ -72,7 +91,8 @@ public class SMSNotificationManagerTest {
     public void test_hasSmsSendPermission_withGranted_returnsTrue() {
         // ARRANGE
         grantSmsPermissions();
-        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO);
+        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO,
+                smsOutboxDAO);
 
         // ACT
         boolean result = smsManager.hasSmsSendPermission();
@@ -89,7 +109,8 @@ public class SMSNotificationManagerTest {
         // ARRANGE
         // Note: This test cannot easily deny permissions in Robolectric
         // We'll mark as passing if method exists and doesn't throw
-        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO);
+        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO,
+                smsOutboxDAO);
 
         // ACT & ASSERT
         // Method should exist and return a boolean
@@ -105,7 +126,8 @@ public class SMSNotificationManagerTest {
     public void test_hasPostNotificationsPermission_android13Plus_checksPermission() {
         // ARRANGE
         grantSmsPermissions();
-        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO);
+        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO,
+                smsOutboxDAO);
 
         // ACT
         boolean result = smsManager.hasPostNotificationsPermission();
@@ -137,10 +159,12 @@ public class SMSNotificationManagerTest {
         when(mockUserDAO.getUserById(userId)).thenReturn(mockUser);
 
         // Mock SMS enabled preference
-        when(mockUserPreferenceDAO.getPreference(userId, SMSNotificationManager.KEY_SMS_ENABLED, "false"))
-                .thenReturn("true");
+        Map<String, String> preferences = new HashMap<>();
+        preferences.put(SMSNotificationManager.KEY_SMS_ENABLED, "true");
+        when(mockUserPreferenceDAO.getPreferenceMap(userId)).thenReturn(preferences);
 
-        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO);
+        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO,
+                smsOutboxDAO);
 
         // ACT
         boolean result = smsManager.canSendSms(userId);
@@ -164,7 +188,8 @@ public class SMSNotificationManagerTest {
         mockUser.setPhoneNumber(null);
         when(mockUserDAO.getUserById(userId)).thenReturn(mockUser);
 
-        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO);
+        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO,
+                smsOutboxDAO);
 
         // ACT
         boolean result = smsManager.canSendSms(userId);
@@ -190,10 +215,12 @@ public class SMSNotificationManagerTest {
         when(mockUserDAO.getUserById(userId)).thenReturn(mockUser);
 
         // Mock SMS DISABLED preference
-        when(mockUserPreferenceDAO.getPreference(userId, SMSNotificationManager.KEY_SMS_ENABLED, "false"))
-                .thenReturn("false");
+        Map<String, String> preferences = new HashMap<>();
+        preferences.put(SMSNotificationManager.KEY_SMS_ENABLED, "false");
+        when(mockUserPreferenceDAO.getPreferenceMap(userId)).thenReturn(preferences);
 
-        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO);
+        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO,
+                smsOutboxDAO);
 
         // ACT
         boolean result = smsManager.canSendSms(userId);
@@ -221,10 +248,12 @@ public class SMSNotificationManagerTest {
         when(mockUserDAO.getUserById(userId)).thenReturn(mockUser);
 
         // Mock SMS enabled preference
-        when(mockUserPreferenceDAO.getPreference(userId, SMSNotificationManager.KEY_SMS_ENABLED, "false"))
-                .thenReturn("true");
+        Map<String, String> preferences = new HashMap<>();
+        preferences.put(SMSNotificationManager.KEY_SMS_ENABLED, "true");
+        when(mockUserPreferenceDAO.getPreferenceMap(userId)).thenReturn(preferences);
 
-        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO);
+        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO,
+                smsOutboxDAO);
 
         // ACT
         boolean result = smsManager.canSendSms(userId);
@@ -263,12 +292,13 @@ public class SMSNotificationManagerTest {
         when(mockUserDAO.getUserById(userId)).thenReturn(mockUser);
 
         // Mock preferences - goal alerts DISABLED
-        when(mockUserPreferenceDAO.getPreference(userId, SMSNotificationManager.KEY_SMS_ENABLED, "false"))
-                .thenReturn("true");
-        when(mockUserPreferenceDAO.getPreference(userId, SMSNotificationManager.KEY_GOAL_ALERTS, "true"))
-                .thenReturn("false");  // Goal alerts disabled
+        Map<String, String> preferences = new HashMap<>();
+        preferences.put(SMSNotificationManager.KEY_SMS_ENABLED, "true");
+        preferences.put(SMSNotificationManager.KEY_GOAL_ALERTS, "false");  // Goal alerts disabled
+        when(mockUserPreferenceDAO.getPreferenceMap(userId)).thenReturn(preferences);
 
-        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO);
+        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO,
+                smsOutboxDAO);
 
         // ACT
         boolean result = smsManager.sendGoalAchievedSms(userId, goalWeight, unit);
@@ -296,12 +326,13 @@ public class SMSNotificationManagerTest {
         when(mockUserDAO.getUserById(userId)).thenReturn(mockUser);
 
         // Mock preferences - milestone alerts DISABLED
-        when(mockUserPreferenceDAO.getPreference(userId, SMSNotificationManager.KEY_SMS_ENABLED, "false"))
-                .thenReturn("true");
-        when(mockUserPreferenceDAO.getPreference(userId, SMSNotificationManager.KEY_MILESTONE_ALERTS, "true"))
-                .thenReturn("false");  // Milestone alerts disabled
+        Map<String, String> preferences = new HashMap<>();
+        preferences.put(SMSNotificationManager.KEY_SMS_ENABLED, "true");
+        preferences.put(SMSNotificationManager.KEY_MILESTONE_ALERTS, "false");  // Milestone alerts disabled
+        when(mockUserPreferenceDAO.getPreferenceMap(userId)).thenReturn(preferences);
 
-        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO);
+        smsManager = SMSNotificationManager.getInstance(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO,
+                smsOutboxDAO);
 
         // ACT
         boolean result = smsManager.sendMilestoneSms(userId, milestone, unit);
@@ -309,4 +340,201 @@ public class SMSNotificationManagerTest {
         // ASSERT
         assertFalse("Should return false when milestone alerts disabled", result);
     }
+
+    // =============================================================================================
+    // RATE LIMITING AND AGGREGATION TESTS (4 tests)
+    // =============================================================================================
+
+    /**
+     * Test 10: achievements unlocked together are sent as one SMS
+     */
+    @Test
+    public void test_sendAchievementBatch_threeAchievementsInWindow_sendsOneSms() {
+        // ARRANGE
+        FakeSmsSender sender = new FakeSmsSender(1000);
+        SMSNotificationManager manager = createManagerWithFakes(sender, 3);
+        LocalDateTime now = LocalDateTime.now();
+        List<Achievement> achievements = Arrays.asList(
+                achievement(1L, AchievementType.MILESTONE_5, 5.0, now),
+                achievement(2L, AchievementType.MILESTONE_10, 10.0, now),
+                achievement(3L, AchievementType.GOAL_REACHED, 150.0, now.plusSeconds(5)));
+
+        // ACT
+        int notified = manager.sendAchievementBatch(achievements);
+
+        // ASSERT
+        assertEquals("All three achievements should be notified", 3, notified);
+        assertEquals("Only one SMS should be sent", 1, sender.sent.size());
+        assertEquals("Merged SMS should have one line per achievement", 3, sender.sent.get(0).split("\n").length);
+        verify(mockAchievementDAO).markNotified(aryEq(new long[]{1L, 2L, 3L}));
+    }
+
+    /**
+     * Test 11: achievements further apart than the window are sent separately
+     */
+    @Test
+    public void test_sendAchievementBatch_achievementsOutsideWindow_sendsSeparateSms() {
+        // ARRANGE
+        FakeSmsSender sender = new FakeSmsSender(1000);
+        SMSNotificationManager manager = createManagerWithFakes(sender, 3);
+        LocalDateTime now = LocalDateTime.now();
+        List<Achievement> achievements = Arrays.asList(
+                achievement(1L, AchievementType.MILESTONE_5, 5.0, now),
+                achievement(2L, AchievementType.MILESTONE_10, 10.0, now.plusMinutes(10)));
+
+        // ACT
+        int notified = manager.sendAchievementBatch(achievements);
+
+        // ASSERT
+        assertEquals(2, notified);
+        assertEquals(2, sender.sent.size());
+    }
+
+    /**
+     * Test 12: a merged message longer than one SMS is sent as multipart
+     */
+    @Test
+    public void test_sendAchievementBatch_longMergedMessage_sendsMultipart() {
+        // ARRANGE
+        FakeSmsSender sender = new FakeSmsSender(60);
+        SMSNotificationManager manager = createManagerWithFakes(sender, 3);
+        LocalDateTime now = LocalDateTime.now();
+        List<Achievement> achievements = Arrays.asList(
+                achievement(1L, AchievementType.MILESTONE_5, 5.0, now),
+                achievement(2L, AchievementType.GOAL_REACHED, 150.0, now));
+
+        // ACT
+        manager.sendAchievementBatch(achievements);
+
+        // ASSERT
+        assertEquals(1, sender.sent.size());
+        assertTrue("Message should be split into several parts", sender.multipartCounts.get(0) > 1);
+    }
+
+    /**
+     * Test 13: sends beyond the rate limit are held back and not marked notified
+     */
+    @Test
+    public void test_sendAchievementBatch_rateLimitExhausted_holdsBackSms() {
+        // ARRANGE
+        FakeSmsSender sender = new FakeSmsSender(1000);
+        SMSNotificationManager manager = createManagerWithFakes(sender, 1);
+        LocalDateTime now = LocalDateTime.now();
+        List<Achievement> achievements = Arrays.asList(
+                achievement(1L, AchievementType.MILESTONE_5, 5.0, now),
+                achievement(2L, AchievementType.MILESTONE_10, 10.0, now.plusMinutes(10)));
+
+        // ACT
+        int notified = manager.sendAchievementBatch(achievements);
+
+        // ASSERT
+        assertEquals("Only the first window fits in the rate limit", 1, notified);
+        assertEquals(1, sender.sent.size());
+        verify(mockAchievementDAO).markNotified(aryEq(new long[]{1L}));
+        verify(mockAchievementDAO, times(1)).markNotified(any(long[].class));
+    }
+
+    /**
+     * Test 14: every part of a multipart message gets its own sentIntent
+     */
+    @Test
+    public void test_sendSms_multipartWithSentIntents_attachesIntentToEveryPart() {
+        // ARRANGE
+        FakeSmsSender sender = new FakeSmsSender(10);
+        SMSNotificationManager manager = createManagerWithFakes(sender, 3);
+        List<Integer> requestedParts = new ArrayList<>();
+        SMSNotificationManager.OutgoingSms sms = new SMSNotificationManager.OutgoingSms(
+                1L, "+12025551234", "twenty-five characters!!!", "Test");
+
+        // ACT
+        boolean sent = manager.sendSms(sms, (part, partCount) -> {
+            requestedParts.add(part);
+            assertEquals(3, partCount);
+            return PendingIntent.getBroadcast(context, part, new Intent(), PendingIntent.FLAG_IMMUTABLE);
+        });
+
+        // ASSERT
+        assertTrue(sent);
+        assertEquals(Arrays.asList(0, 1, 2), requestedParts);
+        assertEquals(Integer.valueOf(3), sender.sentIntentCounts.get(0));
+    }
+
+    /**
+     * Creates a manager for user 1 with SMS enabled, a fake sender and a frozen-clock limiter.
+     */
+    private SMSNotificationManager createManagerWithFakes(FakeSmsSender sender, int rateLimitCapacity) {
+        grantSmsPermissions();
+        long userId = 1L;
+        User mockUser = new User();
+        mockUser.setUserId(userId);
+        mockUser.setPasswordAlgorithm("SHA256");
+        mockUser.setPhoneNumber("+12025551234");
+        when(mockUserDAO.getUserById(userId)).thenReturn(mockUser);
+
+        Map<String, String> preferences = new HashMap<>();
+        preferences.put(SMSNotificationManager.KEY_SMS_ENABLED, "true");
+        when(mockUserPreferenceDAO.getPreferenceMap(userId)).thenReturn(preferences);
+        when(mockAchievementDAO.markNotified(any(long[].class))).thenAnswer(
+                invocation -> ((long[]) invocation.getArgument(0)).length);
+
+        SmsRateLimiter limiter = new SmsRateLimiter(rateLimitCapacity, 60_000L, () -> 0L);
+        return new SMSNotificationManager(context, mockUserDAO, mockUserPreferenceDAO, mockAchievementDAO,
+                smsOutboxDAO, sender, limiter);
+    }
+
+    private Achievement achievement(long id, AchievementType type, double value, LocalDateTime achievedAt) {
+        Achievement achievement = new Achievement();
+        achievement.setAchievementId(id);
+        achievement.setUserId(1L);
+        achievement.setAchievementType(type);
+        achievement.setValue(value);
+        achievement.setAchievedAt(achievedAt);
+        return achievement;
+    }
+
+    /**
+     * Local SmsManager stand-in that records messages and splits text into fixed-size parts.
+     */
+    private static final class FakeSmsSender implements SmsSender {
+        private final int partLength;
+        final List<String> sent = new ArrayList<>();
+        final List<Integer> multipartCounts = new ArrayList<>();
+        final List<Integer> sentIntentCounts = new ArrayList<>();
+
+        FakeSmsSender(int partLength) {
+            this.partLength = partLength;
+        }
+
+        @NonNull
+        @Override
+        public ArrayList<String> divideMessage(@NonNull String text) {
+            ArrayList<String> parts = new ArrayList<>();
+            for (int i = 0; i < text.length(); i += partLength) {
+                parts.add(text.substring(i, Math.min(text.length(), i + partLength)));
+            }
+            return parts;
+        }
+
+        @Override
+        public void sendTextMessage(@NonNull String destination, @NonNull String text,
+                                    @Nullable PendingIntent sentIntent) {
+            sent.add(text);
+            multipartCounts.add(1);
+            sentIntentCounts.add(sentIntent != null ? 1 : 0);
+        }
+
+        @Override
+        public void sendMultipartTextMessage(@NonNull String destination, @NonNull ArrayList<String> parts,
+                                             @Nullable ArrayList<PendingIntent> sentIntents) {
+            sent.add(String.join("", parts));
+            multipartCounts.add(parts.size());
+            int intents = 0;
+            if (sentIntents != null) {
+                for (PendingIntent sentIntent : sentIntents) {
+                    intents += sentIntent != null ? 1 : 0;
+                }
+            }
+            sentIntentCounts.add(intents);
+        }
+    }
 }
@@ -11,7 +11,15 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 
+import java.lang.management.ManagementFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -19,6 +27,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 
 /**
  * Unit tests for SessionManager class.
@@ -218,6 +227,147 @@ public class SessionManagerTest {
         assertEquals("getCurrentUserId should return -1 after logout", -1L, sessionManager.getCurrentUserId());
     }
 
+    // =============================================================================================
+    // IN-MEMORY SNAPSHOT TESTS (4 tests)
+    // =============================================================================================
+
+    /**
+     * Tests that getCurrentUser() returns the instance built at createSession() instead of
+     * allocating a new User on every call.
+     */
+    @Test
+    public void test_getCurrentUser_calledTwice_returnsSameInstance() {
+        // ARRANGE
+        sessionManager.createSession(createTestUser(7L, "snapshot", "Snapshot User"));
+
+        // ACT
+        User first = sessionManager.getCurrentUser();
+        User second = sessionManager.getCurrentUser();
+
+        // ASSERT
+        assertNotNull(first);
+        assertSame("getCurrentUser should not allocate per call", first, second);
+    }
+
+    /**
+     * Tests that getSession() exposes the immutable snapshot and is cleared by logout().
+     */
+    @Test
+    public void test_getSession_afterCreateAndLogout_publishesAndClearsSnapshot() {
+        // ARRANGE
+        sessionManager.createSession(createTestUser(8L, "snap", "Snap"));
+
+        // ACT
+        SessionManager.Session session = sessionManager.getSession();
+        sessionManager.logout();
+
+        // ASSERT
+        assertNotNull(session);
+        assertEquals(8L, session.getUserId());
+        assertEquals("snap", session.getUsername());
+        assertEquals("Snap", session.getDisplayName());
+        assertNull("logout should publish an empty session", sessionManager.getSession());
+    }
+
+    /**
+     * Tests that reads do not wait for the writer lock: the getters return while another
+     * thread holds the SessionManager monitor.
+     */
+    @Test
+    public void test_getters_whileWriterHoldsLock_doNotBlock() throws Exception {
+        // ARRANGE
+        sessionManager.createSession(createTestUser(9L, "lockfree", "Lock Free"));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            synchronized (sessionManager) {
+                locked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        writer.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // ACT
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> userId = reader.submit(() ->
+                    sessionManager.isLoggedIn() ? sessionManager.getCurrentUserId() : -1L);
+
+            // ASSERT
+            assertEquals(9L, (long) userId.get(1, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            writer.join();
+            reader.shutdownNow();
+        }
+    }
+
+    /**
+     * The read path is a volatile load of an immutable snapshot: readers polling the
+     * getters while a writer keeps replacing the session must not allocate.
+     */
+    @Test
+    public void test_getSession_underWriterContention_allocatesNothing() throws Exception {
+        // ARRANGE
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        final int readers = 4;
+        final int rounds = 5;
+        final int readsPerRound = 100_000;
+        final int writes = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(readers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+
+        // ACT
+        try {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < writes; i++) {
+                    long id = 1 + (i % 10);
+                    sessionManager.createSession(createTestUser(id, "user" + id, null));
+                    if (i % 100 == 0) {
+                        sessionManager.logout();
+                    }
+                }
+                return null;
+            });
+            for (int r = 0; r < readers; r++) {
+                results.add(pool.submit(() -> {
+                    long threadId = Thread.currentThread().getId();
+                    long checksum = readSession(readsPerRound);
+                    start.await();
+                    // Fewest bytes over several rounds: the first round can still pay for
+                    // JIT and class loading, but a read path that allocates pays in every round
+                    long fewestBytes = Long.MAX_VALUE;
+                    for (int round = 0; round < rounds; round++) {
+                        long before = threads.getThreadAllocatedBytes(threadId);
+                        checksum += readSession(readsPerRound);
+                        fewestBytes = Math.min(fewestBytes, threads.getThreadAllocatedBytes(threadId) - before);
+                    }
+                    return new long[] {fewestBytes, checksum};
+                }));
+            }
+            start.countDown();
+
+            // ASSERT
+            for (Future<long[]> result : results) {
+                assertEquals("Session reads must not allocate", 0L, result.get(30, TimeUnit.SECONDS)[0]);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
     // =============================================================================================
     // HELPER METHODS
     // =============================================================================================
@@ -239,4 +389,22 @@ public class SessionManagerTest {
         user.setActive(true);
         return user;
     }
+
+    /**
+     * Polls every session getter; the returned checksum keeps the reads from being optimized away.
+     */
+    private long readSession(int iterations) {
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            SessionManager.Session session = sessionManager.getSession();
+            if (session != null) {
+                checksum += session.getUserId() + session.getUsername().length();
+            }
+            checksum += sessionManager.getCurrentUserId();
+            if (sessionManager.isLoggedIn()) {
+                checksum++;
+            }
+        }
+        return checksum;
+    }
 }
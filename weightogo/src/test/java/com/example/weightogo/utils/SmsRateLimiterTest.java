@@ -0,0 +1,109 @@
+package com.example.weightogo.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for SmsRateLimiter.
+ * Uses a fake clock so refills are deterministic.
+ */
+public class SmsRateLimiterTest {
+
+    private static final long INTERVAL = 60_000L;
+    private static final String PHONE = "+12025551234";
+
+    private long now;
+    private SmsRateLimiter limiter;
+
+    @Before
+    public void setUp() {
+        now = 1_000_000L;
+        limiter = new SmsRateLimiter(2, INTERVAL, () -> now);
+    }
+
+    /**
+     * Test 1: a new bucket allows a burst up to capacity, then blocks
+     */
+    @Test
+    public void test_tryAcquire_beyondCapacity_returnsFalse() {
+        // ACT & ASSERT
+        assertTrue(limiter.tryAcquire(1L, PHONE));
+        assertTrue(limiter.tryAcquire(1L, PHONE));
+        assertFalse("Third send in the same instant should be held back", limiter.tryAcquire(1L, PHONE));
+    }
+
+    /**
+     * Test 2: one token comes back after each refill interval
+     */
+    @Test
+    public void test_tryAcquire_afterRefillInterval_allowsOneMore() {
+        // ARRANGE
+        limiter.tryAcquire(1L, PHONE);
+        limiter.tryAcquire(1L, PHONE);
+
+        // ACT
+        now += INTERVAL - 1;
+        boolean early = limiter.tryAcquire(1L, PHONE);
+        now += 1;
+        boolean onTime = limiter.tryAcquire(1L, PHONE);
+        boolean again = limiter.tryAcquire(1L, PHONE);
+
+        // ASSERT
+        assertFalse(early);
+        assertTrue(onTime);
+        assertFalse(again);
+    }
+
+    /**
+     * Test 3: buckets are independent per user and per destination
+     */
+    @Test
+    public void test_tryAcquire_otherUserOrNumber_hasOwnBucket() {
+        // ARRANGE
+        limiter.tryAcquire(1L, PHONE);
+        limiter.tryAcquire(1L, PHONE);
+
+        // ACT & ASSERT
+        assertTrue(limiter.tryAcquire(2L, PHONE));
+        assertTrue(limiter.tryAcquire(1L, "+12025559999"));
+        assertFalse(limiter.tryAcquire(1L, PHONE));
+    }
+
+    /**
+     * Test 4: a long idle period refills the bucket only up to capacity
+     */
+    @Test
+    public void test_tryAcquire_afterLongIdle_capsAtCapacity() {
+        // ARRANGE
+        limiter.tryAcquire(1L, PHONE);
+        limiter.tryAcquire(1L, PHONE);
+
+        // ACT
+        now += INTERVAL * 10;
+
+        // ASSERT
+        assertTrue(limiter.tryAcquire(1L, PHONE));
+        assertTrue(limiter.tryAcquire(1L, PHONE));
+        assertFalse(limiter.tryAcquire(1L, PHONE));
+    }
+
+    /**
+     * Test 5: millisUntilAvailable reports the wait for the next token
+     */
+    @Test
+    public void test_millisUntilAvailable_emptyBucket_returnsRemainingInterval() {
+        // ARRANGE
+        assertEquals(0, limiter.millisUntilAvailable(1L, PHONE));
+        limiter.tryAcquire(1L, PHONE);
+        limiter.tryAcquire(1L, PHONE);
+        now += 15_000L;
+
+        // ACT
+        long wait = limiter.millisUntilAvailable(1L, PHONE);
+
+        // ASSERT
+        assertEquals(INTERVAL - 15_000L, wait);
+    }
+}
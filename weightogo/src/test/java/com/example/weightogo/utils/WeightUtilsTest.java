@@ -260,4 +260,33 @@ public class WeightUtilsTest {
         assertEquals("68.0 kg should format to '68.0 kg'",
                 "68.0 kg", resultKg);
     }
+
+    /**
+     * Test 14: Equal masses in different units map to (nearly) the same decigrams
+     */
+    @Test
+    public void test_toDecigrams_withEquivalentWeights_matchAcrossUnits() {
+        // ACT
+        long fromKg = WeightUtils.toDecigrams(100.0, "kg");
+        long fromLbs = WeightUtils.toDecigrams(220.4624, "lbs");
+
+        // ASSERT
+        assertEquals(1_000_000L, fromKg);
+        assertEquals("220.4624 lbs should be within 1 dg of 100 kg", fromKg, fromLbs, 1);
+        assertEquals(4536L, WeightUtils.toDecigrams(1.0, "lbs"));
+    }
+
+    /**
+     * Test 15: Decigrams convert back to either unit, including negative differences
+     */
+    @Test
+    public void test_fromDecigrams_withMassesAndDifferences_returnsRoundedWeight() {
+        // ARRANGE
+        long mass = WeightUtils.toDecigrams(180.0, "lbs");
+
+        // ACT & ASSERT
+        assertEquals(180.0, WeightUtils.fromDecigrams(mass, "lbs"), 0.001);
+        assertEquals(81.6, WeightUtils.fromDecigrams(mass, "kg"), 0.001);
+        assertEquals(-2.5, WeightUtils.fromDecigrams(-25_000L, "kg"), 0.001);
+    }
 }
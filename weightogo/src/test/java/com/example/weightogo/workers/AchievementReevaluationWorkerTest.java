@@ -0,0 +1,190 @@
+package com.example.weightogo.workers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import androidx.work.Data;
+import androidx.work.ListenableWorker;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.testing.TestListenableWorkerBuilder;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import com.example.weightogo.database.AchievementDAO;
+import com.example.weightogo.database.DatabaseException;
+import com.example.weightogo.database.DuplicateUsernameException;
+import com.example.weightogo.database.GoalWeightDAO;
+import com.example.weightogo.database.SmsOutboxDAO;
+import com.example.weightogo.database.UserDAO;
+import com.example.weightogo.database.WeighToGoDBHelper;
+import com.example.weightogo.database.WeightEntryDAO;
+import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.AchievementType;
+import com.example.weightogo.models.GoalWeight;
+import com.example.weightogo.models.SmsOutboxMessage;
+import com.example.weightogo.models.User;
+import com.example.weightogo.models.WeightEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Unit tests for AchievementReevaluationWorker.
+ * Tests the run against a user's history and the per-user unique scheduling.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class AchievementReevaluationWorkerTest {
+
+    private Context context;
+    private UserDAO userDAO;
+    private WeightEntryDAO weightEntryDAO;
+    private AchievementDAO achievementDAO;
+    private WeighToGoDBHelper dbHelper;
+    private long testUserId;
+
+    @Before
+    public void setUp() throws DuplicateUsernameException, DatabaseException {
+        context = RuntimeEnvironment.getApplication();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context);
+        dbHelper = WeighToGoDBHelper.getInstance(context);
+        userDAO = new UserDAO(dbHelper);
+        weightEntryDAO = new WeightEntryDAO(dbHelper);
+        achievementDAO = new AchievementDAO(dbHelper);
+
+        User testUser = new User();
+        testUser.setUsername("reeval_testuser_" + System.currentTimeMillis());
+        testUser.setPasswordHash("test_hash");
+        testUser.setSalt("test_salt");
+        testUser.setPasswordAlgorithm("SHA256");
+        testUser.setCreatedAt(LocalDateTime.now());
+        testUser.setUpdatedAt(LocalDateTime.now());
+        testUser.setActive(true);
+        testUserId = userDAO.insertUser(testUser);
+        assertTrue("Test user should be created", testUserId > 0);
+    }
+
+    @After
+    public void tearDown() {
+        if (testUserId > 0) {
+            userDAO.deleteUser(testUserId);
+        }
+    }
+
+    @Test
+    public void test_doWork_withHistory_awardsEarnedAchievements() {
+        // ARRANGE
+        LocalDate start = LocalDate.now().minusDays(20);
+        for (int i = 0; i < 7; i++) {
+            WeightEntry entry = new WeightEntry();
+            entry.setUserId(testUserId);
+            entry.setWeightValue(180.0);
+            entry.setWeightUnit("lbs");
+            entry.setWeightDate(start.plusDays(i));
+            entry.setCreatedAt(LocalDateTime.now());
+            entry.setUpdatedAt(LocalDateTime.now());
+            weightEntryDAO.insertWeightEntry(entry);
+        }
+        AchievementReevaluationWorker worker = buildWorker(testUserId);
+
+        // ACT
+        ListenableWorker.Result result = worker.doWork();
+
+        // ASSERT
+        assertEquals(ListenableWorker.Result.success(), result);
+        assertEquals(1, achievementDAO.getAchievementsByType(testUserId, AchievementType.FIRST_ENTRY).size());
+        assertEquals(1, achievementDAO.getAchievementsByType(testUserId, AchievementType.STREAK_7).size());
+    }
+
+    @Test
+    public void test_doWork_withOldHistory_queuesNoSms() {
+        // ARRANGE - MILESTONE_5 earned three weeks ago under the active goal
+        GoalWeight goal = new GoalWeight();
+        goal.setUserId(testUserId);
+        goal.setGoalWeight(170.0);
+        goal.setGoalUnit("lbs");
+        goal.setStartWeight(185.0);
+        goal.setCreatedAt(LocalDateTime.now().minusDays(30));
+        goal.setUpdatedAt(LocalDateTime.now().minusDays(30));
+        goal.setActive(true);
+        assertTrue(new GoalWeightDAO(dbHelper).insertGoal(goal) > 0);
+        LocalDate start = LocalDate.now().minusDays(21);
+        for (int i = 0; i < 7; i++) {
+            insertEntry(start.plusDays(i), 185.0 - i);
+        }
+        AchievementReevaluationWorker worker = buildWorker(testUserId);
+
+        // ACT
+        ListenableWorker.Result result = worker.doWork();
+
+        // ASSERT
+        assertEquals(ListenableWorker.Result.success(), result);
+        List<Achievement> milestones = achievementDAO.getAchievementsByType(testUserId, AchievementType.MILESTONE_5);
+        assertEquals(1, milestones.size());
+        assertTrue(milestones.get(0).isNotified());
+        for (SmsOutboxMessage message : new SmsOutboxDAO(dbHelper).getDueMessages(LocalDateTime.now().plusDays(1), 100)) {
+            assertNotEquals(testUserId, message.getUserId());
+        }
+    }
+
+    @Test
+    public void test_doWork_withoutUserId_fails() {
+        // ARRANGE
+        AchievementReevaluationWorker worker = TestListenableWorkerBuilder
+                .from(context, AchievementReevaluationWorker.class)
+                .build();
+
+        // ACT & ASSERT
+        assertEquals(ListenableWorker.Result.failure(), worker.doWork());
+    }
+
+    @Test
+    public void test_schedule_calledTwice_keepsOnePendingRunPerUser() throws Exception {
+        // ACT
+        AchievementReevaluationWorker.schedule(context, testUserId);
+        AchievementReevaluationWorker.schedule(context, testUserId);
+
+        // ASSERT
+        List<WorkInfo> work = WorkManager.getInstance(context)
+                .getWorkInfosForUniqueWork(AchievementReevaluationWorker.UNIQUE_WORK_PREFIX + testUserId).get();
+        int enqueued = 0;
+        for (WorkInfo info : work) {
+            if (info.getState() == WorkInfo.State.ENQUEUED) {
+                enqueued++;
+            }
+        }
+        assertEquals(1, enqueued);
+    }
+
+    private void insertEntry(LocalDate date, double weight) {
+        WeightEntry entry = new WeightEntry();
+        entry.setUserId(testUserId);
+        entry.setWeightValue(weight);
+        entry.setWeightUnit("lbs");
+        entry.setWeightDate(date);
+        entry.setCreatedAt(LocalDateTime.now());
+        entry.setUpdatedAt(LocalDateTime.now());
+        assertTrue("Entry should be created", weightEntryDAO.insertWeightEntry(entry) > 0);
+    }
+
+    private AchievementReevaluationWorker buildWorker(long userId) {
+        return TestListenableWorkerBuilder
+                .from(context, AchievementReevaluationWorker.class)
+                .setInputData(new Data.Builder()
+                        .putLong(AchievementReevaluationWorker.KEY_USER_ID, userId)
+                        .build())
+                .build();
+    }
+}
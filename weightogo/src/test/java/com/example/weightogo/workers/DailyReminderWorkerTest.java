@@ -1,13 +1,21 @@
 package com.example.weightogo.workers;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import android.content.Context;
+import android.database.sqlite.SQLiteException;
 
 import androidx.work.ListenableWorker;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.WorkerFactory;
+import androidx.work.WorkerParameters;
 import androidx.work.testing.TestListenableWorkerBuilder;
+import androidx.work.testing.WorkManagerTestInitHelper;
 
 import com.example.weightogo.database.AchievementDAO;
+import com.example.weightogo.database.SmsOutboxDAO;
 import com.example.weightogo.database.UserDAO;
 import com.example.weightogo.database.UserPreferenceDAO;
 import com.example.weightogo.database.WeighToGoDBHelper;
@@ -27,6 +35,8 @@ import org.robolectric.annotation.Config;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Unit tests for DailyReminderWorker.
@@ -36,6 +46,8 @@ import java.time.LocalDateTime;
  * - Worker sends reminder if user hasn't logged today
  * - Worker respects user preference for reminder enabled/disabled
  * - Worker handles missing phone number gracefully
+ * - schedule() keeps one pending run while any user has reminders on
+ * - A failed run still enqueues the next one
  *
  * Uses WorkManager testing library for Worker testing.
  */
@@ -56,13 +68,15 @@ public class DailyReminderWorkerTest {
     @Before
     public void setUp() {
         context = RuntimeEnvironment.getApplication();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context);
         dbHelper = WeighToGoDBHelper.getInstance(context);
         userDAO = new UserDAO(dbHelper);
         weightEntryDAO = new WeightEntryDAO(dbHelper);
         userPreferenceDAO = new UserPreferenceDAO(dbHelper);
         achievementDAO = new AchievementDAO(dbHelper);
         sessionManager = SessionManager.getInstance(context);
-        smsManager = SMSNotificationManager.getInstance(context, userDAO, userPreferenceDAO, achievementDAO);
+        smsManager = SMSNotificationManager.getInstance(context, userDAO, userPreferenceDAO, achievementDAO,
+                new SmsOutboxDAO(dbHelper));
 
         // Create test user
         User testUser = new User();
@@ -206,4 +220,75 @@ public class DailyReminderWorkerTest {
         assertEquals("Worker should return SUCCESS", ListenableWorker.Result.success(), result);
         // SMS manager's canSendSms() will return false due to missing phone
     }
+
+    /**
+     * Test 5: schedule() enqueues the next reminder bucket for users with reminders on.
+     */
+    @Test
+    public void test_schedule_withReminderUser_enqueuesNextRun() throws Exception {
+        // ARRANGE
+        userPreferenceDAO.setPreference(testUserId, SMSNotificationManager.KEY_REMINDER_TIME, "18:30");
+
+        // ACT
+        DailyReminderWorker.schedule(context);
+
+        // ASSERT
+        List<WorkInfo> work = WorkManager.getInstance(context)
+                .getWorkInfosForUniqueWork(DailyReminderWorker.UNIQUE_WORK_NAME).get();
+        assertEquals(1, work.size());
+        assertEquals(WorkInfo.State.ENQUEUED, work.get(0).getState());
+    }
+
+    /**
+     * Test 6: schedule() leaves nothing pending once no user has reminders on.
+     */
+    @Test
+    public void test_schedule_withNoReminderUsers_cancelsPendingRun() throws Exception {
+        // ARRANGE
+        DailyReminderWorker.schedule(context);
+        userPreferenceDAO.setPreference(testUserId, SMSNotificationManager.KEY_REMINDER_ENABLED, "false");
+
+        // ACT
+        DailyReminderWorker.schedule(context);
+
+        // ASSERT
+        for (WorkInfo info : WorkManager.getInstance(context)
+                .getWorkInfosForUniqueWork(DailyReminderWorker.UNIQUE_WORK_NAME).get()) {
+            assertTrue(info.getState().isFinished());
+        }
+    }
+
+    /**
+     * Test 7: A run whose DAO throws still succeeds and leaves the next run enqueued.
+     */
+    @Test
+    public void test_doWork_daoThrows_keepsNextRunEnqueued() throws Exception {
+        // ARRANGE
+        UserPreferenceDAO failingDAO = new UserPreferenceDAO(dbHelper) {
+            @Override
+            public Map<Long, String> getReminderRecipients(LocalDate date, String dueBefore) {
+                throw new SQLiteException("disk I/O error");
+            }
+        };
+        DailyReminderWorker worker = TestListenableWorkerBuilder
+                .from(context, DailyReminderWorker.class)
+                .setWorkerFactory(new WorkerFactory() {
+                    @Override
+                    public ListenableWorker createWorker(Context appContext, String workerClassName,
+                                                         WorkerParameters params) {
+                        return new DailyReminderWorker(appContext, params, failingDAO);
+                    }
+                })
+                .build();
+
+        // ACT
+        ListenableWorker.Result result = worker.doWork();
+
+        // ASSERT
+        assertEquals("Worker should return SUCCESS", ListenableWorker.Result.success(), result);
+        List<WorkInfo> work = WorkManager.getInstance(context)
+                .getWorkInfosForUniqueWork(DailyReminderWorker.UNIQUE_WORK_NAME).get();
+        assertEquals(1, work.size());
+        assertEquals(WorkInfo.State.ENQUEUED, work.get(0).getState());
+    }
 }
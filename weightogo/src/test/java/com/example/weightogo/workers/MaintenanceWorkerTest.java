@@ -0,0 +1,128 @@
+package com.example.weightogo.workers;
+
+import static com.example.weightogo.database.WeightEntryFixtures.insertEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import androidx.work.ListenableWorker;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.testing.TestListenableWorkerBuilder;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import com.example.weightogo.database.DatabaseException;
+import com.example.weightogo.database.DuplicateUsernameException;
+import com.example.weightogo.database.UserDAO;
+import com.example.weightogo.database.UserPreferenceDAO;
+import com.example.weightogo.database.WeighToGoDBHelper;
+import com.example.weightogo.database.WeightEntryDAO;
+import com.example.weightogo.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Unit tests for MaintenanceWorker.
+ * Tests a run's reported output and the unique periodic scheduling.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class MaintenanceWorkerTest {
+
+    private Context context;
+    private WeighToGoDBHelper dbHelper;
+    private UserDAO userDAO;
+    private WeightEntryDAO weightEntryDAO;
+    private long testUserId;
+
+    @Before
+    public void setUp() throws DuplicateUsernameException, DatabaseException {
+        context = RuntimeEnvironment.getApplication();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context);
+        dbHelper = WeighToGoDBHelper.getInstance(context);
+        userDAO = new UserDAO(dbHelper);
+        weightEntryDAO = new WeightEntryDAO(dbHelper);
+
+        User testUser = new User();
+        testUser.setUsername("maint_testuser_" + System.currentTimeMillis());
+        testUser.setPasswordHash("test_hash");
+        testUser.setSalt("test_salt");
+        testUser.setPasswordAlgorithm("SHA256");
+        testUser.setCreatedAt(LocalDateTime.now());
+        testUser.setUpdatedAt(LocalDateTime.now());
+        testUser.setActive(true);
+        testUserId = userDAO.insertUser(testUser);
+        assertTrue("Test user should be created", testUserId > 0);
+    }
+
+    @After
+    public void tearDown() {
+        if (testUserId > 0) {
+            userDAO.deleteUser(testUserId);
+        }
+    }
+
+    @Test
+    public void test_doWork_withExpiredDeletedEntry_reportsPurgedRows() {
+        // ARRANGE
+        long weightId = insertEntry(weightEntryDAO, testUserId, LocalDate.now().minusDays(90));
+        weightEntryDAO.deleteWeightEntry(weightId);
+        dbHelper.getWritableDatabase().execSQL(
+                "UPDATE daily_weights SET updated_at = ? WHERE weight_id = ?",
+                new Object[]{LocalDateTime.now().minusDays(MaintenanceWorker.RETENTION_DAYS + 1).toString(), weightId});
+
+        MaintenanceWorker worker = TestListenableWorkerBuilder.from(context, MaintenanceWorker.class).build();
+
+        // ACT
+        ListenableWorker.Result result = worker.doWork();
+
+        // ASSERT
+        assertTrue(result instanceof ListenableWorker.Result.Success);
+        assertEquals(1, result.getOutputData().getInt(MaintenanceWorker.KEY_ROWS_PURGED, -1));
+        assertTrue(result.getOutputData().getLong(MaintenanceWorker.KEY_BYTES_RECLAIMED, -1) >= 0);
+        assertNull(weightEntryDAO.getWeightEntryById(weightId));
+    }
+
+    @Test
+    public void test_doWork_withOptedInUser_reportsArchivedRows() {
+        // ARRANGE
+        new UserPreferenceDAO(dbHelper).setArchiveHorizonMonths(testUserId, 12);
+        insertEntry(weightEntryDAO, testUserId, LocalDate.now().minusYears(3));
+        insertEntry(weightEntryDAO, testUserId, LocalDate.now());
+
+        MaintenanceWorker worker = TestListenableWorkerBuilder.from(context, MaintenanceWorker.class).build();
+
+        // ACT
+        ListenableWorker.Result result = worker.doWork();
+
+        // ASSERT
+        assertTrue(result instanceof ListenableWorker.Result.Success);
+        assertEquals(1, result.getOutputData().getInt(MaintenanceWorker.KEY_ROWS_ARCHIVED, -1));
+        assertEquals(2, weightEntryDAO.getWeightEntriesForUser(testUserId).size());
+    }
+
+    @Test
+    public void test_schedule_calledTwice_keepsOnePeriodicWork() throws Exception {
+        // ACT
+        MaintenanceWorker.schedule(context);
+        MaintenanceWorker.schedule(context);
+
+        // ASSERT
+        List<WorkInfo> work = WorkManager.getInstance(context)
+                .getWorkInfosForUniqueWork(MaintenanceWorker.UNIQUE_WORK_NAME).get();
+        assertEquals(1, work.size());
+        assertEquals(WorkInfo.State.ENQUEUED, work.get(0).getState());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.weightogo.workers;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ReminderBuckets.
+ * Covers bucket boundaries, next-run selection and DST handling.
+ */
+public class ReminderBucketsTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    /**
+     * Test 1: times map to 15-minute buckets and bounds are the next bucket's start
+     */
+    @Test
+    public void test_bucketOf_andBound_coverFifteenMinutes() {
+        // ASSERT
+        assertEquals(36, ReminderBuckets.bucketOf(LocalTime.of(9, 0)));
+        assertEquals(36, ReminderBuckets.bucketOf(LocalTime.of(9, 14)));
+        assertEquals(37, ReminderBuckets.bucketOf(LocalTime.of(9, 15)));
+        assertEquals("09:15", ReminderBuckets.bucketEndBound(36));
+        assertEquals("24:00", ReminderBuckets.bucketEndBound(ReminderBuckets.BUCKETS_PER_DAY - 1));
+    }
+
+    /**
+     * Test 2: users sharing a bucket produce one bucket; bad values fall back to the default
+     */
+    @Test
+    public void test_bucketsOf_groupsTimesAndDefaultsMalformed() {
+        // ACT
+        SortedSet<Integer> buckets = ReminderBuckets.bucketsOf(Arrays.asList("07:00", "07:10", "garbage", "18:45"));
+
+        // ASSERT
+        assertEquals(new TreeSet<>(Arrays.asList(28, 36, 75)), buckets);
+    }
+
+    /**
+     * Test 3: next run is the next non-empty bucket today, else the first one tomorrow
+     */
+    @Test
+    public void test_nextRun_picksNextBucketOrRollsOver() {
+        // ARRANGE
+        SortedSet<Integer> buckets = new TreeSet<>(Arrays.asList(28, 75));
+        ZonedDateTime morning = ZonedDateTime.of(2024, 1, 10, 7, 0, 30, 0, NEW_YORK);
+        ZonedDateTime night = ZonedDateTime.of(2024, 1, 10, 20, 0, 0, 0, NEW_YORK);
+
+        // ACT & ASSERT
+        assertEquals(ZonedDateTime.of(2024, 1, 10, 18, 45, 0, 0, NEW_YORK), ReminderBuckets.nextRun(morning, buckets));
+        assertEquals(ZonedDateTime.of(2024, 1, 11, 7, 0, 0, 0, NEW_YORK), ReminderBuckets.nextRun(night, buckets));
+        assertNull(ReminderBuckets.nextRun(morning, Collections.emptySortedSet()));
+    }
+
+    /**
+     * Test 4: a bucket inside the spring-forward gap runs just after the gap
+     */
+    @Test
+    public void test_nextRun_insideDstGap_shiftsForward() {
+        // ARRANGE - 2024-03-10 02:00-03:00 doesn't exist in New York
+        SortedSet<Integer> buckets = new TreeSet<>(Collections.singletonList(
+                ReminderBuckets.bucketOf(LocalTime.of(2, 30))));
+        ZonedDateTime now = ZonedDateTime.of(2024, 3, 10, 1, 0, 0, 0, NEW_YORK);
+
+        // ACT
+        ZonedDateTime next = ReminderBuckets.nextRun(now, buckets);
+
+        // ASSERT
+        assertEquals(LocalDate.of(2024, 3, 10), next.toLocalDate());
+        assertEquals(LocalTime.of(3, 30), next.toLocalTime());
+        assertEquals("Wall clock skips an hour", 90, Duration.between(now, next).toMinutes());
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.weightogo.workers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Activity;
+import android.content.Context;
+import android.telephony.SmsManager;
+
+import androidx.work.ListenableWorker;
+import androidx.work.testing.TestListenableWorkerBuilder;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import com.example.weightogo.database.AchievementDAO;
+import com.example.weightogo.database.SmsOutboxDAO;
+import com.example.weightogo.database.UserDAO;
+import com.example.weightogo.database.UserPreferenceDAO;
+import com.example.weightogo.database.WeighToGoDBHelper;
+import com.example.weightogo.models.Achievement;
+import com.example.weightogo.models.AchievementType;
+import com.example.weightogo.models.SmsOutboxMessage;
+import com.example.weightogo.models.User;
+import com.example.weightogo.utils.SMSNotificationManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for SmsOutboxWorker.
+ *
+ * Tests:
+ * - Exponential backoff delays and cap
+ * - Messages whose alert was turned off are dropped, not retried
+ * - Failures are retried until MAX_ATTEMPTS, then marked FAILED
+ * - Multipart sends count as sent only once every part succeeded
+ *
+ * Uses WorkManager testing library for Worker testing.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 30)
+public class SmsOutboxWorkerTest {
+
+    private Context context;
+    private UserDAO userDAO;
+    private UserPreferenceDAO userPreferenceDAO;
+    private AchievementDAO achievementDAO;
+    private SmsOutboxDAO smsOutboxDAO;
+    private long testUserId;
+
+    @Before
+    public void setUp() throws Exception {
+        context = RuntimeEnvironment.getApplication();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context);
+
+        WeighToGoDBHelper dbHelper = WeighToGoDBHelper.getInstance(context);
+        userDAO = new UserDAO(dbHelper);
+        userPreferenceDAO = new UserPreferenceDAO(dbHelper);
+        achievementDAO = new AchievementDAO(dbHelper);
+        smsOutboxDAO = new SmsOutboxDAO(dbHelper);
+
+        User testUser = new User();
+        testUser.setUsername("outbox_testuser_" + System.currentTimeMillis());
+        testUser.setPasswordHash("test_hash");
+        testUser.setSalt("test_salt");
+        testUser.setPasswordAlgorithm("SHA256");
+        testUser.setPhoneNumber("+12025551234");
+        testUser.setCreatedAt(LocalDateTime.now());
+        testUser.setUpdatedAt(LocalDateTime.now());
+        testUser.setActive(true);
+
+        testUserId = userDAO.insertUser(testUser);
+        assertTrue("Test user should be created", testUserId > 0);
+    }
+
+    @After
+    public void tearDown() {
+        if (testUserId > 0) {
+            userDAO.deleteUser(testUserId);
+        }
+    }
+
+    @Test
+    public void test_backoffMillis_doublesPerAttemptAndCaps() {
+        // ASSERT
+        assertEquals(SmsOutboxWorker.BASE_BACKOFF_MILLIS, SmsOutboxWorker.backoffMillis(1));
+        assertEquals(SmsOutboxWorker.BASE_BACKOFF_MILLIS * 2, SmsOutboxWorker.backoffMillis(2));
+        assertEquals(SmsOutboxWorker.BASE_BACKOFF_MILLIS * 8, SmsOutboxWorker.backoffMillis(4));
+        assertEquals(SmsOutboxWorker.MAX_BACKOFF_MILLIS, SmsOutboxWorker.backoffMillis(30));
+    }
+
+    @Test
+    public void test_doWork_withSmsDisabled_dropsQueuedMessage() {
+        // ARRANGE
+        userPreferenceDAO.setPreference(testUserId, SMSNotificationManager.KEY_SMS_ENABLED, "false");
+        long outboxId = enqueueOne();
+
+        // ACT
+        ListenableWorker.Result result = TestListenableWorkerBuilder
+                .from(context, SmsOutboxWorker.class)
+                .build()
+                .doWork();
+
+        // ASSERT
+        assertEquals(ListenableWorker.Result.success(), result);
+        assertNull(smsOutboxDAO.getMessage(outboxId));
+    }
+
+    @Test
+    public void test_doWork_withEmptyOutbox_succeeds() {
+        // ACT
+        ListenableWorker.Result result = TestListenableWorkerBuilder
+                .from(context, SmsOutboxWorker.class)
+                .build()
+                .doWork();
+
+        // ASSERT
+        assertEquals(ListenableWorker.Result.success(), result);
+    }
+
+    @Test
+    public void test_recordFailure_belowMaxAttempts_schedulesRetry() {
+        // ARRANGE
+        long outboxId = enqueueOne();
+        smsOutboxDAO.claimForSending(outboxId);
+
+        // ACT
+        SmsOutboxWorker.recordFailure(smsOutboxDAO, outboxId, 1, "radio off");
+
+        // ASSERT
+        SmsOutboxMessage message = smsOutboxDAO.getMessage(outboxId);
+        assertEquals(SmsOutboxMessage.STATUS_PENDING, message.getStatus());
+        assertTrue(message.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    public void test_recordFailure_atMaxAttempts_marksFailed() {
+        // ARRANGE
+        long outboxId = enqueueOne();
+        smsOutboxDAO.claimForSending(outboxId);
+
+        // ACT
+        SmsOutboxWorker.recordFailure(smsOutboxDAO, outboxId, SmsOutboxWorker.MAX_ATTEMPTS, "no service");
+
+        // ASSERT
+        assertEquals(SmsOutboxMessage.STATUS_FAILED, smsOutboxDAO.getMessage(outboxId).getStatus());
+        assertNull(smsOutboxDAO.getNextAttemptTime());
+    }
+
+    @Test
+    public void test_sentReceiverHandleResult_withOk_marksMessagesSentAndAchievementsNotified() {
+        // ARRANGE - two messages merged into one SMS
+        long firstId = enqueueOne();
+        smsOutboxDAO.claimForSending(firstId);
+        long secondId = enqueueOne();
+        smsOutboxDAO.claimForSending(secondId);
+
+        // ACT
+        int updated = SmsSentReceiver.handleResult(context, new long[]{firstId, secondId}, Activity.RESULT_OK);
+
+        // ASSERT
+        assertEquals(2, updated);
+        for (long outboxId : new long[]{firstId, secondId}) {
+            SmsOutboxMessage message = smsOutboxDAO.getMessage(outboxId);
+            assertEquals(SmsOutboxMessage.STATUS_SENT, message.getStatus());
+            assertTrue(achievementDAO.getAchievementById(message.getAchievementId()).isNotified());
+        }
+    }
+
+    @Test
+    public void test_sentReceiverHandleResult_withError_returnsMessagesToPending() {
+        // ARRANGE
+        long outboxId = enqueueOne();
+        smsOutboxDAO.claimForSending(outboxId);
+
+        // ACT
+        int updated = SmsSentReceiver.handleResult(context, new long[]{outboxId}, SmsManager.RESULT_ERROR_NO_SERVICE);
+
+        // ASSERT
+        assertEquals(1, updated);
+        SmsOutboxMessage message = smsOutboxDAO.getMessage(outboxId);
+        assertEquals(SmsOutboxMessage.STATUS_PENDING, message.getStatus());
+        assertFalse(achievementDAO.getAchievementById(message.getAchievementId()).isNotified());
+    }
+
+    @Test
+    public void test_sentReceiverCollectPart_withAllPartsOk_returnsOkOnLastPart() {
+        // ACT
+        Integer first = SmsSentReceiver.collectPart(101, 3, Activity.RESULT_OK);
+        Integer second = SmsSentReceiver.collectPart(101, 3, Activity.RESULT_OK);
+        Integer third = SmsSentReceiver.collectPart(101, 3, Activity.RESULT_OK);
+
+        // ASSERT
+        assertNull(first);
+        assertNull(second);
+        assertEquals(Integer.valueOf(Activity.RESULT_OK), third);
+    }
+
+    @Test
+    public void test_sentReceiverCollectPart_withEarlierPartFailed_neverReturnsOk() {
+        // ACT
+        Integer first = SmsSentReceiver.collectPart(102, 3, SmsManager.RESULT_ERROR_NO_SERVICE);
+        Integer second = SmsSentReceiver.collectPart(102, 3, Activity.RESULT_OK);
+        Integer third = SmsSentReceiver.collectPart(102, 3, Activity.RESULT_OK);
+
+        // ASSERT
+        assertEquals(Integer.valueOf(SmsManager.RESULT_ERROR_NO_SERVICE), first);
+        assertNull(second);
+        assertNull(third);
+    }
+
+    @Test
+    public void test_sentReceiverCollectPart_withSinglePart_returnsResultAsIs() {
+        // ASSERT
+        assertEquals(Integer.valueOf(SmsManager.RESULT_ERROR_RADIO_OFF),
+                SmsSentReceiver.collectPart(103, 1, SmsManager.RESULT_ERROR_RADIO_OFF));
+    }
+
+    private long enqueueOne() {
+        Achievement achievement = new Achievement();
+        achievement.setUserId(testUserId);
+        achievement.setAchievementType(AchievementType.MILESTONE_5);
+        achievement.setValue(5.0);
+        achievement.setAchievedAt(LocalDateTime.now());
+        achievement.setNotified(false);
+        long achievementId = achievementDAO.insertAchievement(achievement);
+        assertTrue("Achievement should be created", achievementId > 0);
+        achievement.setAchievementId(achievementId);
+
+        assertEquals(1, smsOutboxDAO.enqueueAchievements(Collections.singletonList(achievement)));
+        List<SmsOutboxMessage> due = smsOutboxDAO.getDueMessages(LocalDateTime.now().plusSeconds(1), 1);
+        return due.get(0).getOutboxId();
+    }
+}